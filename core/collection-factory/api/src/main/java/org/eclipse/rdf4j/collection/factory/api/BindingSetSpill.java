@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.collection.factory.api;
+
+import java.util.Iterator;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.annotation.InternalUseOnly;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * An append-only sequence of binding sets that is kept outside of the heap, typically in a temporary file. Operators
+ * that exceed their memory budget, such as hash joins and GROUP BY, write their intermediate solutions to spills and
+ * read them back one partition at a time.
+ * <p>
+ * The binding sets that are read back are equal to the ones that were added, but they are new objects that may be of a
+ * different class. Closing the spill releases its resources, including the iterators that are still open.
+ */
+@InternalUseOnly
+@Experimental
+public interface BindingSetSpill extends AutoCloseable {
+
+	/**
+	 * Appends a binding set to the spill.
+	 */
+	void add(BindingSet bindingSet) throws QueryEvaluationException;
+
+	/**
+	 * @return the number of binding sets that were added
+	 */
+	long size();
+
+	/**
+	 * Reads the binding sets in the order in which they were added. The iterator reflects the binding sets that were
+	 * added before it was created.
+	 */
+	Iterator<BindingSet> iterator() throws QueryEvaluationException;
+
+	@Override
+	void close() throws QueryEvaluationException;
+}
@@ -20,14 +20,17 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
 
+import org.eclipse.rdf4j.collection.factory.impl.FileBindingSetSpill;
 import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.annotation.InternalUseOnly;
 import org.eclipse.rdf4j.common.exception.RDF4JException;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
 
 /**
  * A Factory that may generate optimised and/or disk based collections
@@ -99,6 +102,20 @@ public interface CollectionFactory extends AutoCloseable {
 	public BindingSetKey createBindingSetKey(BindingSet bindingSet, List<Function<BindingSet, Value>> getValues,
 			ToIntFunction<BindingSet> hashOfBindingSetCalculator);
 
+	/**
+	 * Creates a spill to which operators that exceed their memory budget write their intermediate solutions. The
+	 * default implementation writes the binding sets to a temporary file, a store may override this to write them in a
+	 * more compact form, e.g. by the internal IDs of their values.
+	 *
+	 * @param bindingSetFactory creates the binding sets into which the spilled binding sets are read back
+	 * @return a new, empty spill that must be closed by the caller
+	 */
+	@InternalUseOnly
+	@Experimental
+	default BindingSetSpill createBindingSetSpill(Supplier<MutableBindingSet> bindingSetFactory) {
+		return new FileBindingSetSpill(bindingSetFactory);
+	}
+
 	@InternalUseOnly
 	@Experimental
 	private byte[] valueIntoByteArray(Value value) {
@@ -136,12 +153,26 @@ public interface CollectionFactory extends AutoCloseable {
 	default int hashAValue(Function<BindingSet, Value> getValue, int nextHash, BindingSet bs) {
 		Value value = getValue.apply(bs);
 		if (value != null) {
-			return 31 * nextHash + value.hashCode();
+			return 31 * nextHash + hashValue(value);
 		} else {
 			return nextHash;
 		}
 	}
 
+	/**
+	 * Hashes a single value. Values that are equal must have the same hash, but the hash only needs to be valid in
+	 * context of this collection/factory storage layer. A store may for example hash by its internal value IDs to avoid
+	 * materializing the lexical form of its values.
+	 *
+	 * @param value the value to hash, never null
+	 * @return the hash of the value
+	 */
+	@InternalUseOnly
+	@Experimental
+	default int hashValue(Value value) {
+		return value.hashCode();
+	}
+
 	/**
 	 * Generate a method that calculates a hash code that is valid in context of a single store implementation and
 	 * QueryExecutionContext.
@@ -162,7 +193,7 @@ public interface CollectionFactory extends AutoCloseable {
 			ToIntFunction<BindingSet> hashFirstValue = (bs) -> {
 				Value value = getFirstValue.apply(bs);
 				if (value != null) {
-					return 31 + value.hashCode();
+					return 31 + hashValue(value);
 				}
 				return 1;
 			};
@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.collection.factory.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import org.eclipse.rdf4j.collection.factory.api.BindingSetSpill;
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * A {@link BindingSetSpill} that writes the binding sets to a temporary file, which is created when the first binding
+ * set is added and deleted when the spill is closed. Values are stored by their lexical form, binding names are written
+ * once per file and referenced by their index afterwards.
+ */
+@Experimental
+public class FileBindingSetSpill implements BindingSetSpill {
+
+	private static final byte IRI_VALUE = 1;
+	private static final byte BNODE_VALUE = 2;
+	private static final byte TYPED_LITERAL_VALUE = 3;
+	private static final byte LANGUAGE_LITERAL_VALUE = 4;
+	private static final byte TRIPLE_VALUE = 5;
+
+	private static final int NEW_NAME = -1;
+
+	private final Supplier<MutableBindingSet> bindingSetFactory;
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final Map<String, Integer> nameIndexes = new HashMap<>();
+
+	private final List<DataInputStream> readers = new ArrayList<>();
+
+	private File file;
+
+	private DataOutputStream out;
+
+	private long size;
+
+	private boolean closed;
+
+	/**
+	 * @param bindingSetFactory creates the binding sets into which the spilled binding sets are read
+	 */
+	public FileBindingSetSpill(Supplier<MutableBindingSet> bindingSetFactory) {
+		this.bindingSetFactory = bindingSetFactory;
+	}
+
+	@Override
+	public synchronized void add(BindingSet bindingSet) throws QueryEvaluationException {
+		if (closed) {
+			throw new IllegalStateException("Spill is closed");
+		}
+		try {
+			if (out == null) {
+				file = File.createTempFile("rdf4j-spill", ".bin");
+				out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			}
+			int count = 0;
+			for (Binding binding : bindingSet) {
+				if (binding.getValue() != null) {
+					count++;
+				}
+			}
+			out.writeInt(count);
+			for (Binding binding : bindingSet) {
+				if (binding.getValue() != null) {
+					writeName(binding.getName());
+					writeValue(binding.getValue());
+				}
+			}
+			size++;
+		} catch (IOException e) {
+			throw new QueryEvaluationException("Unable to spill binding set to disk", e);
+		}
+	}
+
+	@Override
+	public synchronized long size() {
+		return size;
+	}
+
+	@Override
+	public synchronized Iterator<BindingSet> iterator() throws QueryEvaluationException {
+		if (closed) {
+			throw new IllegalStateException("Spill is closed");
+		}
+		if (size == 0) {
+			return Collections.emptyIterator();
+		}
+		try {
+			out.flush();
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			readers.add(in);
+			return new SpillIterator(in, size);
+		} catch (IOException e) {
+			throw new QueryEvaluationException("Unable to read spilled binding sets", e);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws QueryEvaluationException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			for (DataInputStream in : readers) {
+				in.close();
+			}
+			readers.clear();
+			if (out != null) {
+				out.close();
+			}
+		} catch (IOException e) {
+			throw new QueryEvaluationException(e);
+		} finally {
+			if (file != null) {
+				try {
+					Files.deleteIfExists(file.toPath());
+				} catch (IOException e) {
+					file.deleteOnExit();
+				}
+			}
+		}
+	}
+
+	private void writeName(String name) throws IOException {
+		Integer index = nameIndexes.get(name);
+		if (index == null) {
+			nameIndexes.put(name, nameIndexes.size());
+			out.writeInt(NEW_NAME);
+			writeString(name);
+		} else {
+			out.writeInt(index);
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (value.isIRI()) {
+			out.writeByte(IRI_VALUE);
+			writeString(value.stringValue());
+		} else if (value.isBNode()) {
+			out.writeByte(BNODE_VALUE);
+			writeString(((BNode) value).getID());
+		} else if (value.isLiteral()) {
+			Literal literal = (Literal) value;
+			if (literal.getLanguage().isPresent()) {
+				out.writeByte(LANGUAGE_LITERAL_VALUE);
+				writeString(literal.getLabel());
+				writeString(literal.getLanguage().get());
+			} else {
+				out.writeByte(TYPED_LITERAL_VALUE);
+				writeString(literal.getLabel());
+				writeString(literal.getDatatype().stringValue());
+			}
+		} else if (value.isTriple()) {
+			Triple triple = (Triple) value;
+			out.writeByte(TRIPLE_VALUE);
+			writeValue(triple.getSubject());
+			writeValue(triple.getPredicate());
+			writeValue(triple.getObject());
+		} else {
+			throw new IllegalArgumentException("Unsupported value: " + value);
+		}
+	}
+
+	private void writeString(String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private Value readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case IRI_VALUE:
+			return vf.createIRI(readString(in));
+		case BNODE_VALUE:
+			return vf.createBNode(readString(in));
+		case TYPED_LITERAL_VALUE: {
+			String label = readString(in);
+			return vf.createLiteral(label, vf.createIRI(readString(in)));
+		}
+		case LANGUAGE_LITERAL_VALUE: {
+			String label = readString(in);
+			return vf.createLiteral(label, readString(in));
+		}
+		case TRIPLE_VALUE: {
+			Resource subject = (Resource) readValue(in);
+			IRI predicate = (IRI) readValue(in);
+			return vf.createTriple(subject, predicate, readValue(in));
+		}
+		default:
+			throw new IOException("Unknown value type " + type);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private class SpillIterator implements Iterator<BindingSet> {
+
+		private final DataInputStream in;
+
+		private final List<String> names = new ArrayList<>();
+
+		private long remaining;
+
+		SpillIterator(DataInputStream in, long size) {
+			this.in = in;
+			this.remaining = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public BindingSet next() {
+			if (remaining <= 0) {
+				throw new NoSuchElementException();
+			}
+			try {
+				MutableBindingSet bindingSet = bindingSetFactory.get();
+				int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					int index = in.readInt();
+					String name;
+					if (index == NEW_NAME) {
+						name = readString(in);
+						names.add(name);
+					} else {
+						name = names.get(index);
+					}
+					bindingSet.setBinding(name, readValue(in));
+				}
+				if (--remaining == 0) {
+					release();
+				}
+				return bindingSet;
+			} catch (EOFException e) {
+				throw new QueryEvaluationException("Spill file is truncated", e);
+			} catch (IOException e) {
+				throw new QueryEvaluationException("Unable to read spilled binding sets", e);
+			}
+		}
+
+		private void release() throws IOException {
+			synchronized (FileBindingSetSpill.this) {
+				readers.remove(in);
+			}
+			in.close();
+		}
+	}
+}
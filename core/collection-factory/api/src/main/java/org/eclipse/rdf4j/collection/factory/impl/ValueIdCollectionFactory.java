@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.collection.factory.impl;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * A {@link DefaultCollectionFactory} that hashes values by the internal ID that a store assigned to them. Looking up
+ * the ID of a value that was read from the store is typically just a field access, so group keys can be hashed without
+ * resolving or hashing the lexical form of the values.
+ * <p>
+ * Values that the store does not know, e.g. values computed during query evaluation, are hashed by their
+ * {@link Value#hashCode()}. Because the store may learn about such a value while a query is running, these values are
+ * remembered and keep their lexical hash for the lifetime of this factory, which keeps the hash consistent with
+ * {@link Value#equals(Object)}.
+ */
+@Experimental
+public class ValueIdCollectionFactory extends DefaultCollectionFactory {
+
+	/**
+	 * Returned by the ID function for values that are unknown to the store.
+	 */
+	public static final long UNKNOWN_ID = -1;
+
+	private final ToLongFunction<Value> valueIds;
+
+	private final Set<Value> unknownValues = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param valueIds returns the ID of a value in the store, or {@link #UNKNOWN_ID} if the store does not contain the
+	 *                 value. Must return the same ID for equal values.
+	 */
+	public ValueIdCollectionFactory(ToLongFunction<Value> valueIds) {
+		this.valueIds = valueIds;
+	}
+
+	@Override
+	public int hashValue(Value value) {
+		if (!unknownValues.isEmpty() && unknownValues.contains(value)) {
+			return value.hashCode();
+		}
+		long id = valueIds.applyAsLong(value);
+		if (id == UNKNOWN_ID) {
+			unknownValues.add(value);
+			return value.hashCode();
+		}
+		return Long.hashCode(id);
+	}
+}
@@ -22,14 +22,17 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 
 import org.eclipse.rdf4j.collection.factory.api.BindingSetKey;
+import org.eclipse.rdf4j.collection.factory.api.BindingSetSpill;
 import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
 import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
 import org.eclipse.rdf4j.common.exception.RDF4JException;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
 
@@ -179,6 +182,16 @@ public class MapDbCollectionFactory implements CollectionFactory {
 		return delegate.createBindingSetKey(bindingSet, getValues, hashOfBindingSetCalculator);
 	}
 
+	@Override
+	public int hashValue(Value value) {
+		return delegate.hashValue(value);
+	}
+
+	@Override
+	public BindingSetSpill createBindingSetSpill(Supplier<MutableBindingSet> bindingSetFactory) {
+		return delegate.createBindingSetSpill(bindingSetFactory);
+	}
+
 	protected static final class CommitingSet<T> extends AbstractSet<T> {
 		private final Set<T> wrapped;
 		private final long iterationCacheSyncThreshold;
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.common.transaction;
+
+import java.util.Objects;
+
+/**
+ * The Query Evaluation Memory Budget sets the approximate number of bytes that a memory intensive operator of the
+ * SPARQL query engine, such as a hash join or GROUP BY, may hold in memory for the queries evaluated within a
+ * transaction. Operators that exceed the budget spill their intermediate solutions to disk instead of exhausting the
+ * heap. It overrides the budget configured for the repository. Stores that do not support spilling ignore this setting.
+ */
+public final class QueryEvaluationMemoryBudget implements TransactionSetting {
+
+	/**
+	 * No memory budget, operators keep all their intermediate solutions in memory.
+	 */
+	public static final QueryEvaluationMemoryBudget UNLIMITED = new QueryEvaluationMemoryBudget(0);
+
+	private final long bytes;
+
+	private QueryEvaluationMemoryBudget(long bytes) {
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @param bytes the approximate number of bytes per operator, 0 for no limit
+	 * @return a setting for the supplied budget
+	 */
+	public static QueryEvaluationMemoryBudget of(long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("Memory budget must not be negative, was " + bytes);
+		}
+		return bytes == 0 ? UNLIMITED : new QueryEvaluationMemoryBudget(bytes);
+	}
+
+	/**
+	 * @return the approximate number of bytes per operator, 0 for no limit
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	@Override
+	public String getValue() {
+		return Long.toString(bytes);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof QueryEvaluationMemoryBudget)) {
+			return false;
+		}
+		return bytes == ((QueryEvaluationMemoryBudget) o).bytes;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(bytes);
+	}
+
+	@Override
+	public String toString() {
+		return "QueryEvaluationMemoryBudget{" + bytes + "}";
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.common.transaction;
+
+import java.util.Objects;
+
+/**
+ * The Query Evaluation Parallelism sets the number of concurrent tasks that the SPARQL query engine may use for
+ * parallel operators, such as hash joins and GROUP BY, for the queries evaluated within a transaction. It overrides the
+ * parallelism configured for the repository. Stores that do not support parallel evaluation ignore this setting.
+ */
+public final class QueryEvaluationParallelism implements TransactionSetting {
+
+	/**
+	 * Sequential evaluation.
+	 */
+	public static final QueryEvaluationParallelism SEQUENTIAL = new QueryEvaluationParallelism(1);
+
+	private final int parallelism;
+
+	private QueryEvaluationParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @param parallelism the number of concurrent tasks, 1 for sequential evaluation
+	 * @return a setting for the supplied degree of parallelism
+	 */
+	public static QueryEvaluationParallelism of(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		return parallelism == 1 ? SEQUENTIAL : new QueryEvaluationParallelism(parallelism);
+	}
+
+	/**
+	 * @return the number of concurrent tasks
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	@Override
+	public String getValue() {
+		return Integer.toString(parallelism);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof QueryEvaluationParallelism)) {
+			return false;
+		}
+		return parallelism == ((QueryEvaluationParallelism) o).parallelism;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(parallelism);
+	}
+
+	@Override
+	public String toString() {
+		return "QueryEvaluationParallelism{" + parallelism + "}";
+	}
+}
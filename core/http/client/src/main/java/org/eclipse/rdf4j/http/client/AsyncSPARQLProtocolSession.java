@@ -0,0 +1,661 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.client;
+
+import static org.eclipse.rdf4j.http.protocol.Protocol.ACCEPT_PARAM_NAME;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.entity.ContentType;
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.exception.RDF4JException;
+import org.eclipse.rdf4j.http.protocol.Protocol;
+import org.eclipse.rdf4j.http.protocol.UnauthorizedException;
+import org.eclipse.rdf4j.http.protocol.error.ErrorInfo;
+import org.eclipse.rdf4j.http.protocol.error.ErrorType;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.AbstractTupleQueryResultHandler;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryInterruptedException;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.UnsupportedQueryLanguageException;
+import org.eclipse.rdf4j.query.impl.BackgroundGraphResult;
+import org.eclipse.rdf4j.query.resultio.BooleanQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.BooleanQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.BooleanQueryResultParserRegistry;
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.QueryResultParseException;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParserRegistry;
+import org.eclipse.rdf4j.query.resultio.helpers.BackgroundTupleResult;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.ParserConfig;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFParserRegistry;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+import org.eclipse.rdf4j.rio.helpers.ParseErrorLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A non-blocking variant of the {@link SPARQLProtocolSession}, which sends requests to SPARQL endpoints with the
+ * {@link HttpClient} of the JDK. Requests are multiplexed over HTTP/2 connections where the endpoint supports it, and
+ * no thread is held while a request is in flight: every operation immediately returns a {@link CompletableFuture} that
+ * completes when the endpoint has responded.
+ * <p/>
+ * Tuple and graph query results are returned as soon as the response headers have arrived, and are parsed in the
+ * background while the response body is received, see {@link BackgroundTupleResult} and {@link BackgroundGraphResult}.
+ * Alternatively, {@link #publishTupleQuery} streams the solutions of a query to a {@link Flow.Subscriber}, respecting
+ * its demand. Synchronous callers simply {@link CompletableFuture#join() join} the returned future.
+ * <p/>
+ * Failed requests complete the future exceptionally with the same exceptions that are thrown by the
+ * {@link SPARQLProtocolSession}, for example a {@link MalformedQueryException} or an {@link UnauthorizedException}.
+ *
+ * @see SharedHttpClientSessionManager#createAsyncSPARQLProtocolSession(String, String)
+ */
+@Experimental
+public class AsyncSPARQLProtocolSession implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncSPARQLProtocolSession.class);
+
+	/**
+	 * Receives the body of a successful response as a stream that is filled while the bytes arrive, and buffers the
+	 * (usually small) body of any other response to report the error.
+	 */
+	private static final BodyHandler<InputStream> STREAMING = info -> isOK(info.statusCode())
+			? BodySubscribers.ofInputStream()
+			: BodySubscribers.mapping(BodySubscribers.ofByteArray(), ByteArrayInputStream::new);
+
+	/**
+	 * Buffers the complete body of the response, for results that are parsed at once.
+	 */
+	private static final BodyHandler<InputStream> BUFFERED = info -> BodySubscribers
+			.mapping(BodySubscribers.ofByteArray(), ByteArrayInputStream::new);
+
+	private final HttpClient httpClient;
+
+	private final ExecutorService executor;
+
+	private final BackgroundResultExecutor background;
+
+	private final String queryURL;
+
+	private final String updateURL;
+
+	private final int maximumUrlLength;
+
+	private ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+	private final ParserConfig parserConfig = new ParserConfig();
+
+	private TupleQueryResultFormat preferredTQRFormat = TupleQueryResultFormat.SPARQL;
+
+	private BooleanQueryResultFormat preferredBQRFormat = BooleanQueryResultFormat.TEXT;
+
+	private RDFFormat preferredRDFFormat = RDFFormat.TURTLE;
+
+	private Map<String, String> additionalHttpHeaders = Collections.emptyMap();
+
+	private String authorization;
+
+	/**
+	 * Creates a session with a new {@link HttpClient}, see {@link #createHttpClient(ExecutorService)}.
+	 *
+	 * @param queryURL  the URL of the query endpoint
+	 * @param updateURL the URL of the update endpoint
+	 * @param executor  the executor of the HTTP client, which also parses the results in the background
+	 */
+	public AsyncSPARQLProtocolSession(String queryURL, String updateURL, ExecutorService executor) {
+		this(createHttpClient(executor), executor, queryURL, updateURL);
+	}
+
+	/**
+	 * @param httpClient the HTTP client that sends the requests, which may be shared with other sessions
+	 * @param executor   the executor that parses the results in the background
+	 * @param queryURL   the URL of the query endpoint
+	 * @param updateURL  the URL of the update endpoint
+	 */
+	public AsyncSPARQLProtocolSession(HttpClient httpClient, ExecutorService executor, String queryURL,
+			String updateURL) {
+		this.httpClient = Objects.requireNonNull(httpClient, "HTTP client was null");
+		this.executor = Objects.requireNonNull(executor, "Executor service was null");
+		this.background = new BackgroundResultExecutor(executor);
+		if (queryURL == null) {
+			throw new IllegalArgumentException("queryURL must not be null");
+		}
+		if (updateURL == null) {
+			throw new IllegalArgumentException("updateURL must not be null");
+		}
+		this.queryURL = queryURL;
+		this.updateURL = updateURL;
+		this.maximumUrlLength = SPARQLProtocolSession.getConfiguredMaximumUrlLength();
+
+		// parser used for processing server response data should be lenient
+		parserConfig.addNonFatalError(BasicParserSettings.VERIFY_DATATYPE_VALUES);
+		parserConfig.addNonFatalError(BasicParserSettings.VERIFY_LANGUAGE_TAGS);
+	}
+
+	/**
+	 * Creates an {@link HttpClient} that prefers HTTP/2, falling back to HTTP/1.1 for endpoints that do not support it,
+	 * follows redirects and keeps cookies.
+	 *
+	 * @param executor the executor that handles the asynchronous tasks of the client
+	 */
+	public static HttpClient createHttpClient(ExecutorService executor) {
+		return HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.cookieHandler(new CookieManager())
+				.executor(executor)
+				.build();
+	}
+
+	public HttpClient getHttpClient() {
+		return httpClient;
+	}
+
+	public String getQueryURL() {
+		return queryURL;
+	}
+
+	public String getUpdateURL() {
+		return updateURL;
+	}
+
+	public void setValueFactory(ValueFactory valueFactory) {
+		this.valueFactory = valueFactory;
+	}
+
+	public ValueFactory getValueFactory() {
+		return valueFactory;
+	}
+
+	/**
+	 * Gets the configuration of the parsers that process the RDF documents in responses.
+	 */
+	public ParserConfig getParserConfig() {
+		return parserConfig;
+	}
+
+	/**
+	 * Sets the preferred format for encoding tuple query results.
+	 *
+	 * @param format The preferred {@link TupleQueryResultFormat}, or <var>null</var> to indicate no specific format is
+	 *               preferred.
+	 */
+	public void setPreferredTupleQueryResultFormat(TupleQueryResultFormat format) {
+		preferredTQRFormat = format;
+	}
+
+	public TupleQueryResultFormat getPreferredTupleQueryResultFormat() {
+		return preferredTQRFormat;
+	}
+
+	/**
+	 * Sets the preferred format for encoding RDF documents.
+	 *
+	 * @param format The preferred {@link RDFFormat}, or <var>null</var> to indicate no specific format is preferred.
+	 */
+	public void setPreferredRDFFormat(RDFFormat format) {
+		preferredRDFFormat = format;
+	}
+
+	public RDFFormat getPreferredRDFFormat() {
+		return preferredRDFFormat;
+	}
+
+	/**
+	 * Sets the preferred format for encoding boolean query results.
+	 *
+	 * @param format The preferred {@link BooleanQueryResultFormat}, or <var>null</var> to indicate no specific format
+	 *               is preferred.
+	 */
+	public void setPreferredBooleanQueryResultFormat(BooleanQueryResultFormat format) {
+		preferredBQRFormat = format;
+	}
+
+	public BooleanQueryResultFormat getPreferredBooleanQueryResultFormat() {
+		return preferredBQRFormat;
+	}
+
+	/**
+	 * Set additional HTTP headers to be included in every request to the server.
+	 *
+	 * @param additionalHttpHeaders a map containing pairs of header names and values. May be null
+	 */
+	public void setAdditionalHttpHeaders(Map<String, String> additionalHttpHeaders) {
+		if (additionalHttpHeaders == null) {
+			this.additionalHttpHeaders = Collections.emptyMap();
+		} else {
+			this.additionalHttpHeaders = additionalHttpHeaders;
+		}
+	}
+
+	public Map<String, String> getAdditionalHttpHeaders() {
+		return Collections.unmodifiableMap(additionalHttpHeaders);
+	}
+
+	/**
+	 * Set the username and password for authentication with the remote server. Like the {@link SPARQLProtocolSession},
+	 * the credentials are sent preemptively with basic authentication.
+	 *
+	 * @param username the username
+	 * @param password the password
+	 */
+	public void setUsernameAndPassword(String username, String password) {
+		if (username != null && password != null) {
+			logger.debug("Setting username '{}' and password for server at {}.", username, queryURL);
+			String credentials = username + ":" + password;
+			authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+		} else {
+			authorization = null;
+		}
+	}
+
+	/**
+	 * Force closes the results that are still being parsed in the background.
+	 */
+	@Override
+	public void close() {
+		background.close();
+	}
+
+	/*------------------*
+	 * Query evaluation *
+	 *------------------*/
+
+	/**
+	 * Sends a tuple query. The returned future completes as soon as the endpoint starts to respond, with a result that
+	 * is parsed while the response is received.
+	 *
+	 * @param maxQueryTime the maximum time in seconds to wait for the endpoint to start responding, or 0 to wait
+	 *                     indefinitely
+	 */
+	public CompletableFuture<TupleQueryResult> sendTupleQuery(String query, String baseURI, Dataset dataset,
+			int maxQueryTime) {
+		Set<QueryResultFormat> tqrFormats = TupleQueryResultParserRegistry.getInstance().getKeys();
+		if (tqrFormats.isEmpty()) {
+			return CompletableFuture
+					.failedFuture(new RepositoryException("No tuple query result parsers have been registered"));
+		}
+
+		HttpRequest request = getQueryRequest(query, baseURI, dataset, maxQueryTime,
+				SPARQLProtocolSession.getAcceptHeader(tqrFormats, preferredTQRFormat));
+		return send(request, STREAMING).thenApply(response -> {
+			boolean submitted = false;
+			try {
+				TupleQueryResultParser parser = createTupleParser(response, tqrFormats);
+				TupleQueryResult result = background.parse(parser, response.body(), null);
+				submitted = true;
+				return result;
+			} finally {
+				if (!submitted) {
+					closeQuietly(response.body());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Sends a tuple query when a subscriber subscribes to the returned publisher, and streams the solutions of the
+	 * query to the subscriber while the response is received. The response is parsed at the pace of the demand of the
+	 * subscriber, and the request is abandoned when the subscription is cancelled. Every subscriber sends the query
+	 * anew.
+	 *
+	 * @param maxQueryTime the maximum time in seconds to wait for the endpoint to start responding, or 0 to wait
+	 *                     indefinitely
+	 */
+	public Flow.Publisher<BindingSet> publishTupleQuery(String query, String baseURI, Dataset dataset,
+			int maxQueryTime) {
+		return subscriber -> {
+			SubmissionPublisher<BindingSet> publisher = new SubmissionPublisher<>(executor, Flow.defaultBufferSize());
+			publisher.subscribe(subscriber);
+
+			Set<QueryResultFormat> tqrFormats = TupleQueryResultParserRegistry.getInstance().getKeys();
+			if (tqrFormats.isEmpty()) {
+				publisher.closeExceptionally(
+						new RepositoryException("No tuple query result parsers have been registered"));
+				return;
+			}
+
+			HttpRequest request = getQueryRequest(query, baseURI, dataset, maxQueryTime,
+					SPARQLProtocolSession.getAcceptHeader(tqrFormats, preferredTQRFormat));
+			send(request, STREAMING).thenAcceptAsync(response -> {
+				try (InputStream in = response.body()) {
+					TupleQueryResultParser parser = createTupleParser(response, tqrFormats);
+					parser.setQueryResultHandler(new AbstractTupleQueryResultHandler() {
+						@Override
+						public void handleSolution(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+							if (!publisher.hasSubscribers()) {
+								throw new TupleQueryResultHandlerException("subscription cancelled");
+							}
+							// blocks while the buffer of the subscriber is full
+							publisher.submit(bindingSet);
+						}
+					});
+					parser.parseQueryResult(in);
+					publisher.close();
+				} catch (IOException | RuntimeException e) {
+					if (!publisher.hasSubscribers()) {
+						logger.debug("Subscription to the results of {} was cancelled", request.uri());
+						publisher.close();
+					} else if (e instanceof QueryResultParseException) {
+						publisher.closeExceptionally(new RepositoryException("Malformed query result from server", e));
+					} else if (e instanceof IOException) {
+						publisher.closeExceptionally(new RepositoryException(e));
+					} else {
+						publisher.closeExceptionally(e);
+					}
+				}
+			}, executor).exceptionally(e -> {
+				publisher.closeExceptionally(unwrap(e));
+				return null;
+			});
+		};
+	}
+
+	/**
+	 * Sends a graph query. The returned future completes as soon as the endpoint starts to respond, with a result that
+	 * is parsed while the response is received.
+	 *
+	 * @param requireContext whether the result must be serialized in a format that supports contexts
+	 * @param maxQueryTime   the maximum time in seconds to wait for the endpoint to start responding, or 0 to wait
+	 *                       indefinitely
+	 */
+	public CompletableFuture<GraphQueryResult> sendGraphQuery(String query, String baseURI, Dataset dataset,
+			boolean requireContext, int maxQueryTime) {
+		Set<RDFFormat> rdfFormats = RDFParserRegistry.getInstance().getKeys();
+		if (rdfFormats.isEmpty()) {
+			return CompletableFuture.failedFuture(new RepositoryException("No RDF parsers have been registered"));
+		}
+
+		List<String> acceptParams = RDFFormat.getAcceptParams(rdfFormats, requireContext, preferredRDFFormat);
+		HttpRequest request = getQueryRequest(query, baseURI, dataset, maxQueryTime, String.join(", ", acceptParams));
+		return send(request, STREAMING).thenApply(response -> {
+			boolean submitted = false;
+			try {
+				String mimeType = getResponseMIMEType(response);
+				RDFFormat format = RDFFormat.matchMIMEType(mimeType, rdfFormats)
+						.orElseThrow(() -> new RepositoryException(
+								"Server responded with an unsupported file format: " + mimeType));
+				RDFParser parser = Rio.createParser(format, valueFactory);
+				parser.setParserConfig(parserConfig);
+				parser.setParseErrorListener(new ParseErrorLogger());
+
+				Charset charset = null;
+				if (format.hasCharset()) {
+					charset = getResponseCharset(response);
+					if (charset == null) {
+						charset = StandardCharsets.UTF_8;
+					}
+				}
+
+				GraphQueryResult result = background.parse(parser, response.body(), charset,
+						request.uri().toASCIIString(), null);
+				submitted = true;
+				return result;
+			} finally {
+				if (!submitted) {
+					closeQuietly(response.body());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Sends a boolean query. The response is parsed once it has been received completely.
+	 *
+	 * @param maxQueryTime the maximum time in seconds to wait for the endpoint to start responding, or 0 to wait
+	 *                     indefinitely
+	 */
+	public CompletableFuture<Boolean> sendBooleanQuery(String query, String baseURI, Dataset dataset,
+			int maxQueryTime) {
+		Set<QueryResultFormat> booleanFormats = BooleanQueryResultParserRegistry.getInstance().getKeys();
+		if (booleanFormats.isEmpty()) {
+			return CompletableFuture
+					.failedFuture(new RepositoryException("No boolean query result parsers have been registered"));
+		}
+
+		HttpRequest request = getQueryRequest(query, baseURI, dataset, maxQueryTime,
+				SPARQLProtocolSession.getAcceptHeader(booleanFormats, preferredBQRFormat));
+		return send(request, BUFFERED).thenApply(response -> {
+			String mimeType = getResponseMIMEType(response);
+			try {
+				QueryResultFormat format = BooleanQueryResultFormat.matchMIMEType(mimeType, booleanFormats)
+						.orElseThrow(() -> new RepositoryException(
+								"Server responded with an unsupported file format: " + mimeType));
+				BooleanQueryResultParser parser = QueryResultIO.createBooleanParser(format);
+				QueryResultCollector results = new QueryResultCollector();
+				parser.setQueryResultHandler(results);
+				parser.parseQueryResult(response.body());
+				return results.getBoolean();
+			} catch (QueryResultParseException e) {
+				throw new RepositoryException("Malformed query result from server", e);
+			} catch (IOException e) {
+				throw new RepositoryException(e);
+			}
+		});
+	}
+
+	/**
+	 * Sends an update, the returned future completes when the endpoint has executed it.
+	 *
+	 * @param maxExecutionTime the maximum time in seconds to wait for the endpoint to respond, or 0 to wait
+	 *                         indefinitely
+	 */
+	public CompletableFuture<Void> sendUpdate(String update, String baseURI, Dataset dataset, int maxExecutionTime) {
+		List<NameValuePair> params = SPARQLProtocolSession.getProtocolUpdateParameters(update, baseURI, dataset);
+		HttpRequest.Builder builder = newRequest(URI.create(updateURL), maxExecutionTime)
+				.header("Content-Type", Protocol.FORM_MIME_TYPE + "; charset=utf-8")
+				.POST(HttpRequest.BodyPublishers.ofString(URLEncodedUtils.format(params, StandardCharsets.UTF_8)));
+		return send(builder.build(), BUFFERED).thenApply(response -> null);
+	}
+
+	/*-----------------*
+	 * Request sending *
+	 *-----------------*/
+
+	private HttpRequest getQueryRequest(String query, String baseURI, Dataset dataset, int maxQueryTime,
+			String accept) {
+		List<NameValuePair> params = SPARQLProtocolSession.getProtocolQueryParameters(query, baseURI, dataset);
+		URI queryUrlWithParams;
+		try {
+			queryUrlWithParams = new URIBuilder(queryURL).addParameters(params).build();
+		} catch (URISyntaxException e) {
+			throw new IllegalArgumentException(e);
+		}
+
+		HttpRequest.Builder builder;
+		if (queryUrlWithParams.toString().length() > maximumUrlLength) {
+			builder = newRequest(URI.create(queryURL), maxQueryTime)
+					.header("Content-Type", Protocol.FORM_MIME_TYPE + "; charset=utf-8")
+					.POST(HttpRequest.BodyPublishers.ofString(URLEncodedUtils.format(params, StandardCharsets.UTF_8)));
+		} else {
+			builder = newRequest(queryUrlWithParams, maxQueryTime).GET();
+		}
+		return builder.header(ACCEPT_PARAM_NAME, accept).build();
+	}
+
+	private HttpRequest.Builder newRequest(URI uri, int timeout) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+		if (timeout > 0) {
+			builder.timeout(Duration.ofSeconds(timeout));
+		}
+		if (authorization != null) {
+			builder.header("Authorization", authorization);
+		}
+		// functionality to provide custom http headers as required by the applications
+		for (Map.Entry<String, String> additionalHeader : additionalHttpHeaders.entrySet()) {
+			builder.header(additionalHeader.getKey(), additionalHeader.getValue());
+		}
+		return builder;
+	}
+
+	/**
+	 * Sends the request and completes the returned future with the response if the request succeeded, or exceptionally
+	 * with the {@link RDF4JException} that reports the failure.
+	 */
+	private CompletableFuture<HttpResponse<InputStream>> send(HttpRequest request,
+			BodyHandler<InputStream> bodyHandler) {
+		return httpClient.sendAsync(request, bodyHandler).handle((response, e) -> {
+			if (e != null) {
+				Throwable cause = unwrap(e);
+				if (cause instanceof HttpTimeoutException) {
+					throw new QueryInterruptedException(cause);
+				} else if (cause instanceof RDF4JException) {
+					throw (RDF4JException) cause;
+				}
+				throw new RepositoryException(cause);
+			}
+			if (!isOK(response.statusCode())) {
+				throw getException(request, response);
+			}
+			return response;
+		});
+	}
+
+	private static boolean isOK(int httpCode) {
+		return httpCode >= 200 && httpCode < 300;
+	}
+
+	/**
+	 * Maps the failed response to the exception that the {@link SPARQLProtocolSession} throws for it.
+	 */
+	private RuntimeException getException(HttpRequest request, HttpResponse<InputStream> response) {
+		switch (response.statusCode()) {
+		case HttpURLConnection.HTTP_UNAUTHORIZED: // 401
+			return new UnauthorizedException();
+		case HttpURLConnection.HTTP_UNAVAILABLE: // 503
+			return new QueryInterruptedException();
+		case HttpURLConnection.HTTP_NOT_FOUND: // 404
+			// trying to contact a non-SPARQL server?
+			return new RepositoryException(
+					"Request failed with status " + response.statusCode() + ": " + request.uri());
+		default:
+			ErrorInfo errInfo;
+			try (InputStream in = response.body()) {
+				// the body of a failed response is buffered
+				errInfo = ErrorInfo.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				logger.warn("Unable to retrieve error info from server");
+				return new RepositoryException("Unable to retrieve error info from server", e);
+			}
+			logger.warn("Server reports problem: {} (enable debug logging for full details)", errInfo.getErrorType());
+			logger.debug("full error message: {}", errInfo.getErrorMessage());
+			if (errInfo.getErrorType() == ErrorType.MALFORMED_DATA) {
+				return new RDFParseException(errInfo.getErrorMessage());
+			} else if (errInfo.getErrorType() == ErrorType.UNSUPPORTED_FILE_FORMAT) {
+				return new UnsupportedRDFormatException(errInfo.getErrorMessage());
+			} else if (errInfo.getErrorType() == ErrorType.MALFORMED_QUERY) {
+				return new MalformedQueryException(errInfo.getErrorMessage());
+			} else if (errInfo.getErrorType() == ErrorType.UNSUPPORTED_QUERY_LANGUAGE) {
+				return new UnsupportedQueryLanguageException(errInfo.getErrorMessage());
+			} else if (errInfo.toString().length() > 0) {
+				return new RepositoryException(errInfo.toString());
+			} else {
+				return new RepositoryException(
+						"Request failed with status " + response.statusCode() + ": " + request.uri());
+			}
+		}
+	}
+
+	/*-------------------------*
+	 * General utility methods *
+	 *-------------------------*/
+
+	private TupleQueryResultParser createTupleParser(HttpResponse<?> response, Set<QueryResultFormat> tqrFormats) {
+		String mimeType = getResponseMIMEType(response);
+		QueryResultFormat format = TupleQueryResultFormat.matchMIMEType(mimeType, tqrFormats)
+				.orElseThrow(() -> new RepositoryException(
+						"Server responded with an unsupported file format: " + mimeType));
+		return QueryResultIO.createTupleParser(format, valueFactory);
+	}
+
+	/**
+	 * Gets the MIME type specified in the Content-Type header of the response, if any.
+	 */
+	private static String getResponseMIMEType(HttpResponse<?> response) {
+		return response.headers().firstValue("Content-Type").map(contentType -> {
+			int separator = contentType.indexOf(';');
+			return (separator < 0 ? contentType : contentType.substring(0, separator)).trim();
+		}).orElse(null);
+	}
+
+	/**
+	 * Gets the character encoding specified in the Content-Type header of the response, if any.
+	 */
+	private static Charset getResponseCharset(HttpResponse<?> response) {
+		return response.headers().firstValue("Content-Type").map(contentType -> {
+			try {
+				return ContentType.parse(contentType).getCharset();
+			} catch (RuntimeException e) {
+				// work around for servers that send an invalid charset
+				return null;
+			}
+		}).orElse(null);
+	}
+
+	private static Throwable unwrap(Throwable e) {
+		while (e instanceof CompletionException && e.getCause() != null) {
+			e = e.getCause();
+		}
+		return e;
+	}
+
+	private static void closeQuietly(InputStream in) {
+		try {
+			in.close();
+		} catch (IOException e) {
+			logger.debug("Unable to close the response body", e);
+		}
+	}
+}
@@ -11,6 +11,7 @@
 package org.eclipse.rdf4j.http.client;
 
 import org.apache.http.client.HttpClient;
+import org.eclipse.rdf4j.common.annotation.Experimental;
 
 /**
  * Manager for remote HTTP sessions using a {@link HttpClient}.
@@ -35,6 +36,17 @@ public interface HttpClientSessionManager {
 	 */
 	RDF4JProtocolSession createRDF4JProtocolSession(String serverURL);
 
+	/**
+	 * Creates a new session that sends requests to the remote SPARQL endpoint asynchronously.
+	 *
+	 * @throws UnsupportedOperationException if this manager does not support asynchronous sessions
+	 */
+	@Experimental
+	default AsyncSPARQLProtocolSession createAsyncSPARQLProtocolSession(String queryEndpointUrl,
+			String updateEndpointUrl) {
+		throw new UnsupportedOperationException("Asynchronous sessions are not supported by " + getClass().getName());
+	}
+
 	/**
 	 * Closes any remaining connections and threads used by the sessions created by this object.
 	 */
@@ -201,16 +201,19 @@ public class SPARQLProtocolSession implements HttpClientDependent, AutoCloseable
 		parserConfig.addNonFatalError(BasicParserSettings.VERIFY_LANGUAGE_TAGS);
 
 		// configure the maximum url length for SPARQL query GET requests
-		int maximumUrlLength = DEFAULT_MAXIMUM_URL_LENGTH;
+		this.maximumUrlLength = getConfiguredMaximumUrlLength();
+	}
+
+	static int getConfiguredMaximumUrlLength() {
 		String propertyValue = System.getProperty(MAXIMUM_URL_LENGTH_PARAM);
 		if (propertyValue != null) {
 			try {
-				maximumUrlLength = Integer.parseInt(propertyValue);
+				return Integer.parseInt(propertyValue);
 			} catch (NumberFormatException e) {
 				throw new RDF4JConfigException("integer value expected for property " + MAXIMUM_URL_LENGTH_PARAM, e);
 			}
 		}
-		this.maximumUrlLength = maximumUrlLength;
+		return DEFAULT_MAXIMUM_URL_LENGTH;
 	}
 
 	@Override
@@ -559,6 +562,13 @@ public class SPARQLProtocolSession implements HttpClientDependent, AutoCloseable
 
 	protected List<NameValuePair> getQueryMethodParameters(QueryLanguage ql, String query, String baseURI,
 			Dataset dataset, boolean includeInferred, int maxQueryTime, Binding... bindings) {
+		return getProtocolQueryParameters(query, baseURI, dataset);
+	}
+
+	/**
+	 * Builds the parameters of the SPARQL 1.1 Protocol for a query operation.
+	 */
+	static List<NameValuePair> getProtocolQueryParameters(String query, String baseURI, Dataset dataset) {
 		List<NameValuePair> queryParams = new ArrayList<>();
 
 		/*
@@ -593,7 +603,13 @@ public class SPARQLProtocolSession implements HttpClientDependent, AutoCloseable
 
 	protected List<NameValuePair> getUpdateMethodParameters(QueryLanguage ql, String update, String baseURI,
 			Dataset dataset, boolean includeInferred, int maxQueryTime, Binding... bindings) {
+		return getProtocolUpdateParameters(update, baseURI, dataset);
+	}
 
+	/**
+	 * Builds the parameters of the SPARQL 1.1 Protocol for an update operation.
+	 */
+	static List<NameValuePair> getProtocolUpdateParameters(String update, String baseURI, Dataset dataset) {
 		List<NameValuePair> queryParams = new ArrayList<>();
 
 		if (update != null) {
@@ -755,28 +771,7 @@ public class SPARQLProtocolSession implements HttpClientDependent, AutoCloseable
 	private HttpResponse sendTupleQueryViaHttp(HttpUriRequest method, Set<QueryResultFormat> tqrFormats)
 			throws RepositoryException, IOException, QueryInterruptedException, MalformedQueryException {
 
-		final List<String> acceptValues = new ArrayList<>(tqrFormats.size());
-		for (QueryResultFormat format : tqrFormats) {
-
-			// Determine a q-value that reflects the user specified preference
-			int qValue = 10;
-
-			if (preferredTQRFormat != null && !preferredTQRFormat.equals(format)) {
-				// Prefer specified format over other formats
-				qValue -= 2;
-			}
-
-			for (String mimeType : format.getMIMETypes()) {
-				String acceptParam = mimeType;
-
-				if (qValue < 10) {
-					acceptParam += ";q=0." + qValue;
-				}
-				acceptValues.add(acceptParam);
-			}
-		}
-
-		method.addHeader(ACCEPT_PARAM_NAME, String.join(", ", acceptValues));
+		method.addHeader(ACCEPT_PARAM_NAME, getAcceptHeader(tqrFormats, preferredTQRFormat));
 
 		try {
 			return executeOK(method);
@@ -990,13 +985,23 @@ public class SPARQLProtocolSession implements HttpClientDependent, AutoCloseable
 	private HttpResponse sendBooleanQueryViaHttp(HttpUriRequest method, Set<QueryResultFormat> booleanFormats)
 			throws IOException, RDF4JException {
 
-		final List<String> acceptValues = new ArrayList<>(booleanFormats.size());
+		method.addHeader(ACCEPT_PARAM_NAME, getAcceptHeader(booleanFormats, preferredBQRFormat));
 
-		for (QueryResultFormat format : booleanFormats) {
+		return executeOK(method);
+	}
+
+	/**
+	 * Builds the value of the Accept header for the supplied query result formats, giving a lower q-value to all but
+	 * the preferred format.
+	 */
+	static String getAcceptHeader(Set<QueryResultFormat> formats, QueryResultFormat preferredFormat) {
+		final List<String> acceptValues = new ArrayList<>(formats.size());
+
+		for (QueryResultFormat format : formats) {
 			// Determine a q-value that reflects the user specified preference
 			int qValue = 10;
 
-			if (preferredBQRFormat != null && !preferredBQRFormat.equals(format)) {
+			if (preferredFormat != null && !preferredFormat.equals(format)) {
 				// Prefer specified format over other formats
 				qValue -= 2;
 			}
@@ -1012,9 +1017,7 @@ public class SPARQLProtocolSession implements HttpClientDependent, AutoCloseable
 			}
 		}
 
-		method.addHeader(ACCEPT_PARAM_NAME, String.join(", ", acceptValues));
-
-		return executeOK(method);
+		return String.join(", ", acceptValues);
 	}
 
 	/**
@@ -35,6 +35,7 @@ import org.apache.http.client.utils.HttpClientUtils;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.protocol.HttpContext;
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.http.client.util.HttpClientBuilders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,6 +75,13 @@ public class SharedHttpClientSessionManager implements HttpClientSessionManager,
 
 	private final Map<SPARQLProtocolSession, Boolean> openSessions = new ConcurrentHashMap<>();
 
+	/**
+	 * The client of the JDK that is shared by all {@link AsyncSPARQLProtocolSession}s, created on demand
+	 */
+	private volatile java.net.http.HttpClient asyncHttpClient;
+
+	private final Map<AsyncSPARQLProtocolSession, Boolean> openAsyncSessions = new ConcurrentHashMap<>();
+
 	private static final HttpRequestRetryHandler retryHandlerStale = new RetryHandlerStale();
 	private static final ServiceUnavailableRetryStrategy serviceUnavailableRetryHandler = new ServiceUnavailableRetryHandler();
 
@@ -264,6 +272,44 @@ public class SharedHttpClientSessionManager implements HttpClientSessionManager,
 		return session;
 	}
 
+	/**
+	 * Creates a new session that sends requests to the remote SPARQL endpoint asynchronously, see
+	 * {@link AsyncSPARQLProtocolSession}. All asynchronous sessions of this manager share one HTTP client, which
+	 * multiplexes their requests over HTTP/2 connections.
+	 */
+	@Experimental
+	@Override
+	public AsyncSPARQLProtocolSession createAsyncSPARQLProtocolSession(String queryEndpointUrl,
+			String updateEndpointUrl) {
+		AsyncSPARQLProtocolSession session = new AsyncSPARQLProtocolSession(getAsyncHttpClient(), executor,
+				queryEndpointUrl, updateEndpointUrl) {
+
+			@Override
+			public void close() {
+				try {
+					super.close();
+				} finally {
+					openAsyncSessions.remove(this);
+				}
+			}
+		};
+		openAsyncSessions.put(session, true);
+		return session;
+	}
+
+	private java.net.http.HttpClient getAsyncHttpClient() {
+		java.net.http.HttpClient result = asyncHttpClient;
+		if (result == null) {
+			synchronized (this) {
+				result = asyncHttpClient;
+				if (result == null) {
+					result = asyncHttpClient = AsyncSPARQLProtocolSession.createHttpClient(executor);
+				}
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public void shutDown() {
 		try {
@@ -274,6 +320,14 @@ public class SharedHttpClientSessionManager implements HttpClientSessionManager,
 					logger.error(e.toString(), e);
 				}
 			});
+			openAsyncSessions.keySet().forEach(session -> {
+				try {
+					session.close();
+				} catch (Exception e) {
+					logger.error(e.toString(), e);
+				}
+			});
+			asyncHttpClient = null;
 			CloseableHttpClient toCloseDependentClient = dependentClient;
 			dependentClient = null;
 			if (toCloseDependentClient != null) {
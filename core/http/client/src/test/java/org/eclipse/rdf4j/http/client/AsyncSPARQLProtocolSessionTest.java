@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+import static org.mockserver.model.Parameter.param;
+import static org.mockserver.model.ParameterBody.params;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.rdf4j.http.protocol.UnauthorizedException;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.junit.jupiter.MockServerExtension;
+import org.mockserver.model.Delay;
+import org.mockserver.model.MediaType;
+
+/**
+ * Unit tests for {@link AsyncSPARQLProtocolSession}
+ */
+@ExtendWith(MockServerExtension.class)
+public class AsyncSPARQLProtocolSessionTest {
+
+	private static final String QUERY = "SELECT * WHERE { ?s ?p ?o }";
+
+	private SharedHttpClientSessionManager sessionManager;
+
+	private AsyncSPARQLProtocolSession session;
+
+	@BeforeEach
+	public void setUp(MockServerClient client) {
+		client.reset();
+		String endpoint = "http://localhost:" + client.getPort() + "/sparql";
+		sessionManager = new SharedHttpClientSessionManager();
+		session = sessionManager.createAsyncSPARQLProtocolSession(endpoint, endpoint + "/update");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		sessionManager.shutDown();
+	}
+
+	@Test
+	public void testTupleQuery(MockServerClient client) throws Exception {
+		client.when(request().withMethod("GET").withPath("/sparql").withQueryStringParameter("query", QUERY))
+				.respond(response().withBody(readFileToString("repository-list.xml"))
+						.withContentType(MediaType.parse(TupleQueryResultFormat.SPARQL.getDefaultMIMEType())));
+
+		CompletableFuture<TupleQueryResult> future = session.sendTupleQuery(QUERY, null, null, 0);
+		List<BindingSet> solutions;
+		try (TupleQueryResult result = future.get(10, TimeUnit.SECONDS)) {
+			assertThat(result.getBindingNames()).contains("id");
+			solutions = QueryResults.asList(result);
+		}
+		assertThat(solutions).hasSize(1);
+		assertThat(solutions.get(0).getValue("id").stringValue()).isEqualTo("test");
+	}
+
+	@Test
+	public void testPublishTupleQuery(MockServerClient client) throws Exception {
+		client.when(request().withMethod("GET").withPath("/sparql"))
+				.respond(response().withBody(readFileToString("repository-list.xml"))
+						.withContentType(MediaType.parse(TupleQueryResultFormat.SPARQL.getDefaultMIMEType())));
+
+		Flow.Publisher<BindingSet> publisher = session.publishTupleQuery(QUERY, null, null, 0);
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		publisher.subscribe(subscriber);
+
+		assertThat(subscriber.completed.get(10, TimeUnit.SECONDS)).hasSize(1);
+		assertThat(subscriber.completed.get().get(0).getValue("id").stringValue()).isEqualTo("test");
+	}
+
+	@Test
+	public void testPublishFailedQuery(MockServerClient client) {
+		client.when(request().withMethod("GET").withPath("/sparql"))
+				.respond(response().withStatusCode(400).withBody("MALFORMED QUERY: unexpected end of query"));
+
+		CollectingSubscriber subscriber = new CollectingSubscriber();
+		session.publishTupleQuery(QUERY, null, null, 0).subscribe(subscriber);
+
+		assertThatThrownBy(() -> subscriber.completed.get(10, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(MalformedQueryException.class);
+	}
+
+	@Test
+	public void testGraphQuery(MockServerClient client) throws Exception {
+		client.when(request().withMethod("GET").withPath("/sparql"))
+				.respond(response().withBody(readFileToString("repository-config.nt"))
+						.withContentType(MediaType.parse(RDFFormat.NTRIPLES.getDefaultMIMEType())));
+
+		List<Statement> statements;
+		try (GraphQueryResult result = session.sendGraphQuery("CONSTRUCT WHERE { ?s ?p ?o }", null, null, false, 0)
+				.get(10, TimeUnit.SECONDS)) {
+			statements = QueryResults.asList(result);
+		}
+		assertThat(statements).isNotEmpty();
+	}
+
+	@Test
+	public void testBooleanQuery(MockServerClient client) throws Exception {
+		client.when(request().withMethod("GET").withPath("/sparql"))
+				.respond(response()
+						.withBody("<?xml version=\"1.0\"?>\n"
+								+ "<sparql xmlns=\"http://www.w3.org/2005/sparql-results#\">"
+								+ "<head></head><boolean>true</boolean></sparql>")
+						.withContentType(MediaType.parse(TupleQueryResultFormat.SPARQL.getDefaultMIMEType())));
+
+		assertThat(session.sendBooleanQuery("ASK { ?s ?p ?o }", null, null, 0).get(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void testConcurrentRequests(MockServerClient client) throws Exception {
+		client.when(request().withMethod("GET").withPath("/sparql"))
+				.respond(response()
+						.withBody("<?xml version=\"1.0\"?>\n"
+								+ "<sparql xmlns=\"http://www.w3.org/2005/sparql-results#\">"
+								+ "<head></head><boolean>true</boolean></sparql>")
+						.withContentType(MediaType.parse(TupleQueryResultFormat.SPARQL.getDefaultMIMEType()))
+						.withDelay(Delay.milliseconds(200)));
+
+		// all requests are in flight at the same time, without a thread waiting for each of them
+		List<CompletableFuture<Boolean>> futures = IntStream.range(0, 50)
+				.mapToObj(i -> session.sendBooleanQuery("ASK { ?s ?p " + i + " }", null, null, 0))
+				.collect(Collectors.toList());
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+		assertThat(futures).allMatch(CompletableFuture::join);
+	}
+
+	@Test
+	public void testLongQueryUsesPost(MockServerClient client) throws Exception {
+		client.when(request().withMethod("POST").withPath("/sparql"))
+				.respond(response().withBody(readFileToString("repository-list.xml"))
+						.withContentType(MediaType.parse(TupleQueryResultFormat.SPARQL.getDefaultMIMEType())));
+
+		String query = "SELECT * WHERE { ?s ?p ?o FILTER(?o != \"" + "x".repeat(5000) + "\") }";
+		try (TupleQueryResult result = session.sendTupleQuery(query, null, null, 0).get(10, TimeUnit.SECONDS)) {
+			assertThat(QueryResults.asList(result)).hasSize(1);
+		}
+		client.verify(request().withMethod("POST")
+				.withPath("/sparql")
+				.withBody(
+						params(param("query", query))));
+	}
+
+	@Test
+	public void testUpdate(MockServerClient client) throws Exception {
+		client.when(request().withMethod("POST").withPath("/sparql/update"))
+				.respond(response().withStatusCode(204));
+
+		String update = "INSERT DATA { <urn:a> <urn:b> <urn:c> }";
+		session.sendUpdate(update, null, null, 0).get(10, TimeUnit.SECONDS);
+
+		client.verify(request().withMethod("POST")
+				.withPath("/sparql/update")
+				.withBody(params(param("update", update))));
+	}
+
+	@Test
+	public void testMalformedQuery(MockServerClient client) {
+		client.when(request().withMethod("GET").withPath("/sparql"))
+				.respond(response().withStatusCode(400).withBody("MALFORMED QUERY: unexpected end of query"));
+
+		assertThatThrownBy(() -> session.sendTupleQuery(QUERY, null, null, 0).join())
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(MalformedQueryException.class);
+	}
+
+	@Test
+	public void testUnauthorized(MockServerClient client) {
+		client.when(request().withMethod("GET").withPath("/sparql"))
+				.respond(response().withStatusCode(401));
+
+		assertThatThrownBy(() -> session.sendBooleanQuery("ASK { ?s ?p ?o }", null, null, 0).join())
+				.hasCauseInstanceOf(UnauthorizedException.class);
+	}
+
+	@Test
+	public void testHeaders(MockServerClient client) throws Exception {
+		client.when(request().withMethod("POST").withPath("/sparql/update"))
+				.respond(response().withStatusCode(204));
+
+		session.setUsernameAndPassword("user", "secret");
+		session.setAdditionalHttpHeaders(Collections.singletonMap("X-Test", "value"));
+		session.sendUpdate("CLEAR ALL", null, null, 0).get(10, TimeUnit.SECONDS);
+
+		client.verify(request().withMethod("POST")
+				.withPath("/sparql/update")
+				.withHeader("Authorization", "Basic dXNlcjpzZWNyZXQ=")
+				.withHeader("X-Test", "value"));
+	}
+
+	private String readFileToString(String fileName) throws IOException {
+		return IOUtils.resourceToString("__files/" + fileName, StandardCharsets.UTF_8, getClass().getClassLoader());
+	}
+
+	private static class CollectingSubscriber implements Flow.Subscriber<BindingSet> {
+
+		private final List<BindingSet> solutions = new ArrayList<>();
+
+		private final CompletableFuture<List<BindingSet>> completed = new CompletableFuture<>();
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			subscription.request(Long.MAX_VALUE);
+		}
+
+		@Override
+		public void onNext(BindingSet item) {
+			solutions.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			completed.completeExceptionally(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			completed.complete(solutions);
+		}
+	}
+}
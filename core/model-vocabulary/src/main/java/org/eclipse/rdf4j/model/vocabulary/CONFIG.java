@@ -224,6 +224,17 @@ public class CONFIG {
 		 */
 		public final static IRI connectionTimeOut = Vocabularies.createIRI(NAMESPACE, "sail.connectionTimeOut");
 
+		/**
+		 * <var>tag:rdf4j.org,2023:config/sail.queryMemoryBudget</var>
+		 */
+		public final static IRI queryMemoryBudget = Vocabularies.createIRI(NAMESPACE, "sail.queryMemoryBudget");
+
+		/**
+		 * <var>tag:rdf4j.org,2023:config/sail.queryEvaluationParallelism</var>
+		 */
+		public final static IRI queryEvaluationParallelism = Vocabularies.createIRI(NAMESPACE,
+				"sail.queryEvaluationParallelism");
+
 		/** <var>tag:rdf4j.org,2023:config/sail.evaluationStrategyFactory</var> */
 		public final static IRI evaluationStrategyFactory = Vocabularies.createIRI(NAMESPACE,
 				"sail.evaluationStrategyFactory");
@@ -277,6 +288,16 @@ public class CONFIG {
 		 * <var>tag:rdf4j.org,2023:config/native.namespaceIDCacheSize</var>
 		 */
 		public final static IRI namespaceIDCacheSize = Vocabularies.createIRI(NAMESPACE, "native.namespaceIDCacheSize");
+
+		/**
+		 * <var>tag:rdf4j.org,2023:config/native.valueCacheBytes</var>
+		 */
+		public final static IRI valueCacheBytes = Vocabularies.createIRI(NAMESPACE, "native.valueCacheBytes");
+
+		/**
+		 * <var>tag:rdf4j.org,2023:config/native.sharedValueCache</var>
+		 */
+		public final static IRI sharedValueCache = Vocabularies.createIRI(NAMESPACE, "native.sharedValueCache");
 	}
 
 	/**
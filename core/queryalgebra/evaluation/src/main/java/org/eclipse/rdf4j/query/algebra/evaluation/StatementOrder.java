@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * The position of a statement by which a {@link TripleSource} can order the statements it returns. Statements are
+ * ordered by the {@link TripleSource#getComparator() comparator} of the triple source on the value at this position.
+ */
+@Experimental
+public enum StatementOrder {
+
+	S,
+	P,
+	O,
+	C;
+
+	/**
+	 * @param statement a statement
+	 * @return the value of the statement at this position, the context may be <var>null</var>
+	 */
+	public Value getValue(Statement statement) {
+		switch (this) {
+		case S:
+			return statement.getSubject();
+		case P:
+			return statement.getPredicate();
+		case O:
+			return statement.getObject();
+		case C:
+			return statement.getContext();
+		default:
+			throw new IllegalStateException("Unknown statement order: " + this);
+		}
+	}
+}
@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.EmptyIteration;
 import org.eclipse.rdf4j.model.IRI;
@@ -45,6 +50,52 @@ public interface TripleSource {
 	CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj, IRI pred,
 			Value obj, Resource... contexts) throws QueryEvaluationException;
 
+	/**
+	 * Gets the orders in which this triple source can deliver the statements of a pattern without sorting them, see
+	 * {@link #getOrderedStatements(StatementOrder, Resource, IRI, Value, Resource...)}.
+	 *
+	 * @param subj     A Resource specifying the subject, or <var>null</var> for a wildcard.
+	 * @param pred     A URI specifying the predicate, or <var>null</var> for a wildcard.
+	 * @param obj      A Value specifying the object, or <var>null</var> for a wildcard.
+	 * @param contexts The context(s) to get the statements from.
+	 * @return the supported orders, empty if the statements can not be delivered in any particular order.
+	 */
+	@Experimental
+	default Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Gets the statements that match the pattern ordered by the {@link #getComparator() comparator} on the value at the
+	 * position of the supplied order. Only orders that are
+	 * {@link #getSupportedOrders(Resource, IRI, Value, Resource...) supported} for the pattern may be requested.
+	 *
+	 * @param order    the order of the returned statements
+	 * @param subj     A Resource specifying the subject, or <var>null</var> for a wildcard.
+	 * @param pred     A URI specifying the predicate, or <var>null</var> for a wildcard.
+	 * @param obj      A Value specifying the object, or <var>null</var> for a wildcard.
+	 * @param contexts The context(s) to get the statements from.
+	 * @return An iterator over the relevant statements in the requested order.
+	 * @throws QueryEvaluationException If the triple source failed to get the statements.
+	 */
+	@Experimental
+	default CloseableIteration<? extends Statement, QueryEvaluationException> getOrderedStatements(StatementOrder order,
+			Resource subj, IRI pred, Value obj, Resource... contexts) throws QueryEvaluationException {
+		throw new UnsupportedOperationException("Ordered statements are not supported by this triple source");
+	}
+
+	/**
+	 * Gets the comparator that defines the order of the statements returned by
+	 * {@link #getOrderedStatements(StatementOrder, Resource, IRI, Value, Resource...)}. The comparator is only defined
+	 * for values that were returned by this triple source.
+	 *
+	 * @return the comparator, or <var>null</var> if this triple source does not support ordered statements.
+	 */
+	@Experimental
+	default Comparator<Value> getComparator() {
+		return null;
+	}
+
 	/**
 	 * Gets a ValueFactory object that can be used to create URI-, blank node- and literal objects.
 	 *
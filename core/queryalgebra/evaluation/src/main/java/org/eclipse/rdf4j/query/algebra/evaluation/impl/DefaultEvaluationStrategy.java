@@ -24,6 +24,7 @@ import java.util.function.Supplier;
 
 import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
 import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.DistinctIteration;
 import org.eclipse.rdf4j.common.iteration.EmptyIteration;
@@ -40,6 +41,7 @@ import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
 import org.eclipse.rdf4j.model.impl.BooleanLiteral;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.Literals;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
@@ -121,6 +123,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizerPipeline;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryValueEvaluationStep.ConstantQueryValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.RDFStarTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedService;
@@ -135,6 +138,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.BindingSe
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.IntersectionQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.JoinQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.LeftJoinQueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.MergeJoinQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.MinusQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.OrderQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.ProjectionQueryEvaluationStep;
@@ -146,6 +150,10 @@ import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.SliceQuer
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.StatementPatternQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.UnionQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.ZeroLengthPathEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch.BatchQueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch.FilterBatchQueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch.JoinBatchQueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch.ProjectionBatchQueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.AndValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.CompareAllQueryValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.CompareAnyValueEvaluationStep;
@@ -157,6 +165,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.Or
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.QueryValueEvaluationStepSupplier;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.ValueExprTripleRefEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.DescribeIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.DistinctBindingSetIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ExtensionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.FilterIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.GroupIterator;
@@ -219,6 +228,15 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 
 	private Supplier<CollectionFactory> collectionFactory = DefaultCollectionFactory::new;
 
+	// number of solutions that batch-capable operators exchange per call, 0 for row-at-a-time evaluation
+	private int batchSize = 0;
+
+	// number of tasks that hash joins and GROUP BY use to process their solutions concurrently, 1 for sequential
+	private int parallelism = 1;
+
+	// approximate number of bytes that a hash join or GROUP BY may hold in memory before spilling, 0 for no limit
+	private long memoryBudget = 0;
+
 	static CloseableIteration<BindingSet, QueryEvaluationException> evaluate(TupleFunction func,
 			final List<Var> resultVars, final BindingSet bindings, ValueFactory valueFactory, Value... argValues)
 			throws QueryEvaluationException {
@@ -554,8 +572,11 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 		return new QueryEvaluationStep() {
 			@Override
 			public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+				// the collection factory of the store may hash the group keys by internal value IDs
+				CollectionFactory cf = collectionFactory != null ? collectionFactory.get() : null;
 				return new GroupIterator(DefaultEvaluationStrategy.this, node, bindings, iterationCacheSyncThreshold,
-						context);
+						context, SimpleValueFactory.getInstance(), cf != null ? cf : new DefaultCollectionFactory(),
+						parallelism, memoryBudget);
 			}
 		};
 	}
@@ -568,12 +589,47 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 	}
 
 	protected QueryEvaluationStep prepare(Join node, QueryEvaluationContext context) throws QueryEvaluationException {
-		return new JoinQueryEvaluationStep(this, node, context);
+		String mergeJoinVar = MergeJoinQueryEvaluationStep.getJoinVariable(node, tripleSource, context);
+		if (mergeJoinVar != null) {
+			return prepareMergeJoin(node, mergeJoinVar, context);
+		}
+		if (batchSize > 0 && !(node.getRightArg() instanceof Service)
+				&& !JoinQueryEvaluationStep.isOutOfScopeForLeftArgBindings(node.getRightArg())) {
+			return new JoinBatchQueryEvaluationStep(precompile(node.getLeftArg(), context),
+					precompile(node.getRightArg(), context), node, batchSize);
+		}
+		return new JoinQueryEvaluationStep(this, node, context, parallelism, memoryBudget);
+	}
+
+	private QueryEvaluationStep prepareMergeJoin(Join node, String joinVar, QueryEvaluationContext context) {
+		QueryEvaluationStep left = precompileOrdered(node.getLeftArg(), joinVar, context);
+		QueryEvaluationStep right = precompileOrdered(node.getRightArg(), joinVar, context);
+		return new MergeJoinQueryEvaluationStep(this, node, joinVar, left, right, tripleSource.getComparator(),
+				context);
+	}
+
+	private QueryEvaluationStep precompileOrdered(TupleExpr node, String varName, QueryEvaluationContext context) {
+		if (!(node instanceof StatementPattern)) {
+			// a join that is itself merged on the same variable
+			return precompile(node, context);
+		}
+		StatementPattern statementPattern = (StatementPattern) node;
+		StatementOrder order = MergeJoinQueryEvaluationStep.getOrder(statementPattern, varName, tripleSource,
+				context);
+		QueryEvaluationStep ret = new StatementPatternQueryEvaluationStep(statementPattern, context, tripleSource,
+				order);
+		if (trackTime) {
+			ret = trackTime(node, ret);
+		}
+		if (trackResultSize) {
+			ret = trackResultSize(node, ret);
+		}
+		return ret;
 	}
 
 	protected QueryEvaluationStep prepare(LeftJoin node, QueryEvaluationContext context)
 			throws QueryEvaluationException {
-		return LeftJoinQueryEvaluationStep.supply(this, node, context);
+		return LeftJoinQueryEvaluationStep.supply(this, node, context, parallelism, memoryBudget);
 	}
 
 	protected QueryEvaluationStep prepare(MultiProjection node, QueryEvaluationContext context)
@@ -591,6 +647,10 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 	protected QueryEvaluationStep prepare(Projection node, QueryEvaluationContext context)
 			throws QueryEvaluationException {
 		QueryEvaluationStep temp = precompile(node.getArg(), context);
+		// only an argument that already produces batches is worth projecting in batches
+		if (batchSize > 0 && temp instanceof BatchQueryEvaluationStep) {
+			return new ProjectionBatchQueryEvaluationStep(node, temp, context, batchSize);
+		}
 		return new ProjectionQueryEvaluationStep(node, temp, context);
 	}
 
@@ -633,7 +693,9 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 	}
 
 	protected QueryEvaluationStep prepare(Filter node, QueryEvaluationContext context) throws QueryEvaluationException {
-
+		if (batchSize > 0) {
+			return FilterBatchQueryEvaluationStep.supply(node, DefaultEvaluationStrategy.this, context, batchSize);
+		}
 		return FilterIterator.supply(node, DefaultEvaluationStrategy.this, context);
 
 	}
@@ -725,6 +787,11 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 			@Override
 			public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
 				final CloseableIteration<BindingSet, QueryEvaluationException> evaluate = child.evaluate(bindings);
+				// the collection factory of the store may hash the solutions by internal value IDs
+				CollectionFactory cf = collectionFactory != null ? collectionFactory.get() : null;
+				if (cf != null) {
+					return new DistinctBindingSetIteration(evaluate, DefaultEvaluationStrategy.this, cf);
+				}
 				return new DistinctIteration<BindingSet, QueryEvaluationException>(evaluate,
 						DefaultEvaluationStrategy.this::makeSet);
 			}
@@ -2151,6 +2218,80 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 		}
 	}
 
+	/**
+	 * @return the number of solutions that operators exchange per call in batched evaluation, 0 if batched evaluation
+	 *         is disabled.
+	 */
+	@Experimental
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Enables batched evaluation for operators that support it (joins, filters and projections). These operators
+	 * exchange blocks of up to <var>batchSize</var> solutions and process each block in a tight loop, which saves the
+	 * per-solution overhead of pulling every solution through the whole operator pipeline separately. Operators that do
+	 * not support batches are evaluated one solution at a time and their results are collected into batches when they
+	 * are consumed by a batched operator. Only affects queries that are precompiled afterwards.
+	 *
+	 * @param batchSize the maximum number of solutions in a batch, 0 to disable batched evaluation (the default).
+	 */
+	@Experimental
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 0) {
+			throw new IllegalArgumentException("Batch size must not be negative, was " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @return the number of tasks that hash joins and GROUP BY use to process their solutions concurrently.
+	 */
+	@Experimental
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the degree of parallelism for hash joins and GROUP BY. With a parallelism above 1 hash joins build and probe
+	 * a partitioned hash table and GROUP BY aggregates partitions of the groups in tasks of the common
+	 * {@link java.util.concurrent.ForkJoinPool}. Only affects queries that are precompiled afterwards.
+	 *
+	 * @param parallelism the number of concurrent tasks, 1 for sequential evaluation (the default).
+	 */
+	@Experimental
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return the approximate number of bytes that a hash join or GROUP BY may hold in memory, 0 if unlimited.
+	 */
+	@Experimental
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Sets the memory budget of hash joins and GROUP BY. A hash join whose hash table exceeds the budget partitions
+	 * both of its arguments to disk and joins the partitions one at a time, a GROUP BY whose groups exceed the budget
+	 * partitions the solutions of the remaining groups to disk and aggregates the partitions one at a time. The spills
+	 * are created by the {@link #getCollectionFactory() collection factory}. The memory used by solutions is estimated,
+	 * so the budget is approximate. Only affects queries that are precompiled afterwards.
+	 *
+	 * @param memoryBudget the approximate number of bytes per operator, 0 for no limit (the default).
+	 */
+	@Experimental
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("Memory budget must not be negative, was " + memoryBudget);
+		}
+		this.memoryBudget = memoryBudget;
+	}
+
 	/**
 	 * @return the queryEvaluationMode
 	 */
@@ -13,6 +13,7 @@ package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 import java.util.function.Supplier;
 
 import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
@@ -25,6 +26,9 @@ public class DefaultEvaluationStrategyFactory extends AbstractEvaluationStrategy
 
 	private FederatedServiceResolver serviceResolver;
 	private Supplier<CollectionFactory> collectionFactorySupplier;
+	private int batchSize;
+	private int parallelism = 1;
+	private long memoryBudget;
 
 	public DefaultEvaluationStrategyFactory() {
 	}
@@ -47,6 +51,50 @@ public class DefaultEvaluationStrategyFactory extends AbstractEvaluationStrategy
 		this.collectionFactorySupplier = collectionFactory;
 	}
 
+	/**
+	 * @param batchSize the batch size of the strategies created by this factory, 0 to disable batched evaluation.
+	 * @see DefaultEvaluationStrategy#setBatchSize(int)
+	 */
+	@Experimental
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	@Experimental
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @param parallelism the degree of parallelism for hash joins and GROUP BY of the strategies created by this
+	 *                    factory, 1 for sequential evaluation.
+	 * @see DefaultEvaluationStrategy#setParallelism(int)
+	 */
+	@Experimental
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	@Experimental
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * @param memoryBudget the approximate number of bytes that a hash join or GROUP BY of the strategies created by
+	 *                     this factory may hold in memory before spilling to disk, 0 for no limit.
+	 * @see DefaultEvaluationStrategy#setMemoryBudget(long)
+	 */
+	@Experimental
+	public void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	@Experimental
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
 	@Override
 	public EvaluationStrategy createEvaluationStrategy(Dataset dataset, TripleSource tripleSource,
 			EvaluationStatistics evaluationStatistics) {
@@ -54,6 +102,9 @@ public class DefaultEvaluationStrategyFactory extends AbstractEvaluationStrategy
 				getQuerySolutionCacheThreshold(), evaluationStatistics, isTrackResultSize());
 		getOptimizerPipeline().ifPresent(strategy::setOptimizerPipeline);
 		strategy.setCollectionFactory(collectionFactorySupplier);
+		strategy.setBatchSize(batchSize);
+		strategy.setParallelism(parallelism);
+		strategy.setMemoryBudget(memoryBudget);
 		return strategy;
 	}
 
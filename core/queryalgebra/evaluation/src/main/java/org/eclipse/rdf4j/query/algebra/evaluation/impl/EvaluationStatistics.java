@@ -11,9 +11,11 @@
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.query.algebra.AbstractQueryModelNode;
 import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
 import org.eclipse.rdf4j.query.algebra.BinaryTupleOperator;
@@ -62,6 +64,23 @@ public class EvaluationStatistics {
 		return calculator.getCardinality();
 	}
 
+	/**
+	 * Estimates the number of solutions that a join argument produces for each solution of the arguments that are
+	 * joined before it. Implementations with statistics about the correlation of statement patterns, for example
+	 * patterns that share a subject, can give a better estimate than the cardinality of the argument alone. The
+	 * {@link org.eclipse.rdf4j.query.algebra.evaluation.optimizer.QueryJoinOptimizer} scales its cost estimate of the
+	 * argument by the fan-out, for arguments that share a variable with the assured bindings of the joined arguments.
+	 *
+	 * @param joined the join arguments that are evaluated before the argument, in evaluation order
+	 * @param expr   the join argument
+	 * @return the estimated number of solutions of the argument per solution of the joined arguments, or a negative
+	 *         value if no estimate is available
+	 */
+	@Experimental
+	public double getJoinFanOut(List<TupleExpr> joined, TupleExpr expr) {
+		return -1;
+	}
+
 	protected CardinalityCalculator createCardinalityCalculator() {
 		return new CardinalityCalculator();
 	}
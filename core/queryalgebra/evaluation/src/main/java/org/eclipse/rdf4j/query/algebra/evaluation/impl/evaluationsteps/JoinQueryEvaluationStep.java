@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps;
 
+import java.util.function.Supplier;
+
+import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
@@ -22,6 +26,8 @@ import org.eclipse.rdf4j.query.algebra.evaluation.federation.ServiceJoinIterator
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.HashJoinIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.JoinIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ParallelHashJoinIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.SpillingHashJoinIteration;
 import org.eclipse.rdf4j.query.algebra.helpers.TupleExprs;
 
 public class JoinQueryEvaluationStep implements QueryEvaluationStep {
@@ -29,6 +35,26 @@ public class JoinQueryEvaluationStep implements QueryEvaluationStep {
 	private final java.util.function.Function<BindingSet, CloseableIteration<BindingSet, QueryEvaluationException>> eval;
 
 	public JoinQueryEvaluationStep(EvaluationStrategy strategy, Join join, QueryEvaluationContext context) {
+		this(strategy, join, context, 1);
+	}
+
+	/**
+	 * @param parallelism the number of tasks used to evaluate a hash join, a parallelism above 1 selects the
+	 *                    {@link ParallelHashJoinIteration}.
+	 */
+	public JoinQueryEvaluationStep(EvaluationStrategy strategy, Join join, QueryEvaluationContext context,
+			int parallelism) {
+		this(strategy, join, context, parallelism, 0);
+	}
+
+	/**
+	 * @param parallelism  the number of tasks used to evaluate a hash join, a parallelism above 1 selects the
+	 *                     {@link ParallelHashJoinIteration}.
+	 * @param memoryBudget the approximate number of bytes a hash join may use for its hash table, a positive budget
+	 *                     selects the {@link SpillingHashJoinIteration} and takes precedence over the parallelism.
+	 */
+	public JoinQueryEvaluationStep(EvaluationStrategy strategy, Join join, QueryEvaluationContext context,
+			int parallelism, long memoryBudget) {
 		// efficient computation of a SERVICE join using vectored evaluation
 		// TODO maybe we can create a ServiceJoin node already in the parser?
 		QueryEvaluationStep leftPrepared = strategy.precompile(join.getLeftArg(), context);
@@ -40,9 +66,19 @@ public class JoinQueryEvaluationStep implements QueryEvaluationStep {
 			join.setAlgorithm(ServiceJoinIterator.class.getSimpleName());
 		} else if (isOutOfScopeForLeftArgBindings(join.getRightArg())) {
 			String[] joinAttributes = HashJoinIteration.hashJoinAttributeNames(join);
-			eval = (bindings) -> new HashJoinIteration(leftPrepared, rightPrepared, bindings, false,
-					joinAttributes, context);
-			join.setAlgorithm(HashJoinIteration.class.getSimpleName());
+			if (memoryBudget > 0) {
+				eval = (bindings) -> new SpillingHashJoinIteration(leftPrepared, rightPrepared, bindings, false,
+						joinAttributes, context, createCollectionFactory(strategy), memoryBudget);
+				join.setAlgorithm(SpillingHashJoinIteration.class.getSimpleName());
+			} else if (parallelism > 1) {
+				eval = (bindings) -> new ParallelHashJoinIteration(leftPrepared, rightPrepared, bindings, false,
+						joinAttributes, context, parallelism, createCollectionFactory(strategy));
+				join.setAlgorithm(ParallelHashJoinIteration.class.getSimpleName());
+			} else {
+				eval = (bindings) -> new HashJoinIteration(leftPrepared, rightPrepared, bindings, false,
+						joinAttributes, context, createCollectionFactory(strategy));
+				join.setAlgorithm(HashJoinIteration.class.getSimpleName());
+			}
 		} else {
 			eval = (bindings) -> new JoinIterator(strategy, leftPrepared, rightPrepared, join, bindings);
 			join.setAlgorithm(JoinIterator.class.getSimpleName());
@@ -54,7 +90,17 @@ public class JoinQueryEvaluationStep implements QueryEvaluationStep {
 		return eval.apply(bindings);
 	}
 
-	private static boolean isOutOfScopeForLeftArgBindings(TupleExpr expr) {
+	/**
+	 * @return a new collection factory of the strategy, which hashes the join keys of a hash join and provides the
+	 *         spills of a {@link SpillingHashJoinIteration}
+	 */
+	static CollectionFactory createCollectionFactory(EvaluationStrategy strategy) {
+		Supplier<CollectionFactory> supplier = strategy.getCollectionFactory();
+		CollectionFactory cf = supplier != null ? supplier.get() : null;
+		return cf != null ? cf : new DefaultCollectionFactory();
+	}
+
+	public static boolean isOutOfScopeForLeftArgBindings(TupleExpr expr) {
 		return (TupleExprs.isVariableScopeChange(expr) || TupleExprs.containsSubquery(expr));
 	}
 
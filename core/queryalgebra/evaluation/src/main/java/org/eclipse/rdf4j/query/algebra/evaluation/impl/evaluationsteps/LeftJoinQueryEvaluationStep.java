@@ -24,6 +24,8 @@ import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BadlyDesignedLeftJoinIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.HashJoinIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.LeftJoinIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ParallelHashJoinIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.SpillingHashJoinIteration;
 import org.eclipse.rdf4j.query.algebra.helpers.TupleExprs;
 import org.eclipse.rdf4j.query.algebra.helpers.collectors.VarNameCollector;
 
@@ -36,6 +38,26 @@ public final class LeftJoinQueryEvaluationStep implements QueryEvaluationStep {
 
 	public static QueryEvaluationStep supply(EvaluationStrategy strategy, LeftJoin leftJoin,
 			QueryEvaluationContext context) {
+		return supply(strategy, leftJoin, context, 1);
+	}
+
+	/**
+	 * @param parallelism the number of tasks used to evaluate a hash join, a parallelism above 1 selects the
+	 *                    {@link ParallelHashJoinIteration}.
+	 */
+	public static QueryEvaluationStep supply(EvaluationStrategy strategy, LeftJoin leftJoin,
+			QueryEvaluationContext context, int parallelism) {
+		return supply(strategy, leftJoin, context, parallelism, 0);
+	}
+
+	/**
+	 * @param parallelism  the number of tasks used to evaluate a hash join, a parallelism above 1 selects the
+	 *                     {@link ParallelHashJoinIteration}.
+	 * @param memoryBudget the approximate number of bytes a hash join may use for its hash table, a positive budget
+	 *                     selects the {@link SpillingHashJoinIteration} and takes precedence over the parallelism.
+	 */
+	public static QueryEvaluationStep supply(EvaluationStrategy strategy, LeftJoin leftJoin,
+			QueryEvaluationContext context, int parallelism, long memoryBudget) {
 		QueryEvaluationStep left = strategy.precompile(leftJoin.getLeftArg(), context);
 		QueryEvaluationStep right = strategy.precompile(leftJoin.getRightArg(), context);
 		if (TupleExprs.containsSubquery(leftJoin.getRightArg())) {
@@ -44,7 +66,15 @@ public final class LeftJoinQueryEvaluationStep implements QueryEvaluationStep {
 			String[] joinAttributes = leftBindingNames.stream()
 					.filter(rightBindingNames::contains)
 					.toArray(String[]::new);
-			return bs -> new HashJoinIteration(left, right, bs, true, joinAttributes, context);
+			if (memoryBudget > 0) {
+				return bs -> new SpillingHashJoinIteration(left, right, bs, true, joinAttributes, context,
+						JoinQueryEvaluationStep.createCollectionFactory(strategy), memoryBudget);
+			} else if (parallelism > 1) {
+				return bs -> new ParallelHashJoinIteration(left, right, bs, true, joinAttributes, context,
+						parallelism, JoinQueryEvaluationStep.createCollectionFactory(strategy));
+			}
+			return bs -> new HashJoinIteration(left, right, bs, true, joinAttributes, context,
+					JoinQueryEvaluationStep.createCollectionFactory(strategy));
 		}
 
 		// Check whether optional join is "well designed" as defined in section
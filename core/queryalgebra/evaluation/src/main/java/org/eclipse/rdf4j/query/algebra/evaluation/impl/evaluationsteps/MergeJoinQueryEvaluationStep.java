@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.JoinIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.MergeJoinIterator;
+
+/**
+ * Evaluates a join of statement patterns that share a variable with a {@link MergeJoinIterator}, reading both arguments
+ * from the triple source in the order of the shared variable. Each argument is either a statement pattern or a join
+ * that is itself evaluated as a merge join on the same variable, so all patterns of a star are merged.
+ * <p>
+ * Ordered statements are only requested when the join is evaluated without incoming bindings. Otherwise the join falls
+ * back to a nested loop {@link JoinIterator} over the same arguments.
+ */
+@Experimental
+public class MergeJoinQueryEvaluationStep implements QueryEvaluationStep {
+
+	/**
+	 * A nested loop join looks up the right argument once per left solution, while a merge join reads all statements of
+	 * the right argument. The merge join is only used when the estimated size of the right argument is at most this
+	 * many times the estimated size of the left argument.
+	 */
+	private static final double MAX_RIGHT_TO_LEFT_RATIO = 10;
+
+	private static final StatementOrder[] ORDER_PREFERENCE = { StatementOrder.S, StatementOrder.O,
+			StatementOrder.P };
+
+	private final EvaluationStrategy strategy;
+	private final Join join;
+	private final String joinVar;
+	private final QueryEvaluationStep leftPrepared;
+	private final QueryEvaluationStep rightPrepared;
+	private final Comparator<Value> comparator;
+	private final QueryEvaluationContext context;
+
+	/**
+	 * @param leftPrepared  the left argument, which returns its solutions sorted on the join variable when evaluated
+	 *                      without bindings
+	 * @param rightPrepared the right argument, which returns its solutions sorted on the join variable when evaluated
+	 *                      without bindings
+	 * @param comparator    the {@link TripleSource#getComparator() comparator} of the triple source
+	 */
+	public MergeJoinQueryEvaluationStep(EvaluationStrategy strategy, Join join, String joinVar,
+			QueryEvaluationStep leftPrepared, QueryEvaluationStep rightPrepared, Comparator<Value> comparator,
+			QueryEvaluationContext context) {
+		this.strategy = strategy;
+		this.join = join;
+		this.joinVar = joinVar;
+		this.leftPrepared = leftPrepared;
+		this.rightPrepared = rightPrepared;
+		this.comparator = comparator;
+		this.context = context;
+		// the planned algorithm, which is replaced by the algorithm that actually runs when the join is evaluated
+		join.setAlgorithm(MergeJoinIterator.class.getSimpleName());
+	}
+
+	@Override
+	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+		if (bindings.isEmpty()) {
+			join.setAlgorithm(MergeJoinIterator.class.getSimpleName());
+			return new MergeJoinIterator(leftPrepared.evaluate(bindings), rightPrepared.evaluate(bindings), joinVar,
+					comparator, context);
+		}
+		join.setAlgorithm(JoinIterator.class.getSimpleName());
+		return new JoinIterator(strategy, leftPrepared, rightPrepared, join, bindings);
+	}
+
+	/**
+	 * Determines whether the join can be evaluated as a merge join.
+	 *
+	 * @return the name of the variable to merge on, or <var>null</var> if the join should not be evaluated as a merge
+	 *         join
+	 */
+	public static String getJoinVariable(Join join, TripleSource tripleSource, QueryEvaluationContext context) {
+		if (tripleSource.getComparator() == null) {
+			return null;
+		}
+		List<String> leftVars = getOrderedVariables(join.getLeftArg(), tripleSource, context);
+		if (leftVars.isEmpty()) {
+			return null;
+		}
+		List<String> rightVars = getOrderedVariables(join.getRightArg(), tripleSource, context);
+
+		String joinVar = null;
+		for (String var : leftVars) {
+			if (rightVars.contains(var)) {
+				joinVar = var;
+				break;
+			}
+		}
+		if (joinVar == null) {
+			return null;
+		}
+
+		double leftSize = estimateResultSize(join.getLeftArg());
+		double rightSize = estimateScanSize(join.getRightArg());
+		if (leftSize < 0 || rightSize < 0 || rightSize > leftSize * MAX_RIGHT_TO_LEFT_RATIO) {
+			return null;
+		}
+		return joinVar;
+	}
+
+	/**
+	 * @return the variables on which the argument can be sorted, in order of preference
+	 */
+	private static List<String> getOrderedVariables(TupleExpr expr, TripleSource tripleSource,
+			QueryEvaluationContext context) {
+		if (expr instanceof StatementPattern) {
+			StatementPattern statementPattern = (StatementPattern) expr;
+			List<String> vars = new ArrayList<>(ORDER_PREFERENCE.length);
+			for (StatementOrder order : ORDER_PREFERENCE) {
+				Var var = getVar(statementPattern, order);
+				if (!var.hasValue() && !vars.contains(var.getName())
+						&& getOrder(statementPattern, var.getName(), tripleSource, context) != null) {
+					vars.add(var.getName());
+				}
+			}
+			return vars;
+		} else if (expr instanceof Join) {
+			String joinVar = getJoinVariable((Join) expr, tripleSource, context);
+			if (joinVar != null) {
+				return Collections.singletonList(joinVar);
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * @return the order in which the statements of the pattern are sorted on the variable, or <var>null</var> if the
+	 *         triple source can not deliver the statements in this order
+	 */
+	public static StatementOrder getOrder(StatementPattern statementPattern, String varName,
+			TripleSource tripleSource, QueryEvaluationContext context) {
+		Set<StatementOrder> supportedOrders = null;
+		for (StatementOrder order : ORDER_PREFERENCE) {
+			Var var = getVar(statementPattern, order);
+			if (!var.hasValue() && var.getName().equals(varName)) {
+				if (supportedOrders == null) {
+					supportedOrders = new StatementPatternQueryEvaluationStep(statementPattern, context, tripleSource)
+							.getSupportedOrders();
+				}
+				if (supportedOrders.contains(order)) {
+					return order;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Var getVar(StatementPattern statementPattern, StatementOrder order) {
+		switch (order) {
+		case S:
+			return statementPattern.getSubjectVar();
+		case P:
+			return statementPattern.getPredicateVar();
+		case O:
+			return statementPattern.getObjectVar();
+		default:
+			throw new IllegalArgumentException("Unsupported order: " + order);
+		}
+	}
+
+	/**
+	 * The number of solutions of a merged star is bounded by its smallest pattern.
+	 */
+	private static double estimateResultSize(TupleExpr expr) {
+		if (expr instanceof Join) {
+			Join join = (Join) expr;
+			double leftSize = estimateResultSize(join.getLeftArg());
+			double rightSize = estimateResultSize(join.getRightArg());
+			if (leftSize < 0 || rightSize < 0) {
+				return -1;
+			}
+			return Math.min(leftSize, rightSize);
+		}
+		return expr.getResultSizeEstimate();
+	}
+
+	/**
+	 * A merged star reads all statements of all its patterns.
+	 */
+	private static double estimateScanSize(TupleExpr expr) {
+		if (expr instanceof Join) {
+			Join join = (Join) expr;
+			double leftSize = estimateScanSize(join.getLeftArg());
+			double rightSize = estimateScanSize(join.getRightArg());
+			if (leftSize < 0 || rightSize < 0) {
+				return -1;
+			}
+			return leftSize + rightSize;
+		}
+		return expr.getResultSizeEstimate();
+	}
+}
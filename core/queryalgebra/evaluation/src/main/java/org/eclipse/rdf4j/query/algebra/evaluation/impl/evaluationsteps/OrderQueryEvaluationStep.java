@@ -17,6 +17,8 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.OrderIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.TopKIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
 
 public class OrderQueryEvaluationStep implements QueryEvaluationStep {
 
@@ -38,6 +40,17 @@ public class OrderQueryEvaluationStep implements QueryEvaluationStep {
 
 	@Override
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bs) {
+		if (isTopK()) {
+			return new TopKIteration(preparedArg.evaluate(bs), (OrderComparator) cmp, (int) limit, reduced);
+		}
 		return new OrderIterator(preparedArg.evaluate(bs), cmp, limit, reduced, iterationCacheSyncThreshold);
 	}
+
+	/**
+	 * A limited order keeps the first solutions in a bounded heap, unless there are more than should be kept in memory.
+	 */
+	private boolean isTopK() {
+		return cmp instanceof OrderComparator && limit < Integer.MAX_VALUE
+				&& (iterationCacheSyncThreshold <= 0 || limit <= iterationCacheSyncThreshold);
+	}
 }
@@ -10,11 +10,13 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.EmptyIteration;
 import org.eclipse.rdf4j.common.iteration.FilterIteration;
@@ -32,6 +34,7 @@ import org.eclipse.rdf4j.query.algebra.StatementPattern;
 import org.eclipse.rdf4j.query.algebra.StatementPattern.Scope;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
 
@@ -51,6 +54,7 @@ public class StatementPatternQueryEvaluationStep implements QueryEvaluationStep
 	private final Function<Value, Resource[]> contextSup;
 	private final BiConsumer<MutableBindingSet, Statement> converter;
 	private final QueryEvaluationContext context;
+	private final StatementOrder order;
 
 	private final Predicate<BindingSet> unboundTest;
 
@@ -63,10 +67,21 @@ public class StatementPatternQueryEvaluationStep implements QueryEvaluationStep
 	// With the aim of making the evaluate method as cheap as possible.
 	public StatementPatternQueryEvaluationStep(StatementPattern statementPattern, QueryEvaluationContext context,
 			TripleSource tripleSource) {
+		this(statementPattern, context, tripleSource, null);
+	}
+
+	/**
+	 * @param order the order in which the statements are requested from the triple source when the pattern is evaluated
+	 *              without incoming bindings, see {@link #getSupportedOrders()}. May be <var>null</var>.
+	 */
+	@Experimental
+	public StatementPatternQueryEvaluationStep(StatementPattern statementPattern, QueryEvaluationContext context,
+			TripleSource tripleSource, StatementOrder order) {
 		super();
 		this.statementPattern = statementPattern;
 		this.context = context;
 		this.tripleSource = tripleSource;
+		this.order = order;
 		Set<IRI> graphs = null;
 		// If the graph part is empty we do not need to check this
 		// in the conversion etc.
@@ -271,6 +286,30 @@ public class StatementPatternQueryEvaluationStep implements QueryEvaluationStep
 		}
 	}
 
+	/**
+	 * @return the orders in which the triple source can deliver the statements of this pattern when it is evaluated
+	 *         without incoming bindings.
+	 */
+	@Experimental
+	public Set<StatementOrder> getSupportedOrders() {
+		if (emptyGraph) {
+			return Collections.emptySet();
+		}
+		Var contextVar = statementPattern.getContextVar();
+		Resource[] contexts = contextSup.apply(contextVar != null ? contextVar.getValue() : null);
+		if (contexts == null) {
+			return Collections.emptySet();
+		}
+
+		Value subject = statementPattern.getSubjectVar().getValue();
+		Value predicate = statementPattern.getPredicateVar().getValue();
+		Value object = statementPattern.getObjectVar().getValue();
+		if ((subject != null && !subject.isResource()) || (predicate != null && !predicate.isIRI())) {
+			return Collections.emptySet();
+		}
+		return tripleSource.getSupportedOrders((Resource) subject, (IRI) predicate, object, contexts);
+	}
+
 	private ConvertStatementToBindingSetIterator getIteration() {
 
 		Var contextVar = statementPattern.getContextVar();
@@ -290,7 +329,12 @@ public class StatementPatternQueryEvaluationStep implements QueryEvaluationStep
 
 		CloseableIteration<? extends Statement, QueryEvaluationException> iteration = null;
 		try {
-			iteration = tripleSource.getStatements((Resource) subject, (IRI) predicate, object, contexts);
+			if (order != null) {
+				iteration = tripleSource.getOrderedStatements(order, (Resource) subject, (IRI) predicate, object,
+						contexts);
+			} else {
+				iteration = tripleSource.getStatements((Resource) subject, (IRI) predicate, object, contexts);
+			}
 			if (iteration instanceof EmptyIteration) {
 				return null;
 			}
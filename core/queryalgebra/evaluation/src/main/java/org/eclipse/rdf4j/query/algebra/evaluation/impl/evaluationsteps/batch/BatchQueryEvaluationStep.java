@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+
+/**
+ * A {@link QueryEvaluationStep} that can produce its results as {@link BindingSetBatch}es instead of one
+ * {@link BindingSet} at a time. Consumers that do not know about batches can still call {@link #evaluate(BindingSet)},
+ * which returns the solutions of the batches one by one.
+ */
+@Experimental
+public interface BatchQueryEvaluationStep extends QueryEvaluationStep {
+
+	/**
+	 * Evaluates this step and returns its results in batches. Batches are never empty.
+	 */
+	CloseableIteration<BindingSetBatch, QueryEvaluationException> evaluateBatches(BindingSet bindings);
+
+	@Override
+	default CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+		return new UnbatchingIteration(evaluateBatches(bindings));
+	}
+
+	/**
+	 * Evaluates the given step in batches. Steps that only support row-at-a-time evaluation are wrapped so that their
+	 * results are collected into batches of at most <var>batchSize</var> solutions.
+	 */
+	static CloseableIteration<BindingSetBatch, QueryEvaluationException> evaluateBatches(QueryEvaluationStep step,
+			BindingSet bindings, int batchSize) {
+		if (step instanceof BatchQueryEvaluationStep) {
+			return ((BatchQueryEvaluationStep) step).evaluateBatches(bindings);
+		}
+		return new BatchingIteration(step.evaluate(bindings), batchSize);
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.query.BindingSet;
+
+/**
+ * A block of solutions that is passed between {@link BatchQueryEvaluationStep}s in one call. The solutions are stored
+ * in a plain array so that operators can process a whole block in a tight loop. A batch is owned by whoever received it
+ * last and may be modified in place, e.g. by removing the solutions that do not pass a filter.
+ */
+@Experimental
+public final class BindingSetBatch {
+
+	private final BindingSet[] rows;
+
+	private int size;
+
+	public BindingSetBatch(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Batch capacity must be at least 1, was " + capacity);
+		}
+		this.rows = new BindingSet[capacity];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return rows.length;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean isFull() {
+		return size == rows.length;
+	}
+
+	public BindingSet get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		return rows[index];
+	}
+
+	public void add(BindingSet row) {
+		rows[size++] = row;
+	}
+
+	/**
+	 * Replaces the solution at the given index.
+	 */
+	public void set(int index, BindingSet row) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		rows[index] = row;
+	}
+
+	/**
+	 * Removes all solutions from the given index onwards.
+	 */
+	public void truncate(int newSize) {
+		if (newSize > size) {
+			throw new IndexOutOfBoundsException("Can not grow a batch of size " + size + " to " + newSize);
+		}
+		for (int i = newSize; i < size; i++) {
+			rows[i] = null;
+		}
+		size = newSize;
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch;
+
+import java.util.function.Function;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Filter;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryValueEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.FilterIterator;
+
+/**
+ * Evaluates a {@link Filter} one {@link BindingSetBatch} at a time. Solutions that do not pass the condition are
+ * removed from each batch in place, batches that end up empty are skipped. A filter is only evaluated in batches if its
+ * argument is a {@link BatchQueryEvaluationStep}.
+ */
+@Experimental
+public final class FilterBatchQueryEvaluationStep implements BatchQueryEvaluationStep {
+
+	private final QueryEvaluationStep arg;
+	private final QueryValueEvaluationStep condition;
+	private final EvaluationStrategy strategy;
+	private final Function<BindingSet, BindingSet> retain;
+	private final int batchSize;
+
+	private FilterBatchQueryEvaluationStep(QueryEvaluationStep arg, QueryValueEvaluationStep condition,
+			EvaluationStrategy strategy, Function<BindingSet, BindingSet> retain, int batchSize) {
+		this.arg = arg;
+		this.condition = condition;
+		this.strategy = strategy;
+		this.retain = retain;
+		this.batchSize = batchSize;
+	}
+
+	public static QueryEvaluationStep supply(Filter filter, EvaluationStrategy strategy,
+			QueryEvaluationContext context, int batchSize) {
+		QueryEvaluationStep arg = strategy.precompile(filter.getArg(), context);
+		QueryValueEvaluationStep condition;
+		try {
+			condition = strategy.precompile(filter.getCondition(), context);
+		} catch (QueryEvaluationException e) {
+			// a condition that fails to compile is never true
+			return QueryEvaluationStep.EMPTY;
+		}
+		Function<BindingSet, BindingSet> retain;
+		if (!FilterIterator.isPartOfSubQuery(filter)) {
+			retain = FilterIterator.buildRetainFunction(filter, context);
+		} else {
+			retain = Function.identity();
+		}
+		if (!(arg instanceof BatchQueryEvaluationStep)) {
+			// batching the solutions of an argument that does not produce batches only adds overhead
+			return (bs) -> new FilterIterator(arg.evaluate(bs), condition, strategy, retain);
+		}
+		return new FilterBatchQueryEvaluationStep(arg, condition, strategy, retain, batchSize);
+	}
+
+	@Override
+	public CloseableIteration<BindingSetBatch, QueryEvaluationException> evaluateBatches(BindingSet bindings) {
+		CloseableIteration<BindingSetBatch, QueryEvaluationException> iter = BatchQueryEvaluationStep
+				.evaluateBatches(arg, bindings, batchSize);
+		return new LookAheadIteration<>() {
+
+			@Override
+			protected BindingSetBatch getNextElement() throws QueryEvaluationException {
+				while (iter.hasNext()) {
+					BindingSetBatch batch = iter.next();
+					int accepted = 0;
+					for (int i = 0; i < batch.size(); i++) {
+						BindingSet row = batch.get(i);
+						if (accept(row)) {
+							batch.set(accepted++, row);
+						}
+					}
+					if (accepted > 0) {
+						batch.truncate(accepted);
+						return batch;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			protected void handleClose() throws QueryEvaluationException {
+				try {
+					super.handleClose();
+				} finally {
+					iter.close();
+				}
+			}
+		};
+	}
+
+	private boolean accept(BindingSet bindings) {
+		try {
+			// Limit the bindings to the ones that are in scope for this filter
+			return strategy.isTrue(condition, retain.apply(bindings));
+		} catch (ValueExprEvaluationException e) {
+			// failed to evaluate condition
+			return false;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.JoinIterator;
+
+/**
+ * Batched variant of the {@link JoinIterator} nested loop join. The left argument is consumed in batches and each of
+ * its solutions is used to evaluate the right argument. The joined solutions of consecutive left solutions are
+ * collected into output batches, so that small right-hand results do not lead to small batches. As with
+ * {@link JoinIterator}, this join is only valid if all bindings of the left argument are in scope for the right
+ * argument.
+ */
+@Experimental
+public final class JoinBatchQueryEvaluationStep implements BatchQueryEvaluationStep {
+
+	private final QueryEvaluationStep left;
+	private final QueryEvaluationStep right;
+	private final int batchSize;
+
+	public JoinBatchQueryEvaluationStep(QueryEvaluationStep left, QueryEvaluationStep right, Join join,
+			int batchSize) {
+		this.left = left;
+		this.right = right;
+		this.batchSize = batchSize;
+		join.setAlgorithm(JoinBatchQueryEvaluationStep.class.getSimpleName());
+	}
+
+	@Override
+	public CloseableIteration<BindingSetBatch, QueryEvaluationException> evaluateBatches(BindingSet bindings) {
+		CloseableIteration<BindingSetBatch, QueryEvaluationException> leftIter = BatchQueryEvaluationStep
+				.evaluateBatches(left, bindings, batchSize);
+
+		return new LookAheadIteration<>() {
+
+			private BindingSetBatch leftBatch;
+
+			private int leftIndex;
+
+			private CloseableIteration<BindingSet, QueryEvaluationException> rightIter = new EmptyIteration<>();
+
+			@Override
+			protected BindingSetBatch getNextElement() throws QueryEvaluationException {
+				BindingSetBatch result = new BindingSetBatch(batchSize);
+				while (!result.isFull()) {
+					if (rightIter.hasNext()) {
+						result.add(rightIter.next());
+						continue;
+					}
+
+					// Right iteration exhausted
+					rightIter.close();
+
+					if (leftBatch == null || leftIndex >= leftBatch.size()) {
+						if (!leftIter.hasNext()) {
+							break;
+						}
+						leftBatch = leftIter.next();
+						leftIndex = 0;
+					}
+					rightIter = right.evaluate(leftBatch.get(leftIndex++));
+				}
+				return result.isEmpty() ? null : result;
+			}
+
+			@Override
+			protected void handleClose() throws QueryEvaluationException {
+				try {
+					super.handleClose();
+				} finally {
+					try {
+						leftIter.close();
+					} finally {
+						rightIter.close();
+					}
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch;
+
+import java.util.function.Function;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.ConvertingIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ProjectionIterator;
+
+/**
+ * Evaluates a {@link Projection} one {@link BindingSetBatch} at a time, replacing every solution of a batch with its
+ * projection.
+ */
+@Experimental
+public final class ProjectionBatchQueryEvaluationStep implements BatchQueryEvaluationStep {
+
+	private final Projection projection;
+	private final QueryEvaluationStep arg;
+	private final QueryEvaluationContext context;
+	private final int batchSize;
+
+	public ProjectionBatchQueryEvaluationStep(Projection projection, QueryEvaluationStep arg,
+			QueryEvaluationContext context, int batchSize) {
+		this.projection = projection;
+		this.arg = arg;
+		this.context = context;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public CloseableIteration<BindingSetBatch, QueryEvaluationException> evaluateBatches(BindingSet bindings) {
+		Function<BindingSet, BindingSet> projector = ProjectionIterator.buildProjector(projection, bindings, context);
+		return new ConvertingIteration<>(BatchQueryEvaluationStep.evaluateBatches(arg, bindings, batchSize)) {
+
+			@Override
+			protected BindingSetBatch convert(BindingSetBatch batch) throws QueryEvaluationException {
+				for (int i = 0; i < batch.size(); i++) {
+					batch.set(i, projector.apply(batch.get(i)));
+				}
+				return batch;
+			}
+		};
+	}
+}
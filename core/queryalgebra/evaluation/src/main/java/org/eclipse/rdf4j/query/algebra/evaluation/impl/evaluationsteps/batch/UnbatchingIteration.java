@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * Returns the solutions of an iteration of {@link BindingSetBatch}es one at a time.
+ */
+@Experimental
+public class UnbatchingIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private final CloseableIteration<BindingSetBatch, QueryEvaluationException> iter;
+
+	private BindingSetBatch batch;
+
+	private int index;
+
+	public UnbatchingIteration(CloseableIteration<BindingSetBatch, QueryEvaluationException> iter) {
+		this.iter = iter;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		while (batch == null || index >= batch.size()) {
+			if (!iter.hasNext()) {
+				batch = null;
+				return null;
+			}
+			batch = iter.next();
+			index = 0;
+		}
+		return batch.get(index++);
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			batch = null;
+			iter.close();
+		}
+	}
+}
@@ -12,6 +12,7 @@ package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.function.ToIntFunction;
 
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -47,6 +48,28 @@ public class BindingSetHashKey implements Serializable {
 		return key;
 	}
 
+	/**
+	 * Creates a key that hashes its values with the supplied function, for example
+	 * {@link org.eclipse.rdf4j.collection.factory.api.CollectionFactory#hashValue(Value)}. Keys that are compared with
+	 * each other must all be created with the same function.
+	 *
+	 * @param valueHash hashes a single value, consistent with {@link Value#equals(Object)}
+	 */
+	public static BindingSetHashKey create(String[] varNames, BindingSet bindings, ToIntFunction<Value> valueHash) {
+		int varNameSize = varNames.length;
+		if (varNameSize == 0) {
+			return BindingSetHashKey.EMPTY;
+		}
+		Value[] keyValues = new Value[varNameSize];
+		int hash = 1;
+		for (int i = 0; i < varNameSize; i++) {
+			Value value = bindings.getValue(varNames[i]);
+			keyValues[i] = value;
+			hash = 31 * hash + (value == null ? 0 : valueHash.applyAsInt(value));
+		}
+		return new ValueHashedKey(keyValues, hash);
+	}
+
 	private BindingSetHashKey(Value[] values) {
 		this.values = values;
 	}
@@ -90,4 +113,20 @@ public class BindingSetHashKey implements Serializable {
 		return hashcode;
 	}
 
+	private static final class ValueHashedKey extends BindingSetHashKey {
+
+		private static final long serialVersionUID = -2870462651873651384L;
+
+		private final int valueHash;
+
+		private ValueHashedKey(Value[] values, int valueHash) {
+			super(values);
+			this.valueHash = valueHash;
+		}
+
+		@Override
+		public int hashCode() {
+			return valueHash;
+		}
+	}
 }
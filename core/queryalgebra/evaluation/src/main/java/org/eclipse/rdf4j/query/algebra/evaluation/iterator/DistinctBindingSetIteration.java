@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.Set;
+
+import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.FilterIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+
+/**
+ * Removes duplicate solutions. Solutions are hashed with {@link CollectionFactory#hashValue(Value)}, so that a store
+ * can hash its values by internal IDs instead of their lexical form. Solutions are still compared with
+ * {@link BindingSet#equals(Object)}.
+ */
+@Experimental
+public class DistinctBindingSetIteration extends FilterIteration<BindingSet, QueryEvaluationException> {
+
+	private final CollectionFactory collectionFactory;
+
+	private final Set<HashedBindingSet> excludeSet;
+
+	/**
+	 * @param strategy          {@link EvaluationStrategy#makeSet() makes} the set of solutions that have been returned
+	 * @param collectionFactory hashes the values of the solutions, it is closed together with this iteration
+	 */
+	public DistinctBindingSetIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			EvaluationStrategy strategy, CollectionFactory collectionFactory) {
+		super(iter);
+		this.collectionFactory = collectionFactory;
+		this.excludeSet = strategy.makeSet();
+	}
+
+	@Override
+	protected boolean accept(BindingSet bindingSet) throws QueryEvaluationException {
+		return excludeSet.add(new HashedBindingSet(bindingSet, hash(bindingSet)));
+	}
+
+	/**
+	 * Hashes the bindings independent of their order, like {@link BindingSet#hashCode()}.
+	 */
+	private int hash(BindingSet bindingSet) {
+		int hash = 0;
+		for (Binding binding : bindingSet) {
+			hash ^= binding.getName().hashCode() ^ collectionFactory.hashValue(binding.getValue());
+		}
+		return hash;
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			excludeSet.clear();
+			collectionFactory.close();
+		}
+	}
+
+	private static final class HashedBindingSet {
+
+		private final BindingSet bindingSet;
+
+		private final int hash;
+
+		HashedBindingSet(BindingSet bindingSet, int hash) {
+			this.bindingSet = bindingSet;
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof HashedBindingSet && bindingSet.equals(((HashedBindingSet) o).bindingSet);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -80,7 +80,7 @@ public class FilterIterator extends FilterIteration<BindingSet, QueryEvaluationE
 		}
 	}
 
-	private FilterIterator(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+	public FilterIterator(CloseableIteration<BindingSet, QueryEvaluationException> iter,
 			QueryValueEvaluationStep condition, EvaluationStrategy strategy, Function<BindingSet, BindingSet> retain)
 			throws QueryEvaluationException {
 		super(iter);
@@ -93,7 +93,10 @@ public class FilterIterator extends FilterIteration<BindingSet, QueryEvaluationE
 
 	}
 
-	private static Function<BindingSet, BindingSet> buildRetainFunction(Filter filter, QueryEvaluationContext context) {
+	/**
+	 * Builds a function that limits a binding set to the bindings that are in scope for the given filter.
+	 */
+	public static Function<BindingSet, BindingSet> buildRetainFunction(Filter filter, QueryEvaluationContext context) {
 		final Set<String> bindingNames = filter.getBindingNames();
 		@SuppressWarnings("unchecked")
 		final Predicate<BindingSet>[] hasBinding = new Predicate[bindingNames.size()];
@@ -10,15 +10,20 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -28,9 +33,13 @@ import java.util.stream.Collectors;
 
 import org.eclipse.rdf4j.collection.factory.api.BindingSetEntry;
 import org.eclipse.rdf4j.collection.factory.api.BindingSetKey;
+import org.eclipse.rdf4j.collection.factory.api.BindingSetSpill;
 import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
 import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iterator.CloseableIterationIterator;
 import org.eclipse.rdf4j.common.transaction.QueryEvaluationMode;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
@@ -95,6 +104,13 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 	private final CollectionFactory cf;
 
+	private final int parallelism;
+
+	private final long memoryBudget;
+
+	// spilled partitions of the solutions that remain to be aggregated
+	private final Deque<SpilledPartition> spilledPartitions = new ArrayDeque<>();
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -114,6 +130,42 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
 			long iterationCacheSyncThreshold, QueryEvaluationContext context, ValueFactory vf, CollectionFactory cf)
 			throws QueryEvaluationException {
+		this(strategy, group, parentBindings, iterationCacheSyncThreshold, context, vf, cf, 1);
+	}
+
+	/**
+	 * @param parallelism the number of tasks that compute the aggregates concurrently. With a parallelism above 1 the
+	 *                    solutions are partitioned by their group key and every partition is aggregated by its own task
+	 *                    in the common {@link ForkJoinPool}. The tasks create the collections of the supplied
+	 *                    {@link CollectionFactory} while holding its lock, and each collection is only used by the task
+	 *                    that created it.
+	 */
+	@Experimental
+	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
+			long iterationCacheSyncThreshold, QueryEvaluationContext context, ValueFactory vf, CollectionFactory cf,
+			int parallelism) throws QueryEvaluationException {
+		this(strategy, group, parentBindings, iterationCacheSyncThreshold, context, vf, cf, parallelism, 0);
+	}
+
+	/**
+	 * @param memoryBudget the approximate number of bytes that the groups may use, 0 for no limit. When the number of
+	 *                     groups exceeds the budget, the solutions of groups that are not yet in memory are partitioned
+	 *                     by their group key into {@link BindingSetSpill spills} of the supplied
+	 *                     {@link CollectionFactory}, and each partition is aggregated after the groups in memory have
+	 *                     been returned. A budget takes precedence over the parallelism.
+	 */
+	@Experimental
+	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
+			long iterationCacheSyncThreshold, QueryEvaluationContext context, ValueFactory vf, CollectionFactory cf,
+			int parallelism, long memoryBudget) throws QueryEvaluationException {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("Memory budget must not be negative, was " + memoryBudget);
+		}
+		this.parallelism = parallelism;
+		this.memoryBudget = memoryBudget;
 		this.strategy = strategy;
 		this.group = group;
 		this.parentBindings = parentBindings;
@@ -132,7 +184,13 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	@Override
 	public void handleClose() throws QueryEvaluationException {
 		try {
-			cf.close();
+			try {
+				while (!spilledPartitions.isEmpty()) {
+					spilledPartitions.pop().spill.close();
+				}
+			} finally {
+				cf.close();
+			}
 		} finally {
 			super.handleClose();
 		}
@@ -176,10 +234,8 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 		}
 
 		BiConsumer<Entry, MutableBindingSet> bindSolution = makeBindSolution(aggregates);
-		Collection<Entry> entries = buildEntries(aggregates);
-		Set<BindingSet> bindingSets = cf.createSetOfBindingSets();
 		BiConsumer<BindingSet, MutableBindingSet> setValues = makeSetValues(getValues, setBindings);
-		for (Entry entry : entries) {
+		Function<Entry, BindingSet> toSolution = entry -> {
 			MutableBindingSet sol = makeNewBindingSet.get();
 
 			BindingSet prototype = entry.getPrototype();
@@ -188,12 +244,121 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			}
 
 			bindSolution.accept(entry, sol);
-			bindingSets.add(sol);
+			return sol;
+		};
+
+		if (memoryBudget > 0 && !getValues.isEmpty()) {
+			return new SpillingSolutions(aggregates, getValues, toSolution);
+		}
+
+		Collection<Entry> entries = buildEntries(aggregates);
+		Set<BindingSet> bindingSets = cf.createSetOfBindingSets();
+		for (Entry entry : entries) {
+			bindingSets.add(toSolution.apply(entry));
 		}
 
 		return bindingSets.iterator();
 	}
 
+	/**
+	 * Returns the solutions of the groups that fit in the memory budget first, followed by the solutions of the groups
+	 * of every spilled partition. Each group is aggregated entirely in memory, because once the budget is exceeded only
+	 * the solutions of groups that are not in memory yet are spilled.
+	 */
+	private class SpillingSolutions implements Iterator<BindingSet> {
+
+		private final List<AggregatePredicateCollectorSupplier<?, ?>> aggregates;
+		private final List<Function<BindingSet, Value>> getValues;
+		private final Function<Entry, BindingSet> toSolution;
+
+		private ToIntFunction<BindingSet> hashMaker;
+		private long maxGroups = -1;
+		private Iterator<Entry> entries;
+
+		SpillingSolutions(List<AggregatePredicateCollectorSupplier<?, ?>> aggregates,
+				List<Function<BindingSet, Value>> getValues, Function<Entry, BindingSet> toSolution) {
+			this.aggregates = aggregates;
+			this.getValues = getValues;
+			this.toSolution = toSolution;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (entries == null) {
+				hashMaker = cf.hashOfBindingSetFuntion(getValues);
+				try (var iter = arguments.evaluate(parentBindings)) {
+					entries = aggregate(new CloseableIterationIterator<>(iter), 0);
+				}
+			}
+			while (!entries.hasNext() && !spilledPartitions.isEmpty()) {
+				SpilledPartition partition = spilledPartitions.pop();
+				try {
+					entries = aggregate(partition.spill.iterator(), partition.depth);
+				} finally {
+					partition.spill.close();
+				}
+			}
+			return entries.hasNext();
+		}
+
+		@Override
+		public BindingSet next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return toSolution.apply(entries.next());
+		}
+
+		private Iterator<Entry> aggregate(Iterator<BindingSet> iter, int depth) {
+			Map<BindingSetKey, Entry> groups = new LinkedHashMap<>();
+			BindingSetSpill[] spills = null;
+			try {
+				while (iter.hasNext()) {
+					BindingSet sol = iter.next();
+					if (maxGroups < 0) {
+						maxGroups = Math.max(1, memoryBudget
+								/ SpillingHashJoinIteration.estimateSize(sol.size() + aggregates.size()));
+					}
+					BindingSetKey key = cf.createBindingSetKey(sol, getValues, hashMaker);
+					if (spills == null && groups.size() >= maxGroups && depth < SpillingHashJoinIteration.MAX_DEPTH
+							&& !groups.containsKey(key)) {
+						spills = new BindingSetSpill[SpillingHashJoinIteration.PARTITIONS];
+						for (int i = 0; i < spills.length; i++) {
+							spills[i] = cf.createBindingSetSpill(context::createBindingSet);
+						}
+					}
+					if (spills != null && !groups.containsKey(key)) {
+						spills[SpillingHashJoinIteration.partitionOf(key.hashCode(), depth)].add(sol);
+					} else {
+						addSolution(groups, key, sol, aggregates);
+					}
+				}
+			} finally {
+				if (spills != null) {
+					for (int i = spills.length - 1; i >= 0; i--) {
+						if (spills[i].size() > 0) {
+							spilledPartitions.push(new SpilledPartition(spills[i], depth + 1));
+						} else {
+							spills[i].close();
+						}
+					}
+				}
+			}
+			return groups.values().iterator();
+		}
+	}
+
+	private static final class SpilledPartition {
+
+		private final BindingSetSpill spill;
+		private final int depth;
+
+		SpilledPartition(BindingSetSpill spill, int depth) {
+			this.spill = spill;
+			this.depth = depth;
+		}
+	}
+
 	/**
 	 * Build a single method that sets all values without a loop or lookups during evaluation.
 	 *
@@ -289,30 +454,82 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 				// Fixing this requires separating the computation of the aggregates and their
 				// distinct sets if needed from the intermediary values.
 
-				Map<BindingSetKey, Entry> entries = new LinkedHashMap<>();
 				// Make an optimized hash function valid during this query evaluation step.
 				ToIntFunction<BindingSet> hashMaker = cf.hashOfBindingSetFuntion(getValues);
+				if (parallelism > 1 && !getValues.isEmpty()) {
+					return buildEntriesInParallel(iter, aggregates, getValues, hashMaker);
+				}
+
+				Map<BindingSetKey, Entry> entries = new LinkedHashMap<>();
 				while (iter.hasNext()) {
 					BindingSet sol = iter.next();
 					// The binding set key will be constant
 					BindingSetKey key = cf.createBindingSetKey(sol, getValues, hashMaker);
-					Entry entry = entries.get(key);
-					if (entry == null) {
-						List<AggregateCollector> collectors = makeCollectors(aggregates);
-						List<Predicate<?>> predicates = new ArrayList<>(aggregates.size());
-						for (AggregatePredicateCollectorSupplier<?, ?> a : aggregates) {
-							predicates.add(a.makePotentialDistinctTest.get());
-						}
+					addSolution(entries, key, sol, aggregates);
+				}
+				return entries.values();
+			}
+		}
+	}
+
+	/**
+	 * Partitions the solutions by the hash of their group key, so that all solutions of a group end up in the same
+	 * partition and in their original order, and aggregates each partition in its own task.
+	 */
+	private Collection<Entry> buildEntriesInParallel(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			List<AggregatePredicateCollectorSupplier<?, ?>> aggregates, List<Function<BindingSet, Value>> getValues,
+			ToIntFunction<BindingSet> hashMaker) throws QueryEvaluationException {
+		List<List<BindingSetKey>> partitionKeys = new ArrayList<>(parallelism);
+		List<List<BindingSet>> partitionSolutions = new ArrayList<>(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			partitionKeys.add(new ArrayList<>());
+			partitionSolutions.add(new ArrayList<>());
+		}
+		while (iter.hasNext()) {
+			BindingSet sol = iter.next();
+			BindingSetKey key = cf.createBindingSetKey(sol, getValues, hashMaker);
+			int partition = Math.floorMod(key.hashCode(), parallelism);
+			partitionKeys.get(partition).add(key);
+			partitionSolutions.get(partition).add(sol);
+		}
 
-						entry = new Entry(sol, collectors, predicates);
-						entries.put(key, entry);
+		List<Callable<Collection<Entry>>> tasks = new ArrayList<>(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			List<BindingSetKey> keys = partitionKeys.get(i);
+			List<BindingSet> solutions = partitionSolutions.get(i);
+			if (!keys.isEmpty()) {
+				tasks.add(() -> {
+					Map<BindingSetKey, Entry> entries = new LinkedHashMap<>();
+					for (int j = 0; j < keys.size(); j++) {
+						addSolution(entries, keys.get(j), solutions.get(j), aggregates);
 					}
+					return entries.values();
+				});
+			}
+		}
 
-					entry.addSolution(sol, aggregates);
-				}
-				return entries.values();
+		List<Entry> entries = new ArrayList<>();
+		for (Collection<Entry> partition : ParallelHashJoinIteration.invokeAll(tasks)) {
+			entries.addAll(partition);
+		}
+		return entries;
+	}
+
+	private void addSolution(Map<BindingSetKey, Entry> entries, BindingSetKey key, BindingSet sol,
+			List<AggregatePredicateCollectorSupplier<?, ?>> aggregates) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			List<AggregateCollector> collectors = makeCollectors(aggregates);
+			List<Predicate<?>> predicates = new ArrayList<>(aggregates.size());
+			for (AggregatePredicateCollectorSupplier<?, ?> a : aggregates) {
+				predicates.add(a.makePotentialDistinctTest.get());
 			}
+
+			entry = new Entry(sol, collectors, predicates);
+			entries.put(key, entry);
 		}
+
+		entry.addSolution(sol, aggregates);
 	}
 
 	private List<Entry> emptySolutionSpecialCase(List<AggregatePredicateCollectorSupplier<?, ?>> aggregates) {
@@ -583,7 +800,10 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 		private final Set<Value> distinctValues;
 
 		public DistinctValues() {
-			distinctValues = cf.createValueSet();
+			// groups may be aggregated concurrently, see buildEntriesInParallel
+			synchronized (cf) {
+				distinctValues = cf.createValueSet();
+			}
 		}
 
 		@Override
@@ -596,7 +816,10 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 		private final Set<BindingSet> distinctValues;
 
 		public DistinctBindingSets() {
-			distinctValues = cf.createSet();
+			// groups may be aggregated concurrently, see buildEntriesInParallel
+			synchronized (cf) {
+				distinctValues = cf.createSet();
+			}
 		}
 
 		@Override
@@ -20,7 +20,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
+import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.common.iterator.EmptyIterator;
@@ -61,6 +63,9 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 	private final IntFunction<List<BindingSet>> mapValueMaker;
 	private final Function<BindingSet, MutableBindingSet> bsMaker;
 
+	private final CollectionFactory collectionFactory;
+	private final ToIntFunction<Value> valueHash;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -89,6 +94,19 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 			BindingSet bindings,
 			boolean leftJoin, String[] joinAttributes, QueryEvaluationContext context)
 			throws QueryEvaluationException {
+		this(left, right, bindings, leftJoin, joinAttributes, context, null);
+	}
+
+	/**
+	 * @param collectionFactory hashes the values of the join attributes with
+	 *                          {@link CollectionFactory#hashValue(Value)}, may be null to use {@link Value#hashCode()}.
+	 *                          The factory is closed together with this iteration.
+	 */
+	public HashJoinIteration(QueryEvaluationStep left, QueryEvaluationStep right,
+			BindingSet bindings,
+			boolean leftJoin, String[] joinAttributes, QueryEvaluationContext context,
+			CollectionFactory collectionFactory)
+			throws QueryEvaluationException {
 		this.leftIter = left.evaluate(bindings);
 		this.rightIter = right.evaluate(bindings);
 		this.joinAttributes = joinAttributes;
@@ -96,6 +114,8 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		this.mapMaker = this::makeHashTable;
 		this.mapValueMaker = this::makeHashValue;
 		this.bsMaker = context::createBindingSet;
+		this.collectionFactory = collectionFactory;
+		this.valueHash = collectionFactory != null ? collectionFactory::hashValue : null;
 	}
 
 	public HashJoinIteration(
@@ -112,6 +132,8 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		this.leftJoin = leftJoin;
 		this.mapValueMaker = this::makeHashValue;
 		this.bsMaker = QueryBindingSet::new;
+		this.collectionFactory = null;
+		this.valueHash = null;
 	}
 
 	@Deprecated(forRemoval = true)
@@ -130,6 +152,8 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		this.leftJoin = leftJoin;
 		this.mapValueMaker = mapValueMaker;
 		this.bsMaker = QueryBindingSet::new;
+		this.collectionFactory = null;
+		this.valueHash = null;
 	}
 
 	/*---------*
@@ -172,7 +196,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 						nextHashTableValues = hashTableValues = null;
 					}
 				} else {
-					BindingSetHashKey key = BindingSetHashKey.create(joinAttributes, currentScanElem);
+					BindingSetHashKey key = createKey(currentScanElem);
 					List<BindingSet> hashValue = nextHashTable.get(key);
 					if (hashValue != null && !hashValue.isEmpty()) {
 						nextHashTableValues = hashTableValues = hashValue.iterator();
@@ -243,10 +267,16 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 								disposeCache(toCloseScanList);
 							}
 						} finally {
-							Map<BindingSetHashKey, List<BindingSet>> toCloseHashTable = hashTable;
-							hashTable = null;
-							if (toCloseHashTable != null) {
-								disposeHashTable(toCloseHashTable);
+							try {
+								Map<BindingSetHashKey, List<BindingSet>> toCloseHashTable = hashTable;
+								hashTable = null;
+								if (toCloseHashTable != null) {
+									disposeHashTable(toCloseHashTable);
+								}
+							} finally {
+								if (collectionFactory != null) {
+									collectionFactory.close();
+								}
 							}
 						}
 					}
@@ -295,7 +325,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		Map<BindingSetHashKey, List<BindingSet>> resultHashTable = mapMaker.apply(smallestResult.size());
 		int maxListSize = 1;
 		for (BindingSet b : smallestResult) {
-			BindingSetHashKey hashKey = BindingSetHashKey.create(joinAttributes, b);
+			BindingSetHashKey hashKey = createKey(b);
 
 			List<BindingSet> hashValue = resultHashTable.get(hashKey);
 			boolean newEntry = (hashValue == null);
@@ -312,6 +342,13 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		return resultHashTable;
 	}
 
+	private BindingSetHashKey createKey(BindingSet bindings) {
+		if (valueHash != null) {
+			return BindingSetHashKey.create(joinAttributes, bindings, valueHash);
+		}
+		return BindingSetHashKey.create(joinAttributes, bindings);
+	}
+
 	protected void putHashTableEntry(Map<BindingSetHashKey, List<BindingSet>> nextHashTable, BindingSetHashKey hashKey,
 			List<BindingSet> hashValue, boolean newEntry) throws QueryEvaluationException {
 		// by default, we use a standard memory hash map
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+
+/**
+ * Joins two arguments that are both sorted on the value of the same variable by merging them. Only the right solutions
+ * that share the value of the join variable with the current left solution are kept in memory, both arguments are
+ * consumed exactly once.
+ * <p>
+ * The solutions are returned in the order of the join variable. Variables other than the join variable that are bound
+ * in both arguments are checked for compatibility.
+ */
+@Experimental
+public class MergeJoinIterator extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> leftIter;
+	private final CloseableIteration<BindingSet, QueryEvaluationException> rightIter;
+	private final String joinVar;
+	private final Comparator<Value> comparator;
+	private final QueryEvaluationContext context;
+
+	// right solutions that share the value of the join variable with the current left solution
+	private final List<BindingSet> rightGroup = new ArrayList<>();
+	private Value rightGroupValue;
+	private BindingSet rightPeek;
+
+	private BindingSet currentLeft;
+	private int rightGroupIndex;
+
+	/**
+	 * @param leftIter   the left argument, sorted by the comparator on the value of the join variable
+	 * @param rightIter  the right argument, sorted by the comparator on the value of the join variable
+	 * @param joinVar    the name of the join variable, which must be bound in all solutions of both arguments
+	 * @param comparator the comparator that defines the order of both arguments
+	 * @param context    the context used to create the joined solutions
+	 */
+	public MergeJoinIterator(CloseableIteration<BindingSet, QueryEvaluationException> leftIter,
+			CloseableIteration<BindingSet, QueryEvaluationException> rightIter, String joinVar,
+			Comparator<Value> comparator, QueryEvaluationContext context) {
+		this.leftIter = leftIter;
+		this.rightIter = rightIter;
+		this.joinVar = joinVar;
+		this.comparator = comparator;
+		this.context = context;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		while (true) {
+			while (currentLeft != null && rightGroupIndex < rightGroup.size()) {
+				BindingSet joined = join(currentLeft, rightGroup.get(rightGroupIndex++));
+				if (joined != null) {
+					return joined;
+				}
+			}
+
+			if (!leftIter.hasNext()) {
+				return null;
+			}
+			currentLeft = leftIter.next();
+			rightGroupIndex = 0;
+
+			Value leftValue = currentLeft.getValue(joinVar);
+			if (rightGroupValue != null && comparator.compare(leftValue, rightGroupValue) == 0) {
+				// same join value as the previous left solution, the group can be reused
+				continue;
+			}
+
+			if (!advanceRight(leftValue)) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Collects the right solutions with the supplied join value into the right group, skipping all smaller ones.
+	 *
+	 * @return false if the right argument is exhausted and no further solutions can be joined
+	 */
+	private boolean advanceRight(Value leftValue) throws QueryEvaluationException {
+		rightGroup.clear();
+		rightGroupValue = null;
+
+		while (true) {
+			if (rightPeek == null) {
+				if (!rightIter.hasNext()) {
+					return false;
+				}
+				rightPeek = rightIter.next();
+			}
+			int diff = comparator.compare(rightPeek.getValue(joinVar), leftValue);
+			if (diff > 0) {
+				// no right solution for this left solution
+				return true;
+			} else if (diff == 0) {
+				break;
+			}
+			rightPeek = null;
+		}
+
+		rightGroupValue = leftValue;
+		while (rightPeek != null && comparator.compare(rightPeek.getValue(joinVar), leftValue) == 0) {
+			rightGroup.add(rightPeek);
+			rightPeek = rightIter.hasNext() ? rightIter.next() : null;
+		}
+		return true;
+	}
+
+	private BindingSet join(BindingSet left, BindingSet right) {
+		MutableBindingSet joined = context.createBindingSet(left);
+		for (Binding binding : right) {
+			Value leftValue = left.getValue(binding.getName());
+			if (leftValue == null) {
+				joined.addBinding(binding.getName(), binding.getValue());
+			} else if (!leftValue.equals(binding.getValue())) {
+				return null;
+			}
+		}
+		return joined;
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				leftIter.close();
+			} finally {
+				rightIter.close();
+				rightGroup.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+
+/**
+ * Hash join that uses the common {@link ForkJoinPool} to build and probe its hash table. The right argument is
+ * materialized and hashed in slices, each slice is scattered by join key into one bucket per partition, and the hash
+ * table partitions are then built concurrently from their buckets. The left argument is then consumed in chunks, each
+ * chunk is probed by <var>parallelism</var> tasks and the joined solutions are returned in the order of the left
+ * argument.
+ * <p>
+ * Produces the same solutions as {@link HashJoinIteration} with the right argument as build side.
+ */
+@Experimental
+public class ParallelHashJoinIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	// number of left solutions probed by a single task per chunk
+	private static final int PROBE_CHUNK_SIZE = 1024;
+
+	private final String[] joinAttributes;
+	private final CloseableIteration<BindingSet, QueryEvaluationException> leftIter;
+	private final CloseableIteration<BindingSet, QueryEvaluationException> rightIter;
+	private final boolean leftJoin;
+	private final int parallelism;
+	private final Function<BindingSet, MutableBindingSet> bsMaker;
+	private final CollectionFactory collectionFactory;
+	private final ToIntFunction<Value> valueHash;
+
+	private List<Map<BindingSetHashKey, List<BindingSet>>> partitions;
+	private List<BindingSet> buildSide;
+	private Iterator<BindingSet> results = Collections.emptyIterator();
+
+	public ParallelHashJoinIteration(QueryEvaluationStep left, QueryEvaluationStep right, BindingSet bindings,
+			boolean leftJoin, String[] joinAttributes, QueryEvaluationContext context, int parallelism)
+			throws QueryEvaluationException {
+		this(left, right, bindings, leftJoin, joinAttributes, context, parallelism, null);
+	}
+
+	/**
+	 * @param collectionFactory hashes the values of the join attributes with
+	 *                          {@link CollectionFactory#hashValue(Value)}, may be null to use {@link Value#hashCode()}.
+	 *                          The factory is closed together with this iteration.
+	 */
+	public ParallelHashJoinIteration(QueryEvaluationStep left, QueryEvaluationStep right, BindingSet bindings,
+			boolean leftJoin, String[] joinAttributes, QueryEvaluationContext context, int parallelism,
+			CollectionFactory collectionFactory) throws QueryEvaluationException {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, was " + parallelism);
+		}
+		this.leftIter = left.evaluate(bindings);
+		this.rightIter = right.evaluate(bindings);
+		this.joinAttributes = joinAttributes;
+		this.leftJoin = leftJoin;
+		this.parallelism = parallelism;
+		this.bsMaker = context::createBindingSet;
+		this.collectionFactory = collectionFactory;
+		this.valueHash = collectionFactory != null ? collectionFactory::hashValue : null;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (partitions == null) {
+			partitions = setupHashTable();
+		}
+
+		while (!results.hasNext()) {
+			List<BindingSet> chunk = new ArrayList<>();
+			int chunkSize = PROBE_CHUNK_SIZE * parallelism;
+			while (chunk.size() < chunkSize && leftIter.hasNext()) {
+				chunk.add(leftIter.next());
+			}
+			if (chunk.isEmpty()) {
+				return null;
+			}
+			results = probe(chunk);
+		}
+		return results.next();
+	}
+
+	private List<Map<BindingSetHashKey, List<BindingSet>>> setupHashTable() throws QueryEvaluationException {
+		List<BindingSet> rightArgResults = new ArrayList<>();
+		while (rightIter.hasNext()) {
+			rightArgResults.add(rightIter.next());
+		}
+		buildSide = rightArgResults;
+
+		// each slice of the build side is hashed by one task, which scatters it into one bucket per partition
+		List<List<List<Map.Entry<BindingSetHashKey, BindingSet>>>> scattered = invokeAll(
+				slices(rightArgResults.size(), (from, to) -> () -> {
+					List<List<Map.Entry<BindingSetHashKey, BindingSet>>> buckets = new ArrayList<>(parallelism);
+					for (int p = 0; p < parallelism; p++) {
+						buckets.add(new ArrayList<>());
+					}
+					for (int i = from; i < to; i++) {
+						BindingSet bindingSet = rightArgResults.get(i);
+						BindingSetHashKey key = createKey(bindingSet);
+						buckets.get(partitionOf(key)).add(new AbstractMap.SimpleImmutableEntry<>(key, bindingSet));
+					}
+					return buckets;
+				}));
+
+		// each partition is then built from its buckets only
+		List<Callable<Map<BindingSetHashKey, List<BindingSet>>>> builders = new ArrayList<>(parallelism);
+		for (int p = 0; p < parallelism; p++) {
+			int partition = p;
+			builders.add(() -> {
+				Map<BindingSetHashKey, List<BindingSet>> hashTable = new HashMap<>();
+				for (List<List<Map.Entry<BindingSetHashKey, BindingSet>>> buckets : scattered) {
+					for (Map.Entry<BindingSetHashKey, BindingSet> entry : buckets.get(partition)) {
+						hashTable.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(1)).add(entry.getValue());
+					}
+				}
+				return hashTable;
+			});
+		}
+		return invokeAll(builders);
+	}
+
+	private Iterator<BindingSet> probe(List<BindingSet> chunk) throws QueryEvaluationException {
+		List<List<BindingSet>> joined = invokeAll(slices(chunk.size(), (from, to) -> () -> {
+			List<BindingSet> result = new ArrayList<>(to - from);
+			for (int i = from; i < to; i++) {
+				join(chunk.get(i), result);
+			}
+			return result;
+		}));
+
+		int size = 0;
+		for (List<BindingSet> part : joined) {
+			size += part.size();
+		}
+		List<BindingSet> result = new ArrayList<>(size);
+		for (List<BindingSet> part : joined) {
+			result.addAll(part);
+		}
+		return result.iterator();
+	}
+
+	private void join(BindingSet scanElem, List<BindingSet> result) {
+		List<BindingSet> hashValue;
+		if (scanElem instanceof EmptyBindingSet) {
+			// the empty bindingset should be merged with all bindingsets in the hash table
+			hashValue = buildSide;
+		} else {
+			BindingSetHashKey key = createKey(scanElem);
+			hashValue = partitions.get(partitionOf(key)).get(key);
+		}
+
+		if (hashValue == null || hashValue.isEmpty()) {
+			if (leftJoin) {
+				result.add(scanElem);
+			}
+			return;
+		}
+
+		for (BindingSet hashTableValue : hashValue) {
+			MutableBindingSet joinedSolution = bsMaker.apply(scanElem);
+			for (String name : hashTableValue.getBindingNames()) {
+				if (!joinedSolution.hasBinding(name)) {
+					Value v = hashTableValue.getValue(name);
+					if (v != null) {
+						joinedSolution.addBinding(name, v);
+					}
+				}
+			}
+			result.add(joinedSolution);
+		}
+	}
+
+	private BindingSetHashKey createKey(BindingSet bindings) {
+		if (valueHash != null) {
+			return BindingSetHashKey.create(joinAttributes, bindings, valueHash);
+		}
+		return BindingSetHashKey.create(joinAttributes, bindings);
+	}
+
+	private int partitionOf(BindingSetHashKey key) {
+		return Math.floorMod(key.hashCode(), parallelism);
+	}
+
+	private interface SliceTask<T> {
+		Callable<T> create(int from, int to);
+	}
+
+	private <T> List<Callable<T>> slices(int size, SliceTask<T> task) {
+		int sliceSize = Math.max(1, (size + parallelism - 1) / parallelism);
+		List<Callable<T>> tasks = new ArrayList<>(parallelism);
+		for (int from = 0; from < size; from += sliceSize) {
+			tasks.add(task.create(from, Math.min(size, from + sliceSize)));
+		}
+		return tasks;
+	}
+
+	static <T> List<T> invokeAll(List<Callable<T>> tasks) throws QueryEvaluationException {
+		if (tasks.size() == 1) {
+			try {
+				return Collections.singletonList(tasks.get(0).call());
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new QueryEvaluationException(e);
+			}
+		}
+
+		List<T> results = new ArrayList<>(tasks.size());
+		for (Future<T> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new QueryEvaluationException(e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new QueryEvaluationException(cause);
+			}
+		}
+		return results;
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				leftIter.close();
+			} finally {
+				try {
+					rightIter.close();
+				} finally {
+					partitions = null;
+					buildSide = null;
+					results = Collections.emptyIterator();
+					if (collectionFactory != null) {
+						collectionFactory.close();
+					}
+				}
+			}
+		}
+	}
+}
@@ -35,9 +35,7 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 	 * Constants *
 	 *-----------*/
 
-	private final BiConsumer<MutableBindingSet, BindingSet> projector;
-
-	private final Supplier<MutableBindingSet> maker;
+	private final Function<BindingSet, BindingSet> projector;
 
 	/*--------------*
 	 * Constructors *
@@ -46,6 +44,19 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 	public ProjectionIterator(Projection projection, CloseableIteration<BindingSet, QueryEvaluationException> iter,
 			BindingSet parentBindings, QueryEvaluationContext context) throws QueryEvaluationException {
 		super(iter);
+		this.projector = buildProjector(projection, parentBindings, context);
+	}
+
+	/**
+	 * Builds a function that creates the projected binding set for a source binding set.
+	 *
+	 * @param projection     the projection to apply
+	 * @param parentBindings the bindings that the projection is evaluated with
+	 * @param context        the context the query is evaluated in
+	 * @return a function that projects source bindings.
+	 */
+	public static Function<BindingSet, BindingSet> buildProjector(Projection projection, BindingSet parentBindings,
+			QueryEvaluationContext context) {
 		ProjectionElemList projectionElemList = projection.getProjectionElemList();
 		boolean isOuterProjection = determineOuterProjection(projection);
 		boolean includeAllParentBindings = !isOuterProjection;
@@ -72,15 +83,22 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 			};
 		}
 
+		Supplier<MutableBindingSet> maker;
 		if (includeAllParentBindings) {
-			this.maker = () -> context.createBindingSet(parentBindings);
+			maker = () -> context.createBindingSet(parentBindings);
 		} else {
-			this.maker = context::createBindingSet;
+			maker = context::createBindingSet;
 		}
-		this.projector = consumer;
+
+		BiConsumer<MutableBindingSet, BindingSet> projector = consumer;
+		return sourceBindings -> {
+			MutableBindingSet qbs = maker.get();
+			projector.accept(qbs, sourceBindings);
+			return qbs;
+		};
 	}
 
-	private BiConsumer<MutableBindingSet, BindingSet> andThen(BiConsumer<MutableBindingSet, BindingSet> consumer,
+	private static BiConsumer<MutableBindingSet, BindingSet> andThen(BiConsumer<MutableBindingSet, BindingSet> consumer,
 			BiConsumer<MutableBindingSet, BindingSet> next) {
 		if (consumer == null) {
 			return next;
@@ -89,7 +107,7 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 		}
 	}
 
-	private boolean determineOuterProjection(QueryModelNode ancestor) {
+	private static boolean determineOuterProjection(QueryModelNode ancestor) {
 		while (ancestor.getParentNode() != null) {
 			ancestor = ancestor.getParentNode();
 			if (ancestor instanceof Projection || ancestor instanceof MultiProjection) {
@@ -105,9 +123,7 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 
 	@Override
 	protected BindingSet convert(BindingSet sourceBindings) throws QueryEvaluationException {
-		MutableBindingSet qbs = maker.get();
-		projector.accept(qbs, sourceBindings);
-		return qbs;
+		return projector.apply(sourceBindings);
 	}
 
 	public static BindingSet project(ProjectionElemList projElemList, BindingSet sourceBindings,
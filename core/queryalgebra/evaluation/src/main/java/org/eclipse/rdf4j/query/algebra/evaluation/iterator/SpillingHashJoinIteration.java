@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.rdf4j.collection.factory.api.BindingSetSpill;
+import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.common.iterator.CloseableIterationIterator;
+import org.eclipse.rdf4j.common.iterator.UnionIterator;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+
+/**
+ * Hash join that keeps the memory used by its hash table within a budget. As long as the build side fits in the budget
+ * it behaves like {@link HashJoinIteration}. Otherwise both arguments are partitioned by the hash of their join key
+ * into {@link BindingSetSpill spills} of the {@link CollectionFactory}, and the partitions are joined one at a time, in
+ * the style of a grace hash join. A partition whose build side still exceeds the budget is partitioned again with a
+ * different hash function, up to a fixed depth after which it is joined in memory.
+ * <p>
+ * The memory used by a solution is estimated from its number of bindings, so the budget is approximate. Solutions are
+ * not returned in the order of the probe side once the join has spilled.
+ */
+@Experimental
+public class SpillingHashJoinIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	/**
+	 * The number of partitions a spilled argument is split into.
+	 */
+	static final int PARTITIONS = 16;
+
+	/**
+	 * The number of times a partition can be split again before it is processed in memory regardless of its size.
+	 */
+	static final int MAX_DEPTH = 3;
+
+	// rough estimate of the heap used by a binding set and by each of its bindings
+	private static final long BINDING_SET_OVERHEAD = 64;
+	private static final long BINDING_OVERHEAD = 128;
+
+	private final String[] joinAttributes;
+	private final CloseableIteration<BindingSet, QueryEvaluationException> leftIter;
+	private final CloseableIteration<BindingSet, QueryEvaluationException> rightIter;
+	private final boolean leftJoin;
+	private final Function<BindingSet, MutableBindingSet> bsMaker;
+	private final QueryEvaluationContext context;
+	private final CollectionFactory cf;
+	private final ToIntFunction<Value> valueHash;
+	private final long memoryBudget;
+
+	private long maxInMemory = -1;
+
+	private Map<BindingSetHashKey, List<BindingSet>> hashTable;
+	private List<BindingSet> buildSide;
+	private Iterator<BindingSet> probeSide;
+	private BindingSet currentProbe;
+	private Iterator<BindingSet> matches;
+
+	private final Deque<Partition> partitions = new ArrayDeque<>();
+	private Partition currentPartition;
+
+	// number of empty probe solutions, these join with every solution of the build side
+	private int emptyProbes;
+
+	/**
+	 * @param cf           the factory of the spills, closed together with this iteration
+	 * @param memoryBudget the approximate number of bytes the hash table may use
+	 */
+	public SpillingHashJoinIteration(QueryEvaluationStep left, QueryEvaluationStep right, BindingSet bindings,
+			boolean leftJoin, String[] joinAttributes, QueryEvaluationContext context, CollectionFactory cf,
+			long memoryBudget) throws QueryEvaluationException {
+		if (memoryBudget <= 0) {
+			throw new IllegalArgumentException("Memory budget must be positive, was " + memoryBudget);
+		}
+		this.leftIter = left.evaluate(bindings);
+		this.rightIter = right.evaluate(bindings);
+		this.joinAttributes = joinAttributes;
+		this.leftJoin = leftJoin;
+		this.context = context;
+		this.bsMaker = context::createBindingSet;
+		this.cf = cf;
+		this.valueHash = cf::hashValue;
+		this.memoryBudget = memoryBudget;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (probeSide == null && !setUp()) {
+			return null;
+		}
+
+		while (true) {
+			if (matches != null) {
+				if (matches.hasNext()) {
+					return join(currentProbe, matches.next());
+				}
+				matches = null;
+			}
+
+			if (probeSide.hasNext()) {
+				currentProbe = probeSide.next();
+				matches = lookup(currentProbe);
+			} else if (!nextPartition()) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Reads the arguments until the smaller one is exhausted, which becomes the build side, or until the budget is
+	 * exceeded, in which case both arguments are spilled. A left join always builds from its right argument.
+	 *
+	 * @return false if there is nothing to join
+	 */
+	private boolean setUp() throws QueryEvaluationException {
+		List<BindingSet> leftResults = new ArrayList<>();
+		List<BindingSet> rightResults = new ArrayList<>();
+		if (leftJoin) {
+			while (rightIter.hasNext() && !exceedsBudget(rightResults.size())) {
+				add(rightResults, rightIter.next());
+			}
+		} else {
+			while (leftIter.hasNext() && rightIter.hasNext()
+					&& !exceedsBudget(leftResults.size() + rightResults.size())) {
+				add(leftResults, leftIter.next());
+				add(rightResults, rightIter.next());
+			}
+		}
+
+		if (!rightIter.hasNext()) {
+			buildSide = rightResults;
+			probeSide = concat(leftResults.iterator(), new CloseableIterationIterator<>(leftIter));
+		} else if (!leftJoin && !leftIter.hasNext()) {
+			buildSide = leftResults;
+			probeSide = concat(rightResults.iterator(), new CloseableIterationIterator<>(rightIter));
+		} else {
+			spill(leftResults, rightResults);
+			return nextPartition();
+		}
+
+		hashTable = buildHashTable(buildSide);
+		return true;
+	}
+
+	private boolean exceedsBudget(long size) {
+		return maxInMemory >= 0 && size >= maxInMemory;
+	}
+
+	private void add(List<BindingSet> list, BindingSet bindingSet) {
+		if (maxInMemory < 0) {
+			maxInMemory = Math.max(1, memoryBudget / estimateSize(bindingSet));
+		}
+		list.add(bindingSet);
+	}
+
+	/**
+	 * Partitions the buffered and the remaining solutions of both arguments, with the right argument as build side.
+	 */
+	private void spill(List<BindingSet> leftResults, List<BindingSet> rightResults) throws QueryEvaluationException {
+		BindingSetSpill[] build = createSpills();
+		BindingSetSpill[] probe = createSpills();
+		try {
+			partition(rightResults.iterator(), build, 0, false);
+			partition(new CloseableIterationIterator<>(rightIter), build, 0, false);
+			partition(leftResults.iterator(), probe, 0, true);
+			partition(new CloseableIterationIterator<>(leftIter), probe, 0, true);
+		} finally {
+			addPartitions(build, probe, 1);
+		}
+	}
+
+	/**
+	 * Loads the build side of the next partition into the hash table, partitioning it further if it exceeds the budget.
+	 *
+	 * @return false if all partitions have been joined
+	 */
+	private boolean nextPartition() throws QueryEvaluationException {
+		closeCurrentPartition();
+		hashTable = null;
+		buildSide = null;
+
+		while (!partitions.isEmpty()) {
+			Partition partition = partitions.pop();
+			currentPartition = partition;
+			if (partition.build.size() == 0 && !leftJoin || partition.probe.size() == 0 && emptyProbes == 0) {
+				closeCurrentPartition();
+				continue;
+			}
+
+			List<BindingSet> build = new ArrayList<>();
+			Iterator<BindingSet> iter = partition.build.iterator();
+			Map<BindingSetHashKey, List<BindingSet>> table = new HashMap<>();
+			boolean split = false;
+			while (iter.hasNext()) {
+				BindingSet bindingSet = iter.next();
+				add(build, bindingSet);
+				table.computeIfAbsent(createKey(bindingSet), k -> new ArrayList<>(1))
+						.add(bindingSet);
+				// a partition with a single join key can not be split any further
+				if (exceedsBudget(build.size()) && partition.depth < MAX_DEPTH && table.size() > 1) {
+					split = true;
+					break;
+				}
+			}
+
+			if (split) {
+				BindingSetSpill[] subBuild = createSpills();
+				BindingSetSpill[] subProbe = createSpills();
+				try {
+					partition(build.iterator(), subBuild, partition.depth, false);
+					partition(iter, subBuild, partition.depth, false);
+					partition(partition.probe.iterator(), subProbe, partition.depth, true);
+				} finally {
+					closeCurrentPartition();
+					addPartitions(subBuild, subProbe, partition.depth + 1);
+				}
+				continue;
+			}
+
+			buildSide = build;
+			hashTable = table;
+			probeSide = emptyProbes > 0
+					? concat(Collections.nCopies(emptyProbes, EmptyBindingSet.getInstance()).iterator(),
+							partition.probe.iterator())
+					: partition.probe.iterator();
+			return true;
+		}
+
+		probeSide = Collections.emptyIterator();
+		return false;
+	}
+
+	/**
+	 * @param probe whether the solutions are of the probe side, of which the empty solutions are not spilled but
+	 *              counted, as they join with the build side of every partition
+	 */
+	private void partition(Iterator<BindingSet> iter, BindingSetSpill[] spills, int depth, boolean probe)
+			throws QueryEvaluationException {
+		while (iter.hasNext()) {
+			BindingSet bindingSet = iter.next();
+			if (probe && bindingSet instanceof EmptyBindingSet) {
+				emptyProbes++;
+				continue;
+			}
+			int hash = createKey(bindingSet).hashCode();
+			spills[partitionOf(hash, depth)].add(bindingSet);
+		}
+	}
+
+	private BindingSetSpill[] createSpills() {
+		BindingSetSpill[] spills = new BindingSetSpill[PARTITIONS];
+		for (int i = 0; i < PARTITIONS; i++) {
+			spills[i] = cf.createBindingSetSpill(context::createBindingSet);
+		}
+		return spills;
+	}
+
+	private void addPartitions(BindingSetSpill[] build, BindingSetSpill[] probe, int depth) {
+		for (int i = PARTITIONS - 1; i >= 0; i--) {
+			partitions.push(new Partition(build[i], probe[i], depth));
+		}
+	}
+
+	private Map<BindingSetHashKey, List<BindingSet>> buildHashTable(List<BindingSet> build) {
+		Map<BindingSetHashKey, List<BindingSet>> table = new HashMap<>(build.size());
+		for (BindingSet bindingSet : build) {
+			table.computeIfAbsent(createKey(bindingSet), k -> new ArrayList<>(1))
+					.add(bindingSet);
+		}
+		return table;
+	}
+
+	/**
+	 * Join keys are hashed by the collection factory, which may hash the values of a store by their internal IDs.
+	 */
+	private BindingSetHashKey createKey(BindingSet bindingSet) {
+		return BindingSetHashKey.create(joinAttributes, bindingSet, valueHash);
+	}
+
+	private Iterator<BindingSet> lookup(BindingSet probe) {
+		List<BindingSet> hashValue;
+		if (probe instanceof EmptyBindingSet) {
+			// the empty bindingset should be merged with all bindingsets of the build side
+			hashValue = buildSide;
+		} else {
+			hashValue = hashTable.get(createKey(probe));
+		}
+
+		if (hashValue != null && !hashValue.isEmpty()) {
+			return hashValue.iterator();
+		} else if (leftJoin && !(probe instanceof EmptyBindingSet)) {
+			return Collections.singletonList((BindingSet) EmptyBindingSet.getInstance()).iterator();
+		}
+		return null;
+	}
+
+	private BindingSet join(BindingSet probe, BindingSet build) {
+		MutableBindingSet result = bsMaker.apply(probe);
+		for (String name : build.getBindingNames()) {
+			if (!result.hasBinding(name)) {
+				Value v = build.getValue(name);
+				if (v != null) {
+					result.addBinding(name, v);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Estimates the heap used by a binding set, ignoring the size of the values themselves.
+	 */
+	static long estimateSize(BindingSet bindingSet) {
+		return estimateSize(bindingSet.size());
+	}
+
+	/**
+	 * Estimates the heap used by a binding set with the supplied number of bindings.
+	 */
+	static long estimateSize(int bindings) {
+		return BINDING_SET_OVERHEAD + BINDING_OVERHEAD * bindings;
+	}
+
+	/**
+	 * Maps the hash of a key to a partition, with a different hash function for every depth so that the solutions of a
+	 * partition are spread over all partitions when it is split again.
+	 */
+	static int partitionOf(int hash, int depth) {
+		int h = hash + depth * 0x9e3779b9;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return Math.floorMod(h, PARTITIONS);
+	}
+
+	private static Iterator<BindingSet> concat(Iterator<BindingSet> first, Iterator<BindingSet> second) {
+		return new UnionIterator<>(List.<Iterable<BindingSet>>of(() -> first, () -> second));
+	}
+
+	private void closeCurrentPartition() throws QueryEvaluationException {
+		Partition partition = currentPartition;
+		currentPartition = null;
+		if (partition != null) {
+			partition.close();
+		}
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				leftIter.close();
+			} finally {
+				try {
+					rightIter.close();
+				} finally {
+					try {
+						closeCurrentPartition();
+						while (!partitions.isEmpty()) {
+							partitions.pop().close();
+						}
+					} finally {
+						hashTable = null;
+						buildSide = null;
+						matches = null;
+						cf.close();
+					}
+				}
+			}
+		}
+	}
+
+	private static final class Partition {
+
+		private final BindingSetSpill build;
+		private final BindingSetSpill probe;
+		private final int depth;
+
+		Partition(BindingSetSpill build, BindingSetSpill probe, int depth) {
+			this.build = build;
+			this.probe = probe;
+			this.depth = depth;
+		}
+
+		void close() throws QueryEvaluationException {
+			try {
+				build.close();
+			} finally {
+				probe.close();
+			}
+		}
+	}
+}
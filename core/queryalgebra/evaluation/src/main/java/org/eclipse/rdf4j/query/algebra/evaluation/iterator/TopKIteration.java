@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+
+/**
+ * Returns the first <var>k</var> solutions of the input in the order of an {@link OrderComparator}, for ORDER BY
+ * queries with a LIMIT. Unlike {@link OrderIterator} it never holds more than <var>k</var> solutions: they are kept in
+ * a bounded binary heap with the greatest solution at its root, which is replaced whenever a smaller solution arrives.
+ * The sort key of every solution is evaluated once, when it is read from the input.
+ */
+public class TopKIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> iter;
+
+	private final OrderComparator comparator;
+
+	private final int k;
+
+	private final boolean distinct;
+
+	private Entry[] sorted;
+
+	private int index;
+
+	/**
+	 * @param k        the number of solutions to return, the offset plus the limit of the query
+	 * @param distinct whether duplicate solutions are removed
+	 */
+	public TopKIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter, OrderComparator comparator,
+			int k, boolean distinct) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative, was " + k);
+		}
+		this.iter = iter;
+		this.comparator = comparator;
+		this.k = k;
+		this.distinct = distinct;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (sorted == null) {
+			sorted = selectTopK();
+		}
+		if (index < sorted.length) {
+			BindingSet next = sorted[index].bindings;
+			sorted[index++] = null;
+			return next;
+		}
+		return null;
+	}
+
+	private Entry[] selectTopK() throws QueryEvaluationException {
+		// the greatest of the solutions that are kept is at the root of the heap
+		PriorityQueue<Entry> heap = new PriorityQueue<>(Math.min(k, 1024) + 1, (a, b) -> compare(b, a));
+		Set<BindingSet> members = distinct ? new HashSet<>() : null;
+		// the key of a solution that did not make it into the heap is reused for the next one
+		Value[] key = null;
+		try {
+			while (k > 0 && iter.hasNext()) {
+				BindingSet next = iter.next();
+				key = comparator.getSortKey(next, key);
+				if (heap.size() < k) {
+					if (members == null || members.add(next)) {
+						heap.add(new Entry(key, next));
+						key = null;
+					}
+				} else {
+					Entry greatest = heap.peek();
+					if (comparator.compare(key, next, greatest.key, greatest.bindings) < 0
+							&& (members == null || members.add(next))) {
+						heap.poll();
+						if (members != null) {
+							members.remove(greatest.bindings);
+						}
+						heap.add(new Entry(key, next));
+						key = null;
+					}
+				}
+			}
+		} finally {
+			iter.close();
+		}
+
+		Entry[] result = new Entry[heap.size()];
+		for (int i = result.length - 1; i >= 0; i--) {
+			result[i] = heap.poll();
+		}
+		return result;
+	}
+
+	private int compare(Entry a, Entry b) {
+		return comparator.compare(a.key, a.bindings, b.key, b.bindings);
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			sorted = null;
+			iter.close();
+		}
+	}
+
+	private static final class Entry {
+
+		private final Value[] key;
+
+		private final BindingSet bindings;
+
+		Entry(Value[] key, BindingSet bindings) {
+			this.key = key;
+			this.bindings = bindings;
+		}
+	}
+}
@@ -14,19 +14,22 @@ package org.eclipse.rdf4j.query.algebra.evaluation.optimizer;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.algebra.Distinct;
+import org.eclipse.rdf4j.query.algebra.Extension;
 import org.eclipse.rdf4j.query.algebra.Order;
 import org.eclipse.rdf4j.query.algebra.OrderElem;
 import org.eclipse.rdf4j.query.algebra.Projection;
 import org.eclipse.rdf4j.query.algebra.ProjectionElem;
 import org.eclipse.rdf4j.query.algebra.QueryModelNode;
 import org.eclipse.rdf4j.query.algebra.Reduced;
+import org.eclipse.rdf4j.query.algebra.Slice;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
 
 /**
- * Moves the Order node above the Projection when variables are projected.
+ * Moves the Order node above the Projection when variables are projected, and limits the Order when a Slice sits above
+ * it, so that only the first solutions need to be kept while ordering.
  *
  * @author James Leigh
  */
@@ -59,6 +62,7 @@ public class OrderLimitOptimizer implements QueryOptimizer {
 			for (OrderElem e : node.getElements()) {
 				e.visit(this);
 			}
+			Order order = node;
 			if (variablesProjected) {
 				QueryModelNode parent = node.getParentNode();
 				if (projection == parent) {
@@ -66,12 +70,34 @@ public class OrderLimitOptimizer implements QueryOptimizer {
 					node.setArg(projection.clone());
 					Order replacement = node.clone();
 					projection.replaceWith(replacement);
+					order = replacement;
 					QueryModelNode distinct = replacement.getParentNode();
 					if (distinct instanceof Distinct) {
 						distinct.replaceWith(new Reduced(replacement.clone()));
 					}
 				}
 			}
+			limitOrder(order);
+		}
+
+		/**
+		 * Adds a slice of the first offset + limit solutions right above an order with a limit further up, if the nodes
+		 * in between do not change the number of solutions. The evaluation strategy then only needs to keep the top
+		 * solutions instead of sorting all of them.
+		 */
+		private void limitOrder(Order order) {
+			QueryModelNode parent = order.getParentNode();
+			while (parent instanceof Projection || parent instanceof Extension) {
+				parent = parent.getParentNode();
+			}
+			if (parent instanceof Slice && parent != order.getParentNode()) {
+				Slice slice = (Slice) parent;
+				if (slice.hasLimit()) {
+					long limit = slice.hasOffset() ? slice.getOffset() + slice.getLimit() : slice.getLimit();
+					QueryModelNode orderParent = order.getParentNode();
+					orderParent.replaceChildNode(order, new Slice(order, 0, limit));
+				}
+			}
 		}
 
 		@Override
@@ -70,6 +70,9 @@ public class QueryJoinOptimizer implements QueryOptimizer {
 		private final EvaluationStatistics statistics;
 		Set<String> boundVars = new HashSet<>();
 
+		// the arguments of the join that is being ordered that have already been selected
+		private List<TupleExpr> joinedArgs = List.of();
+
 		protected JoinVisitor(EvaluationStatistics statistics, boolean trackResultSize) {
 			super(trackResultSize);
 			this.statistics = statistics;
@@ -110,6 +113,7 @@ public class QueryJoinOptimizer implements QueryOptimizer {
 		public void meet(Join node) {
 
 			Set<String> origBoundVars = boundVars;
+			List<TupleExpr> origJoinedArgs = joinedArgs;
 			try {
 				boundVars = new HashSet<>(boundVars);
 
@@ -138,6 +142,7 @@ public class QueryJoinOptimizer implements QueryOptimizer {
 
 				// Reorder the (recursive) join arguments to a more optimal sequence
 				List<TupleExpr> orderedJoinArgs = new ArrayList<>(joinArgs.size());
+				joinedArgs = orderedJoinArgs;
 
 				// We order all remaining join arguments based on cardinality and
 				// variable frequency statistics
@@ -228,6 +233,7 @@ public class QueryJoinOptimizer implements QueryOptimizer {
 				}
 			} finally {
 				boundVars = origBoundVars;
+				joinedArgs = origJoinedArgs;
 			}
 		}
 
@@ -537,6 +543,14 @@ public class QueryJoinOptimizer implements QueryOptimizer {
 				cost = Math.pow(cost, exp);
 			}
 
+			if (unboundVars.size() < nonConstantVarCount && isJoinedOnAssuredBinding(vars)) {
+				// the statistics may know how the argument correlates with the arguments that bind its variables
+				double fanOut = statistics.getJoinFanOut(joinedArgs, tupleExpr);
+				if (fanOut >= 0) {
+					cost *= fanOut;
+				}
+			}
+
 			if (unboundVars.isEmpty()) {
 				// Prefer patterns with more bound vars
 				if (nonConstantVarCount > 0) {
@@ -553,6 +567,26 @@ public class QueryJoinOptimizer implements QueryOptimizer {
 			return cost;
 		}
 
+		/**
+		 * @return true if one of the variables is always bound by the join arguments that have already been selected.
+		 *         Variables that these arguments only bind optionally do not correlate the argument with them.
+		 */
+		private boolean isJoinedOnAssuredBinding(List<Var> vars) {
+			if (joinedArgs.isEmpty()) {
+				return false;
+			}
+			Set<String> assuredBindingNames = new HashSet<>();
+			for (TupleExpr joinedArg : joinedArgs) {
+				assuredBindingNames.addAll(joinedArg.getAssuredBindingNames());
+			}
+			for (Var var : vars) {
+				if (!var.hasValue() && assuredBindingNames.contains(var.getName())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
 		private int countConstantVars(List<Var> vars) {
 			int size = 0;
 
@@ -16,6 +16,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -47,59 +48,96 @@ public class OrderComparator implements Comparator<BindingSet> {
 
 	private final Comparator<BindingSet> bindingContentsComparator;
 
+	private final List<Function<BindingSet, Value>> keyFunctions;
+
+	private final boolean[] ascending;
+
 	public OrderComparator(EvaluationStrategy strategy, Order order, ValueComparator cmp,
 			QueryEvaluationContext context) {
 		this.cmp = cmp;
-		this.bindingContentsComparator = precompileComparator(strategy, order, context);
+		this.keyFunctions = precompileKeyFunctions(strategy, order, context);
+		this.ascending = new boolean[keyFunctions.size()];
+		for (int i = 0; i < ascending.length; i++) {
+			ascending[i] = order.getElements().get(i).isAscending();
+		}
+		this.bindingContentsComparator = precompileComparator();
 	}
 
-	private Comparator<BindingSet> precompileComparator(EvaluationStrategy strategy, Order order,
+	private static List<Function<BindingSet, Value>> precompileKeyFunctions(EvaluationStrategy strategy, Order order,
 			QueryEvaluationContext context) {
 
 		return order.getElements()
 				.stream()
 				.map(element -> {
-					boolean ascending = element.isAscending();
 					ValueExpr expr = element.getExpr();
 
 					if (expr instanceof Var) {
 						// Here we optimize for the most common case where the ORDER BY clause uses Var(s) e.g. "ORDER
 						// BY ?a"
-
-						Function<BindingSet, Value> getValue = context.getValue(((Var) expr).getName());
-
-						return (Comparator<BindingSet>) (o1, o2) -> {
-							Value v1 = getValue.apply(o1);
-							Value v2 = getValue.apply(o2);
-
-							int compare = cmp.compare(v1, v2);
-							return ascending ? compare : -compare;
-						};
+						return context.getValue(((Var) expr).getName());
 					} else {
 						QueryValueEvaluationStep prepared = strategy.precompile(expr, context);
 
-						return (Comparator<BindingSet>) (o1, o2) -> {
-							Value v1 = null;
-							Value v2 = null;
-
+						return (Function<BindingSet, Value>) bindings -> {
 							try {
-								v1 = prepared.evaluate(o1);
+								return prepared.evaluate(bindings);
 							} catch (ValueExprEvaluationException ignored) {
+								return null;
 							}
-
-							try {
-								v2 = prepared.evaluate(o2);
-							} catch (ValueExprEvaluationException ignored) {
-							}
-
-							int compare = cmp.compare(v1, v2);
-							return ascending ? compare : -compare;
 						};
 					}
 				})
-				.reduce(Comparator::thenComparing)
-				.orElse((o1, o2) -> 0);
+				.collect(Collectors.toList());
+	}
 
+	private Comparator<BindingSet> precompileComparator() {
+		Comparator<BindingSet> result = null;
+		for (int i = 0; i < keyFunctions.size(); i++) {
+			Function<BindingSet, Value> getValue = keyFunctions.get(i);
+			boolean asc = ascending[i];
+
+			Comparator<BindingSet> comparator = (o1, o2) -> {
+				int compare = cmp.compare(getValue.apply(o1), getValue.apply(o2));
+				return asc ? compare : -compare;
+			};
+			result = result == null ? comparator : result.thenComparing(comparator);
+		}
+		return result == null ? (o1, o2) -> 0 : result;
+	}
+
+	/**
+	 * Evaluates the elements of the ORDER BY clause on a binding set, so that binding sets that are compared often, for
+	 * example in a heap, only need to be evaluated once.
+	 *
+	 * @param reuse an array returned by an earlier call that may be overwritten, or null
+	 * @return the values of the order elements, with null for elements that can not be evaluated
+	 * @see #compare(Value[], BindingSet, Value[], BindingSet)
+	 */
+	public Value[] getSortKey(BindingSet bindings, Value[] reuse) {
+		Value[] key = reuse != null && reuse.length == keyFunctions.size() ? reuse : new Value[keyFunctions.size()];
+		for (int i = 0; i < key.length; i++) {
+			key[i] = keyFunctions.get(i).apply(bindings);
+		}
+		return key;
+	}
+
+	/**
+	 * Compares two binding sets by their {@link #getSortKey(BindingSet, Value[]) sort keys}, imposing the same ordering
+	 * as {@link #compare(BindingSet, BindingSet)}.
+	 */
+	public int compare(Value[] key1, BindingSet o1, Value[] key2, BindingSet o2) {
+		try {
+			for (int i = 0; i < key1.length; i++) {
+				int compare = cmp.compare(key1[i], key2[i]);
+				if (compare != 0) {
+					return ascending[i] ? compare : -compare;
+				}
+			}
+			return compareBindings(o1, o2);
+		} catch (QueryEvaluationException | IllegalArgumentException e) {
+			logger.debug(e.getMessage(), e);
+			return 0;
+		}
 	}
 
 	@Override
@@ -109,72 +147,75 @@ public class OrderComparator implements Comparator<BindingSet> {
 			if (comparedContents != 0) {
 				return comparedContents;
 			}
+			return compareBindings(o1, o2);
+		} catch (QueryEvaluationException | IllegalArgumentException e) {
+			logger.debug(e.getMessage(), e);
+			return 0;
+		}
+	}
 
-			// On the basis of the order clause elements the two binding sets are
-			// unordered.
-			// We now need to impose a total ordering (as per the
-			// contract of java.util.Comparator). We order by
-			// size first, then by binding names, then finally by values.
-
-			// null check
-			if (o1 == null || o2 == null) {
-				if (o1 == null) {
-					return o2 == null ? 0 : 1;
-				}
-				return -1;
-			}
-
-			if (o2.size() != o1.size()) {
-				return o1.size() < o2.size() ? 1 : -1;
+	private int compareBindings(BindingSet o1, BindingSet o2) {
+		// On the basis of the order clause elements the two binding sets are
+		// unordered.
+		// We now need to impose a total ordering (as per the
+		// contract of java.util.Comparator). We order by
+		// size first, then by binding names, then finally by values.
+
+		// null check
+		if (o1 == null || o2 == null) {
+			if (o1 == null) {
+				return o2 == null ? 0 : 1;
 			}
+			return -1;
+		}
 
-			// we create an ordered list of binding names (using natural string order) to use for
-			// consistent iteration over binding names and binding values.
-			List<String> o1bindingNamesOrdered;
-			List<String> o2bindingNamesOrdered;
-
-			if (o1 instanceof ArrayBindingSet && o2 instanceof ArrayBindingSet) {
-				o1bindingNamesOrdered = ((ArrayBindingSet) o1).getSortedBindingNames();
-				o2bindingNamesOrdered = ((ArrayBindingSet) o2).getSortedBindingNames();
-			} else {
-				o1bindingNamesOrdered = getSortedBindingNames(o1.getBindingNames());
-				o2bindingNamesOrdered = null;
-			}
+		if (o2.size() != o1.size()) {
+			return o1.size() < o2.size() ? 1 : -1;
+		}
 
-			// binding set sizes are equal. compare on binding names.
-			if ((o2bindingNamesOrdered != null && !sortedEquals(o1bindingNamesOrdered, o2bindingNamesOrdered))
-					|| (!o1.getBindingNames().equals(o2.getBindingNames()))) {
+		// we create an ordered list of binding names (using natural string order) to use for
+		// consistent iteration over binding names and binding values.
+		List<String> o1bindingNamesOrdered;
+		List<String> o2bindingNamesOrdered;
+
+		if (o1 instanceof ArrayBindingSet && o2 instanceof ArrayBindingSet) {
+			o1bindingNamesOrdered = ((ArrayBindingSet) o1).getSortedBindingNames();
+			o2bindingNamesOrdered = ((ArrayBindingSet) o2).getSortedBindingNames();
+		} else {
+			o1bindingNamesOrdered = getSortedBindingNames(o1.getBindingNames());
+			o2bindingNamesOrdered = null;
+		}
 
-				if (o2bindingNamesOrdered == null) {
-					o2bindingNamesOrdered = getSortedBindingNames(o2.getBindingNames());
-				}
+		// binding set sizes are equal. compare on binding names.
+		if ((o2bindingNamesOrdered != null && !sortedEquals(o1bindingNamesOrdered, o2bindingNamesOrdered))
+				|| (!o1.getBindingNames().equals(o2.getBindingNames()))) {
 
-				for (int i = 0; i < o1bindingNamesOrdered.size(); i++) {
-					String o1bn = o1bindingNamesOrdered.get(i);
-					String o2bn = o2bindingNamesOrdered.get(i);
-					int compare = o1bn.compareTo(o2bn);
-					if (compare != 0) {
-						return compare;
-					}
-				}
+			if (o2bindingNamesOrdered == null) {
+				o2bindingNamesOrdered = getSortedBindingNames(o2.getBindingNames());
 			}
 
-			// binding names equal. compare on all values.
-			for (String bindingName : o1bindingNamesOrdered) {
-				final Value v1 = o1.getValue(bindingName);
-				final Value v2 = o2.getValue(bindingName);
-
-				final int compare = cmp.compare(v1, v2);
+			for (int i = 0; i < o1bindingNamesOrdered.size(); i++) {
+				String o1bn = o1bindingNamesOrdered.get(i);
+				String o2bn = o2bindingNamesOrdered.get(i);
+				int compare = o1bn.compareTo(o2bn);
 				if (compare != 0) {
 					return compare;
 				}
 			}
+		}
 
-			return 0;
-		} catch (QueryEvaluationException | IllegalArgumentException e) {
-			logger.debug(e.getMessage(), e);
-			return 0;
+		// binding names equal. compare on all values.
+		for (String bindingName : o1bindingNamesOrdered) {
+			final Value v1 = o1.getValue(bindingName);
+			final Value v2 = o2.getValue(bindingName);
+
+			final int compare = cmp.compare(v1, v2);
+			if (compare != 0) {
+				return compare;
+			}
 		}
+
+		return 0;
 	}
 
 	private boolean sortedEquals(List<String> o1bindingNamesOrdered, List<String> o2bindingNamesOrdered) {
@@ -10,9 +10,19 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.QueryModelNode;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizerTest;
 import org.eclipse.rdf4j.query.algebra.evaluation.optimizer.OrderLimitOptimizer;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.jupiter.api.Test;
 
 public class OrderLimitOptimizerTest extends QueryOptimizerTest {
 
@@ -21,4 +31,44 @@ public class OrderLimitOptimizerTest extends QueryOptimizerTest {
 		return new OrderLimitOptimizer();
 	}
 
+	@Test
+	public void testLimitAboveProjection() {
+		QueryModelNode parent = optimizedOrderParent(
+				"SELECT ?s WHERE { ?s ?p ?o } ORDER BY ?o LIMIT 10 OFFSET 5");
+
+		assertThat(parent).isInstanceOf(Slice.class);
+		assertThat(((Slice) parent).hasOffset()).isFalse();
+		assertThat(((Slice) parent).getLimit()).isEqualTo(15);
+	}
+
+	@Test
+	public void testLimitAboveOrder() {
+		QueryModelNode parent = optimizedOrderParent("SELECT ?o WHERE { ?s ?p ?o } ORDER BY ?o LIMIT 10");
+
+		// the order is moved above the projection, right below the original slice
+		assertThat(parent).isInstanceOf(Slice.class);
+		assertThat(parent.getParentNode()).isNotInstanceOf(Slice.class);
+	}
+
+	@Test
+	public void testDistinctNotLimited() {
+		QueryModelNode parent = optimizedOrderParent("SELECT DISTINCT ?s WHERE { ?s ?p ?o } ORDER BY ?o LIMIT 10");
+
+		assertThat(parent).isNotInstanceOf(Slice.class);
+	}
+
+	private QueryModelNode optimizedOrderParent(String query) {
+		TupleExpr expr = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+		getOptimizer().optimize(expr, null, null);
+
+		Order[] order = new Order[1];
+		expr.visit(new AbstractSimpleQueryModelVisitor<RuntimeException>(false) {
+			@Override
+			public void meet(Order node) {
+				order[0] = node;
+			}
+		});
+		assertThat(order[0]).isNotNull();
+		return order[0].getParentNode();
+	}
 }
@@ -192,6 +192,85 @@ public class QueryJoinOptimizerTest extends QueryOptimizerTest {
 
 	}
 
+	@Test
+	public void testJoinFanOutChangesJoinOrder() throws RDF4JException {
+		String query = "prefix ex: <ex:> select * where { ?s ex:a ?x . ?s ex:b ?y . ?s ex:c ?z . }";
+
+		// ex:a is the most selective pattern, ex:b and ex:c have the same cardinality
+		EvaluationStatistics cardinalities = new EvaluationStatistics() {
+			@Override
+			protected CardinalityCalculator createCardinalityCalculator() {
+				return new CardinalityCalculator() {
+					@Override
+					protected double getCardinality(StatementPattern sp) {
+						return sp.getPredicateVar().getValue().stringValue().equals("ex:a") ? 10 : 1000;
+					}
+				};
+			}
+		};
+		assertThat(optimizedPredicates(query, cardinalities)).containsExactly("ex:a", "ex:b", "ex:c");
+
+		// few subjects of ex:a also have ex:c, so ex:c should be joined before ex:b
+		EvaluationStatistics fanOuts = new EvaluationStatistics() {
+			@Override
+			protected CardinalityCalculator createCardinalityCalculator() {
+				return cardinalities.createCardinalityCalculator();
+			}
+
+			@Override
+			public double getJoinFanOut(List<TupleExpr> joined, TupleExpr expr) {
+				String predicate = ((StatementPattern) expr).getPredicateVar().getValue().stringValue();
+				return predicate.equals("ex:c") ? 0.01 : 1;
+			}
+		};
+		assertThat(optimizedPredicates(query, fanOuts)).containsExactly("ex:a", "ex:c", "ex:b");
+	}
+
+	@Test
+	public void testJoinFanOutIgnoresOptionalBindings() throws RDF4JException {
+		String query = "prefix ex: <ex:> select * where { ?s ex:a ?x . optional { ?o ex:d ?s } ?o ex:b ?y . }";
+
+		List<String> requested = new ArrayList<>();
+		EvaluationStatistics statistics = new EvaluationStatistics() {
+			@Override
+			protected CardinalityCalculator createCardinalityCalculator() {
+				return new CardinalityCalculator() {
+					@Override
+					protected double getCardinality(StatementPattern sp) {
+						return sp.getPredicateVar().getValue().stringValue().equals("ex:b") ? 1000 : 1;
+					}
+				};
+			}
+
+			@Override
+			public double getJoinFanOut(List<TupleExpr> joined, TupleExpr expr) {
+				if (expr instanceof StatementPattern) {
+					requested.add(((StatementPattern) expr).getPredicateVar().getValue().stringValue());
+				}
+				return 0;
+			}
+		};
+		assertThat(optimizedPredicates(query, statistics)).containsExactly("ex:a", "ex:d", "ex:b");
+
+		// the optional is joined first, but ?o of ex:b is only bound by its optional pattern, so the fan-out of ex:b
+		// must not be requested
+		assertThat(requested).doesNotContain("ex:b");
+	}
+
+	private List<String> optimizedPredicates(String query, EvaluationStatistics statistics) {
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		QueryRoot optRoot = new QueryRoot(pq.getTupleExpr());
+		new QueryJoinOptimizer(statistics).optimize(optRoot, null, null);
+
+		StatementFinder stmtFinder = new StatementFinder();
+		optRoot.visit(stmtFinder);
+		List<String> predicates = new ArrayList<>();
+		for (StatementPattern sp : stmtFinder.getStatements()) {
+			predicates.add(sp.getPredicateVar().getValue().stringValue());
+		}
+		return predicates;
+	}
+
 	@Override
 	public QueryJoinOptimizer getOptimizer() {
 		return new QueryJoinOptimizer(new EvaluationStatistics());
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.algebra.QueryRoot;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.DefaultEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class BatchQueryEvaluationStepTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final String QUERY = "PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+			+ "SELECT ?person ?name WHERE {\n"
+			+ "  ?person a foaf:Person ; foaf:age ?age .\n"
+			+ "  OPTIONAL { ?person foaf:name ?name }\n"
+			+ "  FILTER(?age > 20)\n"
+			+ "}";
+
+	private static final String JOIN_QUERY = "PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+			+ "SELECT ?person ?name WHERE {\n"
+			+ "  ?person a foaf:Person ; foaf:age ?age ; foaf:name ?name .\n"
+			+ "  FILTER(?age > 20)\n"
+			+ "}";
+
+	private TripleSource tripleSource;
+
+	@BeforeEach
+	public void setUp() {
+		Model m = new LinkedHashModel();
+		for (int i = 0; i < 50; i++) {
+			IRI person = vf.createIRI("http://example.org/person" + i);
+			m.add(person, RDF.TYPE, FOAF.PERSON);
+			m.add(person, FOAF.AGE, vf.createLiteral(i));
+			if (i % 3 == 0) {
+				m.add(person, FOAF.NAME, vf.createLiteral("person " + i));
+			}
+		}
+
+		tripleSource = new TripleSource() {
+
+			@Override
+			public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj,
+					IRI pred, Value obj, Resource... contexts) throws QueryEvaluationException {
+				return new CloseableIteratorIteration<>(m.getStatements(subj, pred, obj, contexts).iterator());
+			}
+
+			@Override
+			public ValueFactory getValueFactory() {
+				return vf;
+			}
+		};
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 7, 29, 1000 })
+	public void testBatchedResultsMatchRowResults(int batchSize) {
+		List<BindingSet> expected = evaluate(QUERY, 0);
+		assertThat(expected).hasSize(29);
+
+		List<BindingSet> actual = evaluate(QUERY, batchSize);
+		assertThat(actual).containsExactlyElementsOf(expected);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 7, 29, 1000 })
+	public void testBatchedJoinResultsMatchRowResults(int batchSize) {
+		List<BindingSet> expected = evaluate(JOIN_QUERY, 0);
+		assertThat(expected).hasSize(10);
+
+		List<BindingSet> actual = evaluate(JOIN_QUERY, batchSize);
+		assertThat(actual).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	public void testBatchedStepsAreUsed() {
+		DefaultEvaluationStrategy strategy = new DefaultEvaluationStrategy(tripleSource, null);
+		strategy.setBatchSize(16);
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, JOIN_QUERY, null);
+		QueryEvaluationStep step = strategy.precompile(pq.getTupleExpr());
+
+		assertThat(step).isInstanceOf(ProjectionBatchQueryEvaluationStep.class);
+		try (CloseableIteration<BindingSetBatch, QueryEvaluationException> batches = ((BatchQueryEvaluationStep) step)
+				.evaluateBatches(EmptyBindingSet.getInstance())) {
+			while (batches.hasNext()) {
+				BindingSetBatch batch = batches.next();
+				assertThat(batch.isEmpty()).isFalse();
+				assertThat(batch.size()).isLessThanOrEqualTo(16);
+			}
+		}
+	}
+
+	@Test
+	public void testUnbatchedArgumentIsNotBatched() {
+		DefaultEvaluationStrategy strategy = new DefaultEvaluationStrategy(tripleSource, null);
+		strategy.setBatchSize(16);
+		// the OPTIONAL is evaluated one solution at a time, so the filter and projection on top of it are as well
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, QUERY, null);
+		QueryEvaluationStep step = strategy.precompile(pq.getTupleExpr());
+
+		assertThat(step).isNotInstanceOf(BatchQueryEvaluationStep.class);
+	}
+
+	private List<BindingSet> evaluate(String query, int batchSize) {
+		DefaultEvaluationStrategy strategy = new DefaultEvaluationStrategy(tripleSource, null);
+		strategy.setBatchSize(batchSize);
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		QueryRoot root = new QueryRoot(pq.getTupleExpr());
+		strategy.optimize(root, null, EmptyBindingSet.getInstance());
+		return QueryResults.asList(strategy.precompile(root).evaluate(EmptyBindingSet.getInstance()));
+	}
+}
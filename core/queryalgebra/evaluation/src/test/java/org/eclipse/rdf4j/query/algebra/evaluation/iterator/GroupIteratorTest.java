@@ -20,6 +20,7 @@ import java.util.Date;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -260,6 +261,80 @@ public class GroupIteratorTest {
 		}
 	}
 
+	@Test
+	public void testParallelGroupBy() throws QueryEvaluationException {
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		var list = new ArrayList<BindingSet>();
+		for (int i = 0; i < 5000; i++) {
+			var bindings = new QueryBindingSet();
+			bindings.addBinding("g", vf.createLiteral(i % 37));
+			bindings.addBinding("a", vf.createLiteral(i % 101));
+			list.add(bindings);
+		}
+		assignment.setBindingSets(list);
+
+		Group group = new Group(assignment);
+		group.addGroupBindingName("g");
+		group.addGroupElement(new GroupElem("sum", new Sum(new Var("a"))));
+		group.addGroupElement(new GroupElem("count", new Count(new Var("a"), true)));
+		group.addGroupElement(new GroupElem("min", new Min(new Var("a"))));
+		group.addGroupElement(new GroupElem("concat", new GroupConcat(new Var("a"))));
+
+		var expected = new ArrayList<BindingSet>();
+		try (GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance(), context)) {
+			while (gi.hasNext()) {
+				expected.add(gi.next());
+			}
+		}
+		var actual = new ArrayList<BindingSet>();
+		try (GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance(), 0, context, vf,
+				new DefaultCollectionFactory(), 4)) {
+			while (gi.hasNext()) {
+				actual.add(gi.next());
+			}
+		}
+
+		assertThat(expected).hasSize(37);
+		assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+	}
+
+	@Test
+	public void testSpillingGroupBy() throws QueryEvaluationException {
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		var list = new ArrayList<BindingSet>();
+		for (int i = 0; i < 5000; i++) {
+			var bindings = new QueryBindingSet();
+			bindings.addBinding("g", vf.createLiteral(i % 997));
+			bindings.addBinding("a", vf.createLiteral(i % 101));
+			list.add(bindings);
+		}
+		assignment.setBindingSets(list);
+
+		Group group = new Group(assignment);
+		group.addGroupBindingName("g");
+		group.addGroupElement(new GroupElem("sum", new Sum(new Var("a"))));
+		group.addGroupElement(new GroupElem("count", new Count(new Var("a"), true)));
+		group.addGroupElement(new GroupElem("concat", new GroupConcat(new Var("a"))));
+
+		var expected = new ArrayList<BindingSet>();
+		try (GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance(), context)) {
+			while (gi.hasNext()) {
+				expected.add(gi.next());
+			}
+		}
+		// a budget for a few dozen groups, so that most solutions are spilled and partitioned again
+		var actual = new ArrayList<BindingSet>();
+		try (GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance(), 0, context, vf,
+				new DefaultCollectionFactory(), 1, 20_000)) {
+			while (gi.hasNext()) {
+				actual.add(gi.next());
+			}
+		}
+
+		assertThat(expected).hasSize(997);
+		assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+	}
+
 	/**
 	 * Dummy collector to verify custom aggregate functions
 	 */
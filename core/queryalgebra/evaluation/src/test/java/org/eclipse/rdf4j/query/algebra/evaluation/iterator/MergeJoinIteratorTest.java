@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.junit.jupiter.api.Test;
+
+public class MergeJoinIteratorTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final Comparator<Value> comparator = Comparator.comparingInt(v -> ((Literal) v).intValue());
+
+	private final QueryEvaluationContext context = new QueryEvaluationContext.Minimal(null, vf);
+
+	@Test
+	public void testJoinWithDuplicateKeys() {
+		// left: keys 0..299 with key % 3 == 0 twice, right: keys 0..199 step 2 with key % 4 == 0 three times
+		List<BindingSet> left = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			left.add(bindings("a", i, "x", i));
+			if (i % 3 == 0) {
+				left.add(bindings("a", i + 1000, "x", i));
+			}
+		}
+		List<BindingSet> right = new ArrayList<>();
+		for (int i = 0; i < 200; i += 2) {
+			int copies = i % 4 == 0 ? 3 : 1;
+			for (int c = 0; c < copies; c++) {
+				right.add(bindings("b", i * 10 + c, "x", i));
+			}
+		}
+
+		List<BindingSet> expected = new ArrayList<>();
+		for (BindingSet l : left) {
+			for (BindingSet r : right) {
+				if (l.getValue("x").equals(r.getValue("x"))) {
+					QueryBindingSet joined = new QueryBindingSet(l);
+					joined.addAll(r);
+					expected.add(joined);
+				}
+			}
+		}
+
+		List<BindingSet> actual = join(left, right, "x");
+		assertThat(actual).hasSameSizeAs(expected);
+		assertThat(new HashSet<>(actual)).isEqualTo(new HashSet<>(expected));
+
+		// the result is sorted on the join variable
+		for (int i = 1; i < actual.size(); i++) {
+			assertThat(comparator.compare(actual.get(i - 1).getValue("x"), actual.get(i).getValue("x")))
+					.isLessThanOrEqualTo(0);
+		}
+	}
+
+	@Test
+	public void testIncompatibleSharedVariable() {
+		List<BindingSet> left = List.of(bindings("x", 1, "y", 1), bindings("x", 2, "y", 2));
+		List<BindingSet> right = List.of(bindings("x", 1, "y", 1), bindings("x", 2, "y", 3));
+
+		List<BindingSet> actual = join(left, right, "x");
+		assertThat(actual).containsExactly(bindings("x", 1, "y", 1));
+	}
+
+	@Test
+	public void testEmptyArgument() {
+		List<BindingSet> left = List.of(bindings("x", 1, "y", 1));
+		assertThat(join(left, List.of(), "x")).isEmpty();
+		assertThat(join(List.of(), left, "x")).isEmpty();
+	}
+
+	private List<BindingSet> join(List<BindingSet> left, List<BindingSet> right, String joinVar) {
+		List<BindingSet> result = new ArrayList<>();
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = new MergeJoinIterator(
+				new CloseableIteratorIteration<>(left.iterator()), new CloseableIteratorIteration<>(right.iterator()),
+				joinVar, comparator, context)) {
+			while (iter.hasNext()) {
+				result.add(iter.next());
+			}
+		}
+		return result;
+	}
+
+	private static BindingSet bindings(String name1, int value1, String name2, int value2) {
+		QueryBindingSet bs = new QueryBindingSet();
+		bs.addBinding(name1, vf.createLiteral(value1));
+		bs.addBinding(name2, vf.createLiteral(value2));
+		return bs;
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ParallelHashJoinIterationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final EvaluationStrategy evaluator = new StrictEvaluationStrategy(null, null);
+
+	private final QueryEvaluationContext context = new QueryEvaluationContext.Minimal(null, vf);
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 3, 8 })
+	public void testInnerJoin(int parallelism) throws QueryEvaluationException {
+		assertSameSolutions(false, parallelism);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2, 3, 8 })
+	public void testLeftJoin(int parallelism) throws QueryEvaluationException {
+		assertSameSolutions(true, parallelism);
+	}
+
+	private void assertSameSolutions(boolean leftJoin, int parallelism) {
+		// more left solutions than fit into a single probe chunk
+		QueryEvaluationStep left = evaluator.precompile(assignment(3000, "a", 7), context);
+		QueryEvaluationStep right = evaluator.precompile(assignment(40, "b", 11), context);
+		String[] joinAttributes = { "i" };
+
+		List<BindingSet> expected = new ArrayList<>();
+		try (HashJoinIteration iter = new HashJoinIteration(left, right, EmptyBindingSet.getInstance(), leftJoin,
+				joinAttributes, context)) {
+			while (iter.hasNext()) {
+				expected.add(iter.next());
+			}
+		}
+
+		List<BindingSet> actual = new ArrayList<>();
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = new ParallelHashJoinIteration(left,
+				right, EmptyBindingSet.getInstance(), leftJoin, joinAttributes, context, parallelism)) {
+			while (iter.hasNext()) {
+				actual.add(iter.next());
+			}
+		}
+
+		// all solutions are distinct
+		assertThat(actual).isNotEmpty().hasSameSizeAs(expected);
+		assertThat(new HashSet<>(actual)).isEqualTo(new HashSet<>(expected));
+	}
+
+	private static BindingSetAssignment assignment(int size, String name, int modulo) {
+		List<BindingSet> bindingSets = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding(name, vf.createLiteral(i));
+			bs.addBinding("i", vf.createLiteral(i % modulo));
+			bindingSets.add(bs);
+		}
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		assignment.setBindingSets(bindingSets);
+		return assignment;
+	}
+}
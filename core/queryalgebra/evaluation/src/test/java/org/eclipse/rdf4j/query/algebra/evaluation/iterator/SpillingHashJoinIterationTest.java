@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SpillingHashJoinIterationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final EvaluationStrategy evaluator = new StrictEvaluationStrategy(null, null);
+
+	private final QueryEvaluationContext context = new QueryEvaluationContext.Minimal(null, vf);
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1, 10_000, 100_000, 1L << 30 })
+	public void testInnerJoin(long memoryBudget) throws QueryEvaluationException {
+		assertSameSolutions(assignment(3000, "a", 7), assignment(400, "b", 11), false, memoryBudget);
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1, 10_000, 100_000, 1L << 30 })
+	public void testLeftJoin(long memoryBudget) throws QueryEvaluationException {
+		assertSameSolutions(assignment(3000, "a", 13), assignment(400, "b", 11), true, memoryBudget);
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1, 10_000, 1L << 30 })
+	public void testLargeLeftSide(long memoryBudget) throws QueryEvaluationException {
+		// the smaller right argument is exhausted first and becomes the build side
+		assertSameSolutions(assignment(400, "a", 7), assignment(3000, "b", 11), false, memoryBudget);
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1, 10_000, 1L << 30 })
+	public void testEmptyProbe(long memoryBudget) throws QueryEvaluationException {
+		// the empty solution is on the larger side, which is probed, and joins with every solution of the other side
+		BindingSetAssignment left = assignment(3000, "a", 7);
+		List<BindingSet> bindingSets = new ArrayList<>();
+		left.getBindingSets().forEach(bindingSets::add);
+		bindingSets.add(EmptyBindingSet.getInstance());
+		left.setBindingSets(bindingSets);
+
+		assertSameSolutions(left, assignment(400, "b", 11), false, memoryBudget);
+	}
+
+	private void assertSameSolutions(BindingSetAssignment leftArg, BindingSetAssignment rightArg, boolean leftJoin,
+			long memoryBudget) {
+		QueryEvaluationStep left = evaluator.precompile(leftArg, context);
+		QueryEvaluationStep right = evaluator.precompile(rightArg, context);
+		String[] joinAttributes = { "i" };
+
+		List<BindingSet> expected = new ArrayList<>();
+		try (HashJoinIteration iter = new HashJoinIteration(left, right, EmptyBindingSet.getInstance(), leftJoin,
+				joinAttributes, context)) {
+			while (iter.hasNext()) {
+				expected.add(iter.next());
+			}
+		}
+
+		List<BindingSet> actual = new ArrayList<>();
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = new SpillingHashJoinIteration(left,
+				right, EmptyBindingSet.getInstance(), leftJoin, joinAttributes, context,
+				new DefaultCollectionFactory(), memoryBudget)) {
+			while (iter.hasNext()) {
+				actual.add(iter.next());
+			}
+		}
+
+		// all solutions are distinct
+		assertThat(actual).isNotEmpty().hasSameSizeAs(expected);
+		assertThat(new HashSet<>(actual)).isEqualTo(new HashSet<>(expected));
+	}
+
+	@Test
+	public void testPartitionOf() {
+		for (int depth = 0; depth < SpillingHashJoinIteration.MAX_DEPTH; depth++) {
+			int[] counts = new int[SpillingHashJoinIteration.PARTITIONS];
+			for (int hash = 0; hash < 16_000; hash++) {
+				counts[SpillingHashJoinIteration.partitionOf(hash, depth)]++;
+			}
+			for (int count : counts) {
+				assertThat(count).isBetween(800, 1200);
+			}
+		}
+	}
+
+	private static BindingSetAssignment assignment(int size, String name, int modulo) {
+		List<BindingSet> bindingSets = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding(name, vf.createLiteral(i));
+			bs.addBinding("i", vf.createLiteral(i % modulo));
+			bindingSets.add(bs);
+		}
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		assignment.setBindingSets(bindingSets);
+		return assignment;
+	}
+}
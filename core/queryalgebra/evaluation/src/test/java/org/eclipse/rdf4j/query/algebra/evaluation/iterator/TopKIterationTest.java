@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.MathExpr;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.OrderElem;
+import org.eclipse.rdf4j.query.algebra.SingletonSet;
+import org.eclipse.rdf4j.query.algebra.ValueConstant;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EmptyTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TopKIterationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final EvaluationStrategy evaluator = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+
+	private final QueryEvaluationContext context = new QueryEvaluationContext.Minimal(null, vf);
+
+	private final List<BindingSet> input = createInput(2000);
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 10, 100, 1999, 2000, 5000 })
+	public void testOrderByVariables(int k) throws QueryEvaluationException {
+		Order order = new Order(new SingletonSet(), new OrderElem(new Var("x"), true),
+				new OrderElem(new Var("y"), false));
+		assertSameSolutions(order, k, false);
+		assertSameSolutions(order, k, true);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 10, 100, 5000 })
+	public void testOrderByExpression(int k) throws QueryEvaluationException {
+		MathExpr expr = new MathExpr(new Var("y"), new ValueConstant(vf.createLiteral(-1)),
+				MathExpr.MathOp.MULTIPLY);
+		Order order = new Order(new SingletonSet(), new OrderElem(expr, true));
+		assertSameSolutions(order, k, false);
+		assertSameSolutions(order, k, true);
+	}
+
+	@Test
+	public void testZeroLimit() throws QueryEvaluationException {
+		Order order = new Order(new SingletonSet(), new OrderElem(new Var("x"), true));
+		OrderComparator cmp = new OrderComparator(evaluator, order, new ValueComparator(), context);
+
+		try (TopKIteration iter = new TopKIteration(iterate(), cmp, 0, false)) {
+			assertThat(iter.hasNext()).isFalse();
+		}
+	}
+
+	private void assertSameSolutions(Order order, int k, boolean distinct) {
+		OrderComparator cmp = new OrderComparator(evaluator, order, new ValueComparator(), context);
+
+		List<BindingSet> expected;
+		try (OrderIterator iter = new OrderIterator(iterate(), cmp, k, distinct)) {
+			expected = Iterations.asList(iter);
+		}
+
+		List<BindingSet> actual;
+		try (TopKIteration iter = new TopKIteration(iterate(), cmp, k, distinct)) {
+			actual = Iterations.asList(iter);
+		}
+
+		assertThat(actual).hasSize(Math.min(k, distinct ? 1000 : input.size())).isEqualTo(expected);
+	}
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> iterate() {
+		return new CloseableIteratorIteration<>(input.iterator());
+	}
+
+	/**
+	 * Every solution occurs twice, and the values of ?x and ?y are repeated.
+	 */
+	private static List<BindingSet> createInput(int size) {
+		Random random = new Random(83);
+		List<BindingSet> bindingSets = new ArrayList<>(size);
+		for (int i = 0; i < size / 2; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("x", vf.createLiteral(random.nextInt(50)));
+			bs.addBinding("y", vf.createLiteral(random.nextInt(50)));
+			bs.addBinding("i", vf.createLiteral(i));
+			bindingSets.add(bs);
+			bindingSets.add(new QueryBindingSet(bs));
+		}
+		return bindingSets;
+	}
+}
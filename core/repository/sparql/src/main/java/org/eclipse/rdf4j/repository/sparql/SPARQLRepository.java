@@ -15,6 +15,8 @@ import java.util.Collections;
 import java.util.Map;
 
 import org.apache.http.client.HttpClient;
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.http.client.AsyncSPARQLProtocolSession;
 import org.eclipse.rdf4j.http.client.HttpClientDependent;
 import org.eclipse.rdf4j.http.client.HttpClientSessionManager;
 import org.eclipse.rdf4j.http.client.SPARQLProtocolSession;
@@ -152,6 +154,27 @@ public class SPARQLRepository extends AbstractRepository implements HttpClientDe
 		return session;
 	}
 
+	/**
+	 * Creates a new {@link AsyncSPARQLProtocolSession} to the endpoints of this repository, which sends queries and
+	 * updates without blocking the calling thread. The session is configured like the sessions of the connections of
+	 * this repository, and should be closed by the caller.
+	 *
+	 * @return an AsyncSPARQLProtocolSession object.
+	 * @throws UnsupportedOperationException if the {@link HttpClientSessionManager} of this repository does not support
+	 *                                       asynchronous sessions
+	 */
+	@Experimental
+	public AsyncSPARQLProtocolSession createAsyncSPARQLProtocolSession() {
+		AsyncSPARQLProtocolSession session = getHttpClientSessionManager()
+				.createAsyncSPARQLProtocolSession(queryEndpointUrl, updateEndpointUrl);
+		session.setValueFactory(getValueFactory());
+		session.setAdditionalHttpHeaders(additionalHttpHeaders);
+		if (username != null) {
+			session.setUsernameAndPassword(username, password);
+		}
+		return session;
+	}
+
 	/**
 	 * @deprecated use {@link #createSPARQLProtocolSession()} instead
 	 */
@@ -16,11 +16,13 @@ import static org.eclipse.rdf4j.sail.config.SailConfigSchema.CONNECTION_TIME_OUT
 import static org.eclipse.rdf4j.sail.config.SailConfigSchema.ITERATION_CACHE_SYNC_THRESHOLD;
 import static org.eclipse.rdf4j.sail.config.SailConfigSchema.SAILTYPE;
 
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.util.Configurations;
 import org.eclipse.rdf4j.model.util.ModelException;
+import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.model.vocabulary.CONFIG;
 
 /**
@@ -37,6 +39,8 @@ public abstract class AbstractSailImplConfig implements SailImplConfig {
 
 	private long iterationCacheSyncThreshold;
 	private long connectionTimeOut;
+	private long queryMemoryBudget;
+	private int queryEvaluationParallelism;
 
 	/**
 	 * Create a new RepositoryConfigImpl.
@@ -95,6 +99,14 @@ public abstract class AbstractSailImplConfig implements SailImplConfig {
 				m.add(implNode, CONNECTION_TIME_OUT, literal(connectionTimeOut));
 			}
 		}
+
+		if (queryMemoryBudget > 0) {
+			m.add(implNode, CONFIG.Sail.queryMemoryBudget, literal(queryMemoryBudget));
+		}
+
+		if (queryEvaluationParallelism > 0) {
+			m.add(implNode, CONFIG.Sail.queryEvaluationParallelism, literal(queryEvaluationParallelism));
+		}
 		return implNode;
 	}
 
@@ -110,6 +122,10 @@ public abstract class AbstractSailImplConfig implements SailImplConfig {
 			Configurations
 					.getLiteralValue(m, implNode, CONFIG.Sail.connectionTimeOut, CONNECTION_TIME_OUT)
 					.ifPresent(lit -> setConnectionTimeOut(lit.longValue()));
+			Models.objectLiteral(m.getStatements(implNode, CONFIG.Sail.queryMemoryBudget, null))
+					.ifPresent(lit -> setQueryMemoryBudget(lit.longValue()));
+			Models.objectLiteral(m.getStatements(implNode, CONFIG.Sail.queryEvaluationParallelism, null))
+					.ifPresent(lit -> setQueryEvaluationParallelism(lit.intValue()));
 		} catch (ModelException e) {
 			throw new SailConfigException(e.getMessage(), e);
 		}
@@ -147,4 +163,39 @@ public abstract class AbstractSailImplConfig implements SailImplConfig {
 	public void setConnectionTimeOut(long connectionTimeOut) {
 		this.connectionTimeOut = connectionTimeOut;
 	}
+
+	/**
+	 * @return the approximate number of bytes that a hash join or GROUP BY may hold in memory before spilling to disk,
+	 *         0 if unlimited
+	 */
+	@Experimental
+	public long getQueryMemoryBudget() {
+		return queryMemoryBudget;
+	}
+
+	/**
+	 * @param queryMemoryBudget the approximate number of bytes that a hash join or GROUP BY may hold in memory before
+	 *                          spilling to disk, 0 for no limit
+	 */
+	@Experimental
+	public void setQueryMemoryBudget(long queryMemoryBudget) {
+		this.queryMemoryBudget = queryMemoryBudget;
+	}
+
+	/**
+	 * @return the number of tasks that a hash join or GROUP BY is evaluated with, 0 if not configured
+	 */
+	@Experimental
+	public int getQueryEvaluationParallelism() {
+		return queryEvaluationParallelism;
+	}
+
+	/**
+	 * @param queryEvaluationParallelism the number of tasks that a hash join or GROUP BY is evaluated with, 0 to use
+	 *                                   the parallelism of the evaluation strategy factory
+	 */
+	@Experimental
+	public void setQueryEvaluationParallelism(int queryEvaluationParallelism) {
+		this.queryEvaluationParallelism = queryEvaluationParallelism;
+	}
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.transaction.IsolationLevel;
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.common.transaction.QueryEvaluationMode;
@@ -54,6 +55,10 @@ public abstract class AbstractSail implements Sail {
 	 */
 	private QueryEvaluationMode defaultQueryEvaluationMode = QueryEvaluationMode.STRICT;
 
+	private long queryMemoryBudget = 0;
+
+	private int queryEvaluationParallelism = 0;
+
 	/**
 	 * list of supported isolation levels. By default set to include {@link IsolationLevels#READ_UNCOMMITTED} and
 	 * {@link IsolationLevels#SERIALIZABLE}. Specific store implementations are expected to alter this list according to
@@ -451,4 +456,54 @@ public abstract class AbstractSail implements Sail {
 	public void setDefaultQueryEvaluationMode(QueryEvaluationMode defaultQueryEvaluationMode) {
 		this.defaultQueryEvaluationMode = Objects.requireNonNull(defaultQueryEvaluationMode);
 	}
+
+	/**
+	 * @return the approximate number of bytes that a hash join or GROUP BY may hold in memory before spilling to disk,
+	 *         0 if unlimited
+	 */
+	@Experimental
+	public long getQueryMemoryBudget() {
+		return queryMemoryBudget;
+	}
+
+	/**
+	 * Sets the memory budget of hash joins and GROUP BY for stores that support spilling intermediate solutions to
+	 * disk. The {@link org.eclipse.rdf4j.common.transaction.QueryEvaluationMemoryBudget} transaction setting overrides
+	 * it for a single transaction.
+	 *
+	 * @param queryMemoryBudget the approximate number of bytes per operator, 0 for no limit (the default)
+	 */
+	@Experimental
+	public void setQueryMemoryBudget(long queryMemoryBudget) {
+		if (queryMemoryBudget < 0) {
+			throw new IllegalArgumentException("Memory budget must not be negative, was " + queryMemoryBudget);
+		}
+		this.queryMemoryBudget = queryMemoryBudget;
+	}
+
+	/**
+	 * @return the number of tasks that a hash join or GROUP BY is evaluated with, 0 if the parallelism of the
+	 *         evaluation strategy factory is used
+	 */
+	@Experimental
+	public int getQueryEvaluationParallelism() {
+		return queryEvaluationParallelism;
+	}
+
+	/**
+	 * Sets the parallelism of hash joins and GROUP BY for stores that support parallel evaluation. The
+	 * {@link org.eclipse.rdf4j.common.transaction.QueryEvaluationParallelism} transaction setting overrides it for a
+	 * single transaction.
+	 *
+	 * @param queryEvaluationParallelism the number of tasks, 1 for sequential evaluation, 0 to use the parallelism of
+	 *                                   the evaluation strategy factory (the default)
+	 */
+	@Experimental
+	public void setQueryEvaluationParallelism(int queryEvaluationParallelism) {
+		if (queryEvaluationParallelism < 0) {
+			throw new IllegalArgumentException(
+					"Parallelism must not be negative, was " + queryEvaluationParallelism);
+		}
+		this.queryEvaluationParallelism = queryEvaluationParallelism;
+	}
 }
@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.base;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.model.IRI;
@@ -18,6 +23,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Triple;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.sail.SailException;
 
 /**
@@ -79,6 +85,51 @@ public interface SailDataset extends SailClosable {
 	CloseableIteration<? extends Statement, SailException> getStatements(Resource subj, IRI pred, Value obj,
 			Resource... contexts) throws SailException;
 
+	/**
+	 * Gets the orders in which this dataset can deliver the statements of a pattern without sorting them, see
+	 * {@link #getOrderedStatements(StatementOrder, Resource, IRI, Value, Resource...)}.
+	 *
+	 * @param subj     A Resource specifying the subject, or <var>null</var> for a wildcard.
+	 * @param pred     A IRI specifying the predicate, or <var>null</var> for a wildcard.
+	 * @param obj      A Value specifying the object, or <var>null</var> for a wildcard.
+	 * @param contexts The context(s) to get the statements from.
+	 * @return the supported orders, empty if the statements can not be delivered in any particular order.
+	 */
+	@Experimental
+	default Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Gets the statements that match the pattern ordered by the {@link #getComparator() comparator} on the value at the
+	 * position of the supplied order. Only {@link #getSupportedOrders(Resource, IRI, Value, Resource...) supported}
+	 * orders may be requested.
+	 *
+	 * @param order    the order of the returned statements
+	 * @param subj     A Resource specifying the subject, or <var>null</var> for a wildcard.
+	 * @param pred     A IRI specifying the predicate, or <var>null</var> for a wildcard.
+	 * @param obj      A Value specifying the object, or <var>null</var> for a wildcard.
+	 * @param contexts The context(s) to get the statements from.
+	 * @return An iterator over the relevant statements in the requested order.
+	 * @throws SailException If the triple source failed to get the statements.
+	 */
+	@Experimental
+	default CloseableIteration<? extends Statement, SailException> getOrderedStatements(StatementOrder order,
+			Resource subj,
+			IRI pred, Value obj, Resource... contexts) throws SailException {
+		throw new SailException("Ordered statements are not supported by this store");
+	}
+
+	/**
+	 * @return the comparator that defines the order of the statements returned by
+	 *         {@link #getOrderedStatements(StatementOrder, Resource, IRI, Value, Resource...)}, or <var>null</var> if
+	 *         ordered statements are not supported.
+	 */
+	@Experimental
+	default Comparator<Value> getComparator() {
+		return null;
+	}
+
 	/**
 	 * Gets all RDF-star triples that have a specific subject, predicate and/or object. All three parameters may be null
 	 * to indicate wildcards.
@@ -12,6 +12,8 @@ package org.eclipse.rdf4j.sail.base;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +36,7 @@ import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Triple;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.SimpleNamespace;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.sail.SailException;
 
 /**
@@ -262,19 +265,12 @@ class SailDatasetImpl implements SailDataset {
 	@Override
 	public CloseableIteration<? extends Statement, SailException> getStatements(Resource subj, IRI pred, Value obj,
 			Resource... contexts) throws SailException {
-		Set<Resource> deprecatedContexts = changes.getDeprecatedContexts();
+		Resource[] backingContexts = getBackingContexts(contexts);
 		CloseableIteration<? extends Statement, SailException> iter;
-		if (changes.isStatementCleared()
-				|| contexts == null && deprecatedContexts != null && deprecatedContexts.contains(null)
-				|| contexts != null && contexts.length > 0 && deprecatedContexts != null
-						&& deprecatedContexts.containsAll(Arrays.asList(contexts))) {
+		if (backingContexts == null) {
 			iter = null;
-		} else if (contexts != null && contexts.length > 0 && deprecatedContexts != null) {
-			List<Resource> remaining = new ArrayList<>(Arrays.asList(contexts));
-			remaining.removeAll(deprecatedContexts);
-			iter = derivedFrom.getStatements(subj, pred, obj, remaining.toArray(new Resource[0]));
 		} else {
-			iter = derivedFrom.getStatements(subj, pred, obj, contexts);
+			iter = derivedFrom.getStatements(subj, pred, obj, backingContexts);
 		}
 		if (changes.hasDeprecated() && iter != null) {
 			iter = difference(iter, changes::hasDeprecated);
@@ -297,6 +293,78 @@ class SailDatasetImpl implements SailDataset {
 		}
 	}
 
+	@Override
+	public Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		if (changes.hasApproved()) {
+			// approved statements are not sorted
+			return Collections.emptySet();
+		}
+		Resource[] backingContexts = getBackingContexts(contexts);
+		if (backingContexts == null) {
+			return Collections.emptySet();
+		}
+		return derivedFrom.getSupportedOrders(subj, pred, obj, backingContexts);
+	}
+
+	@Override
+	public CloseableIteration<? extends Statement, SailException> getOrderedStatements(StatementOrder order,
+			Resource subj,
+			IRI pred, Value obj, Resource... contexts) throws SailException {
+		if (changes.hasApproved()) {
+			// statements were approved after the supported orders were determined
+			return sorted(order, getStatements(subj, pred, obj, contexts));
+		}
+		Resource[] backingContexts = getBackingContexts(contexts);
+		if (backingContexts == null) {
+			return STATEMENT_EMPTY_ITERATION;
+		}
+		CloseableIteration<? extends Statement, SailException> iter = derivedFrom.getOrderedStatements(order, subj,
+				pred,
+				obj, backingContexts);
+		if (changes.hasDeprecated()) {
+			// filtering keeps the order
+			iter = difference(iter, changes::hasDeprecated);
+		}
+		return iter;
+	}
+
+	@Override
+	public Comparator<Value> getComparator() {
+		return derivedFrom.getComparator();
+	}
+
+	/**
+	 * @return the contexts to read from the backing dataset, or null if none of the statements in the backing dataset
+	 *         are relevant
+	 */
+	private Resource[] getBackingContexts(Resource... contexts) {
+		Set<Resource> deprecatedContexts = changes.getDeprecatedContexts();
+		if (changes.isStatementCleared()
+				|| contexts == null && deprecatedContexts != null && deprecatedContexts.contains(null)
+				|| contexts != null && contexts.length > 0 && deprecatedContexts != null
+						&& deprecatedContexts.containsAll(Arrays.asList(contexts))) {
+			return null;
+		} else if (contexts != null && contexts.length > 0 && deprecatedContexts != null) {
+			List<Resource> remaining = new ArrayList<>(Arrays.asList(contexts));
+			remaining.removeAll(deprecatedContexts);
+			return remaining.toArray(new Resource[0]);
+		} else {
+			return contexts;
+		}
+	}
+
+	private CloseableIteration<? extends Statement, SailException> sorted(StatementOrder order,
+			CloseableIteration<? extends Statement, SailException> iter) {
+		List<Statement> statements = new ArrayList<>();
+		try (iter) {
+			while (iter.hasNext()) {
+				statements.add(iter.next());
+			}
+		}
+		statements.sort(Comparator.comparing(order::getValue, getComparator()));
+		return new CloseableIteratorIteration<>(statements.iterator());
+	}
+
 	@Override
 	public CloseableIteration<? extends Triple, SailException> getTriples(Resource subj, IRI pred, Value obj)
 			throws SailException {
@@ -19,7 +19,9 @@ import java.util.stream.Stream;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.transaction.IsolationLevel;
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.common.transaction.QueryEvaluationMemoryBudget;
 import org.eclipse.rdf4j.common.transaction.QueryEvaluationMode;
+import org.eclipse.rdf4j.common.transaction.QueryEvaluationParallelism;
 import org.eclipse.rdf4j.common.transaction.TransactionSetting;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Namespace;
@@ -149,6 +151,13 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 	// current query evaluation mode
 	private QueryEvaluationMode queryEvaluationMode;
 
+	// query evaluation parallelism of the current transaction, null to use the one of the sail or of the evaluation
+	// strategy factory
+	private QueryEvaluationParallelism queryEvaluationParallelism;
+
+	// query memory budget of the current transaction, null to use the one of the sail
+	private QueryEvaluationMemoryBudget queryEvaluationMemoryBudget;
+
 	/**
 	 * Creates a new {@link SailConnection}, using the given {@link SailStore} to manage the state.
 	 *
@@ -209,6 +218,19 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 			((FederatedServiceResolverClient) evalStrat).setFederatedServiceResolver(federatedServiceResolver);
 		}
 		evalStrat.setQueryEvaluationMode(queryEvaluationMode);
+		if (evalStrat instanceof DefaultEvaluationStrategy) {
+			if (queryEvaluationParallelism != null) {
+				((DefaultEvaluationStrategy) evalStrat).setParallelism(queryEvaluationParallelism.getParallelism());
+			} else if (getSailBase().getQueryEvaluationParallelism() > 0) {
+				((DefaultEvaluationStrategy) evalStrat)
+						.setParallelism(getSailBase().getQueryEvaluationParallelism());
+			}
+			if (queryEvaluationMemoryBudget != null) {
+				((DefaultEvaluationStrategy) evalStrat).setMemoryBudget(queryEvaluationMemoryBudget.getBytes());
+			} else if (getSailBase().getQueryMemoryBudget() > 0) {
+				((DefaultEvaluationStrategy) evalStrat).setMemoryBudget(getSailBase().getQueryMemoryBudget());
+			}
+		}
 		return evalStrat;
 	}
 
@@ -442,9 +464,15 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 	@Override
 	public void setTransactionSettings(TransactionSetting... settings) {
 		this.queryEvaluationMode = getSailBase().getDefaultQueryEvaluationMode();
+		this.queryEvaluationParallelism = null;
+		this.queryEvaluationMemoryBudget = null;
 		for (TransactionSetting setting : settings) {
 			if (setting instanceof QueryEvaluationMode) {
 				this.queryEvaluationMode = ((QueryEvaluationMode) setting);
+			} else if (setting instanceof QueryEvaluationParallelism) {
+				this.queryEvaluationParallelism = ((QueryEvaluationParallelism) setting);
+			} else if (setting instanceof QueryEvaluationMemoryBudget) {
+				this.queryEvaluationMemoryBudget = ((QueryEvaluationMemoryBudget) setting);
 			}
 		}
 		super.setTransactionSettings(settings);
@@ -480,6 +508,8 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 		includeInferredBranch = null;
 
 		queryEvaluationMode = getSailBase().getDefaultQueryEvaluationMode();
+		queryEvaluationParallelism = null;
+		queryEvaluationMemoryBudget = null;
 		try {
 			if (toCloseInferredBranch != null) {
 				toCloseInferredBranch.flush();
@@ -508,6 +538,8 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 			inferredOnlyBranch = null;
 
 			queryEvaluationMode = getSailBase().getDefaultQueryEvaluationMode();
+			queryEvaluationParallelism = null;
+			queryEvaluationMemoryBudget = null;
 
 			try {
 				if (datasets.containsKey(null)) {
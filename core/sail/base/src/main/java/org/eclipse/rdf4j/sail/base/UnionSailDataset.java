@@ -11,14 +11,21 @@
 
 package org.eclipse.rdf4j.sail.base;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.DualUnionIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Triple;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.sail.SailException;
 
 /**
@@ -140,6 +147,57 @@ class UnionSailDataset implements SailDataset {
 
 	}
 
+	@Override
+	public Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		Set<StatementOrder> orders1 = dataset1.getSupportedOrders(subj, pred, obj, contexts);
+		if (orders1.isEmpty() || getComparator() == null) {
+			return Collections.emptySet();
+		}
+		Set<StatementOrder> orders2 = dataset2.getSupportedOrders(subj, pred, obj, contexts);
+		if (orders2.isEmpty()) {
+			return Collections.emptySet();
+		}
+		EnumSet<StatementOrder> orders = EnumSet.copyOf(orders1);
+		orders.retainAll(orders2);
+		return orders;
+	}
+
+	@Override
+	public CloseableIteration<? extends Statement, SailException> getOrderedStatements(StatementOrder order,
+			Resource subj,
+			IRI pred, Value obj, Resource... contexts) throws SailException {
+
+		CloseableIteration<? extends Statement, SailException> iteration1 = null;
+		CloseableIteration<? extends Statement, SailException> iteration2 = null;
+		try {
+			iteration1 = dataset1.getOrderedStatements(order, subj, pred, obj, contexts);
+			iteration2 = dataset2.getOrderedStatements(order, subj, pred, obj, contexts);
+			return new OrderedUnionIteration(iteration1, iteration2,
+					Comparator.comparing(order::getValue, getComparator()));
+		} catch (Throwable t) {
+			try {
+				if (iteration1 != null) {
+					iteration1.close();
+				}
+			} finally {
+				if (iteration2 != null) {
+					iteration2.close();
+				}
+			}
+			throw t;
+		}
+	}
+
+	@Override
+	public Comparator<Value> getComparator() {
+		Comparator<Value> comparator = dataset1.getComparator();
+		// both datasets must order their statements the same way
+		if (comparator == null || !comparator.equals(dataset2.getComparator())) {
+			return null;
+		}
+		return comparator;
+	}
+
 	@Override
 	public CloseableIteration<? extends Triple, SailException> getTriples(Resource subj, IRI pred, Value obj)
 			throws SailException {
@@ -165,6 +223,59 @@ class UnionSailDataset implements SailDataset {
 
 	}
 
+	/**
+	 * Merges two sorted iterations into a single sorted iteration.
+	 */
+	private static class OrderedUnionIteration extends LookAheadIteration<Statement, SailException> {
+
+		private final CloseableIteration<? extends Statement, SailException> iteration1;
+		private final CloseableIteration<? extends Statement, SailException> iteration2;
+		private final Comparator<Statement> comparator;
+
+		private Statement next1;
+		private Statement next2;
+
+		public OrderedUnionIteration(CloseableIteration<? extends Statement, SailException> iteration1,
+				CloseableIteration<? extends Statement, SailException> iteration2, Comparator<Statement> comparator) {
+			this.iteration1 = iteration1;
+			this.iteration2 = iteration2;
+			this.comparator = comparator;
+		}
+
+		@Override
+		protected Statement getNextElement() throws SailException {
+			if (next1 == null && iteration1.hasNext()) {
+				next1 = iteration1.next();
+			}
+			if (next2 == null && iteration2.hasNext()) {
+				next2 = iteration2.next();
+			}
+
+			Statement result;
+			if (next1 != null && (next2 == null || comparator.compare(next1, next2) <= 0)) {
+				result = next1;
+				next1 = null;
+			} else {
+				result = next2;
+				next2 = null;
+			}
+			return result;
+		}
+
+		@Override
+		protected void handleClose() throws SailException {
+			try {
+				super.handleClose();
+			} finally {
+				try {
+					iteration1.close();
+				} finally {
+					iteration2.close();
+				}
+			}
+		}
+	}
+
 	private <T> CloseableIteration<? extends T, SailException> union(
 			CloseableIteration<? extends T, SailException> iteration1,
 			CloseableIteration<? extends T, SailException> iteration2) {
@@ -13,10 +13,13 @@ package org.eclipse.rdf4j.sail.lmdb;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +39,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.base.BackingSailSource;
@@ -153,6 +157,8 @@ class LmdbSailStore implements SailStore {
 
 	private final ContextStore contextStore;
 
+	private final Comparator<Value> valueIdComparator = this::compareIds;
+
 	/**
 	 * A lock to control concurrent access by {@link LmdbSailSink} to the TripleStore, ValueStore, and NamespaceStore.
 	 * Each sink method that directly accesses one of these store obtains the lock and releases it immediately when
@@ -326,6 +332,18 @@ class LmdbSailStore implements SailStore {
 	 */
 	CloseableIteration<? extends Statement, SailException> createStatementIterator(
 			Txn txn, Resource subj, IRI pred, Value obj, boolean explicit, Resource... contexts) throws IOException {
+		return createStatementIterator(txn, null, subj, pred, obj, explicit, contexts);
+	}
+
+	/**
+	 * Creates a statement iterator based on the supplied pattern that returns the statements in the supplied order.
+	 *
+	 * @param order one of the {@link #getSupportedOrders(Resource, IRI, Value, Resource...) supported orders} or
+	 *              <tt>null</tt> for any order
+	 * @see #createStatementIterator(Txn, Resource, IRI, Value, boolean, Resource...)
+	 */
+	CloseableIteration<? extends Statement, SailException> createStatementIterator(Txn txn, StatementOrder order,
+			Resource subj, IRI pred, Value obj, boolean explicit, Resource... contexts) throws IOException {
 		long subjID = LmdbValue.UNKNOWN_ID;
 		if (subj != null) {
 			subjID = valueStore.getId(subj);
@@ -368,10 +386,14 @@ class LmdbSailStore implements SailStore {
 			}
 		}
 
+		if (order != null && contextIDList.size() > 1) {
+			throw new SailException("Ordered statements are not supported for multiple contexts");
+		}
+
 		ArrayList<LmdbStatementIterator> perContextIterList = new ArrayList<>(contextIDList.size());
 
 		for (long contextID : contextIDList) {
-			RecordIterator records = tripleStore.getTriples(txn, subjID, predID, objID, contextID, explicit);
+			RecordIterator records = tripleStore.getTriples(txn, subjID, predID, objID, contextID, explicit, order);
 			perContextIterList.add(new LmdbStatementIterator(records, valueStore));
 		}
 
@@ -382,6 +404,66 @@ class LmdbSailStore implements SailStore {
 		}
 	}
 
+	/**
+	 * Determines the orders in which the statements matching the pattern can be read from the triple indexes. Patterns
+	 * over more than one context are not supported, their statements are read from one index range per context.
+	 */
+	Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts)
+			throws IOException {
+		if (contexts.length > 1) {
+			return Collections.emptySet();
+		}
+		long subjID = LmdbValue.UNKNOWN_ID;
+		if (subj != null) {
+			subjID = valueStore.getId(subj);
+			if (subjID == LmdbValue.UNKNOWN_ID) {
+				return Collections.emptySet();
+			}
+		}
+		long predID = LmdbValue.UNKNOWN_ID;
+		if (pred != null) {
+			predID = valueStore.getId(pred);
+			if (predID == LmdbValue.UNKNOWN_ID) {
+				return Collections.emptySet();
+			}
+		}
+		long objID = LmdbValue.UNKNOWN_ID;
+		if (obj != null) {
+			objID = valueStore.getId(obj);
+			if (objID == LmdbValue.UNKNOWN_ID) {
+				return Collections.emptySet();
+			}
+		}
+		long contextID = LmdbValue.UNKNOWN_ID;
+		if (contexts.length == 1) {
+			if (contexts[0] == null) {
+				contextID = 0;
+			} else if (contexts[0].isTriple()) {
+				return Collections.emptySet();
+			} else {
+				contextID = valueStore.getId(contexts[0]);
+				if (contextID == LmdbValue.UNKNOWN_ID) {
+					return Collections.emptySet();
+				}
+			}
+		}
+		return tripleStore.getSupportedOrders(subjID, predID, objID, contextID);
+	}
+
+	/**
+	 * Compares values by their ID in the value store, which is the order of the triple indexes. The null context has ID
+	 * 0.
+	 */
+	private int compareIds(Value value1, Value value2) {
+		try {
+			long id1 = value1 == null ? 0 : valueStore.getId(value1);
+			long id2 = value2 == null ? 0 : valueStore.getId(value2);
+			return Long.compare(id1, id2);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
 	private final class LmdbSailSource extends BackingSailSource {
 
 		private final boolean explicit;
@@ -832,6 +914,30 @@ class LmdbSailStore implements SailStore {
 				throw new SailException("Unable to get statements", e);
 			}
 		}
+
+		@Override
+		public Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts) {
+			try {
+				return LmdbSailStore.this.getSupportedOrders(subj, pred, obj, contexts);
+			} catch (IOException e) {
+				throw new SailException("Unable to get supported orders", e);
+			}
+		}
+
+		@Override
+		public CloseableIteration<? extends Statement, SailException> getOrderedStatements(StatementOrder order,
+				Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+			try {
+				return createStatementIterator(txn, order, subj, pred, obj, explicit, contexts);
+			} catch (IOException e) {
+				throw new SailException("Unable to get statements", e);
+			}
+		}
+
+		@Override
+		public Comparator<Value> getComparator() {
+			return valueIdComparator;
+		}
 	}
 
 }
@@ -21,6 +21,7 @@ import java.util.function.Supplier;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.collection.factory.impl.ValueIdCollectionFactory;
 import org.eclipse.rdf4j.collection.factory.mapdb.MapDbCollectionFactory;
 import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.concurrent.locks.Lock;
@@ -43,6 +44,7 @@ import org.eclipse.rdf4j.sail.base.SnapshotSailStore;
 import org.eclipse.rdf4j.sail.helpers.AbstractNotifyingSail;
 import org.eclipse.rdf4j.sail.helpers.DirectoryLockManager;
 import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
+import org.eclipse.rdf4j.sail.lmdb.model.LmdbValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -131,6 +133,12 @@ public class LmdbStore extends AbstractNotifyingSail implements FederatedService
 				IsolationLevels.SNAPSHOT, IsolationLevels.SERIALIZABLE);
 		setDefaultIsolationLevel(IsolationLevels.SNAPSHOT_READ);
 		config.getDefaultQueryEvaluationMode().ifPresent(this::setDefaultQueryEvaluationMode);
+		if (config.getQueryMemoryBudget() > 0) {
+			setQueryMemoryBudget(config.getQueryMemoryBudget());
+		}
+		if (config.getQueryEvaluationParallelism() > 0) {
+			setQueryEvaluationParallelism(config.getQueryEvaluationParallelism());
+		}
 		EvaluationStrategyFactory evalStrategyFactory = config.getEvaluationStrategyFactory();
 		if (evalStrategyFactory != null) {
 			setEvaluationStrategyFactory(evalStrategyFactory);
@@ -402,8 +410,27 @@ public class LmdbStore extends AbstractNotifyingSail implements FederatedService
 		return true;
 	}
 
+	/**
+	 * The collection factory hashes values by their ID in the value store, so that group keys over values read from
+	 * this store can be hashed without resolving their lexical form.
+	 */
 	@Override
 	public Supplier<CollectionFactory> getCollectionFactory() {
-		return () -> new MapDbCollectionFactory(getIterationCacheSyncThreshold());
+		return () -> {
+			ValueFactory valueFactory = getValueFactory();
+			if (!(valueFactory instanceof ValueStore)) {
+				return new MapDbCollectionFactory(getIterationCacheSyncThreshold());
+			}
+			ValueStore valueStore = (ValueStore) valueFactory;
+			return new MapDbCollectionFactory(getIterationCacheSyncThreshold(),
+					new ValueIdCollectionFactory(value -> {
+						try {
+							long id = valueStore.getId(value);
+							return id == LmdbValue.UNKNOWN_ID ? ValueIdCollectionFactory.UNKNOWN_ID : id;
+						} catch (IOException e) {
+							throw new SailException(e);
+						}
+					}));
+		};
 	}
 }
@@ -58,6 +58,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -67,6 +68,7 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.concurrent.locks.StampedLock;
 
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.lmdb.TxnManager.Mode;
 import org.eclipse.rdf4j.sail.lmdb.TxnManager.Txn;
@@ -471,7 +473,20 @@ class TripleStore implements Closeable {
 
 	public RecordIterator getTriples(Txn txn, long subj, long pred, long obj, long context, boolean explicit)
 			throws IOException {
-		TripleIndex index = getBestIndex(subj, pred, obj, context);
+		return getTriples(txn, subj, pred, obj, context, explicit, null);
+	}
+
+	/**
+	 * Gets the triples that match the pattern, sorted by the ID at the position of the supplied order.
+	 *
+	 * @param order the order of the returned triples, must be one of the
+	 *              {@link #getSupportedOrders(long, long, long, long) supported orders} or <var>null</var> for any
+	 *              order
+	 */
+	public RecordIterator getTriples(Txn txn, long subj, long pred, long obj, long context, boolean explicit,
+			StatementOrder order) throws IOException {
+		TripleIndex index = order == null ? getBestIndex(subj, pred, obj, context)
+				: getOrderedIndex(subj, pred, obj, context, order);
 		// System.out.println("get triples: " + Arrays.asList(subj, pred, obj,context));
 		boolean doRangeSearch = index.getPatternScore(subj, pred, obj, context) > 0;
 		return getTriplesUsingIndex(txn, subj, pred, obj, context, explicit, index, doRangeSearch);
@@ -684,6 +699,53 @@ class TripleStore implements Closeable {
 		return bestIndex;
 	}
 
+	/**
+	 * Determines the orders in which the triples matching the pattern can be read without sorting them. Only indexes
+	 * that are as selective for the pattern as the best index are considered, each of them returns the matching triples
+	 * sorted by the ID of the first field of the index that is not bound by the pattern.
+	 *
+	 * @return the positions by whose IDs the triples can be sorted
+	 */
+	public Set<StatementOrder> getSupportedOrders(long subj, long pred, long obj, long context) {
+		Set<StatementOrder> orders = EnumSet.noneOf(StatementOrder.class);
+		int bestScore = getBestIndex(subj, pred, obj, context).getPatternScore(subj, pred, obj, context);
+		for (TripleIndex index : indexes) {
+			char[] fieldSeq = index.getFieldSeq();
+			if (bestScore < fieldSeq.length && index.getPatternScore(subj, pred, obj, context) == bestScore) {
+				orders.add(getStatementOrder(fieldSeq[bestScore]));
+			}
+		}
+		return orders;
+	}
+
+	private TripleIndex getOrderedIndex(long subj, long pred, long obj, long context, StatementOrder order) {
+		TripleIndex bestIndex = getBestIndex(subj, pred, obj, context);
+		int bestScore = bestIndex.getPatternScore(subj, pred, obj, context);
+		for (TripleIndex index : indexes) {
+			char[] fieldSeq = index.getFieldSeq();
+			if (bestScore < fieldSeq.length && index.getPatternScore(subj, pred, obj, context) == bestScore
+					&& getStatementOrder(fieldSeq[bestScore]) == order) {
+				return index;
+			}
+		}
+		throw new IllegalArgumentException("No index supports the order " + order + " for the pattern");
+	}
+
+	private static StatementOrder getStatementOrder(char field) {
+		switch (field) {
+		case 's':
+			return StatementOrder.S;
+		case 'p':
+			return StatementOrder.P;
+		case 'o':
+			return StatementOrder.O;
+		case 'c':
+			return StatementOrder.C;
+		default:
+			throw new IllegalArgumentException("invalid character '" + field + "' in field sequence");
+		}
+	}
+
 	private boolean requiresResize() {
 		if (autoGrow) {
 			return LmdbUtil.requiresResize(mapSize, pageSize, writeTxn, 0);
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.lmdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.explanation.Explanation;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests merge joins of star shaped patterns over sorted index scans.
+ */
+public class LmdbMergeJoinTest {
+
+	private static final String NS = "http://example.org/";
+
+	private static final String STAR = "PREFIX ex: <" + NS + ">\n"
+			+ "SELECT ?s ?name ?age WHERE { ?s ex:name ?name . ?s ex:age ?age }";
+
+	private static final String STAR3 = "PREFIX ex: <" + NS + ">\n"
+			+ "SELECT ?s ?name ?age ?email WHERE { ?s ex:name ?name . ?s ex:age ?age . ?s ex:email ?email }";
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final IRI name = vf.createIRI(NS, "name");
+	private final IRI age = vf.createIRI(NS, "age");
+	private final IRI email = vf.createIRI(NS, "email");
+
+	@TempDir
+	File dataDir;
+
+	private SailRepository repo;
+
+	@BeforeEach
+	public void setUp() {
+		repo = new SailRepository(new LmdbStore(dataDir, new LmdbStoreConfig("spoc,posc,psoc")));
+		repo.init();
+		try (RepositoryConnection conn = repo.getConnection()) {
+			conn.begin();
+			for (int i = 0; i < 1000; i++) {
+				IRI s = vf.createIRI(NS, "s" + i);
+				conn.add(s, name, vf.createLiteral("name" + i));
+				if (i % 2 == 0) {
+					conn.add(s, age, vf.createLiteral(i));
+				}
+				if (i % 3 == 0) {
+					conn.add(s, email, vf.createLiteral("mail" + i));
+					conn.add(s, email, vf.createLiteral("other" + i));
+				}
+			}
+			conn.commit();
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		repo.shutDown();
+	}
+
+	@Test
+	public void testStarJoin() {
+		try (RepositoryConnection conn = repo.getConnection()) {
+			TupleQuery query = conn.prepareTupleQuery(STAR);
+			assertThat(query.explain(Explanation.Level.Optimized).toString()).contains("MergeJoinIterator");
+
+			Set<String> expected = new HashSet<>();
+			for (int i = 0; i < 1000; i += 2) {
+				expected.add(NS + "s" + i + " name" + i + " " + i);
+			}
+			assertThat(evaluate(query, "s", "name", "age")).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testThreeWayStarJoin() {
+		try (RepositoryConnection conn = repo.getConnection()) {
+			TupleQuery query = conn.prepareTupleQuery(STAR3);
+			// both joins of the star are merged
+			assertThat(query.explain(Explanation.Level.Optimized).toString().split("MergeJoinIterator")).hasSize(3);
+
+			List<BindingSet> result = QueryResults.asList(query.evaluate());
+			// subjects divisible by 6 with two emails each
+			assertThat(result).hasSize(2 * 167);
+			assertThat(result).allSatisfy(bs -> {
+				int i = Integer.parseInt(bs.getValue("age").stringValue());
+				assertThat(i % 6).isZero();
+				assertThat(bs.getValue("name").stringValue()).isEqualTo("name" + i);
+				assertThat(bs.getValue("email").stringValue()).endsWith(Integer.toString(i));
+			});
+		}
+	}
+
+	@Test
+	public void testStarJoinWithUncommittedChanges() {
+		try (RepositoryConnection conn = repo.getConnection()) {
+			conn.begin();
+			conn.remove(vf.createIRI(NS, "s0"), age, null);
+			TupleQuery query = conn.prepareTupleQuery(STAR);
+			assertThat(evaluate(query, "s", "name", "age")).hasSize(499)
+					.doesNotContain(NS + "s0 name0 0");
+
+			// statements added in the transaction are not sorted by the store
+			conn.add(vf.createIRI(NS, "s1"), age, vf.createLiteral(1));
+			assertThat(evaluate(query, "s", "name", "age")).hasSize(500).contains(NS + "s1 name1 1");
+			conn.rollback();
+		}
+	}
+
+	private Set<String> evaluate(TupleQuery query, String... names) {
+		Set<String> result = new HashSet<>();
+		for (BindingSet bindings : QueryResults.asList(query.evaluate())) {
+			StringBuilder sb = new StringBuilder();
+			for (String n : names) {
+				if (sb.length() > 0) {
+					sb.append(' ');
+				}
+				sb.append(bindings.getValue(n).stringValue());
+			}
+			result.add(sb.toString());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,469 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.eclipse.rdf4j.common.io.IOUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.memory.model.MemValueFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of the changesets that have been committed to a {@link MemorySailStore} since the last snapshot
+ * was written by {@link FileIO}. Each committed changeset is stored as one block that consists of the length of the
+ * payload, the payload itself and a CRC32 checksum of the payload. Blocks that are incomplete or that fail their
+ * checksum (e.g. because the JVM was killed halfway through a write) mark the end of the log.
+ * <p>
+ * Every record in the log assigns a state to the statements or namespaces it covers, independently of the state of the
+ * statements that it does not cover. Replaying a log on top of a snapshot that already contains some of its changes
+ * therefore yields the same result as replaying it on the snapshot it was started from.
+ */
+class ChangesetLog implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ChangesetLog.class);
+
+	/*-----------*
+	 * Constants *
+	 *-----------*/
+
+	/**
+	 * Magic number for Binary Memory Store Log files
+	 */
+	private static final byte[] MAGIC_NUMBER = new byte[] { 'B', 'M', 'S', 'L' };
+
+	/**
+	 * The version number of the current format.
+	 */
+	private static final int BMSL_VERSION = 1;
+
+	private static final int HEADER_LENGTH = MAGIC_NUMBER.length + 1;
+
+	/* RECORD TYPES */
+	static final int APPROVE_MARKER = 1;
+
+	static final int DEPRECATE_MARKER = 2;
+
+	static final int DEPRECATE_BY_QUERY_MARKER = 3;
+
+	static final int CLEAR_MARKER = 4;
+
+	static final int SET_NAMESPACE_MARKER = 5;
+
+	static final int REMOVE_NAMESPACE_MARKER = 6;
+
+	static final int CLEAR_NAMESPACES_MARKER = 7;
+
+	/**
+	 * Marks an absent value, i.e. a wildcard in a pattern or the default context.
+	 */
+	private static final int NULL_MARKER = 0;
+
+	/*-----------*
+	 * Variables *
+	 *-----------*/
+
+	private final File logFile;
+
+	private final FileIO io;
+
+	/**
+	 * The records of the changeset that is currently being committed.
+	 */
+	private final ByteArrayOutputStream changeset = new ByteArrayOutputStream();
+
+	private final DataOutputStream changesetOut = new DataOutputStream(changeset);
+
+	/**
+	 * Committed changesets that have not yet been written to the log file.
+	 */
+	private final List<byte[]> pendingBlocks = new ArrayList<>();
+
+	private FileChannel channel;
+
+	/*--------------*
+	 * Constructors *
+	 *--------------*/
+
+	/**
+	 * Opens the log for appending. Any bytes after <var>validLength</var> are assumed to be the remains of an
+	 * interrupted write and are truncated.
+	 *
+	 * @param logFile     the log file, created if it does not exist yet
+	 * @param vf          the value factory of the store
+	 * @param validLength the length of the log as reported by
+	 *                    {@link #replay(File, MemValueFactory, SailSink, SailSink)}
+	 */
+	public ChangesetLog(File logFile, MemValueFactory vf, long validLength) throws IOException {
+		this.logFile = logFile;
+		this.io = new FileIO(vf);
+		open(validLength);
+	}
+
+	/*---------*
+	 * Methods *
+	 *---------*/
+
+	private void open(long validLength) throws IOException {
+		channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		if (validLength < HEADER_LENGTH) {
+			channel.truncate(0);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.put(MAGIC_NUMBER);
+			header.put((byte) BMSL_VERSION);
+			header.flip();
+			writeFully(header);
+			channel.force(false);
+		} else if (channel.size() > validLength) {
+			logger.warn("Truncating {} bytes of incomplete changeset data from {}", channel.size() - validLength,
+					logFile);
+			channel.truncate(validLength);
+		}
+		channel.position(channel.size());
+	}
+
+	public synchronized void approve(boolean explicit, Resource subj, IRI pred, Value obj, Resource ctx) {
+		try {
+			changesetOut.writeByte(APPROVE_MARKER);
+			changesetOut.writeBoolean(explicit);
+			writeStatement(subj, pred, obj, ctx);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	public synchronized void deprecate(boolean explicit, Statement statement) {
+		try {
+			changesetOut.writeByte(DEPRECATE_MARKER);
+			changesetOut.writeBoolean(explicit);
+			writeStatement(statement.getSubject(), statement.getPredicate(), statement.getObject(),
+					statement.getContext());
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	public synchronized void deprecateByQuery(boolean explicit, Resource subj, IRI pred, Value obj,
+			Resource[] contexts) {
+		try {
+			changesetOut.writeByte(DEPRECATE_BY_QUERY_MARKER);
+			changesetOut.writeBoolean(explicit);
+			writeNullableValue(subj);
+			writeNullableValue(pred);
+			writeNullableValue(obj);
+			writeContexts(contexts);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	public synchronized void clear(boolean explicit, Resource[] contexts) {
+		try {
+			changesetOut.writeByte(CLEAR_MARKER);
+			changesetOut.writeBoolean(explicit);
+			writeContexts(contexts);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	public synchronized void setNamespace(String prefix, String name) {
+		try {
+			changesetOut.writeByte(SET_NAMESPACE_MARKER);
+			io.writeString(prefix, changesetOut);
+			io.writeString(name, changesetOut);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	public synchronized void removeNamespace(String prefix) {
+		try {
+			changesetOut.writeByte(REMOVE_NAMESPACE_MARKER);
+			io.writeString(prefix, changesetOut);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	public synchronized void clearNamespaces() {
+		try {
+			changesetOut.writeByte(CLEAR_NAMESPACES_MARKER);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	/**
+	 * Marks the records since the previous commit as one changeset. The changeset is written to disk by the next call
+	 * to {@link #sync()}.
+	 */
+	public synchronized void commit() {
+		if (changeset.size() > 0) {
+			pendingBlocks.add(changeset.toByteArray());
+			changeset.reset();
+		}
+	}
+
+	/**
+	 * Discards the records since the previous commit, which belong to a changeset that will not be committed.
+	 */
+	public synchronized void rollback() {
+		changeset.reset();
+	}
+
+	/**
+	 * @return <var>true</var> if there are committed changesets that have not been written to disk yet.
+	 */
+	public synchronized boolean hasPendingChanges() {
+		return !pendingBlocks.isEmpty();
+	}
+
+	/**
+	 * Appends all committed changesets to the log file and forces them to disk.
+	 */
+	public synchronized void sync() throws IOException {
+		if (pendingBlocks.isEmpty()) {
+			return;
+		}
+
+		CRC32 crc = new CRC32();
+		for (byte[] block : pendingBlocks) {
+			crc.reset();
+			crc.update(block);
+			ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + block.length + Long.BYTES);
+			buffer.putInt(block.length);
+			buffer.put(block);
+			buffer.putLong(crc.getValue());
+			buffer.flip();
+			writeFully(buffer);
+		}
+		channel.force(false);
+		pendingBlocks.clear();
+	}
+
+	/**
+	 * @return the number of bytes in the log file.
+	 */
+	public synchronized long size() throws IOException {
+		return channel.size();
+	}
+
+	/**
+	 * Writes all committed changesets to the current log file, renames it to <var>target</var> and starts a new, empty
+	 * log file.
+	 */
+	public synchronized void rotate(File target) throws IOException {
+		sync();
+		long validLength = channel.size();
+		channel.close();
+		if (target.exists() && !target.delete()) {
+			open(validLength);
+			throw new IOException("Could not delete " + target);
+		}
+		if (!logFile.renameTo(target)) {
+			open(validLength);
+			throw new IOException("Could not rename " + logFile + " to " + target.getName());
+		}
+		open(0);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+
+	private void writeFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private void writeStatement(Resource subj, IRI pred, Value obj, Resource ctx) throws IOException {
+		io.writeValue(subj, changesetOut);
+		io.writeValue(pred, changesetOut);
+		io.writeValue(obj, changesetOut);
+		writeNullableValue(ctx);
+	}
+
+	private void writeNullableValue(Value value) throws IOException {
+		if (value == null) {
+			changesetOut.writeByte(NULL_MARKER);
+		} else {
+			io.writeValue(value, changesetOut);
+		}
+	}
+
+	private void writeContexts(Resource[] contexts) throws IOException {
+		if (contexts == null) {
+			changesetOut.writeInt(-1);
+			return;
+		}
+		changesetOut.writeInt(contexts.length);
+		for (Resource context : contexts) {
+			writeNullableValue(context);
+		}
+	}
+
+	/**
+	 * Replays all complete changesets in the specified log file against the supplied sinks.
+	 *
+	 * @return the length of the valid part of the log, 0 if the file does not exist or has no valid header.
+	 */
+	public static long replay(File logFile, MemValueFactory vf, SailSink explicit, SailSink inferred)
+			throws IOException, SailException {
+		if (!logFile.exists()) {
+			return 0;
+		}
+
+		try (InputStream in = Files.newInputStream(logFile.toPath())) {
+			byte[] magicNumber = IOUtil.readBytes(in, MAGIC_NUMBER.length);
+			if (!Arrays.equals(magicNumber, MAGIC_NUMBER)) {
+				if (magicNumber.length < MAGIC_NUMBER.length) {
+					// the log was created but the header was never fully written
+					return 0;
+				}
+				throw new IOException("File is not a binary MemoryStore log file");
+			}
+
+			int formatVersion = in.read();
+			if (formatVersion > BMSL_VERSION || formatVersion < 1) {
+				throw new IOException("Incompatible log format version: " + formatVersion);
+			}
+
+			FileIO io = new FileIO(vf);
+			DataInputStream dataIn = new DataInputStream(in);
+			CRC32 crc = new CRC32();
+			long validLength = HEADER_LENGTH;
+			int changesets = 0;
+
+			while (true) {
+				byte[] block;
+				try {
+					int length = dataIn.readInt();
+					if (length < 0) {
+						break;
+					}
+					block = IOUtil.readBytes(dataIn, length);
+					if (block.length != length) {
+						break;
+					}
+					long checksum = dataIn.readLong();
+					crc.reset();
+					crc.update(block);
+					if (crc.getValue() != checksum) {
+						logger.warn("Checksum mismatch in changeset log {} at offset {}", logFile, validLength);
+						break;
+					}
+				} catch (EOFException e) {
+					break;
+				}
+
+				replayChangeset(io, block, vf, explicit, inferred);
+				validLength += Integer.BYTES + block.length + Long.BYTES;
+				changesets++;
+			}
+
+			logger.debug("Replayed {} changesets from {}", changesets, logFile);
+			return validLength;
+		}
+	}
+
+	private static void replayChangeset(FileIO io, byte[] block, MemValueFactory vf, SailSink explicit,
+			SailSink inferred) throws IOException, SailException {
+		try (DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(block))) {
+			int recordTypeMarker;
+			while ((recordTypeMarker = dataIn.read()) != -1) {
+				switch (recordTypeMarker) {
+				case APPROVE_MARKER: {
+					SailSink sink = dataIn.readBoolean() ? explicit : inferred;
+					sink.approve((Resource) io.readValue(dataIn), (IRI) io.readValue(dataIn), io.readValue(dataIn),
+							(Resource) readNullableValue(io, dataIn));
+					break;
+				}
+				case DEPRECATE_MARKER: {
+					SailSink sink = dataIn.readBoolean() ? explicit : inferred;
+					sink.deprecate(vf.createStatement((Resource) io.readValue(dataIn), (IRI) io.readValue(dataIn),
+							io.readValue(dataIn), (Resource) readNullableValue(io, dataIn)));
+					break;
+				}
+				case DEPRECATE_BY_QUERY_MARKER: {
+					SailSink sink = dataIn.readBoolean() ? explicit : inferred;
+					sink.deprecateByQuery((Resource) readNullableValue(io, dataIn),
+							(IRI) readNullableValue(io, dataIn), readNullableValue(io, dataIn),
+							readContexts(io, dataIn));
+					break;
+				}
+				case CLEAR_MARKER: {
+					SailSink sink = dataIn.readBoolean() ? explicit : inferred;
+					sink.clear(readContexts(io, dataIn));
+					break;
+				}
+				case SET_NAMESPACE_MARKER:
+					explicit.setNamespace(io.readString(dataIn), io.readString(dataIn));
+					break;
+				case REMOVE_NAMESPACE_MARKER:
+					explicit.removeNamespace(io.readString(dataIn));
+					break;
+				case CLEAR_NAMESPACES_MARKER:
+					explicit.clearNamespaces();
+					break;
+				default:
+					throw new IOException("Invalid record type marker: " + recordTypeMarker);
+				}
+			}
+		}
+	}
+
+	private static Value readNullableValue(FileIO io, DataInputStream dataIn) throws IOException {
+		dataIn.mark(1);
+		if (dataIn.readByte() == NULL_MARKER) {
+			return null;
+		}
+		dataIn.reset();
+		return io.readValue(dataIn);
+	}
+
+	private static Resource[] readContexts(FileIO io, DataInputStream dataIn) throws IOException {
+		int length = dataIn.readInt();
+		if (length < 0) {
+			return null;
+		}
+		Resource[] contexts = new Resource[length];
+		for (int i = 0; i < contexts.length; i++) {
+			contexts[i] = (Resource) readNullableValue(io, dataIn);
+		}
+		return contexts;
+	}
+}
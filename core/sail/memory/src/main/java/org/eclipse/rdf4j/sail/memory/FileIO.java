@@ -270,7 +270,7 @@ class FileIO {
 		}
 	}
 
-	private void writeValue(Value value, DataOutputStream dataOut) throws IOException {
+	void writeValue(Value value, DataOutputStream dataOut) throws IOException {
 		if (value.isIRI()) {
 			dataOut.writeByte(URI_MARKER);
 			writeString(((IRI) value).stringValue(), dataOut);
@@ -300,7 +300,7 @@ class FileIO {
 		}
 	}
 
-	private Value readValue(DataInputStream dataIn) throws IOException, ClassCastException {
+	Value readValue(DataInputStream dataIn) throws IOException, ClassCastException {
 		int valueTypeMarker = dataIn.readByte();
 
 		if (valueTypeMarker == URI_MARKER) {
@@ -329,13 +329,13 @@ class FileIO {
 		}
 	}
 
-	private void writeString(String s, DataOutputStream dataOut) throws IOException {
+	void writeString(String s, DataOutputStream dataOut) throws IOException {
 		ByteBuffer byteBuf = charsetEncoder.encode(CharBuffer.wrap(s));
 		dataOut.writeInt(byteBuf.remaining());
 		dataOut.write(byteBuf.array(), 0, byteBuf.remaining());
 	}
 
-	private String readString(DataInputStream dataIn) throws IOException {
+	String readString(DataInputStream dataIn) throws IOException {
 		if (formatVersion == 1) {
 			return readStringV1(dataIn);
 		} else {
@@ -147,10 +147,23 @@ class MemorySailStore implements SailStore {
 	 */
 	private final Object snapshotCleanupThreadLockObject = new Object();
 
+	/**
+	 * Log that records every committed change, null if changes are not persisted incrementally.
+	 */
+	private volatile ChangesetLog changesetLog;
+
 	public MemorySailStore(boolean debug) {
 		snapshotMonitor = new SnapshotMonitor(debug);
 	}
 
+	/**
+	 * Sets the log that all changes that are flushed through the sinks of this store are recorded in. Changes that were
+	 * made before the log was set, e.g. while restoring the store from disk, are not recorded.
+	 */
+	void setChangesetLog(ChangesetLog changesetLog) {
+		this.changesetLog = changesetLog;
+	}
+
 	@Override
 	public ValueFactory getValueFactory() {
 		return valueFactory;
@@ -573,6 +586,12 @@ class MemorySailStore implements SailStore {
 
 		private boolean requireCleanup;
 
+		/**
+		 * Whether this sink may have recorded changes in the changeset log that have not been committed by
+		 * {@link #flush()}.
+		 */
+		private volatile boolean unflushed;
+
 		public MemorySailSink(boolean explicit, boolean serializable) throws SailException {
 			this.explicit = explicit;
 			if (serializable) {
@@ -639,6 +658,13 @@ class MemorySailStore implements SailStore {
 			if (txnLock) {
 				invalidateCache();
 				currentSnapshot = Math.max(currentSnapshot, nextSnapshot);
+				// the changeset is logged after it becomes visible, so that a snapshot that is taken after the log was
+				// rotated always contains all changes of the rotated log
+				ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+				if (changesetLog != null) {
+					changesetLog.commit();
+				}
+				unflushed = false;
 				if (requireCleanup) {
 					scheduleSnapshotCleanup();
 				}
@@ -651,6 +677,12 @@ class MemorySailStore implements SailStore {
 			if (!closed) {
 				closed = true;
 				try {
+					ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+					if (unflushed && txnLock && changesetLog != null) {
+						// the sink is closed without being flushed, e.g. on rollback or after a failed update: the
+						// records of the transaction must not be committed together with the next transaction
+						changesetLog.rollback();
+					}
 					if (reservedSnapshot != null) {
 						reservedSnapshot.release();
 					}
@@ -684,6 +716,10 @@ class MemorySailStore implements SailStore {
 		public synchronized void setNamespace(String prefix, String name) {
 			acquireExclusiveTransactionLock();
 			namespaceStore.setNamespace(prefix, name);
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+			if (changesetLog != null) {
+				changesetLog.setNamespace(prefix, name);
+			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 		}
 
@@ -691,6 +727,10 @@ class MemorySailStore implements SailStore {
 		public synchronized void removeNamespace(String prefix) {
 			acquireExclusiveTransactionLock();
 			namespaceStore.removeNamespace(prefix);
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+			if (changesetLog != null) {
+				changesetLog.removeNamespace(prefix);
+			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 		}
 
@@ -698,6 +738,10 @@ class MemorySailStore implements SailStore {
 		public synchronized void clearNamespaces() {
 			acquireExclusiveTransactionLock();
 			namespaceStore.clear();
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+			if (changesetLog != null) {
+				changesetLog.clearNamespaces();
+			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 		}
 
@@ -734,6 +778,10 @@ class MemorySailStore implements SailStore {
 			} catch (InterruptedException e) {
 				throw convertToSailException(e);
 			}
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+			if (changesetLog != null) {
+				changesetLog.clear(explicit, contexts);
+			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 		}
 
@@ -746,6 +794,10 @@ class MemorySailStore implements SailStore {
 			} catch (InterruptedException e) {
 				throw convertToSailException(e);
 			}
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+			if (changesetLog != null) {
+				changesetLog.approve(explicit, subj, pred, obj, ctx);
+			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 		}
 
@@ -753,10 +805,15 @@ class MemorySailStore implements SailStore {
 		public synchronized void approveAll(Set<Statement> approved, Set<Resource> approvedContexts) {
 			acquireExclusiveTransactionLock();
 			invalidateCache();
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
 			try {
 				for (Statement statement : approved) {
 					addStatement(statement.getSubject(), statement.getPredicate(), statement.getObject(),
 							statement.getContext(), explicit);
+					if (changesetLog != null) {
+						changesetLog.approve(explicit, statement.getSubject(), statement.getPredicate(),
+								statement.getObject(), statement.getContext());
+					}
 				}
 			} catch (InterruptedException e) {
 				throw convertToSailException(e);
@@ -770,8 +827,12 @@ class MemorySailStore implements SailStore {
 			invalidateCache();
 			requireCleanup = true;
 			int nextSnapshot = this.nextSnapshot;
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
 			for (Statement statement : deprecated) {
 				innerDeprecate(statement, nextSnapshot);
+				if (changesetLog != null) {
+					changesetLog.deprecate(explicit, statement);
+				}
 			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 		}
@@ -782,6 +843,10 @@ class MemorySailStore implements SailStore {
 			invalidateCache();
 			requireCleanup = true;
 			innerDeprecate(statement, nextSnapshot);
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+			if (changesetLog != null) {
+				changesetLog.deprecate(explicit, statement);
+			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 		}
 
@@ -830,6 +895,7 @@ class MemorySailStore implements SailStore {
 				}
 
 			}
+			unflushed = true;
 		}
 
 		private MemStatement addStatement(Resource subj, IRI pred, Value obj, Resource context, boolean explicit)
@@ -928,6 +994,10 @@ class MemorySailStore implements SailStore {
 				throw convertToSailException(e);
 			}
 			invalidateCache();
+			ChangesetLog changesetLog = MemorySailStore.this.changesetLog;
+			if (deprecated && changesetLog != null) {
+				changesetLog.deprecateByQuery(explicit, subj, pred, obj, contexts);
+			}
 			assert txnLock && txnLockManager.isHeldByCurrentThread() : "Should still be holding lock";
 
 			return deprecated;
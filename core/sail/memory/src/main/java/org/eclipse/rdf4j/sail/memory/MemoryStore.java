@@ -12,6 +12,7 @@ package org.eclipse.rdf4j.sail.memory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Timer;
 import java.util.TimerTask;
 
@@ -62,6 +63,15 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 
 	protected static final String SYNC_FILE_NAME = "memorystore.sync";
 
+	protected static final String LOG_FILE_NAME = "memorystore.log";
+
+	protected static final String COMPACTING_LOG_FILE_NAME = "memorystore.log.compacting";
+
+	/**
+	 * The default minimum size (in bytes) of the changeset log before it is compacted into the data file.
+	 */
+	public static final long DEFAULT_LOG_COMPACTION_THRESHOLD = 16 * 1024 * 1024;
+
 	/*-----------*
 	 * Variables *
 	 *-----------*/
@@ -83,6 +93,33 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	private volatile File syncFile;
 
+	/**
+	 * The log that committed changesets are appended to, null if this is read-only or a volatile RDF store.
+	 */
+	private volatile ChangesetLog changesetLog;
+
+	/**
+	 * The file that the changeset log is moved to while it is being compacted into the data file.
+	 */
+	private volatile File compactingLogFile;
+
+	/**
+	 * The minimum size of the changeset log before it is compacted.
+	 *
+	 * @see #setLogCompactionThreshold
+	 */
+	private volatile long logCompactionThreshold = DEFAULT_LOG_COMPACTION_THRESHOLD;
+
+	/**
+	 * Thread that compacts the changeset log into the data file, null if no compaction is running.
+	 */
+	private volatile Thread compactionThread;
+
+	/**
+	 * Lock object used to synchronize concurrent access to {@link #compactionThread}.
+	 */
+	private final Object compactionThreadLockObject = new Object();
+
 	/**
 	 * The directory lock, null if this is read-only or a volatile RDF store.
 	 */
@@ -203,6 +240,31 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 		return syncDelay;
 	}
 
+	/**
+	 * Sets the minimum size (in bytes) that the changeset log needs to reach before it is compacted into the data file.
+	 * Committed changes are appended to the log, so a sync only costs as much as the changes that were made since the
+	 * previous sync. Once the log has grown larger than both this threshold and the data file itself, a background
+	 * thread writes a new data file and starts a new log. This keeps the amortized cost of a sync proportional to the
+	 * size of the changes, while bounding the amount of log data that needs to be replayed on initialization.
+	 * <p>
+	 * The default value for this parameter is {@value #DEFAULT_LOG_COMPACTION_THRESHOLD}.
+	 *
+	 * @param logCompactionThreshold The compaction threshold in bytes.
+	 */
+	public void setLogCompactionThreshold(long logCompactionThreshold) {
+		this.logCompactionThreshold = logCompactionThreshold;
+	}
+
+	/**
+	 * Gets the currently configured log compaction threshold.
+	 *
+	 * @return The compaction threshold in bytes.
+	 * @see #setLogCompactionThreshold
+	 */
+	public long getLogCompactionThreshold() {
+		return logCompactionThreshold;
+	}
+
 	/**
 	 * @return Returns the {@link EvaluationStrategy}.
 	 */
@@ -250,7 +312,8 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 	}
 
 	/**
-	 * Initializes this repository. If a persistence file is defined for the store, the contents will be restored.
+	 * Initializes this repository. If a persistence file is defined for the store, the contents will be restored from
+	 * the data file and the changeset logs that were written after it.
 	 *
 	 * @throws SailException when initialization of the store failed.
 	 */
@@ -265,6 +328,8 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 			DirectoryLockManager locker = new DirectoryLockManager(dataDir);
 			dataFile = new File(dataDir, DATA_FILE_NAME);
 			syncFile = new File(dataDir, SYNC_FILE_NAME);
+			compactingLogFile = new File(dataDir, COMPACTING_LOG_FILE_NAME);
+			File logFile = new File(dataDir, LOG_FILE_NAME);
 
 			if (dataFile.exists()) {
 				logger.debug("Reading data from {}...", dataFile);
@@ -281,24 +346,42 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 				}
 				// Don't try to read empty files: this will result in an
 				// IOException, and the file doesn't contain any data anyway.
-				if (dataFile.length() == 0L) {
-					logger.warn("Ignoring empty data file: {}", dataFile);
-				} else {
-					SailSink explicit = store.getExplicitSailSource().sink(IsolationLevels.NONE);
-					SailSink inferred = store.getInferredSailSource().sink(IsolationLevels.NONE);
-					try {
-						new FileIO((MemValueFactory) store.getValueFactory()).read(dataFile, explicit, inferred);
+				long logLength;
+				SailSink explicit = store.getExplicitSailSource().sink(IsolationLevels.NONE);
+				SailSink inferred = store.getInferredSailSource().sink(IsolationLevels.NONE);
+				try {
+					MemValueFactory vf = (MemValueFactory) store.getValueFactory();
+					if (dataFile.length() == 0L) {
+						logger.warn("Ignoring empty data file: {}", dataFile);
+					} else {
+						new FileIO(vf).read(dataFile, explicit, inferred);
 						logger.debug("Data file read successfully");
+					}
+					// a compacting log is only left behind if the store was stopped while compacting, replay it
+					// before the changesets that were logged after the compaction started
+					ChangesetLog.replay(compactingLogFile, vf, explicit, inferred);
+					logLength = ChangesetLog.replay(logFile, vf, explicit, inferred);
+				} catch (IOException e) {
+					logger.error("Failed to read data file", e);
+					throw new SailException(e);
+				} finally {
+					explicit.prepare();
+					explicit.flush();
+					explicit.close();
+					inferred.prepare();
+					inferred.flush();
+					inferred.close();
+				}
+
+				if (dirLock != null) {
+					try {
+						openChangesetLog(logFile, logLength);
+						if (compactingLogFile.exists()) {
+							scheduleCompaction();
+						}
 					} catch (IOException e) {
-						logger.error("Failed to read data file", e);
+						logger.error("Failed to open changeset log", e);
 						throw new SailException(e);
-					} finally {
-						explicit.prepare();
-						explicit.flush();
-						explicit.close();
-						inferred.prepare();
-						inferred.flush();
-						inferred.close();
 					}
 				}
 			} else {
@@ -322,6 +405,10 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 								dataFile);
 					}
 					logger.debug("Data file initialized");
+
+					// any log without a data file is stale
+					Files.deleteIfExists(compactingLogFile.toPath());
+					openChangesetLog(logFile, 0);
 				} catch (IOException | SailException e) {
 					logger.debug("Failed to initialize data file", e);
 					throw new SailException("Failed to initialize data file " + dataFile, e);
@@ -334,15 +421,28 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 		logger.debug("MemoryStore initialized");
 	}
 
+	private void openChangesetLog(File logFile, long validLength) throws IOException {
+		changesetLog = new ChangesetLog(logFile, (MemValueFactory) store.getValueFactory(), validLength);
+		((MemorySailStore) store).setChangesetLog(changesetLog);
+	}
+
 	@Override
 	protected void shutDownInternal() throws SailException {
 		try {
 			cancelSyncTimer();
 			sync();
+			awaitCompaction();
 
 			store.close();
+			if (changesetLog != null) {
+				changesetLog.close();
+				changesetLog = null;
+			}
 			dataFile = null;
 			syncFile = null;
+			compactingLogFile = null;
+		} catch (IOException e) {
+			throw new SailException(e);
 		} finally {
 			if (dirLock != null) {
 				dirLock.release();
@@ -443,22 +543,22 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 
 	/**
 	 * Synchronizes the contents of this repository with the data that is stored on disk. Data will only be written when
-	 * the contents of the repository and data in the file are out of sync.
+	 * the contents of the repository and data in the file are out of sync. Only the changesets that were committed
+	 * since the previous sync are written, they are appended to the changeset log.
 	 */
 	public void sync() throws SailException {
 		// syncSemaphore prevents concurrent file synchronizations
 		synchronized (syncSemaphore) {
-			if (persist && contentsChanged) {
-				logger.debug("syncing data to file...");
+			if (persist && contentsChanged && changesetLog != null) {
+				logger.debug("syncing changesets to file...");
 				try {
-					IsolationLevels level = IsolationLevels.SNAPSHOT;
-					try (SailDataset explicit = store.getExplicitSailSource().dataset(level);
-							SailDataset inferred = store.getInferredSailSource().dataset(level)) {
-						new FileIO((MemValueFactory) store.getValueFactory()).write(explicit, inferred, syncFile,
-								dataFile);
-					}
+					changesetLog.sync();
 					contentsChanged = false;
-					logger.debug("Data synced to file");
+					logger.debug("Changesets synced to file");
+
+					if (changesetLog.size() > Math.max(logCompactionThreshold, dataFile.length())) {
+						scheduleCompaction();
+					}
 				} catch (IOException e) {
 					logger.error("Failed to sync to file", e);
 					throw new SailException(e);
@@ -467,6 +567,62 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 		}
 	}
 
+	/**
+	 * Starts a background thread that compacts the changeset log into the data file, unless one is already running.
+	 */
+	protected void scheduleCompaction() {
+		synchronized (compactionThreadLockObject) {
+			Thread toCheckCompactionThread = compactionThread;
+			if (toCheckCompactionThread == null || !toCheckCompactionThread.isAlive()) {
+				toCheckCompactionThread = compactionThread = new Thread(() -> {
+					try {
+						compact();
+					} catch (IOException | SailException e) {
+						logger.warn("Unable to compact changeset log", e);
+					}
+				}, "MemoryStore log compaction");
+				toCheckCompactionThread.setDaemon(true);
+				toCheckCompactionThread.start();
+			}
+		}
+	}
+
+	private void awaitCompaction() {
+		Thread toAwaitCompactionThread;
+		synchronized (compactionThreadLockObject) {
+			toAwaitCompactionThread = compactionThread;
+			compactionThread = null;
+		}
+		if (toAwaitCompactionThread != null) {
+			try {
+				toAwaitCompactionThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SailException(e);
+			}
+		}
+	}
+
+	/**
+	 * Moves the current changeset log aside, writes a new data file from a snapshot that contains at least all of its
+	 * changes and deletes the moved log once the data file has been replaced.
+	 */
+	private void compact() throws IOException, SailException {
+		logger.debug("compacting changeset log...");
+		if (!compactingLogFile.exists()) {
+			changesetLog.rotate(compactingLogFile);
+		}
+
+		IsolationLevels level = IsolationLevels.SNAPSHOT;
+		try (SailDataset explicit = store.getExplicitSailSource().dataset(level);
+				SailDataset inferred = store.getInferredSailSource().dataset(level)) {
+			new FileIO((MemValueFactory) store.getValueFactory()).write(explicit, inferred, syncFile, dataFile);
+		}
+
+		Files.delete(compactingLogFile.toPath());
+		logger.debug("Changeset log compacted");
+	}
+
 	SailStore getSailStore() {
 		return store;
 	}
@@ -62,6 +62,12 @@ public class MemoryStoreFactory implements SailFactory {
 			if (memConfig.getIterationCacheSyncThreshold() > 0) {
 				memoryStore.setIterationCacheSyncThreshold(memConfig.getIterationCacheSyncThreshold());
 			}
+			if (memConfig.getQueryMemoryBudget() > 0) {
+				memoryStore.setQueryMemoryBudget(memConfig.getQueryMemoryBudget());
+			}
+			if (memConfig.getQueryEvaluationParallelism() > 0) {
+				memoryStore.setQueryEvaluationParallelism(memConfig.getQueryEvaluationParallelism());
+			}
 
 			EvaluationStrategyFactory evalStratFactory = memConfig.getEvaluationStrategyFactory();
 			if (evalStratFactory != null) {
@@ -11,13 +11,17 @@
 package org.eclipse.rdf4j.sail.memory;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 
 import org.eclipse.rdf4j.common.io.FileUtil;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Statement;
@@ -34,6 +38,7 @@ import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 import org.eclipse.rdf4j.query.parser.QueryParserUtil;
 import org.eclipse.rdf4j.sail.SailConnection;
 import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailSink;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -204,4 +209,150 @@ public class StoreSerializationTest {
 		}
 		store.shutDown();
 	}
+
+	@Test
+	public void testChangesetLogReplay() {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.init();
+
+		ValueFactory factory = store.getValueFactory();
+		IRI foo = factory.createIRI("http://www.foo.example/foo");
+		IRI bar = factory.createIRI("http://www.foo.example/bar");
+		IRI graph = factory.createIRI("http://www.foo.example/graph");
+
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.setNamespace("foo", "http://www.foo.example/");
+			con.addStatement(foo, RDF.TYPE, bar);
+			con.addStatement(bar, RDF.TYPE, foo);
+			con.addStatement(foo, RDFS.LABEL, factory.createLiteral("foo"), graph);
+			con.commit();
+
+			con.begin();
+			con.removeStatements(bar, RDF.TYPE, foo);
+			con.clear(graph);
+			con.commit();
+		}
+		long dataFileLength = new File(dataDir, MemoryStore.DATA_FILE_NAME).length();
+		store.shutDown();
+
+		// changes are appended to the log instead of rewriting the data file
+		assertEquals(dataFileLength, new File(dataDir, MemoryStore.DATA_FILE_NAME).length());
+		assertTrue(new File(dataDir, MemoryStore.LOG_FILE_NAME).length() > 0);
+
+		store = new MemoryStore(dataDir);
+		store.init();
+
+		try (SailConnection con = store.getConnection()) {
+			assertEquals("http://www.foo.example/", con.getNamespace("foo"));
+			assertTrue(con.hasStatement(foo, RDF.TYPE, bar, false));
+			assertFalse(con.hasStatement(bar, RDF.TYPE, foo, false));
+			assertFalse(con.hasStatement(null, null, null, false, graph));
+			assertEquals(1, con.size());
+		}
+		store.shutDown();
+	}
+
+	@Test
+	public void testChangesetLogCompaction() throws Exception {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.setLogCompactionThreshold(0);
+		store.init();
+
+		ValueFactory factory = store.getValueFactory();
+		IRI foo = factory.createIRI("http://www.foo.example/foo");
+
+		try (SailConnection con = store.getConnection()) {
+			for (int i = 0; i < 100; i++) {
+				con.begin();
+				con.addStatement(foo, RDF.VALUE, factory.createLiteral(i));
+				con.commit();
+			}
+		}
+		store.shutDown();
+
+		assertFalse(new File(dataDir, MemoryStore.COMPACTING_LOG_FILE_NAME).exists());
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try (SailConnection con = store.getConnection()) {
+			assertEquals(100, con.size());
+		}
+		store.shutDown();
+	}
+
+	@Test
+	public void testChangesetLogIgnoresIncompleteChangeset() throws Exception {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.init();
+
+		ValueFactory factory = store.getValueFactory();
+		IRI foo = factory.createIRI("http://www.foo.example/foo");
+		IRI bar = factory.createIRI("http://www.foo.example/bar");
+
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(foo, RDF.TYPE, bar);
+			con.commit();
+		}
+		store.shutDown();
+
+		// simulate a changeset that was only partially written before the JVM died
+		File logFile = new File(dataDir, MemoryStore.LOG_FILE_NAME);
+		long logLength = logFile.length();
+		Files.write(logFile.toPath(), new byte[] { 0, 0, 1, 0, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try (SailConnection con = store.getConnection()) {
+			assertTrue(con.hasStatement(foo, RDF.TYPE, bar, false));
+
+			con.begin();
+			con.addStatement(bar, RDF.TYPE, foo);
+			con.commit();
+		}
+		store.shutDown();
+		assertTrue(logFile.length() > logLength);
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try (SailConnection con = store.getConnection()) {
+			assertEquals(2, con.size());
+		}
+		store.shutDown();
+	}
+
+	@Test
+	public void testChangesetLogIgnoresUncommittedChanges() {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.init();
+
+		ValueFactory factory = store.getValueFactory();
+		IRI foo = factory.createIRI("http://www.foo.example/foo");
+		IRI bar = factory.createIRI("http://www.foo.example/bar");
+
+		// a sink that is closed without being flushed, as on rollback or after a failed update
+		try (SailSink sink = store.getSailStore().getExplicitSailSource().sink(IsolationLevels.NONE)) {
+			sink.prepare();
+			sink.approve(bar, RDF.TYPE, foo, null);
+			sink.setNamespace("bar", "http://www.bar.example/");
+		}
+
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(foo, RDF.TYPE, bar);
+			con.commit();
+		}
+		store.shutDown();
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try (SailConnection con = store.getConnection()) {
+			assertTrue(con.hasStatement(foo, RDF.TYPE, bar, false));
+			assertFalse(con.hasStatement(bar, RDF.TYPE, foo, false));
+			assertNull(con.getNamespace("bar"));
+			assertEquals(1, con.size());
+		}
+		store.shutDown();
+	}
 }
@@ -17,8 +17,13 @@ import static org.eclipse.rdf4j.model.util.Values.bnode;
 import org.eclipse.rdf4j.common.transaction.QueryEvaluationMode;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.util.ModelBuilder;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.CONFIG;
 import org.eclipse.rdf4j.sail.base.config.BaseSailSchema;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -45,4 +50,30 @@ public class MemoryStoreConfigTest {
 		assertThat(config.getPersist()).isTrue();
 		assertThat(config.getSyncDelay()).isEqualTo(1000);
 	}
+
+	@Test
+	void testQueryEvaluationSettings() {
+		MemoryStoreConfig config = new MemoryStoreConfig();
+
+		BNode implNode = bnode();
+		Model serializedConfig = new ModelBuilder()
+				.subject(implNode)
+				.add(CONFIG.Sail.queryEvaluationParallelism, 4)
+				.add(CONFIG.Sail.queryMemoryBudget, 1024L)
+				.build();
+
+		config.parse(serializedConfig, implNode);
+
+		assertThat(config.getQueryEvaluationParallelism()).isEqualTo(4);
+		assertThat(config.getQueryMemoryBudget()).isEqualTo(1024);
+
+		MemoryStore store = (MemoryStore) new MemoryStoreFactory().getSail(config);
+		assertThat(store.getQueryEvaluationParallelism()).isEqualTo(4);
+		assertThat(store.getQueryMemoryBudget()).isEqualTo(1024);
+
+		Model exported = new LinkedHashModel();
+		Resource exportedNode = config.export(exported);
+		assertThat(Models.objectLiteral(exported.getStatements(exportedNode, CONFIG.Sail.queryEvaluationParallelism,
+				null))).hasValueSatisfying(lit -> assertThat(lit.intValue()).isEqualTo(4));
+	}
 }
@@ -11,11 +11,18 @@
 package org.eclipse.rdf4j.sail.nativerdf;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.Join;
 import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
 import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
@@ -23,6 +30,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Evaluation statistics of the native store. The cardinality of a single statement pattern is estimated from the B-tree
+ * indexes. Joins of statement patterns are estimated from the {@link TripleStatistics} of the triple store: the
+ * characteristic sets give the cardinality of subject stars and the per-predicate counts give the number of triples per
+ * bound subject or object.
+ *
  * @author Arjohn Kampman
  * @author Enrico Minack
  */
@@ -44,6 +56,169 @@ class NativeEvaluationStatistics extends EvaluationStatistics {
 		return new NativeCardinalityCalculator();
 	}
 
+	@Override
+	public double getJoinFanOut(List<TupleExpr> joined, TupleExpr expr) {
+		TripleStatistics statistics = tripleStore.getStatistics();
+		if (statistics == null || !(expr instanceof StatementPattern)) {
+			return -1;
+		}
+		StatementPattern sp = (StatementPattern) expr;
+		if (sp.getSubjectVar().hasValue() || sp.getContextVar() != null || !isConstantPredicate(sp)) {
+			return -1;
+		}
+
+		try {
+			int pred = valueStore.getID(sp.getPredicateVar().getValue());
+			if (pred == NativeValue.UNKNOWN_ID) {
+				return 0;
+			}
+
+			// optionally bound variables of the joined arguments do not restrict the pattern
+			Set<String> boundVars = new HashSet<>();
+			for (TupleExpr joinedExpr : joined) {
+				boundVars.addAll(joinedExpr.getAssuredBindingNames());
+			}
+			Var objVar = sp.getObjectVar();
+			boolean objBound = objVar.hasValue() || boundVars.contains(objVar.getName());
+
+			if (boundVars.contains(sp.getSubjectVar().getName())) {
+				double fanOut = getSubjectFanOut(statistics, joined, sp, pred);
+				if (fanOut > 0 && objBound) {
+					long objects = statistics.getDistinctObjects(pred);
+					if (objects > 0) {
+						fanOut /= objects;
+					}
+				}
+				return fanOut;
+			} else if (objBound) {
+				long objects = statistics.getDistinctObjects(pred);
+				if (objects < 0) {
+					return -1;
+				}
+				return objects == 0 ? 0 : (double) statistics.getTripleCount(pred) / objects;
+			}
+			return -1;
+		} catch (IOException e) {
+			log.error("Failed to estimate join fan-out, falling back to generic implementation", e);
+			return -1;
+		}
+	}
+
+	/**
+	 * Estimates the number of triples of the predicate per subject. If other patterns of the same subject were joined
+	 * before, the estimate only considers the characteristic sets that contain their predicates.
+	 */
+	private double getSubjectFanOut(TripleStatistics statistics, List<TupleExpr> joined, StatementPattern sp,
+			int pred) throws IOException {
+		List<StatementPattern> star = new ArrayList<>();
+		for (TupleExpr joinedExpr : joined) {
+			if (joinedExpr instanceof StatementPattern
+					&& isStarPattern((StatementPattern) joinedExpr, sp.getSubjectVar().getName())) {
+				star.add((StatementPattern) joinedExpr);
+			}
+		}
+
+		if (!star.isEmpty()) {
+			int[] starPreds = getPredicateIDs(star);
+			if (starPreds != null && Arrays.stream(starPreds).noneMatch(id -> id == pred)) {
+				int[] preds = Arrays.copyOf(starPreds, starPreds.length + 1);
+				preds[starPreds.length] = pred;
+				double joinedCardinality = statistics.getStarCardinality(starPreds);
+				double cardinality = statistics.getStarCardinality(preds);
+				if (joinedCardinality >= 0 && cardinality >= 0) {
+					return joinedCardinality == 0 ? 0 : cardinality / joinedCardinality;
+				}
+			}
+		}
+
+		long subjects = statistics.getDistinctSubjects(pred);
+		return subjects == 0 ? 0 : (double) statistics.getTripleCount(pred) / subjects;
+	}
+
+	/**
+	 * Estimates the cardinality of a join that consists of a star of statement patterns with a common subject variable,
+	 * constant predicates and distinct object variables or constant objects.
+	 *
+	 * @return the estimated cardinality, or <var>-1</var> if the join is not such a star or no statistics are available
+	 */
+	private double getStarCardinality(Join join) throws IOException {
+		TripleStatistics statistics = tripleStore.getStatistics();
+		if (statistics == null) {
+			return -1;
+		}
+
+		List<StatementPattern> star = new ArrayList<>();
+		if (!collectStar(join, star)) {
+			return -1;
+		}
+		String subjName = star.get(0).getSubjectVar().getName();
+		Set<String> objNames = new HashSet<>();
+		for (StatementPattern sp : star) {
+			if (!isStarPattern(sp, subjName)) {
+				return -1;
+			}
+			Var objVar = sp.getObjectVar();
+			if (!objVar.hasValue() && (objVar.getName().equals(subjName) || !objNames.add(objVar.getName()))) {
+				return -1;
+			}
+		}
+
+		int[] preds = getPredicateIDs(star);
+		if (preds == null) {
+			return 0;
+		}
+		if (Arrays.stream(preds).distinct().count() < preds.length) {
+			return -1;
+		}
+
+		double cardinality = statistics.getStarCardinality(preds);
+		for (int i = 0; cardinality > 0 && i < star.size(); i++) {
+			if (star.get(i).getObjectVar().hasValue()) {
+				long objects = statistics.getDistinctObjects(preds[i]);
+				if (objects < 0) {
+					return -1;
+				}
+				cardinality = objects == 0 ? 0 : cardinality / objects;
+			}
+		}
+		return cardinality;
+	}
+
+	private static boolean collectStar(TupleExpr expr, List<StatementPattern> star) {
+		if (expr instanceof Join) {
+			Join join = (Join) expr;
+			return collectStar(join.getLeftArg(), star) && collectStar(join.getRightArg(), star);
+		} else if (expr instanceof StatementPattern) {
+			star.add((StatementPattern) expr);
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean isStarPattern(StatementPattern sp, String subjName) {
+		Var subjVar = sp.getSubjectVar();
+		return !subjVar.hasValue() && subjVar.getName().equals(subjName) && sp.getContextVar() == null
+				&& isConstantPredicate(sp);
+	}
+
+	private static boolean isConstantPredicate(StatementPattern sp) {
+		return sp.getPredicateVar().getValue() instanceof IRI;
+	}
+
+	/**
+	 * @return the IDs of the predicates of the patterns, or <var>null</var> if a predicate is not in the value store
+	 */
+	private int[] getPredicateIDs(List<StatementPattern> patterns) throws IOException {
+		int[] ids = new int[patterns.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = valueStore.getID(patterns.get(i).getPredicateVar().getValue());
+			if (ids[i] == NativeValue.UNKNOWN_ID) {
+				return null;
+			}
+		}
+		return ids;
+	}
+
 	protected class NativeCardinalityCalculator extends CardinalityCalculator {
 
 		@Override
@@ -75,6 +250,20 @@ class NativeEvaluationStatistics extends EvaluationStatistics {
 			}
 		}
 
+		@Override
+		public void meet(Join node) {
+			try {
+				double starCardinality = getStarCardinality(node);
+				if (starCardinality >= 0) {
+					cardinality = starCardinality;
+					return;
+				}
+			} catch (IOException e) {
+				log.error("Failed to estimate join cardinality, falling back to generic implementation", e);
+			}
+			super.meet(node);
+		}
+
 		protected Value getConstantValue(Var var) {
 			return (var != null) ? var.getValue() : null;
 		}
@@ -14,6 +14,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.base.BackingSailSource;
@@ -66,6 +68,8 @@ class NativeSailStore implements SailStore {
 
 	private final ContextStore contextStore;
 
+	private final Comparator<Value> valueIdComparator = this::compareIDs;
+
 	/**
 	 * A lock to control concurrent access by {@link NativeSailSink} to the TripleStore, ValueStore, and NamespaceStore.
 	 * Each sink method that directly accesses one of these store obtains the lock and releases it immediately when
@@ -91,11 +95,20 @@ class NativeSailStore implements SailStore {
 	 */
 	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, int valueCacheSize,
 			int valueIDCacheSize, int namespaceCacheSize, int namespaceIDCacheSize) throws IOException, SailException {
+		this(dataDir, tripleIndexes, forceSync,
+				new ValueCache((long) (valueCacheSize + valueIDCacheSize) * ValueCache.AVERAGE_ENTRY_WEIGHT),
+				namespaceCacheSize, namespaceIDCacheSize);
+	}
+
+	/**
+	 * Creates a new {@link NativeSailStore} that uses the supplied, possibly shared, value cache.
+	 */
+	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, ValueCache valueCache,
+			int namespaceCacheSize, int namespaceIDCacheSize) throws IOException, SailException {
 		boolean initialized = false;
 		try {
 			namespaceStore = new NamespaceStore(dataDir);
-			valueStore = new ValueStore(dataDir, forceSync, valueCacheSize, valueIDCacheSize, namespaceCacheSize,
-					namespaceIDCacheSize);
+			valueStore = new ValueStore(dataDir, forceSync, valueCache, namespaceCacheSize, namespaceIDCacheSize);
 			tripleStore = new TripleStore(dataDir, tripleIndexes, forceSync);
 			contextStore = new ContextStore(this, dataDir);
 			initialized = true;
@@ -218,6 +231,18 @@ class NativeSailStore implements SailStore {
 	 */
 	CloseableIteration<? extends Statement, SailException> createStatementIterator(Resource subj, IRI pred, Value obj,
 			boolean explicit, Resource... contexts) throws IOException {
+		return createStatementIterator(null, subj, pred, obj, explicit, contexts);
+	}
+
+	/**
+	 * Creates a statement iterator based on the supplied pattern that returns the statements in the supplied order.
+	 *
+	 * @param order one of the {@link #getSupportedOrders(Resource, IRI, Value, Resource...) supported orders} or
+	 *              <var>null</var> for any order
+	 * @see #createStatementIterator(Resource, IRI, Value, boolean, Resource...)
+	 */
+	CloseableIteration<? extends Statement, SailException> createStatementIterator(StatementOrder order,
+			Resource subj, IRI pred, Value obj, boolean explicit, Resource... contexts) throws IOException {
 		int subjID = NativeValue.UNKNOWN_ID;
 		if (subj != null) {
 			subjID = valueStore.getID(subj);
@@ -260,10 +285,15 @@ class NativeSailStore implements SailStore {
 			}
 		}
 
+		if (order != null && contextIDList.size() > 1) {
+			throw new SailException("Ordered statements are not supported for multiple contexts");
+		}
+
 		ArrayList<NativeStatementIterator> perContextIterList = new ArrayList<>(contextIDList.size());
 
 		for (int contextID : contextIDList) {
-			RecordIterator btreeIter = tripleStore.getTriples(subjID, predID, objID, contextID, explicit, false);
+			RecordIterator btreeIter = tripleStore.getTriples(subjID, predID, objID, contextID, explicit, false,
+					order);
 
 			perContextIterList.add(new NativeStatementIterator(btreeIter, valueStore));
 		}
@@ -275,6 +305,66 @@ class NativeSailStore implements SailStore {
 		}
 	}
 
+	/**
+	 * Determines the orders in which the statements matching the pattern can be read from the triple indexes. Patterns
+	 * over more than one context are not supported, their statements are read from one index range per context.
+	 */
+	Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts)
+			throws IOException {
+		if (contexts.length > 1) {
+			return Collections.emptySet();
+		}
+		int subjID = NativeValue.UNKNOWN_ID;
+		if (subj != null) {
+			subjID = valueStore.getID(subj);
+			if (subjID == NativeValue.UNKNOWN_ID) {
+				return Collections.emptySet();
+			}
+		}
+		int predID = NativeValue.UNKNOWN_ID;
+		if (pred != null) {
+			predID = valueStore.getID(pred);
+			if (predID == NativeValue.UNKNOWN_ID) {
+				return Collections.emptySet();
+			}
+		}
+		int objID = NativeValue.UNKNOWN_ID;
+		if (obj != null) {
+			objID = valueStore.getID(obj);
+			if (objID == NativeValue.UNKNOWN_ID) {
+				return Collections.emptySet();
+			}
+		}
+		int contextID = NativeValue.UNKNOWN_ID;
+		if (contexts.length == 1) {
+			if (contexts[0] == null) {
+				contextID = 0;
+			} else if (contexts[0].isTriple()) {
+				return Collections.emptySet();
+			} else {
+				contextID = valueStore.getID(contexts[0]);
+				if (contextID == NativeValue.UNKNOWN_ID) {
+					return Collections.emptySet();
+				}
+			}
+		}
+		return tripleStore.getSupportedOrders(subjID, predID, objID, contextID);
+	}
+
+	/**
+	 * Compares values by their ID in the value store, which is the order of the triple indexes. The null context has ID
+	 * 0.
+	 */
+	private int compareIDs(Value value1, Value value2) {
+		try {
+			int id1 = value1 == null ? 0 : valueStore.getID(value1);
+			int id2 = value2 == null ? 0 : valueStore.getID(value2);
+			return Integer.compare(id1, id2);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
 	double cardinality(Resource subj, IRI pred, Value obj, Resource context) throws IOException {
 		int subjID = NativeValue.UNKNOWN_ID;
 		if (subj != null) {
@@ -624,6 +714,30 @@ class NativeSailStore implements SailStore {
 				throw new SailException("Unable to get statements", e);
 			}
 		}
+
+		@Override
+		public Set<StatementOrder> getSupportedOrders(Resource subj, IRI pred, Value obj, Resource... contexts) {
+			try {
+				return NativeSailStore.this.getSupportedOrders(subj, pred, obj, contexts);
+			} catch (IOException e) {
+				throw new SailException("Unable to get supported orders", e);
+			}
+		}
+
+		@Override
+		public CloseableIteration<? extends Statement, SailException> getOrderedStatements(StatementOrder order,
+				Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+			try {
+				return createStatementIterator(order, subj, pred, obj, explicit, contexts);
+			} catch (IOException e) {
+				throw new SailException("Unable to get statements", e);
+			}
+		}
+
+		@Override
+		public Comparator<Value> getComparator() {
+			return valueIdComparator;
+		}
 	}
 
 }
@@ -23,7 +23,9 @@ import java.util.function.Supplier;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.collection.factory.impl.ValueIdCollectionFactory;
 import org.eclipse.rdf4j.collection.factory.mapdb.MapDbCollectionFactory;
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.concurrent.locks.Lock;
 import org.eclipse.rdf4j.common.concurrent.locks.LockManager;
 import org.eclipse.rdf4j.common.io.MavenUtil;
@@ -43,6 +45,7 @@ import org.eclipse.rdf4j.sail.base.SailStore;
 import org.eclipse.rdf4j.sail.base.SnapshotSailStore;
 import org.eclipse.rdf4j.sail.helpers.AbstractNotifyingSail;
 import org.eclipse.rdf4j.sail.helpers.DirectoryLockManager;
+import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -128,6 +131,12 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 
 	private volatile int namespaceIDCacheSize = ValueStore.NAMESPACE_ID_CACHE_SIZE;
 
+	private volatile long valueCacheBytes = -1;
+
+	private volatile boolean sharedValueCache = false;
+
+	private volatile ValueCache valueCache;
+
 	private SailStore store;
 
 	// used to decide if store is writable, is true if the store was writable during initialization
@@ -248,6 +257,57 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		this.namespaceIDCacheSize = namespaceIDCacheSize;
 	}
 
+	/**
+	 * Sets the maximum estimated memory used by the value cache, in bytes, must be called before initialization. By
+	 * default the cache is limited to {@link ValueCache#DEFAULT_MAXIMUM_WEIGHT}, unless the value or value ID cache
+	 * size was set, in which case the limit is derived from these numbers of entries.
+	 */
+	@Experimental
+	public void setValueCacheBytes(long valueCacheBytes) {
+		this.valueCacheBytes = valueCacheBytes;
+	}
+
+	/**
+	 * Specifies whether this store uses the value cache that is shared by all native stores of the JVM, see
+	 * {@link ValueCache#getSharedInstance(long)}. Must be called before initialization. By default, each store has its
+	 * own cache.
+	 */
+	@Experimental
+	public void setSharedValueCache(boolean sharedValueCache) {
+		this.sharedValueCache = sharedValueCache;
+	}
+
+	/**
+	 * Sets the cache for values and value IDs, which can be shared with other native stores. Must be called before
+	 * initialization, overrides the other value cache settings.
+	 */
+	@Experimental
+	public void setValueCache(ValueCache valueCache) {
+		this.valueCache = valueCache;
+	}
+
+	/**
+	 * Gets the cache for values and value IDs, for example to inspect its hit rate.
+	 *
+	 * @return the cache, or <var>null</var> if the store has not been initialized and no cache was set
+	 */
+	@Experimental
+	public ValueCache getValueCache() {
+		return valueCache;
+	}
+
+	private ValueCache createValueCache() {
+		long maximumWeight = valueCacheBytes;
+		if (maximumWeight < 0) {
+			if (valueCacheSize != ValueStore.VALUE_CACHE_SIZE || valueIDCacheSize != ValueStore.VALUE_ID_CACHE_SIZE) {
+				maximumWeight = (long) (valueCacheSize + valueIDCacheSize) * ValueCache.AVERAGE_ENTRY_WEIGHT;
+			} else {
+				maximumWeight = ValueCache.DEFAULT_MAXIMUM_WEIGHT;
+			}
+		}
+		return sharedValueCache ? ValueCache.getSharedInstance(maximumWeight) : new ValueCache(maximumWeight);
+	}
+
 	/**
 	 * @return Returns the {@link EvaluationStrategy}.
 	 */
@@ -339,8 +399,11 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 				Files.writeString(versionPath, VERSION, StandardCharsets.UTF_8,
 						StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
 			}
-			final NativeSailStore mainStore = new NativeSailStore(dataDir, tripleIndexes, forceSync, valueCacheSize,
-					valueIDCacheSize, namespaceCacheSize, namespaceIDCacheSize);
+			if (valueCache == null) {
+				valueCache = createValueCache();
+			}
+			final NativeSailStore mainStore = new NativeSailStore(dataDir, tripleIndexes, forceSync, valueCache,
+					namespaceCacheSize, namespaceIDCacheSize);
 			this.store = new SnapshotSailStore(mainStore, () -> new MemoryOverflowIntoNativeStore()) {
 
 				@Override
@@ -502,8 +565,27 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		}
 	}
 
+	/**
+	 * The collection factory hashes values by their ID in the value store, so that group keys over values read from
+	 * this store can be hashed without resolving their lexical form.
+	 */
 	@Override
 	public Supplier<CollectionFactory> getCollectionFactory() {
-		return () -> new MapDbCollectionFactory(getIterationCacheSyncThreshold());
+		return () -> {
+			ValueFactory valueFactory = getValueFactory();
+			if (!(valueFactory instanceof ValueStore)) {
+				return new MapDbCollectionFactory(getIterationCacheSyncThreshold());
+			}
+			ValueStore valueStore = (ValueStore) valueFactory;
+			return new MapDbCollectionFactory(getIterationCacheSyncThreshold(),
+					new ValueIdCollectionFactory(value -> {
+						try {
+							long id = valueStore.getID(value);
+							return id == NativeValue.UNKNOWN_ID ? ValueIdCollectionFactory.UNKNOWN_ID : id;
+						} catch (IOException e) {
+							throw new SailException(e);
+						}
+					}));
+		};
 	}
 }
@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Statistics about the triples of a {@link TripleStore} that are used for join cardinality estimates. Two kinds of
+ * statistics are kept, both keyed by value IDs:
+ * <ul>
+ * <li>per predicate: the number of triples, the number of distinct subjects and the number of distinct objects;</li>
+ * <li>characteristic sets: for each distinct set of predicates used by a subject, the number of subjects with exactly
+ * that set and, per predicate, the number of triples of these subjects. Together they form a histogram of the subjects
+ * over their predicate sets from which the cardinality of subject star joins can be estimated.</li>
+ * </ul>
+ * The statistics are updated per subject by the triple store when a transaction is committed and are persisted in a
+ * file next to the triple indexes.
+ */
+class TripleStatistics {
+
+	/**
+	 * The name of the file in which the statistics are stored.
+	 */
+	static final String FILE_NAME = "triples-stats.dat";
+
+	private static final int MAGIC_NUMBER = 0x4e535453; // NSTS
+
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The maximum number of characteristic sets that are kept. Data without a regular structure can have a different
+	 * set of predicates for nearly every subject, the characteristic sets are dropped when they exceed this number.
+	 */
+	static final int MAX_CHARACTERISTIC_SETS = 10_000;
+
+	private final File file;
+
+	/**
+	 * Per predicate ID: the number of triples, distinct subjects and distinct objects.
+	 */
+	private final Map<Integer, long[]> predicates = new HashMap<>();
+
+	/**
+	 * Per characteristic set: the number of subjects, followed by the number of triples per predicate of the set.
+	 */
+	private final Map<PredicateSet, long[]> characteristicSets = new HashMap<>();
+
+	private boolean characteristicSetsOverflowed;
+
+	private boolean objectsTracked;
+
+	TripleStatistics(File dir) {
+		this.file = new File(dir, FILE_NAME);
+	}
+
+	/**
+	 * Removes all statistics.
+	 *
+	 * @param objectsTracked whether the distinct objects per predicate will be counted
+	 */
+	synchronized void clear(boolean objectsTracked) {
+		predicates.clear();
+		characteristicSets.clear();
+		characteristicSetsOverflowed = false;
+		this.objectsTracked = objectsTracked;
+	}
+
+	synchronized boolean isObjectsTracked() {
+		return objectsTracked;
+	}
+
+	/**
+	 * Replaces the contribution of a subject to the statistics.
+	 *
+	 * @param before the number of triples per predicate ID of the subject before the update
+	 * @param after  the number of triples per predicate ID of the subject after the update
+	 */
+	synchronized void updateSubject(Map<Integer, Long> before, Map<Integer, Long> after) {
+		if (before.equals(after)) {
+			return;
+		}
+
+		for (Map.Entry<Integer, Long> entry : before.entrySet()) {
+			long[] stats = predicates.get(entry.getKey());
+			stats[0] -= entry.getValue();
+			if (!after.containsKey(entry.getKey())) {
+				stats[1]--;
+			}
+		}
+		for (Map.Entry<Integer, Long> entry : after.entrySet()) {
+			long[] stats = predicates.computeIfAbsent(entry.getKey(), p -> new long[] { 0, 0, 0 });
+			stats[0] += entry.getValue();
+			if (!before.containsKey(entry.getKey())) {
+				stats[1]++;
+			}
+		}
+		for (Integer pred : before.keySet()) {
+			if (predicates.get(pred)[0] == 0) {
+				predicates.remove(pred);
+			}
+		}
+
+		if (!characteristicSetsOverflowed) {
+			updateCharacteristicSet(before, -1);
+			updateCharacteristicSet(after, 1);
+		}
+	}
+
+	private void updateCharacteristicSet(Map<Integer, Long> counts, int delta) {
+		if (counts.isEmpty()) {
+			return;
+		}
+		PredicateSet predicateSet = new PredicateSet(counts.keySet());
+		long[] stats = characteristicSets.get(predicateSet);
+		if (stats == null) {
+			if (characteristicSets.size() >= MAX_CHARACTERISTIC_SETS) {
+				characteristicSets.clear();
+				characteristicSetsOverflowed = true;
+				return;
+			}
+			stats = new long[predicateSet.ids.length + 1];
+			characteristicSets.put(predicateSet, stats);
+		}
+		stats[0] += delta;
+		for (int i = 0; i < predicateSet.ids.length; i++) {
+			stats[i + 1] += delta * counts.get(predicateSet.ids[i]);
+		}
+		if (stats[0] == 0) {
+			characteristicSets.remove(predicateSet);
+		}
+	}
+
+	/**
+	 * Updates the number of distinct objects of a predicate.
+	 *
+	 * @param delta <var>1</var> if the predicate got a new object, <var>-1</var> if it lost an object
+	 */
+	synchronized void updateObjectCount(int pred, int delta) {
+		if (objectsTracked) {
+			long[] stats = predicates.get(pred);
+			if (stats != null) {
+				stats[2] += delta;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of triples with the predicate
+	 */
+	synchronized long getTripleCount(int pred) {
+		long[] stats = predicates.get(pred);
+		return stats == null ? 0 : stats[0];
+	}
+
+	/**
+	 * @return the number of distinct subjects of the predicate
+	 */
+	synchronized long getDistinctSubjects(int pred) {
+		long[] stats = predicates.get(pred);
+		return stats == null ? 0 : stats[1];
+	}
+
+	/**
+	 * @return the number of distinct objects of the predicate, or <var>-1</var> if distinct objects are not counted
+	 */
+	synchronized long getDistinctObjects(int pred) {
+		if (!objectsTracked) {
+			return -1;
+		}
+		long[] stats = predicates.get(pred);
+		return stats == null ? 0 : stats[2];
+	}
+
+	/**
+	 * Estimates the number of solutions of a star of triple patterns that share their subject variable and have the
+	 * supplied predicates and distinct object variables. Every characteristic set that contains all predicates
+	 * contributes its number of subjects multiplied by the average number of triples per subject of each predicate.
+	 *
+	 * @param preds the predicate IDs of the star
+	 * @return the estimated number of solutions, or <var>-1</var> if no characteristic sets are available
+	 */
+	synchronized double getStarCardinality(int[] preds) {
+		if (characteristicSetsOverflowed) {
+			return -1;
+		}
+
+		double cardinality = 0;
+		for (Map.Entry<PredicateSet, long[]> entry : characteristicSets.entrySet()) {
+			int[] ids = entry.getKey().ids;
+			long[] stats = entry.getValue();
+
+			double setCardinality = stats[0];
+			for (int pred : preds) {
+				int index = Arrays.binarySearch(ids, pred);
+				if (index < 0) {
+					setCardinality = 0;
+					break;
+				}
+				setCardinality *= (double) stats[index + 1] / stats[0];
+			}
+			cardinality += setCardinality;
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Loads the statistics from the file.
+	 *
+	 * @return <var>false</var> if the file does not exist or can not be read, in which case the statistics must be
+	 *         rebuilt
+	 */
+	synchronized boolean load() {
+		clear(false);
+		if (!file.exists()) {
+			return false;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION) {
+				return false;
+			}
+			objectsTracked = in.readBoolean();
+			characteristicSetsOverflowed = in.readBoolean();
+
+			int predicateCount = in.readInt();
+			for (int i = 0; i < predicateCount; i++) {
+				int pred = in.readInt();
+				predicates.put(pred, new long[] { in.readLong(), in.readLong(), in.readLong() });
+			}
+
+			int setCount = in.readInt();
+			for (int i = 0; i < setCount; i++) {
+				int[] ids = new int[in.readInt()];
+				long[] stats = new long[ids.length + 1];
+				stats[0] = in.readLong();
+				for (int j = 0; j < ids.length; j++) {
+					ids[j] = in.readInt();
+					stats[j + 1] = in.readLong();
+				}
+				characteristicSets.put(new PredicateSet(ids), stats);
+			}
+			return true;
+		} catch (IOException e) {
+			clear(false);
+			return false;
+		}
+	}
+
+	/**
+	 * Writes the statistics to the file. The file is replaced atomically so that a crash never leaves a partially
+	 * written file behind.
+	 */
+	synchronized void store() throws IOException {
+		File tmpFile = new File(file.getParentFile(), FILE_NAME + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(FORMAT_VERSION);
+			out.writeBoolean(objectsTracked);
+			out.writeBoolean(characteristicSetsOverflowed);
+
+			out.writeInt(predicates.size());
+			for (Map.Entry<Integer, long[]> entry : predicates.entrySet()) {
+				out.writeInt(entry.getKey());
+				for (long value : entry.getValue()) {
+					out.writeLong(value);
+				}
+			}
+
+			out.writeInt(characteristicSets.size());
+			for (Map.Entry<PredicateSet, long[]> entry : characteristicSets.entrySet()) {
+				int[] ids = entry.getKey().ids;
+				long[] stats = entry.getValue();
+				out.writeInt(ids.length);
+				out.writeLong(stats[0]);
+				for (int j = 0; j < ids.length; j++) {
+					out.writeInt(ids[j]);
+					out.writeLong(stats[j + 1]);
+				}
+			}
+		}
+		Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Deletes the file, forcing the statistics to be rebuilt the next time they are loaded.
+	 */
+	synchronized void delete() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	/**
+	 * An immutable, sorted set of predicate IDs.
+	 */
+	private static final class PredicateSet {
+
+		private final int[] ids;
+
+		private final int hashCode;
+
+		PredicateSet(Set<Integer> ids) {
+			int[] array = new int[ids.size()];
+			int i = 0;
+			for (Integer id : ids) {
+				array[i++] = id;
+			}
+			Arrays.sort(array);
+			this.ids = array;
+			this.hashCode = Arrays.hashCode(array);
+		}
+
+		PredicateSet(int[] sortedIds) {
+			this.ids = sortedIds;
+			this.hashCode = Arrays.hashCode(sortedIds);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof PredicateSet && Arrays.equals(ids, ((PredicateSet) o).ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
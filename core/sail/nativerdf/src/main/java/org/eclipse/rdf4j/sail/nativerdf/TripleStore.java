@@ -20,6 +20,7 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -29,6 +30,7 @@ import java.util.Set;
 import java.util.StringTokenizer;
 
 import org.eclipse.rdf4j.common.io.ByteArrayUtil;
+import org.eclipse.rdf4j.query.algebra.evaluation.StatementOrder;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.nativerdf.TxnStatusFile.TxnStatus;
 import org.eclipse.rdf4j.sail.nativerdf.btree.BTree;
@@ -153,6 +155,11 @@ class TripleStore implements Closeable {
 
 	private volatile SortedRecordCache updatedTriplesCache;
 
+	/**
+	 * Statistics about the stored triples, <var>null</var> if there is no subject-first index to maintain them with.
+	 */
+	private TripleStatistics statistics;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -195,6 +202,8 @@ class TripleStore implements Closeable {
 			if (txnStatus == TxnStatus.NONE) {
 				logger.trace("No uncompleted transactions found");
 			} else {
+				// the statistics may not reflect the recovered state
+				new TripleStatistics(dir).delete();
 				processUncompletedTransaction(txnStatus);
 			}
 
@@ -217,6 +226,8 @@ class TripleStore implements Closeable {
 			properties.setProperty(INDEXES_KEY, indexSpecStr);
 			storeProperties(propFile);
 		}
+
+		initStatistics();
 	}
 
 	/*---------*
@@ -445,6 +456,166 @@ class TripleStore implements Closeable {
 		}
 	}
 
+	private void initStatistics() throws IOException {
+		TripleStatistics statistics = new TripleStatistics(dir);
+		if (getSubjectIndex() == null) {
+			logger.debug("No subject-first index, triple statistics are not maintained");
+			statistics.delete();
+			return;
+		}
+
+		if (!statistics.load() || statistics.isObjectsTracked() != (getObjectIndex() != null)) {
+			logger.debug("Rebuilding triple statistics");
+			rebuildStatistics(statistics);
+			statistics.store();
+		}
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Gets the statistics about the stored triples.
+	 *
+	 * @return the statistics, or <var>null</var> if they are not maintained
+	 */
+	TripleStatistics getStatistics() {
+		return statistics;
+	}
+
+	private TripleIndex getSubjectIndex() {
+		for (TripleIndex index : indexes) {
+			if (index.getFieldSeq()[0] == 's') {
+				return index;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return an index that is sorted by predicate and object, or by object and predicate
+	 */
+	private TripleIndex getObjectIndex() {
+		for (TripleIndex index : indexes) {
+			char[] fieldSeq = index.getFieldSeq();
+			if (fieldSeq[0] == 'p' && fieldSeq[1] == 'o' || fieldSeq[0] == 'o' && fieldSeq[1] == 'p') {
+				return index;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the statistics from scratch from all committed triples.
+	 */
+	private void rebuildStatistics(TripleStatistics statistics) throws IOException {
+		TripleIndex objectIndex = getObjectIndex();
+		statistics.clear(objectIndex != null);
+
+		try (RecordIterator iter = getSubjectIndex().getBTree().iterateAll()) {
+			int currentSubj = -1;
+			Map<Integer, Long> counts = new HashMap<>();
+			byte[] data;
+			while ((data = iter.next()) != null) {
+				int subj = ByteArrayUtil.getInt(data, SUBJ_IDX);
+				if (subj != currentSubj && !counts.isEmpty()) {
+					statistics.updateSubject(Collections.emptyMap(), counts);
+					counts = new HashMap<>();
+				}
+				currentSubj = subj;
+				counts.merge(ByteArrayUtil.getInt(data, PRED_IDX), 1L, Long::sum);
+			}
+			if (!counts.isEmpty()) {
+				statistics.updateSubject(Collections.emptyMap(), counts);
+			}
+		}
+
+		if (objectIndex != null) {
+			try (RecordIterator iter = objectIndex.getBTree().iterateAll()) {
+				int currentPred = -1;
+				int currentObj = -1;
+				byte[] data;
+				while ((data = iter.next()) != null) {
+					int pred = ByteArrayUtil.getInt(data, PRED_IDX);
+					int obj = ByteArrayUtil.getInt(data, OBJ_IDX);
+					if (pred != currentPred || obj != currentObj) {
+						statistics.updateObjectCount(pred, 1);
+						currentPred = pred;
+						currentObj = obj;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the statistics for the subjects and predicate-object pairs of the triples in the updated triples cache.
+	 * Must be called before the transaction flags are cleared: the state before the transaction consists of the triples
+	 * without the {@link #ADDED_FLAG}, the state after the transaction of the triples without the
+	 * {@link #REMOVED_FLAG}.
+	 */
+	private void updateStatistics() throws IOException {
+		Set<Long> updatedPredObjs = statistics.isObjectsTracked() ? new HashSet<>() : null;
+
+		// the cache is sorted by subject, so every subject is only updated once
+		try (RecordIterator iter = updatedTriplesCache.getRecords()) {
+			int lastSubj = -1;
+			byte[] data;
+			while ((data = iter.next()) != null) {
+				if ((data[FLAG_IDX] & (ADDED_FLAG | REMOVED_FLAG)) == 0) {
+					// only the explicit flag was toggled
+					continue;
+				}
+				int subj = ByteArrayUtil.getInt(data, SUBJ_IDX);
+				if (subj != lastSubj) {
+					updateSubjectStatistics(subj);
+					lastSubj = subj;
+				}
+				if (updatedPredObjs != null) {
+					updatedPredObjs.add((long) ByteArrayUtil.getInt(data, PRED_IDX) << 32
+							| ByteArrayUtil.getInt(data, OBJ_IDX) & 0xFFFFFFFFL);
+				}
+			}
+		}
+
+		if (updatedPredObjs != null) {
+			for (long predObj : updatedPredObjs) {
+				updateObjectStatistics((int) (predObj >>> 32), (int) predObj);
+			}
+		}
+	}
+
+	private void updateSubjectStatistics(int subj) throws IOException {
+		Map<Integer, Long> before = new HashMap<>();
+		Map<Integer, Long> after = new HashMap<>();
+		try (RecordIterator iter = getTriples(subj, -1, -1, -1, 0, 0)) {
+			byte[] data;
+			while ((data = iter.next()) != null) {
+				int pred = ByteArrayUtil.getInt(data, PRED_IDX);
+				if ((data[FLAG_IDX] & ADDED_FLAG) == 0) {
+					before.merge(pred, 1L, Long::sum);
+				}
+				if ((data[FLAG_IDX] & REMOVED_FLAG) == 0) {
+					after.merge(pred, 1L, Long::sum);
+				}
+			}
+		}
+		statistics.updateSubject(before, after);
+	}
+
+	private void updateObjectStatistics(int pred, int obj) throws IOException {
+		boolean before = false;
+		boolean after = false;
+		try (RecordIterator iter = getTriples(-1, pred, obj, -1, 0, 0)) {
+			byte[] data;
+			while ((!before || !after) && (data = iter.next()) != null) {
+				before |= (data[FLAG_IDX] & ADDED_FLAG) == 0;
+				after |= (data[FLAG_IDX] & REMOVED_FLAG) == 0;
+			}
+		}
+		if (before != after) {
+			statistics.updateObjectCount(pred, after ? 1 : -1);
+		}
+	}
+
 	public RecordIterator getTriples(int subj, int pred, int obj, int context) throws IOException {
 		// Return all triples except those that were added but not yet committed
 		return getTriples(subj, pred, obj, context, 0, ADDED_FLAG);
@@ -480,6 +651,17 @@ class TripleStore implements Closeable {
 
 	public RecordIterator getTriples(int subj, int pred, int obj, int context, boolean explicit,
 			boolean readTransaction) throws IOException {
+		return getTriples(subj, pred, obj, context, explicit, readTransaction, null);
+	}
+
+	/**
+	 * Gets the triples that match the pattern, sorted by the ID at the position of the supplied order.
+	 *
+	 * @param order the order of the returned triples, must be one of the {@link #getSupportedOrders(int, int, int, int)
+	 *              supported orders} or <var>null</var> for any order
+	 */
+	public RecordIterator getTriples(int subj, int pred, int obj, int context, boolean explicit,
+			boolean readTransaction, StatementOrder order) throws IOException {
 		int flags = 0;
 		int flagsMask = 0;
 
@@ -495,7 +677,11 @@ class TripleStore implements Closeable {
 			}
 		}
 
-		RecordIterator btreeIter = getTriples(subj, pred, obj, context, flags, flagsMask);
+		TripleIndex index = order == null ? getBestIndex(subj, pred, obj, context)
+				: getOrderedIndex(subj, pred, obj, context, order);
+		boolean doRangeSearch = index.getPatternScore(subj, pred, obj, context) > 0;
+		RecordIterator btreeIter = getTriplesUsingIndex(subj, pred, obj, context, flags, flagsMask, index,
+				doRangeSearch);
 
 		if (readTransaction && explicit) {
 			// Filter implicit statements from the result
@@ -653,10 +839,61 @@ class TripleStore implements Closeable {
 		return bestIndex;
 	}
 
+	/**
+	 * Determines the orders in which the triples matching the pattern can be read without sorting them. Only indexes
+	 * that are as selective for the pattern as the best index are considered, each of them returns the matching triples
+	 * sorted by the ID of the first field of the index that is not bound by the pattern.
+	 *
+	 * @return the positions by whose IDs the triples can be sorted
+	 */
+	public Set<StatementOrder> getSupportedOrders(int subj, int pred, int obj, int context) {
+		Set<StatementOrder> orders = EnumSet.noneOf(StatementOrder.class);
+		int bestScore = getBestIndex(subj, pred, obj, context).getPatternScore(subj, pred, obj, context);
+		for (TripleIndex index : indexes) {
+			char[] fieldSeq = index.getFieldSeq();
+			if (bestScore < fieldSeq.length && index.getPatternScore(subj, pred, obj, context) == bestScore) {
+				orders.add(getStatementOrder(fieldSeq[bestScore]));
+			}
+		}
+		return orders;
+	}
+
+	private TripleIndex getOrderedIndex(int subj, int pred, int obj, int context, StatementOrder order) {
+		TripleIndex bestIndex = getBestIndex(subj, pred, obj, context);
+		int bestScore = bestIndex.getPatternScore(subj, pred, obj, context);
+		for (TripleIndex index : indexes) {
+			char[] fieldSeq = index.getFieldSeq();
+			if (bestScore < fieldSeq.length && index.getPatternScore(subj, pred, obj, context) == bestScore
+					&& getStatementOrder(fieldSeq[bestScore]) == order) {
+				return index;
+			}
+		}
+		throw new IllegalArgumentException("No index supports the order " + order + " for the pattern");
+	}
+
+	private static StatementOrder getStatementOrder(char field) {
+		switch (field) {
+		case 's':
+			return StatementOrder.S;
+		case 'p':
+			return StatementOrder.P;
+		case 'o':
+			return StatementOrder.O;
+		case 'c':
+			return StatementOrder.C;
+		default:
+			throw new IllegalArgumentException("invalid character '" + field + "' in field sequence");
+		}
+	}
+
 	public void clear() throws IOException {
 		for (TripleIndex index : indexes) {
 			index.getBTree().clear();
 		}
+		if (statistics != null) {
+			statistics.clear(statistics.isObjectsTracked());
+			statistics.store();
+		}
 	}
 
 	public boolean storeTriple(int subj, int pred, int obj, int context) throws IOException {
@@ -893,6 +1130,10 @@ class TripleStore implements Closeable {
 		// updatedTriplesCache will be null when recovering from a crashed commit
 		boolean validCache = updatedTriplesCache != null && updatedTriplesCache.isValid();
 
+		if (statistics != null && validCache) {
+			updateStatistics();
+		}
+
 		for (TripleIndex index : indexes) {
 			BTree btree = index.getBTree();
 
@@ -943,6 +1184,14 @@ class TripleStore implements Closeable {
 
 		sync();
 
+		if (statistics != null) {
+			if (!validCache) {
+				// too many updates to track them, recompute the statistics from the committed triples
+				rebuildStatistics(statistics);
+			}
+			statistics.store();
+		}
+
 		txnStatusFile.setTxnStatus(TxnStatus.NONE);
 		// checkAllCommitted();
 	}
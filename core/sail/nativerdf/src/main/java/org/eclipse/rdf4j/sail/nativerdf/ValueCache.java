@@ -0,0 +1,512 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A concurrent cache for the values of {@link NativeStore}s, mapping value IDs to values and values to value IDs. The
+ * size of the cache is limited by an estimate of the memory used by the cached entries, in bytes.
+ * <p>
+ * Entries are evicted with the W-TinyLFU policy: new entries enter a small LRU window, entries that fall out of the
+ * window are only admitted to the main segmented LRU cache if they have been accessed more often recently than the
+ * entry that would be evicted for them. The access frequencies are estimated by a {@link FrequencySketch}. Lookups do
+ * not block: if the policy is busy, recording the access is skipped.
+ * <p>
+ * A cache can be shared by several stores, see {@link NativeStore#setValueCache(ValueCache)} and
+ * {@link #getSharedInstance(long)}, the entries of each store are kept apart.
+ */
+@Experimental
+public final class ValueCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ValueCache.class);
+
+	/**
+	 * The default maximum weight of a cache, in bytes.
+	 */
+	public static final long DEFAULT_MAXIMUM_WEIGHT = 32L * 1024 * 1024;
+
+	/**
+	 * The assumed average weight of an entry, in bytes, used to convert limits on the number of entries.
+	 */
+	public static final int AVERAGE_ENTRY_WEIGHT = 192;
+
+	/**
+	 * The estimated memory used by an entry besides its value: the hash table entry, the node, the key and the boxed
+	 * ID.
+	 */
+	private static final int ENTRY_OVERHEAD = 112;
+
+	private static final double WINDOW_PERCENTAGE = 0.01;
+
+	private static final double PROTECTED_PERCENTAGE = 0.8;
+
+	private static volatile ValueCache sharedInstance;
+
+	private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+
+	private final ReentrantLock policyLock = new ReentrantLock();
+
+	private final long maximumWeight;
+
+	private final long windowMaximum;
+
+	private final long protectedMaximum;
+
+	// the following fields are guarded by the policy lock
+
+	private final FrequencySketch sketch;
+
+	private final AccessOrderQueue window = new AccessOrderQueue();
+
+	private final AccessOrderQueue probation = new AccessOrderQueue();
+
+	private final AccessOrderQueue protectedQueue = new AccessOrderQueue();
+
+	private long windowWeight;
+
+	private long protectedWeight;
+
+	private volatile long totalWeight;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param maximumWeight the maximum estimated memory used by the cached entries, in bytes
+	 */
+	public ValueCache(long maximumWeight) {
+		if (maximumWeight < 0) {
+			throw new IllegalArgumentException("Maximum weight must not be negative: " + maximumWeight);
+		}
+		this.maximumWeight = maximumWeight;
+		this.windowMaximum = (long) (maximumWeight * WINDOW_PERCENTAGE);
+		this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * PROTECTED_PERCENTAGE);
+		this.sketch = new FrequencySketch(maximumWeight / AVERAGE_ENTRY_WEIGHT);
+	}
+
+	/**
+	 * Gets the cache that is shared by all stores of this JVM that are configured to use a shared value cache. The
+	 * cache is created by the first call, later calls return the same cache regardless of the supplied weight.
+	 *
+	 * @param maximumWeight the maximum weight of the cache, in bytes, if it does not exist yet
+	 * @return the shared cache
+	 */
+	public static ValueCache getSharedInstance(long maximumWeight) {
+		ValueCache result = sharedInstance;
+		if (result == null) {
+			synchronized (ValueCache.class) {
+				result = sharedInstance;
+				if (result == null) {
+					result = sharedInstance = new ValueCache(maximumWeight);
+				} else if (result.maximumWeight != maximumWeight) {
+					logger.debug("Shared value cache exists, ignoring maximum weight {}", maximumWeight);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the maximum estimated memory used by the cached entries, in bytes
+	 */
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	/**
+	 * @return the estimated memory used by the cached entries, in bytes
+	 */
+	public long getWeightedSize() {
+		return totalWeight;
+	}
+
+	/**
+	 * @return the number of cached entries
+	 */
+	public long size() {
+		return data.size();
+	}
+
+	/**
+	 * @return the number of lookups that found an entry
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * @return the number of lookups that did not find an entry
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * @return the ratio of lookups that found an entry, or <var>0</var> if there were no lookups
+	 */
+	public double getHitRate() {
+		long hits = hitCount.sum();
+		long lookups = hits + missCount.sum();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	/**
+	 * @return the number of entries that were evicted to stay within the maximum weight
+	 */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	/**
+	 * Removes all entries of all stores from the cache.
+	 */
+	public void clear() {
+		policyLock.lock();
+		try {
+			data.clear();
+			window.clear();
+			probation.clear();
+			protectedQueue.clear();
+			windowWeight = 0;
+			protectedWeight = 0;
+			totalWeight = 0;
+		} finally {
+			policyLock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ValueCache [size=" + size() + ", weightedSize=" + getWeightedSize() + ", maximumWeight="
+				+ maximumWeight + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+				+ getEvictionCount() + "]";
+	}
+
+	/*---------------------------------*
+	 * Methods used by the value store *
+	 *---------------------------------*/
+
+	NativeValue getValue(Object owner, int id) {
+		return (NativeValue) get(new IdKey(owner, id));
+	}
+
+	void putValue(Object owner, int id, NativeValue value) {
+		put(new IdKey(owner, id), value, weigh(value));
+	}
+
+	Integer getID(Object owner, Value value) {
+		return (Integer) get(new ValueKey(owner, value));
+	}
+
+	void putID(Object owner, NativeValue value, int id) {
+		put(new ValueKey(owner, value), id, weigh(value));
+	}
+
+	/**
+	 * Removes all entries of a store from the cache.
+	 */
+	void invalidate(Object owner) {
+		policyLock.lock();
+		try {
+			for (Node node : data.values()) {
+				if (((OwnedKey) node.key).owner == owner) {
+					remove(node);
+				}
+			}
+		} finally {
+			policyLock.unlock();
+		}
+	}
+
+	private static int weigh(NativeValue value) {
+		int weight = ENTRY_OVERHEAD + 32 + value.stringValue().length();
+		if (value instanceof Literal) {
+			weight += ((Literal) value).getLanguage().map(String::length).orElse(0);
+		}
+		return weight;
+	}
+
+	/*--------*
+	 * Policy *
+	 *--------*/
+
+	private Object get(Object key) {
+		Node node = data.get(key);
+		if (node == null) {
+			missCount.increment();
+		} else {
+			hitCount.increment();
+		}
+
+		if (policyLock.tryLock()) {
+			try {
+				sketch.increment(key);
+				if (node != null && node.queue != null) {
+					onAccess(node);
+				}
+			} finally {
+				policyLock.unlock();
+			}
+		}
+
+		return node == null ? null : node.value;
+	}
+
+	private void put(Object key, Object value, int weight) {
+		if (weight > maximumWeight) {
+			return;
+		}
+
+		Node node = new Node(key, value, weight);
+		policyLock.lock();
+		try {
+			Node previous = data.put(key, node);
+			if (previous != null && previous.queue != null) {
+				unlink(previous);
+			}
+
+			node.queue = window;
+			window.addLast(node);
+			windowWeight += weight;
+			totalWeight += weight;
+
+			evict();
+		} finally {
+			policyLock.unlock();
+		}
+	}
+
+	private void onAccess(Node node) {
+		if (node.queue == window || node.queue == protectedQueue) {
+			node.queue.moveToLast(node);
+		} else {
+			// promote from probation to protected
+			probation.remove(node);
+			node.queue = protectedQueue;
+			protectedQueue.addLast(node);
+			protectedWeight += node.weight;
+
+			while (protectedWeight > protectedMaximum) {
+				Node demoted = protectedQueue.pollFirst();
+				protectedWeight -= demoted.weight;
+				demoted.queue = probation;
+				probation.addLast(demoted);
+			}
+		}
+	}
+
+	private void evict() {
+		// entries that fall out of the window become candidates for the main cache
+		while (windowWeight > windowMaximum) {
+			Node candidate = window.pollFirst();
+			windowWeight -= candidate.weight;
+			candidate.queue = probation;
+			probation.addLast(candidate);
+		}
+
+		while (totalWeight > maximumWeight) {
+			Node victim = probation.peekFirst();
+			Node candidate = probation.peekLast();
+			if (victim == null) {
+				victim = protectedQueue.isEmpty() ? window.peekFirst() : protectedQueue.peekFirst();
+			} else if (victim != candidate && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+				// the candidate is not accessed more often than the entry it would replace
+				victim = candidate;
+			}
+			remove(victim);
+			evictionCount.increment();
+		}
+	}
+
+	private void remove(Node node) {
+		data.remove(node.key, node);
+		if (node.queue != null) {
+			unlink(node);
+		}
+	}
+
+	private void unlink(Node node) {
+		node.queue.remove(node);
+		if (node.queue == window) {
+			windowWeight -= node.weight;
+		} else if (node.queue == protectedQueue) {
+			protectedWeight -= node.weight;
+		}
+		totalWeight -= node.weight;
+		node.queue = null;
+	}
+
+	/*---------------*
+	 * Inner classes *
+	 *---------------*/
+
+	private static final class Node {
+
+		final Object key;
+
+		final Object value;
+
+		final int weight;
+
+		AccessOrderQueue queue;
+
+		Node prev;
+
+		Node next;
+
+		Node(Object key, Object value, int weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * A doubly linked list of nodes, from the least to the most recently accessed.
+	 */
+	private static final class AccessOrderQueue {
+
+		private Node head;
+
+		private Node tail;
+
+		boolean isEmpty() {
+			return head == null;
+		}
+
+		Node peekFirst() {
+			return head;
+		}
+
+		Node peekLast() {
+			return tail;
+		}
+
+		Node pollFirst() {
+			Node node = head;
+			if (node != null) {
+				remove(node);
+			}
+			return node;
+		}
+
+		void addLast(Node node) {
+			node.prev = tail;
+			node.next = null;
+			if (tail == null) {
+				head = node;
+			} else {
+				tail.next = node;
+			}
+			tail = node;
+		}
+
+		void moveToLast(Node node) {
+			if (node != tail) {
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		void remove(Node node) {
+			if (node.prev == null) {
+				head = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+			if (node.next == null) {
+				tail = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+			node.prev = null;
+			node.next = null;
+		}
+
+		void clear() {
+			head = null;
+			tail = null;
+		}
+	}
+
+	private abstract static class OwnedKey {
+
+		final Object owner;
+
+		OwnedKey(Object owner) {
+			this.owner = owner;
+		}
+	}
+
+	private static final class IdKey extends OwnedKey {
+
+		private final int id;
+
+		IdKey(Object owner, int id) {
+			super(owner);
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof IdKey)) {
+				return false;
+			}
+			IdKey other = (IdKey) o;
+			return id == other.id && owner == other.owner;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(owner) + id;
+		}
+	}
+
+	private static final class ValueKey extends OwnedKey {
+
+		private final Value value;
+
+		ValueKey(Object owner, Value value) {
+			super(owner);
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof ValueKey)) {
+				return false;
+			}
+			ValueKey other = (ValueKey) o;
+			return owner == other.owner && Objects.equals(value, other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(owner) + value.hashCode();
+		}
+	}
+}
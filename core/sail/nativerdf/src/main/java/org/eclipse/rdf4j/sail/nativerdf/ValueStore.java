@@ -102,14 +102,10 @@ public class ValueStore extends SimpleValueFactory {
 	private volatile ValueStoreRevision revision;
 
 	/**
-	 * A simple cache containing the [VALUE_CACHE_SIZE] most-recently used values stored by their ID.
+	 * A cache containing values stored by their ID and value-IDs stored by their value. The entries of this value store
+	 * are owned by the current {@link #revision}, the cache may be shared with other value stores.
 	 */
-	private final ConcurrentCache<Integer, NativeValue> valueCache;
-
-	/**
-	 * A simple cache containing the [ID_CACHE_SIZE] most-recently used value-IDs stored by their value.
-	 */
-	private final ConcurrentCache<NativeValue, Integer> valueIDCache;
+	private final ValueCache valueCache;
 
 	/**
 	 * A simple cache containing the [NAMESPACE_CACHE_SIZE] most-recently used namespaces stored by their ID.
@@ -136,11 +132,20 @@ public class ValueStore extends SimpleValueFactory {
 
 	public ValueStore(File dataDir, boolean forceSync, int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize,
 			int namespaceIDCacheSize) throws IOException {
+		this(dataDir, forceSync,
+				new ValueCache((long) (valueCacheSize + valueIDCacheSize) * ValueCache.AVERAGE_ENTRY_WEIGHT),
+				namespaceCacheSize, namespaceIDCacheSize);
+	}
+
+	/**
+	 * @param valueCache the cache for values and value IDs, which may be shared with other value stores
+	 */
+	public ValueStore(File dataDir, boolean forceSync, ValueCache valueCache, int namespaceCacheSize,
+			int namespaceIDCacheSize) throws IOException {
 		super();
 		dataStore = new DataStore(dataDir, FILENAME_PREFIX, forceSync);
 
-		valueCache = new ConcurrentCache<>(valueCacheSize);
-		valueIDCache = new ConcurrentCache<>(valueIDCacheSize);
+		this.valueCache = valueCache;
 		namespaceCache = new ConcurrentCache<>(namespaceCacheSize);
 		namespaceIDCache = new ConcurrentCache<>(namespaceIDCacheSize);
 
@@ -180,8 +185,8 @@ public class ValueStore extends SimpleValueFactory {
 	 */
 	public NativeValue getValue(int id) throws IOException {
 		// Check value cache
-		Integer cacheID = id;
-		NativeValue resultValue = valueCache.get(cacheID);
+		ValueStoreRevision owner = revision;
+		NativeValue resultValue = valueCache.getValue(owner, id);
 
 		if (resultValue == null) {
 			// Value not in cache, fetch it from file
@@ -191,7 +196,7 @@ public class ValueStore extends SimpleValueFactory {
 				resultValue = data2value(id, data);
 
 				// Store value in cache
-				valueCache.put(cacheID, resultValue);
+				valueCache.putValue(owner, id, resultValue);
 			}
 		}
 
@@ -222,7 +227,7 @@ public class ValueStore extends SimpleValueFactory {
 		}
 
 		// Check cache
-		Integer cachedID = valueIDCache.get(value);
+		Integer cachedID = valueCache.getID(revision, value);
 
 		if (cachedID != null) {
 			int id = cachedID.intValue();
@@ -257,7 +262,7 @@ public class ValueStore extends SimpleValueFactory {
 					// Store id in cache
 					NativeValue nv = getNativeValue(value);
 					nv.setInternalID(id, revision);
-					valueIDCache.put(nv, Integer.valueOf(id));
+					valueCache.putID(revision, nv, id);
 				}
 			}
 
@@ -293,7 +298,7 @@ public class ValueStore extends SimpleValueFactory {
 		}
 
 		// ID not stored in value itself, try the ID cache
-		Integer cachedID = valueIDCache.get(value);
+		Integer cachedID = valueCache.getID(revision, value);
 
 		if (cachedID != null) {
 			int id = cachedID.intValue();
@@ -318,7 +323,7 @@ public class ValueStore extends SimpleValueFactory {
 		nv.setInternalID(id, revision);
 
 		// Update cache
-		valueIDCache.put(nv, id);
+		valueCache.putID(revision, nv, id);
 
 		return id;
 	}
@@ -334,8 +339,7 @@ public class ValueStore extends SimpleValueFactory {
 			try {
 				dataStore.clear();
 
-				valueCache.clear();
-				valueIDCache.clear();
+				valueCache.invalidate(revision);
 				namespaceCache.clear();
 				namespaceIDCache.clear();
 
@@ -363,7 +367,18 @@ public class ValueStore extends SimpleValueFactory {
 	 * @throws IOException If an I/O error occurred.
 	 */
 	public void close() throws IOException {
-		dataStore.close();
+		try {
+			dataStore.close();
+		} finally {
+			valueCache.invalidate(revision);
+		}
+	}
+
+	/**
+	 * @return the cache for values and value IDs
+	 */
+	public ValueCache getValueCache() {
+		return valueCache;
 	}
 
 	/**
@@ -22,6 +22,7 @@ import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.util.Configurations;
 import org.eclipse.rdf4j.model.util.ModelException;
+import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.model.vocabulary.CONFIG;
 import org.eclipse.rdf4j.sail.base.config.BaseSailConfig;
 import org.eclipse.rdf4j.sail.config.SailConfigException;
@@ -40,6 +41,8 @@ public class NativeStoreConfig extends BaseSailConfig {
 	private int valueIDCacheSize = -1;
 	private int namespaceCacheSize = -1;
 	private int namespaceIDCacheSize = -1;
+	private long valueCacheBytes = -1;
+	private boolean sharedValueCache = false;
 
 	public NativeStoreConfig() {
 		super(NativeStoreFactory.SAIL_TYPE);
@@ -107,6 +110,28 @@ public class NativeStoreConfig extends BaseSailConfig {
 		this.namespaceIDCacheSize = namespaceIDCacheSize;
 	}
 
+	/**
+	 * @return the maximum estimated memory used by the value cache in bytes, or <var>-1</var> if not set
+	 */
+	public long getValueCacheBytes() {
+		return valueCacheBytes;
+	}
+
+	public void setValueCacheBytes(long valueCacheBytes) {
+		this.valueCacheBytes = valueCacheBytes;
+	}
+
+	/**
+	 * @return whether the store uses the value cache that is shared by all native stores of the JVM
+	 */
+	public boolean isSharedValueCache() {
+		return sharedValueCache;
+	}
+
+	public void setSharedValueCache(boolean sharedValueCache) {
+		this.sharedValueCache = sharedValueCache;
+	}
+
 	@Override
 	public Resource export(Model m) {
 		Resource implNode = super.export(m);
@@ -154,6 +179,12 @@ public class NativeStoreConfig extends BaseSailConfig {
 				m.add(implNode, NAMESPACE_ID_CACHE_SIZE, literal(namespaceIDCacheSize));
 			}
 		}
+		if (valueCacheBytes >= 0) {
+			m.add(implNode, CONFIG.Native.valueCacheBytes, literal(valueCacheBytes));
+		}
+		if (sharedValueCache) {
+			m.add(implNode, CONFIG.Native.sharedValueCache, literal(sharedValueCache));
+		}
 
 		return implNode;
 	}
@@ -221,6 +252,28 @@ public class NativeStoreConfig extends BaseSailConfig {
 											+ " property, found " + lit);
 						}
 					});
+
+			Models.objectLiteral(m.getStatements(implNode, CONFIG.Native.valueCacheBytes, null))
+					.ifPresent(lit -> {
+						try {
+							setValueCacheBytes(lit.longValue());
+						} catch (NumberFormatException e) {
+							throw new SailConfigException(
+									"Long value required for " + CONFIG.Native.valueCacheBytes + " property, found "
+											+ lit);
+						}
+					});
+
+			Models.objectLiteral(m.getStatements(implNode, CONFIG.Native.sharedValueCache, null))
+					.ifPresent(lit -> {
+						try {
+							setSharedValueCache(lit.booleanValue());
+						} catch (IllegalArgumentException e) {
+							throw new SailConfigException(
+									"Boolean value required for " + CONFIG.Native.sharedValueCache
+											+ " property, found " + lit);
+						}
+					});
 		} catch (ModelException e) {
 			throw new SailConfigException(e.getMessage(), e);
 		}
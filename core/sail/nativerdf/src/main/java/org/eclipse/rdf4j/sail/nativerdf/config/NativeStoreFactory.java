@@ -71,9 +71,19 @@ public class NativeStoreFactory implements SailFactory {
 			if (nativeConfig.getNamespaceIDCacheSize() >= 0) {
 				nativeStore.setNamespaceIDCacheSize(nativeConfig.getNamespaceIDCacheSize());
 			}
+			if (nativeConfig.getValueCacheBytes() >= 0) {
+				nativeStore.setValueCacheBytes(nativeConfig.getValueCacheBytes());
+			}
+			nativeStore.setSharedValueCache(nativeConfig.isSharedValueCache());
 			if (nativeConfig.getIterationCacheSyncThreshold() > 0) {
 				nativeStore.setIterationCacheSyncThreshold(nativeConfig.getIterationCacheSyncThreshold());
 			}
+			if (nativeConfig.getQueryMemoryBudget() > 0) {
+				nativeStore.setQueryMemoryBudget(nativeConfig.getQueryMemoryBudget());
+			}
+			if (nativeConfig.getQueryEvaluationParallelism() > 0) {
+				nativeStore.setQueryEvaluationParallelism(nativeConfig.getQueryEvaluationParallelism());
+			}
 
 			EvaluationStrategyFactory evalStratFactory = nativeConfig.getEvaluationStrategyFactory();
 			if (evalStratFactory != null) {
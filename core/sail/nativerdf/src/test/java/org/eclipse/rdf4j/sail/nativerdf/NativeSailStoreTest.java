@@ -10,19 +10,33 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.nativerdf;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
-
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
+import org.eclipse.rdf4j.common.transaction.QueryEvaluationParallelism;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -126,6 +140,88 @@ public class NativeSailStoreTest {
 		}
 	}
 
+	@Test
+	public void testGroupByStoredAndComputedValues() {
+		try (RepositoryConnection conn = repo.getConnection()) {
+			// group keys read from the store are hashed by value ID, equal computed values must join their group
+			String query = "SELECT ?o (COUNT(*) AS ?count) WHERE { "
+					+ "{ ?s ?p ?o } UNION { BIND(\"one\" AS ?o) } UNION { BIND(\"three\" AS ?o) } "
+					+ "} GROUP BY ?o";
+			Map<String, Integer> counts = new HashMap<>();
+			try (TupleQueryResult result = conn.prepareTupleQuery(query).evaluate()) {
+				for (BindingSet bindings : result) {
+					counts.put(bindings.getValue("o").stringValue(),
+							((Literal) bindings.getValue("count")).intValue());
+				}
+			}
+			assertEquals(Map.of("zero", 1, "one", 2, "two", 1, "three", 1), counts);
+		}
+	}
+
+	@Test
+	public void testParallelGroupByStoredAndComputedValues() {
+		try (RepositoryConnection conn = repo.getConnection()) {
+			conn.begin(QueryEvaluationParallelism.of(4));
+			String query = "SELECT ?o (COUNT(DISTINCT ?s) AS ?count) WHERE { "
+					+ "{ ?s ?p ?o } UNION { BIND(\"one\" AS ?o) BIND(<urn:s> AS ?s) } "
+					+ "} GROUP BY ?o";
+			Map<String, Integer> counts = new HashMap<>();
+			try (TupleQueryResult result = conn.prepareTupleQuery(query).evaluate()) {
+				for (BindingSet bindings : result) {
+					counts.put(bindings.getValue("o").stringValue(),
+							((Literal) bindings.getValue("count")).intValue());
+				}
+			}
+			conn.commit();
+			assertEquals(Map.of("zero", 1, "one", 2, "two", 1), counts);
+		}
+	}
+
+	@Test
+	public void testDistinctStoredAndComputedValues() {
+		try (RepositoryConnection conn = repo.getConnection()) {
+			// solutions read from the store are hashed by value ID, equal computed solutions must be removed
+			String query = "SELECT DISTINCT ?o WHERE { { ?s ?p ?o } UNION { BIND(\"one\" AS ?o) } }";
+			List<String> values = new ArrayList<>();
+			try (TupleQueryResult result = conn.prepareTupleQuery(query).evaluate()) {
+				for (BindingSet bindings : result) {
+					values.add(bindings.getValue("o").stringValue());
+				}
+			}
+			assertEquals(3, values.size());
+			assertEquals(Set.of("zero", "one", "two"), new HashSet<>(values));
+		}
+	}
+
+	@Test
+	public void testHashJoinStoredAndComputedValues() {
+		try (RepositoryConnection conn = repo.getConnection()) {
+			// the sub-select is joined with a hash join, its join keys are hashed by value ID
+			String query = "SELECT ?s ?o WHERE { VALUES ?o { \"one\" \"three\" } "
+					+ "{ SELECT ?s ?o WHERE { ?s ?p ?o } } }";
+			List<String> subjects = new ArrayList<>();
+			try (TupleQueryResult result = conn.prepareTupleQuery(query).evaluate()) {
+				for (BindingSet bindings : result) {
+					subjects.add(bindings.getValue("s").stringValue());
+				}
+			}
+			assertEquals(List.of(S1.getSubject().stringValue()), subjects);
+		}
+	}
+
+	@Test
+	public void testCollectionFactoryHashesEqualValuesAlike() {
+		try (CollectionFactory cf = ((NativeStore) ((SailRepository) repo).getSail()).getCollectionFactory().get();
+				RepositoryConnection conn = repo.getConnection()) {
+			Value stored;
+			try (RepositoryResult<Statement> statements = conn.getStatements(S1.getSubject(), null, null)) {
+				stored = statements.next().getObject();
+			}
+			assertEquals(cf.hashValue(F.createLiteral("one")), cf.hashValue(stored));
+			assertEquals(cf.hashValue(F.createLiteral("unknown")), cf.hashValue(F.createLiteral("unknown")));
+		}
+	}
+
 	@AfterEach
 	public void after() throws Exception {
 		repo.shutDown();
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the maintenance and persistence of {@link TripleStatistics} and their use by
+ * {@link NativeEvaluationStatistics}.
+ */
+public class TripleStatisticsTest {
+
+	private static final int NAME = 100;
+	private static final int EMAIL = 101;
+	private static final int AGE = 102;
+
+	private static final int[][] STARS = { { NAME }, { EMAIL }, { AGE }, { NAME, EMAIL }, { NAME, AGE },
+			{ EMAIL, AGE }, { NAME, EMAIL, AGE } };
+
+	@TempDir
+	File dataDir;
+
+	@Test
+	public void testStatisticsAfterLoad() throws Exception {
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc")) {
+			load(tripleStore);
+			TripleStatistics statistics = tripleStore.getStatistics();
+
+			assertThat(statistics.getTripleCount(NAME)).isEqualTo(500);
+			assertThat(statistics.getDistinctSubjects(NAME)).isEqualTo(500);
+			assertThat(statistics.getDistinctObjects(NAME)).isEqualTo(500);
+
+			assertThat(statistics.getTripleCount(EMAIL)).isEqualTo(500);
+			assertThat(statistics.getDistinctSubjects(EMAIL)).isEqualTo(250);
+			assertThat(statistics.getDistinctObjects(EMAIL)).isEqualTo(251);
+
+			assertThat(statistics.getTripleCount(AGE)).isEqualTo(50);
+			assertThat(statistics.getDistinctSubjects(AGE)).isEqualTo(50);
+			assertThat(statistics.getDistinctObjects(AGE)).isEqualTo(1);
+
+			assertThat(statistics.getStarCardinality(new int[] { NAME, EMAIL })).isEqualTo(500);
+			assertThat(statistics.getStarCardinality(new int[] { NAME, AGE })).isEqualTo(50);
+			// subjects divisible by 10 with two emails each
+			assertThat(statistics.getStarCardinality(new int[] { EMAIL, AGE })).isEqualTo(100);
+		}
+	}
+
+	@Test
+	public void testIncrementalUpdateMatchesRebuild() throws Exception {
+		double[][] expected;
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc")) {
+			load(tripleStore);
+
+			tripleStore.startTransaction();
+			// a subject loses all its triples
+			tripleStore.removeTriplesByContext(2, -1, -1, -1);
+			// a subject gets a new predicate and an existing object
+			tripleStore.storeTriple(3, AGE, 5000, 0);
+			// an object of a predicate disappears
+			tripleStore.removeTriplesByContext(-1, NAME, 1007, -1);
+			// added and removed in the same transaction
+			tripleStore.storeTriple(9, AGE, 6000, 0);
+			tripleStore.removeTriplesByContext(9, AGE, 6000, -1);
+			// re-added triple
+			tripleStore.removeTriplesByContext(11, NAME, -1, -1);
+			tripleStore.storeTriple(11, NAME, 1011, 0);
+			// a new subject
+			tripleStore.storeTriple(1000, NAME, 7000, 0);
+			tripleStore.commit();
+
+			expected = snapshot(tripleStore.getStatistics());
+		}
+
+		// the statistics are persisted
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc")) {
+			assertThat(snapshot(tripleStore.getStatistics())).isDeepEqualTo(expected);
+		}
+
+		// and equal to the statistics computed from scratch
+		new File(dataDir, TripleStatistics.FILE_NAME).delete();
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc")) {
+			assertThat(snapshot(tripleStore.getStatistics())).isDeepEqualTo(expected);
+			assertThat(tripleStore.getStatistics().getTripleCount(NAME)).isEqualTo(499);
+			assertThat(tripleStore.getStatistics().getDistinctObjects(NAME)).isEqualTo(499);
+			assertThat(tripleStore.getStatistics().getDistinctSubjects(EMAIL)).isEqualTo(249);
+		}
+	}
+
+	@Test
+	public void testRollbackKeepsStatistics() throws Exception {
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc")) {
+			load(tripleStore);
+			double[][] expected = snapshot(tripleStore.getStatistics());
+
+			tripleStore.startTransaction();
+			tripleStore.removeTriplesByContext(-1, EMAIL, -1, -1);
+			tripleStore.rollback();
+
+			assertThat(snapshot(tripleStore.getStatistics())).isDeepEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void testWithoutObjectIndex() throws Exception {
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc")) {
+			load(tripleStore);
+			assertThat(tripleStore.getStatistics().getDistinctObjects(NAME)).isEqualTo(-1);
+			assertThat(tripleStore.getStatistics().getDistinctSubjects(NAME)).isEqualTo(500);
+		}
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc,opsc")) {
+			assertThat(tripleStore.getStatistics().getDistinctObjects(NAME)).isEqualTo(500);
+		}
+		try (TripleStore tripleStore = new TripleStore(dataDir, "posc")) {
+			assertThat(tripleStore.getStatistics()).isNull();
+		}
+	}
+
+	@Test
+	public void testStarJoinEstimates() throws Exception {
+		ValueStore valueStore = new ValueStore(dataDir);
+		try (TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc")) {
+			IRI name = valueStore.createIRI("urn:name");
+			IRI email = valueStore.createIRI("urn:email");
+			IRI age = valueStore.createIRI("urn:age");
+			int nameId = valueStore.storeValue(name);
+			int emailId = valueStore.storeValue(email);
+			int ageId = valueStore.storeValue(age);
+
+			tripleStore.startTransaction();
+			for (int s = 1; s <= 500; s++) {
+				tripleStore.storeTriple(s, nameId, 10_000 + s, 0);
+				if (s % 10 == 0) {
+					tripleStore.storeTriple(s, ageId, 20_000 + s, 0);
+				}
+			}
+			for (int s = 1; s <= 100; s++) {
+				tripleStore.storeTriple(1000 + s, emailId, 30_000 + s, 0);
+			}
+			tripleStore.commit();
+
+			NativeEvaluationStatistics statistics = new NativeEvaluationStatistics(valueStore, tripleStore);
+
+			StatementPattern namePattern = pattern("s", name, "name");
+			StatementPattern agePattern = pattern("s", age, "age");
+			StatementPattern emailPattern = pattern("s", email, "email");
+
+			assertThat(statistics.getCardinality(new Join(namePattern, agePattern))).isEqualTo(50);
+			// the subjects with an email have no name
+			assertThat(statistics.getCardinality(new Join(namePattern, emailPattern))).isZero();
+
+			assertThat(statistics.getJoinFanOut(List.<TupleExpr>of(namePattern), agePattern)).isEqualTo(0.1);
+			assertThat(statistics.getJoinFanOut(List.<TupleExpr>of(agePattern), namePattern)).isEqualTo(1);
+			assertThat(statistics.getJoinFanOut(List.<TupleExpr>of(namePattern), emailPattern)).isZero();
+			// the subject is not bound by the joined patterns
+			assertThat(statistics.getJoinFanOut(List.<TupleExpr>of(pattern("x", age, "age")), namePattern))
+					.isNegative();
+		} finally {
+			valueStore.close();
+		}
+	}
+
+	private static StatementPattern pattern(String subj, IRI pred, String obj) {
+		return new StatementPattern(new Var(subj), new Var("p_" + obj, pred), new Var(obj));
+	}
+
+	/**
+	 * Loads 500 subjects that all have a name, every even subject has two emails of which one is shared by all of them
+	 * and every tenth subject has the same age.
+	 */
+	private static void load(TripleStore tripleStore) throws Exception {
+		tripleStore.startTransaction();
+		for (int s = 1; s <= 500; s++) {
+			tripleStore.storeTriple(s, NAME, 1000 + s, 0);
+			if (s % 2 == 0) {
+				tripleStore.storeTriple(s, EMAIL, 2000 + s, 0);
+				tripleStore.storeTriple(s, EMAIL, 3000, 0);
+			}
+			if (s % 10 == 0) {
+				tripleStore.storeTriple(s, AGE, 5000, 0);
+			}
+		}
+		tripleStore.commit();
+	}
+
+	private static double[][] snapshot(TripleStatistics statistics) {
+		double[][] snapshot = new double[STARS.length + 1][];
+		snapshot[0] = new double[] { statistics.getTripleCount(NAME), statistics.getDistinctSubjects(NAME),
+				statistics.getDistinctObjects(NAME), statistics.getTripleCount(EMAIL),
+				statistics.getDistinctSubjects(EMAIL), statistics.getDistinctObjects(EMAIL),
+				statistics.getTripleCount(AGE), statistics.getDistinctSubjects(AGE),
+				statistics.getDistinctObjects(AGE) };
+		for (int i = 0; i < STARS.length; i++) {
+			snapshot[i + 1] = new double[] { statistics.getStarCardinality(STARS[i]) };
+		}
+		return snapshot;
+	}
+}
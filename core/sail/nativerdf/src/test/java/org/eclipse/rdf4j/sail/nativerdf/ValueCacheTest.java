@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ValueCacheTest {
+
+	private static final Object OWNER = new Object();
+
+	@TempDir
+	File dataDir;
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testMaximumWeight() throws Exception {
+		ValueCache cache = new ValueCache(64 * 1024);
+		ValueStore valueStore = new ValueStore(dataDir);
+		try {
+			for (int i = 0; i < 10_000; i++) {
+				cache.putValue(OWNER, i, valueStore.createIRI("http://example.org/resource/" + i));
+				assertThat(cache.getWeightedSize()).isLessThanOrEqualTo(cache.getMaximumWeight());
+			}
+			assertThat(cache.getEvictionCount()).isPositive();
+			assertThat(cache.size()).isEqualTo(10_000 - cache.getEvictionCount());
+		} finally {
+			valueStore.close();
+		}
+	}
+
+	@Test
+	public void testFrequentEntriesSurviveScan() throws Exception {
+		ValueCache cache = new ValueCache(64 * 1024);
+		ValueStore valueStore = new ValueStore(dataDir);
+		try {
+			// a small working set that is accessed often
+			for (int round = 0; round < 10; round++) {
+				for (int i = 0; i < 100; i++) {
+					if (cache.getValue(OWNER, i) == null) {
+						cache.putValue(OWNER, i, valueStore.createIRI("http://example.org/hot/" + i));
+					}
+				}
+			}
+
+			// a scan over many values that are accessed once
+			for (int i = 1000; i < 50_000; i++) {
+				if (cache.getValue(OWNER, i) == null) {
+					cache.putValue(OWNER, i, valueStore.createIRI("http://example.org/cold/" + i));
+				}
+			}
+
+			int hot = 0;
+			for (int i = 0; i < 100; i++) {
+				if (cache.getValue(OWNER, i) != null) {
+					hot++;
+				}
+			}
+			assertThat(hot).isGreaterThan(90);
+		} finally {
+			valueStore.close();
+		}
+	}
+
+	@Test
+	public void testStatistics() throws Exception {
+		ValueCache cache = new ValueCache(ValueCache.DEFAULT_MAXIMUM_WEIGHT);
+		ValueStore valueStore = new ValueStore(dataDir);
+		try {
+			NativeValue value = valueStore.createLiteral("test", "en");
+			assertThat(cache.getID(OWNER, value)).isNull();
+			cache.putID(OWNER, value, 42);
+			assertThat(cache.getID(OWNER, vf.createLiteral("test", "en"))).isEqualTo(42);
+			assertThat(cache.getID(new Object(), value)).isNull();
+
+			assertThat(cache.getHitCount()).isEqualTo(1);
+			assertThat(cache.getMissCount()).isEqualTo(2);
+			assertThat(cache.getHitRate()).isEqualTo(1.0 / 3);
+			assertThat(cache.getEvictionCount()).isZero();
+		} finally {
+			valueStore.close();
+		}
+	}
+
+	@Test
+	public void testSharedCache() throws Exception {
+		File dir1 = new File(dataDir, "store1");
+		File dir2 = new File(dataDir, "store2");
+		dir1.mkdir();
+		dir2.mkdir();
+
+		ValueCache cache = new ValueCache(ValueCache.DEFAULT_MAXIMUM_WEIGHT);
+		ValueStore store1 = new ValueStore(dir1, false, cache, 64, 32);
+		ValueStore store2 = new ValueStore(dir2, false, cache, 64, 32);
+		try {
+			IRI iri1 = vf.createIRI("http://example.org/one");
+			IRI iri2 = vf.createIRI("http://example.org/two");
+			int id1 = store1.storeValue(iri1);
+			int id2 = store2.storeValue(iri2);
+			assertThat(id1).isEqualTo(id2);
+
+			// the values with the same ID do not interfere
+			assertThat(store1.getValue(id1)).isEqualTo(iri1);
+			assertThat(store2.getValue(id2)).isEqualTo(iri2);
+			assertThat(store1.getValue(id1)).isEqualTo(iri1);
+			assertThat(store1.getID(iri2)).isEqualTo(NativeValue.UNKNOWN_ID);
+			assertThat(cache.getHitCount()).isPositive();
+
+			long size = cache.size();
+			store1.clear();
+			assertThat(cache.size()).isLessThan(size);
+			assertThat(store2.getValue(id2)).isEqualTo(iri2);
+		} finally {
+			store1.close();
+			store2.close();
+		}
+		assertThat(cache.size()).isZero();
+		assertThat(cache.getWeightedSize()).isZero();
+	}
+
+	@Test
+	public void testNativeStoreSharedCache() {
+		NativeStore store1 = new NativeStore(new File(dataDir, "store1"));
+		store1.setSharedValueCache(true);
+		NativeStore store2 = new NativeStore(new File(dataDir, "store2"));
+		store2.setSharedValueCache(true);
+		SailRepository repo1 = new SailRepository(store1);
+		SailRepository repo2 = new SailRepository(store2);
+		try {
+			repo1.init();
+			repo2.init();
+			assertThat(store1.getValueCache()).isNotNull().isSameAs(store2.getValueCache());
+
+			IRI s = vf.createIRI("http://example.org/s");
+			try (RepositoryConnection conn1 = repo1.getConnection();
+					RepositoryConnection conn2 = repo2.getConnection()) {
+				conn1.add(s, vf.createIRI("http://example.org/p1"), vf.createLiteral(1));
+				conn2.add(s, vf.createIRI("http://example.org/p2"), vf.createLiteral(2));
+
+				assertThat(conn1.getStatements(null, null, null).stream().map(st -> st.getPredicate()))
+						.containsExactly(vf.createIRI("http://example.org/p1"));
+				assertThat(conn2.getStatements(null, null, null).stream().map(st -> st.getPredicate()))
+						.containsExactly(vf.createIRI("http://example.org/p2"));
+			}
+		} finally {
+			repo1.shutDown();
+			repo2.shutDown();
+		}
+	}
+}
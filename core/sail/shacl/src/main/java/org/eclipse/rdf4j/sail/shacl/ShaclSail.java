@@ -22,6 +22,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -54,6 +55,7 @@ import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.eclipse.rdf4j.sail.memory.MemoryStoreConnection;
 import org.eclipse.rdf4j.sail.shacl.ast.ContextWithShape;
 import org.eclipse.rdf4j.sail.shacl.ast.Shape;
+import org.eclipse.rdf4j.sail.shacl.wrapper.data.RdfsSubClassOfReasonerCache;
 import org.eclipse.rdf4j.sail.shacl.wrapper.shape.CombinedShapeSource;
 import org.eclipse.rdf4j.sail.shacl.wrapper.shape.Rdf4jShaclShapeGraphShapeSource;
 import org.eclipse.rdf4j.sail.shacl.wrapper.shape.ShapeSource;
@@ -183,6 +185,9 @@ public class ShaclSail extends ShaclSailBaseConfiguration {
 	// shapesCacheLockManager used to keep track of changes to the cache
 	private StampedLockManager.Cache<List<ContextWithShape>> cachedShapes;
 
+	// the rdfs:subClassOf hierarchy of the committed data, used to avoid reading it again for every transaction
+	final RdfsSubClassOfReasonerCache rdfsSubClassOfReasonerCache = new RdfsSubClassOfReasonerCache();
+
 	// true if the base sail supports IsolationLevels.SNAPSHOT
 	private boolean supportsSnapshotIsolation;
 
@@ -436,6 +441,7 @@ public class ShaclSail extends ShaclSailBaseConfiguration {
 		}
 
 		cachedShapes = null;
+		rdfsSubClassOfReasonerCache.clear();
 
 		boolean terminated = shutdownExecutorService(false);
 
@@ -467,8 +473,14 @@ public class ShaclSail extends ShaclSailBaseConfiguration {
 
 	}
 
-	<T> Future<T> submitToExecutorService(Callable<T> runnable) {
-		return executorService.submit(runnable);
+	/**
+	 * Submit a task to the executor service for parallel validation. The caller may also run the returned task itself,
+	 * which does nothing if a validation thread has already started it.
+	 */
+	<T> FutureTask<T> submitToExecutorService(Callable<T> callable) {
+		FutureTask<T> futureTask = new FutureTask<>(callable);
+		executorService.execute(futureTask);
+		return futureTask;
 	}
 
 	@Override
@@ -36,6 +36,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.vocabulary.RDF4J;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.model.vocabulary.SESAME;
 import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
 import org.eclipse.rdf4j.sail.NotifyingSailConnection;
@@ -59,6 +60,7 @@ import org.eclipse.rdf4j.sail.shacl.results.lazy.LazyValidationReport;
 import org.eclipse.rdf4j.sail.shacl.results.lazy.ValidationResultIterator;
 import org.eclipse.rdf4j.sail.shacl.wrapper.data.ConnectionsGroup;
 import org.eclipse.rdf4j.sail.shacl.wrapper.data.RdfsSubClassOfReasoner;
+import org.eclipse.rdf4j.sail.shacl.wrapper.data.RdfsSubClassOfReasonerCache;
 import org.eclipse.rdf4j.sail.shacl.wrapper.data.VerySimpleRdfsBackwardsChainingConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -92,6 +94,15 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 	RdfsSubClassOfReasoner rdfsSubClassOfReasoner;
 
+	// the version of the cached rdfs:subClassOf hierarchy when the current transaction started
+	private long rdfsSubClassOfReasonerVersion;
+
+	// true if rdfs:subClassOf statements have been added or removed in the current transaction
+	private boolean subClassOfStatementsModified = false;
+
+	// the reasoner for the data after the current transaction has been committed, if it is known
+	private RdfsSubClassOfReasoner rdfsSubClassOfReasonerAfterCommit;
+
 	private boolean prepareHasBeenCalled = false;
 
 	private Lock exclusiveSerializableValidationLock;
@@ -199,6 +210,10 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 		stats = new Stats();
 
+		// read the version before the transactions are started, so that any later change of the class hierarchy is
+		// detected
+		rdfsSubClassOfReasonerVersion = sail.rdfsSubClassOfReasonerCache.getVersion();
+
 		// start two transactions, synchronize on underlying sail so that we get two transactions immediately
 		// successively
 		synchronized (sail) {
@@ -277,6 +292,14 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 			prepare();
 		}
 
+		RdfsSubClassOfReasonerCache rdfsSubClassOfReasonerCache = sail.rdfsSubClassOfReasonerCache;
+		boolean classHierarchyModified = subClassOfStatementsModified || !isClassHierarchyTracked();
+		boolean committed = false;
+
+		if (classHierarchyModified) {
+			rdfsSubClassOfReasonerCache.beginChange();
+		}
+
 		try {
 			long before = getTimeStamp();
 			if (previousStateConnection != null) {
@@ -284,12 +307,24 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 			}
 			super.commit();
 			shapesRepoConnection.commit();
+			committed = true;
 
 			if (sail.isPerformanceLogging()) {
 				logger.info("commit() excluding validation and cleanup took {} ms", getTimeStamp() - before);
 			}
 		} finally {
-			cleanup();
+			try {
+				if (classHierarchyModified) {
+					long version = rdfsSubClassOfReasonerCache.endChange();
+					// no other transaction has changed the class hierarchy since this transaction started
+					if (committed && rdfsSubClassOfReasonerAfterCommit != null
+							&& version == rdfsSubClassOfReasonerVersion + 2) {
+						rdfsSubClassOfReasonerCache.put(version, rdfsSubClassOfReasonerAfterCommit);
+					}
+				}
+			} finally {
+				cleanup();
+			}
 		}
 	}
 
@@ -415,6 +450,8 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 			prepareHasBeenCalled = false;
 			shapeRefreshNeeded = false;
 			shapesModifiedInCurrentTransaction = false;
+			subClassOfStatementsModified = false;
+			rdfsSubClassOfReasonerAfterCommit = null;
 
 			currentIsolationLevel = null;
 
@@ -491,7 +528,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 		assert isValidationEnabled();
 
 		if (sail.isRdfsSubClassReasoning()) {
-			rdfsSubClassOfReasoner = RdfsSubClassOfReasoner.createReasoner(this, validationSettings);
+			rdfsSubClassOfReasoner = getOrCreateRdfsSubClassOfReasoner(validationSettings);
 		}
 
 		if (!isBulkValidation()) {
@@ -500,6 +537,47 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 	}
 
+	private RdfsSubClassOfReasoner getOrCreateRdfsSubClassOfReasoner(ValidationSettings validationSettings) {
+		if (!isClassHierarchyTracked()) {
+			return RdfsSubClassOfReasoner.createReasoner(this, validationSettings);
+		}
+
+		RdfsSubClassOfReasonerCache rdfsSubClassOfReasonerCache = sail.rdfsSubClassOfReasonerCache;
+		RdfsSubClassOfReasoner cachedReasoner = rdfsSubClassOfReasonerCache.get(rdfsSubClassOfReasonerVersion);
+
+		if (!subClassOfStatementsModified) {
+			if (cachedReasoner != null) {
+				return cachedReasoner;
+			}
+			RdfsSubClassOfReasoner reasoner = RdfsSubClassOfReasoner.createReasoner(this, validationSettings);
+			rdfsSubClassOfReasonerCache.put(rdfsSubClassOfReasonerVersion, reasoner);
+			return reasoner;
+		}
+
+		RdfsSubClassOfReasoner reasoner;
+		if (cachedReasoner != null
+				&& removedStatementsSet.stream().noneMatch(s -> RDFS.SUBCLASSOF.equals(s.getPredicate()))) {
+			// only new rdfs:subClassOf statements, so we only need to add them to the cached class hierarchy
+			reasoner = cachedReasoner.withAddedSubClassOfStatements(addedStatementsSet.stream()
+					.filter(s -> RDFS.SUBCLASSOF.equals(s.getPredicate()) && s.getObject().isResource())
+					.collect(Collectors.toList()));
+		} else {
+			reasoner = RdfsSubClassOfReasoner.createReasoner(this, validationSettings);
+		}
+
+		if (rdfsSubClassOfReasonerCache.isStable(rdfsSubClassOfReasonerVersion)) {
+			rdfsSubClassOfReasonerAfterCommit = reasoner;
+		}
+		return reasoner;
+	}
+
+	/**
+	 * @return true if all changes to the rdfs:subClassOf statements in the current transaction are known
+	 */
+	private boolean isClassHierarchyTracked() {
+		return connectionListenerActive && !shapeRefreshNeeded && !shapesModifiedInCurrentTransaction;
+	}
+
 	ConnectionsGroup getConnectionsGroup() {
 
 		return new ConnectionsGroup(new VerySimpleRdfsBackwardsChainingConnection(this, rdfsSubClassOfReasoner),
@@ -558,6 +636,10 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 						})
 						.collect(Collectors.toList());
 
+				if (parallelValidation) {
+					runUnstartedTasks(futures);
+				}
+
 				for (Future<ValidationResultIterator> future : futures) {
 					assert future != null;
 					try {
@@ -604,6 +686,19 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 		}
 	}
 
+	/**
+	 * Instead of waiting for the validation threads, the current thread runs the tasks that have not been started yet.
+	 * It starts with the last task, while the validation threads take the tasks from the front of the queue.
+	 */
+	private static void runUnstartedTasks(List<? extends Future<?>> futures) {
+		for (int i = futures.size() - 1; i >= 0 && !Thread.currentThread().isInterrupted(); i--) {
+			Future<?> future = futures.get(i);
+			if (future instanceof FutureTask) {
+				((FutureTask<?>) future).run();
+			}
+		}
+	}
+
 	private boolean isParallelValidation() {
 		assert !(transactionSettings.isParallelValidation() && !supportsConcurrentReads());
 		assert !(getIsolationLevel() == IsolationLevels.SERIALIZABLE && transactionSettings
@@ -697,6 +792,10 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 					})
 					.collect(Collectors.toList());
 
+			if (parallelValidation) {
+				runUnstartedTasks(futures);
+			}
+
 			for (Future<Object> future : futures) {
 				try {
 					if (!Thread.currentThread().isInterrupted()) {
@@ -1002,6 +1101,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 			throw new IllegalStateException("Detected changes after prepare() has been called.");
 		}
 		checkIfShapesRefreshIsNeeded(statement);
+		checkIfSubClassOfStatement(statement);
 		boolean add = addedStatementsSet.add(statement);
 		if (!add) {
 			removedStatementsSet.remove(statement);
@@ -1017,6 +1117,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 			throw new IllegalStateException("Detected changes after prepare() has been called.");
 		}
 		checkIfShapesRefreshIsNeeded(statement);
+		checkIfSubClassOfStatement(statement);
 
 		boolean add = removedStatementsSet.add(statement);
 		if (!add) {
@@ -1038,6 +1139,12 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 		}
 	}
 
+	private void checkIfSubClassOfStatement(Statement statement) {
+		if (RDFS.SUBCLASSOF.equals(statement.getPredicate())) {
+			subClassOfStatementsModified = true;
+		}
+	}
+
 	private void checkTransactionalValidationLimit() {
 		if ((addedStatementsSet.size() + removedStatementsSet.size()) > sail.getTransactionalValidationLimit()) {
 			if (shouldUseSerializableValidation()) {
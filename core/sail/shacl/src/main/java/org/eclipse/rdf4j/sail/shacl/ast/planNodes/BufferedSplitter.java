@@ -11,10 +11,10 @@
 
 package org.eclipse.rdf4j.sail.shacl.ast.planNodes;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.text.StringEscapeUtils;
@@ -30,6 +30,10 @@ import org.slf4j.LoggerFactory;
  *         Allows the iterator of one planNode to be used by multiple other nodes by buffering all results from the
  *         parent iterator. This will potentially take a fair bit of memory, but maybe be useful for perfomance so that
  *         we don't query the underlying datastores for the same data multiple times.
+ *         <p>
+ *         The buffer is filled on demand by whichever consumer needs the next tuple, so consumers in other threads can
+ *         read the tuples that have already been buffered without waiting for the parent iterator to be exhausted and
+ *         without taking a lock.
  */
 public class BufferedSplitter implements PlanNodeProvider {
 
@@ -39,9 +43,20 @@ public class BufferedSplitter implements PlanNodeProvider {
 
 	private final PlanNode parent;
 	private final boolean cached;
-	private volatile List<ValidationTuple> tuplesBuffer;
 	private long id = -1;
 
+	// the array is published before the size, so that a consumer that reads the size after the array sees all the
+	// tuples up to that size
+	private volatile ValidationTuple[] tuplesBuffer = new ValidationTuple[16];
+	private volatile int size;
+	private volatile boolean exhausted;
+
+	// guarded by this
+	private CloseableIteration<? extends ValidationTuple, SailException> parentIterator;
+	private RuntimeException failure;
+
+	private final AtomicInteger openConsumers = new AtomicInteger();
+
 	public BufferedSplitter(PlanNode parent, boolean cached) {
 		this.parent = parent;
 		this.cached = cached;
@@ -53,17 +68,79 @@ public class BufferedSplitter implements PlanNodeProvider {
 		this(parent, true);
 	}
 
-	private synchronized void init() {
-		if (tuplesBuffer == null) {
-			tuplesBuffer = new ArrayList<>();
-			try (CloseableIteration<? extends ValidationTuple, SailException> iterator = parent.iterator()) {
-				while (iterator.hasNext()) {
-					ValidationTuple next = iterator.next();
-					tuplesBuffer.add(next);
+	/**
+	 * @return true if the buffer contains a tuple at the given index, reading from the parent iterator if needed
+	 */
+	private boolean isBuffered(int index) {
+		if (index < size) {
+			return true;
+		}
+		if (exhausted) {
+			return index < size;
+		}
+		return fill(index);
+	}
+
+	private synchronized boolean fill(int index) {
+		if (failure != null) {
+			throw failure;
+		}
+
+		try {
+			if (parentIterator == null && !exhausted) {
+				parentIterator = parent.iterator();
+			}
+
+			while (size <= index && !exhausted) {
+				if (parentIterator.hasNext()) {
+					add(parentIterator.next());
+				} else {
+					closeParentIterator();
 				}
 			}
+		} catch (RuntimeException e) {
+			failure = e;
+			try {
+				closeParentIterator();
+			} catch (RuntimeException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+
+		return index < size;
+	}
+
+	private void add(ValidationTuple tuple) {
+		ValidationTuple[] buffer = tuplesBuffer;
+		int size = this.size;
+		if (size == buffer.length) {
+			buffer = Arrays.copyOf(buffer, size * 2);
+			tuplesBuffer = buffer;
+		}
+		buffer[size] = tuple;
+		this.size = size + 1;
+	}
+
+	private void closeParentIterator() {
+		exhausted = true;
+		if (parentIterator != null) {
+			CloseableIteration<? extends ValidationTuple, SailException> iterator = parentIterator;
+			parentIterator = null;
+			iterator.close();
 		}
+	}
 
+	private void consumerClosed() {
+		// the parent iterator is only closed once it is exhausted, so when the last consumer closes early we buffer the
+		// rest of it in case another consumer needs it later on
+		if (openConsumers.decrementAndGet() == 0) {
+			synchronized (this) {
+				if (parentIterator != null) {
+					fill(Integer.MAX_VALUE);
+				}
+			}
+		}
 	}
 
 	public String getId() {
@@ -108,32 +185,32 @@ public class BufferedSplitter implements PlanNodeProvider {
 		@Override
 		public CloseableIteration<? extends ValidationTuple, SailException> iterator() {
 
-			return new CloseableIteration<>() {
+			bufferedSplitter.openConsumers.incrementAndGet();
 
-				Iterator<ValidationTuple> iterator;
+			return new CloseableIteration<>() {
 
-				private void init() {
-					if (iterator == null) {
-						bufferedSplitter.init();
-						iterator = bufferedSplitter.tuplesBuffer.iterator();
-					}
-				}
+				int index;
+				boolean closed;
 
 				@Override
 				public void close() throws SailException {
-
+					if (!closed) {
+						closed = true;
+						bufferedSplitter.consumerClosed();
+					}
 				}
 
 				@Override
 				public boolean hasNext() throws SailException {
-					init();
-					return iterator.hasNext();
+					return !closed && bufferedSplitter.isBuffered(index);
 				}
 
 				@Override
 				public ValidationTuple next() throws SailException {
-					init();
-					ValidationTuple tuple = iterator.next();
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					ValidationTuple tuple = bufferedSplitter.tuplesBuffer[index++];
 					if (validationExecutionLogger.isEnabled()) {
 						validationExecutionLogger.log(depth(),
 								bufferedSplitter.parent.getClass().getSimpleName() + ":BufferedSplitter.next()", tuple,
@@ -16,20 +16,43 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
 
 import org.apache.commons.text.StringEscapeUtils;
+import org.eclipse.rdf4j.collection.factory.api.BindingSetSpill;
+import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.sail.SailException;
 
 public class Sort implements PlanNode {
 
+	/**
+	 * The number of tuples that are kept in memory before they are sorted and written to disk as a sorted run. Bulk
+	 * validation of large datasets may otherwise need to hold every target in memory at once. Disabled by default.
+	 */
+	private static final int SPILL_THRESHOLD = Integer.getInteger("org.eclipse.rdf4j.sail.shacl.sortSpillThreshold",
+			3);
+
 	private final PlanNode parent;
+	private final int spillThreshold;
 	private boolean printed = false;
 	private ValidationExecutionLogger validationExecutionLogger;
 
 	public Sort(PlanNode parent) {
+		this(parent, SPILL_THRESHOLD);
+	}
+
+	/**
+	 * @param spillThreshold the number of tuples that are sorted in memory before they are written to disk
+	 */
+	public Sort(PlanNode parent, int spillThreshold) {
+		assert spillThreshold > 1;
 		this.parent = PlanNodeHelper.handleSorting(this, parent);
+		this.spillThreshold = spillThreshold;
 	}
 
 	@Override
@@ -41,6 +64,9 @@ public class Sort implements PlanNode {
 
 			Iterator<ValidationTuple> sortedTuplesIterator;
 
+			// sorted runs that were written to disk, only used when the number of tuples exceeds the spill threshold
+			List<BindingSetSpill> sortedRuns;
+
 			protected void init() {
 				assert sortedTuples == null;
 
@@ -56,7 +82,7 @@ public class Sort implements PlanNode {
 
 						// quick break out if sortedTuples is guaranteed to be of size 1 since we don't need to sort
 						// it then
-						if (sortedTuples.size() == 1 && !iterator.hasNext()) {
+						if (sortedTuples.size() == 1 && sortedRuns == null && !iterator.hasNext()) {
 							sortedTuplesIterator = sortedTuples.iterator();
 							return;
 						}
@@ -65,23 +91,85 @@ public class Sort implements PlanNode {
 							alreadySorted = false;
 						}
 						prev = next;
+
+						if (sortedTuples.size() >= spillThreshold) {
+							spillSortedRun(alreadySorted);
+							alreadySorted = true;
+							prev = sortedTuples.isEmpty() ? null : sortedTuples.get(sortedTuples.size() - 1);
+						}
 					}
 
 					assert !iterator.hasNext() : "Iterator: " + iterator;
 				}
 
 				if (!alreadySorted && sortedTuples.size() > 1) {
-					if (sortedTuples.size() > 8192) { // MIN_ARRAY_SORT_GRAN in Arrays.parallelSort(...)
-						ValidationTuple[] objects = sortedTuples.toArray(new ValidationTuple[0]);
-						Arrays.parallelSort(objects, ValidationTuple::compareActiveTarget);
-						sortedTuples = Arrays.asList(objects);
+					sortTuples();
+				}
+
+				if (sortedRuns == null) {
+					sortedTuplesIterator = sortedTuples.iterator();
+				} else {
+					List<Iterator<ValidationTuple>> runs = new ArrayList<>(sortedRuns.size() + 1);
+					for (BindingSetSpill sortedRun : sortedRuns) {
+						Iterator<BindingSet> bindingSets = sortedRun.iterator();
+						runs.add(new Iterator<>() {
+							@Override
+							public boolean hasNext() {
+								return bindingSets.hasNext();
+							}
+
+							@Override
+							public ValidationTuple next() {
+								return ValidationTuple.fromBindingSet(bindingSets.next());
+							}
+						});
+					}
+					// most of the tuples in memory were added after the ones on disk, so they are merged last
+					runs.add(sortedTuples.iterator());
+					sortedTuplesIterator = new MergingIterator(runs);
+				}
+
+			}
+
+			private void sortTuples() {
+				if (sortedTuples.size() > 8192) { // MIN_ARRAY_SORT_GRAN in Arrays.parallelSort(...)
+					ValidationTuple[] objects = sortedTuples.toArray(new ValidationTuple[0]);
+					Arrays.parallelSort(objects, ValidationTuple::compareActiveTarget);
+					sortedTuples = Arrays.asList(objects);
+				} else {
+					sortedTuples.sort(ValidationTuple::compareActiveTarget);
+				}
+			}
+
+			/**
+			 * Sort the tuples in memory and write them to disk as a new sorted run. Tuples that carry validation
+			 * results or compressed tuples can't be written to disk and are kept in memory instead.
+			 */
+			private void spillSortedRun(boolean alreadySorted) {
+				if (!alreadySorted) {
+					sortTuples();
+				}
+
+				if (sortedRuns == null) {
+					sortedRuns = new ArrayList<>();
+				}
+
+				List<ValidationTuple> unspillable = new ArrayList<>();
+				BindingSetSpill sortedRun = new DefaultCollectionFactory().createBindingSetSpill(QueryBindingSet::new);
+				sortedRuns.add(sortedRun);
+				for (ValidationTuple tuple : sortedTuples) {
+					if (tuple.isSpillable()) {
+						sortedRun.add(tuple.toBindingSet(new QueryBindingSet()));
 					} else {
-						sortedTuples.sort(ValidationTuple::compareActiveTarget);
+						unspillable.add(tuple);
 					}
 				}
 
-				sortedTuplesIterator = sortedTuples.iterator();
+				if (unspillable.size() >= spillThreshold) {
+					throw new SailException("Too many tuples that can't be written to disk: " + unspillable.size());
+				}
 
+				sortedTuples = unspillable;
 			}
 
 			@Override
@@ -98,6 +186,15 @@ public class Sort implements PlanNode {
 			public void localClose() {
 				sortedTuplesIterator = Collections.emptyIterator();
 				sortedTuples = null;
+				if (sortedRuns != null) {
+					try {
+						for (BindingSetSpill sortedRun : sortedRuns) {
+							sortedRun.close();
+						}
+					} finally {
+						sortedRuns = null;
+					}
+				}
 			}
 
 		};
@@ -163,4 +260,61 @@ public class Sort implements PlanNode {
 	public String toString() {
 		return "Sort{" + "parent=" + parent + '}';
 	}
+
+	/**
+	 * K-way merge of sorted iterators. Equal tuples are returned in the order of the iterators they come from.
+	 */
+	private static class MergingIterator implements Iterator<ValidationTuple> {
+
+		private final PriorityQueue<Head> heads;
+
+		private MergingIterator(List<Iterator<ValidationTuple>> iterators) {
+			heads = new PriorityQueue<>(Math.max(1, iterators.size()));
+			for (int i = 0; i < iterators.size(); i++) {
+				Iterator<ValidationTuple> iterator = iterators.get(i);
+				if (iterator.hasNext()) {
+					heads.add(new Head(iterator.next(), i, iterator));
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !heads.isEmpty();
+		}
+
+		@Override
+		public ValidationTuple next() {
+			Head head = heads.poll();
+			if (head == null) {
+				throw new NoSuchElementException();
+			}
+			ValidationTuple tuple = head.tuple;
+			if (head.iterator.hasNext()) {
+				heads.add(new Head(head.iterator.next(), head.index, head.iterator));
+			}
+			return tuple;
+		}
+
+		private static class Head implements Comparable<Head> {
+			private final ValidationTuple tuple;
+			private final int index;
+			private final Iterator<ValidationTuple> iterator;
+
+			private Head(ValidationTuple tuple, int index, Iterator<ValidationTuple> iterator) {
+				this.tuple = tuple;
+				this.index = index;
+				this.iterator = iterator;
+			}
+
+			@Override
+			public int compareTo(Head other) {
+				int compare = tuple.compareActiveTarget(other.tuple);
+				if (compare == 0) {
+					return Integer.compare(index, other.index);
+				}
+				return compare;
+			}
+		}
+	}
 }
@@ -22,15 +22,13 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.parser.ParsedQuery;
-import org.eclipse.rdf4j.query.parser.QueryParserFactory;
-import org.eclipse.rdf4j.query.parser.QueryParserRegistry;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.sail.SailConnection;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.memory.MemoryStoreConnection;
 import org.eclipse.rdf4j.sail.shacl.ast.ShaclSparqlConstraintFailureException;
 import org.eclipse.rdf4j.sail.shacl.ast.Shape;
+import org.eclipse.rdf4j.sail.shacl.ast.SparqlQueryParserCache;
 import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.SparqlConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.results.ValidationResult;
@@ -55,7 +53,7 @@ public class SparqlConstraintSelect implements PlanNode {
 	private final String[] variables;
 	private final ConstraintComponent.Scope scope;
 	private final Dataset dataset;
-	private final ParsedQuery parsedQuery;
+	private final TupleExpr parsedQuery;
 	private final boolean printed = false;
 	private ValidationExecutionLogger validationExecutionLogger;
 
@@ -75,12 +73,8 @@ public class SparqlConstraintSelect implements PlanNode {
 		this.scope = scope;
 		this.dataset = PlanNodeHelper.asDefaultGraphDataset(dataGraph);
 
-		QueryParserFactory queryParserFactory = QueryParserRegistry.getInstance()
-				.get(QueryLanguage.SPARQL)
-				.get();
-
 		try {
-			this.parsedQuery = queryParserFactory.getParser().parseQuery(query, null);
+			this.parsedQuery = SparqlQueryParserCache.get(query);
 		} catch (MalformedQueryException e) {
 			logger.error("Malformed query: \n{}", query);
 			throw e;
@@ -111,7 +105,7 @@ public class SparqlConstraintSelect implements PlanNode {
 					if (results == null && targetIterator.hasNext()) {
 						nextTarget = targetIterator.next();
 						SingletonBindingSet bindings = new SingletonBindingSet("this", nextTarget.getActiveTarget());
-						results = connection.evaluate(parsedQuery.getTupleExpr(), dataset, bindings, true);
+						results = connection.evaluate(parsedQuery, dataset, bindings, true);
 					}
 
 					if (results.hasNext()) {
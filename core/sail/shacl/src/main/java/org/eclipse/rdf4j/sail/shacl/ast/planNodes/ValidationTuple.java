@@ -22,9 +22,12 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
 import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.results.ValidationResult;
@@ -35,6 +38,14 @@ public class ValidationTuple {
 
 	private static final Resource[] NULL_CONTEXT = { null };
 
+	// binding names used by toBindingSet() and fromBindingSet(...)
+	private static final String SPILL_SCOPE = "scope";
+	private static final String SPILL_HAS_VALUE = "hasValue";
+	private static final String SPILL_CHAIN_SIZE = "chainSize";
+	private static final String SPILL_CONTEXTS_SIZE = "contextsSize";
+	private static final String SPILL_CHAIN = "chain_";
+	private static final String SPILL_CONTEXT = "context_";
+
 	private static final Logger logger = LoggerFactory.getLogger(ValidationTuple.class);
 	private static final ValueComparator valueComparator = new ValueComparator();
 
@@ -475,4 +486,67 @@ public class ValidationTuple {
 		return contexts;
 	}
 
+	/**
+	 * @return true if this tuple can be written to a spill with {@link #toBindingSet(MutableBindingSet)}, which is not
+	 *         the case for tuples that carry validation results or compressed tuples
+	 */
+	boolean isSpillable() {
+		return validationResults.isEmpty() && compressedTuples.isEmpty();
+	}
+
+	/**
+	 * Writes the chain, scope, value flag and contexts of this tuple into the given binding set. Null values and null
+	 * contexts are left unbound.
+	 */
+	BindingSet toBindingSet(MutableBindingSet bindingSet) {
+		assert isSpillable();
+		SimpleValueFactory vf = SimpleValueFactory.getInstance();
+
+		bindingSet.setBinding(SPILL_SCOPE, vf.createLiteral(scope.ordinal()));
+		bindingSet.setBinding(SPILL_HAS_VALUE, vf.createLiteral(propertyShapeScopeWithValue));
+		bindingSet.setBinding(SPILL_CHAIN_SIZE, vf.createLiteral(chain.length));
+		for (int i = 0; i < chain.length; i++) {
+			if (chain[i] != null) {
+				bindingSet.setBinding(SPILL_CHAIN + i, chain[i]);
+			}
+		}
+		bindingSet.setBinding(SPILL_CONTEXTS_SIZE, vf.createLiteral(contexts.length));
+		for (int i = 0; i < contexts.length; i++) {
+			if (contexts[i] != null) {
+				bindingSet.setBinding(SPILL_CONTEXT + i, contexts[i]);
+			}
+		}
+		return bindingSet;
+	}
+
+	/**
+	 * Reads a tuple that was written with {@link #toBindingSet(MutableBindingSet)}.
+	 */
+	static ValidationTuple fromBindingSet(BindingSet bindingSet) {
+		ConstraintComponent.Scope scope = ConstraintComponent.Scope.values()[intValue(bindingSet, SPILL_SCOPE)];
+		boolean hasValue = ((Literal) bindingSet.getValue(SPILL_HAS_VALUE)).booleanValue();
+
+		Value[] chain = new Value[intValue(bindingSet, SPILL_CHAIN_SIZE)];
+		for (int i = 0; i < chain.length; i++) {
+			chain[i] = bindingSet.getValue(SPILL_CHAIN + i);
+		}
+
+		int contextsSize = intValue(bindingSet, SPILL_CONTEXTS_SIZE);
+		Resource[] contexts;
+		if (contextsSize == 1 && !bindingSet.hasBinding(SPILL_CONTEXT + 0)) {
+			contexts = NULL_CONTEXT;
+		} else {
+			contexts = new Resource[contextsSize];
+			for (int i = 0; i < contextsSize; i++) {
+				contexts[i] = (Resource) bindingSet.getValue(SPILL_CONTEXT + i);
+			}
+		}
+
+		return new ValidationTuple(chain, scope, hasValue, contexts);
+	}
+
+	private static int intValue(BindingSet bindingSet, String name) {
+		return ((Literal) bindingSet.getValue(name)).intValue();
+	}
+
 }
@@ -31,20 +31,18 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
 import org.eclipse.rdf4j.query.algebra.QueryRoot;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.ArrayBindingBasedQueryEvaluationContext;
 import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.query.impl.MapBindingSet;
 import org.eclipse.rdf4j.query.impl.SimpleBinding;
-import org.eclipse.rdf4j.query.parser.ParsedQuery;
-import org.eclipse.rdf4j.query.parser.QueryParserFactory;
-import org.eclipse.rdf4j.query.parser.QueryParserRegistry;
 import org.eclipse.rdf4j.sail.SailConnection;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.shacl.ast.SparqlFragment;
+import org.eclipse.rdf4j.sail.shacl.ast.SparqlQueryParserCache;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher.Variable;
 import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
@@ -73,7 +71,6 @@ public class TargetChainRetriever implements PlanNode {
 	private final List<StatementMatcher> statementMatchers;
 	private final List<StatementMatcher> removedStatementMatchers;
 	private final String queryFragment;
-	private final QueryParserFactory queryParserFactory;
 	private final ConstraintComponent.Scope scope;
 	private final Resource[] dataGraph;
 	private final Dataset dataset;
@@ -110,14 +107,9 @@ public class TargetChainRetriever implements PlanNode {
 
 //		this.stackTrace = Thread.currentThread().getStackTrace();
 
-		this.queryParserFactory = QueryParserRegistry.getInstance()
-				.get(QueryLanguage.SPARQL)
-				.get();
-
 		this.varNamesInQueryFragment = Set.of(ArrayBindingBasedQueryEvaluationContext
-				.findAllVariablesUsedInQuery(((QueryRoot) queryParserFactory.getParser()
-						.parseQuery("select * where {\n" + this.queryFragment + "\n}", null)
-						.getTupleExpr())));
+				.findAllVariablesUsedInQuery(((QueryRoot) SparqlQueryParserCache
+						.get("select * where {\n" + this.queryFragment + "\n}"))));
 
 		assert !varNamesInQueryFragment.isEmpty();
 
@@ -149,7 +141,7 @@ public class TargetChainRetriever implements PlanNode {
 
 			private CloseableIteration<? extends BindingSet, QueryEvaluationException> results;
 
-			private ParsedQuery parsedQuery;
+			private TupleExpr parsedQuery;
 
 			private boolean removedStatement = false;
 
@@ -243,14 +235,14 @@ public class TargetChainRetriever implements PlanNode {
 									queryFragment + "\n" +
 									"}";
 
-							parsedQuery = queryParserFactory.getParser().parseQuery(query, null);
+							parsedQuery = SparqlQueryParserCache.get(query);
 						}
 
 						List<BindingSet> bulk = readStatementsInBulk(currentVarNames);
 						setBindings(currentVarNames, bulk);
 
 						results = connectionsGroup.getBaseConnection()
-								.evaluate(parsedQuery.getTupleExpr(), dataset,
+								.evaluate(parsedQuery, dataset,
 										EmptyBindingSet.getInstance(), true);
 
 					} catch (MalformedQueryException e) {
@@ -353,7 +345,7 @@ public class TargetChainRetriever implements PlanNode {
 			}
 
 			private void setBindings(Set<String> varNames, List<BindingSet> bulk) {
-				parsedQuery.getTupleExpr()
+				parsedQuery
 						.visit(new AbstractSimpleQueryModelVisitor<>(false) {
 							@Override
 							public void meet(BindingSetAssignment node) {
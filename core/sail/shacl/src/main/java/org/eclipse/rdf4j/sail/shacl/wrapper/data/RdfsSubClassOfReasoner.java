@@ -150,6 +150,53 @@ public class RdfsSubClassOfReasoner {
 		return iris != null ? iris : Collections.emptySet();
 	}
 
+	/**
+	 * Create a new reasoner that also contains the given rdfs:subClassOf statements, without reading the statements
+	 * that this reasoner was created from again. This reasoner is not modified.
+	 */
+	public RdfsSubClassOfReasoner withAddedSubClassOfStatements(Collection<Statement> addedStatements) {
+		RdfsSubClassOfReasoner rdfsSubClassOfReasoner = new RdfsSubClassOfReasoner();
+		rdfsSubClassOfReasoner.subClassOfStatements.addAll(subClassOfStatements);
+		rdfsSubClassOfReasoner.types.addAll(types);
+		forwardChainCache.forEach((type, superClasses) -> rdfsSubClassOfReasoner.forwardChainCache.put(type,
+				new HashSet<>(superClasses)));
+		backwardsChainCache.forEach((type, subClasses) -> rdfsSubClassOfReasoner.backwardsChainCache.put(type,
+				new HashSet<>(subClasses)));
+
+		if (subClassOfStatements.isEmpty()) {
+			// the caches have not been initialized with the types yet
+			addedStatements.forEach(rdfsSubClassOfReasoner::addSubClassOfStatement);
+			rdfsSubClassOfReasoner.calculateSubClassOf(rdfsSubClassOfReasoner.subClassOfStatements);
+			return rdfsSubClassOfReasoner;
+		}
+
+		for (Statement st : addedStatements) {
+			if (rdfsSubClassOfReasoner.subClassOfStatements.add(Statements.stripContext(st))) {
+				rdfsSubClassOfReasoner.addToClosure(st.getSubject(), (Resource) st.getObject());
+			}
+		}
+		return rdfsSubClassOfReasoner;
+	}
+
+	private void addToClosure(Resource subClass, Resource superClass) {
+		types.add(subClass);
+		types.add(superClass);
+
+		// every sub class of subClass (including itself) gets every super class of superClass (including itself) and
+		// vice versa
+		Set<Resource> subClasses = new HashSet<>(getReflexive(backwardsChainCache, subClass));
+		Set<Resource> superClasses = new HashSet<>(getReflexive(forwardChainCache, superClass));
+
+		subClasses.forEach(type -> getReflexive(forwardChainCache, type).addAll(superClasses));
+		superClasses.forEach(type -> getReflexive(backwardsChainCache, type).addAll(subClasses));
+	}
+
+	private static Set<Resource> getReflexive(Map<Resource, Set<Resource>> chainCache, Resource type) {
+		Set<Resource> resources = chainCache.computeIfAbsent(type, k -> new HashSet<>());
+		resources.add(type);
+		return resources;
+	}
+
 	public static RdfsSubClassOfReasoner createReasoner(SailConnection sailConnection,
 			ValidationSettings validationSettings) {
 		return createReasoner(sailConnection, null, validationSettings);
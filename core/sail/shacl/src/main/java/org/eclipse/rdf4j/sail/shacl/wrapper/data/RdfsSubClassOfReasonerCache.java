@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl.wrapper.data;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rdf4j.common.annotation.InternalUseOnly;
+
+/**
+ * Keeps the {@link RdfsSubClassOfReasoner} of the committed state of a sail, so that transactions that don't change the
+ * class hierarchy don't need to read all the rdfs:subClassOf statements again.
+ * <p>
+ * Every commit that may change the class hierarchy is wrapped in {@link #beginChange()} and {@link #endChange()}, each
+ * of which increments the version. A transaction reads the version before it starts and may only use or store a
+ * reasoner for that version while no change is in progress and the version has not moved on.
+ *
+ * @apiNote This feature is for internal use only: its existence, signature or behavior may change without warning from
+ *          one release to the next.
+ */
+@InternalUseOnly
+public class RdfsSubClassOfReasonerCache {
+
+	private final AtomicLong version = new AtomicLong();
+	private final AtomicInteger changesInProgress = new AtomicInteger();
+
+	private volatile Entry entry;
+
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * @param version the version that was read before the transaction started
+	 * @return the reasoner of the given version, or <code>null</code> if the class hierarchy may have changed since
+	 */
+	public RdfsSubClassOfReasoner get(long version) {
+		Entry entry = this.entry;
+		if (entry != null && entry.version == version && isStable(version)) {
+			return entry.reasoner;
+		}
+		return null;
+	}
+
+	/**
+	 * Store the reasoner of the given version, unless the class hierarchy may have changed since. The reasoner must not
+	 * be modified afterwards.
+	 */
+	public void put(long version, RdfsSubClassOfReasoner reasoner) {
+		if (isStable(version)) {
+			entry = new Entry(version, reasoner);
+		}
+	}
+
+	public boolean isStable(long version) {
+		return changesInProgress.get() == 0 && this.version.get() == version;
+	}
+
+	public void beginChange() {
+		changesInProgress.incrementAndGet();
+		version.incrementAndGet();
+	}
+
+	/**
+	 * @return the new version
+	 */
+	public long endChange() {
+		long newVersion = version.incrementAndGet();
+		changesInProgress.decrementAndGet();
+		return newVersion;
+	}
+
+	public void clear() {
+		version.incrementAndGet();
+		entry = null;
+	}
+
+	private static class Entry {
+		private final long version;
+		private final RdfsSubClassOfReasoner reasoner;
+
+		private Entry(long version, RdfsSubClassOfReasoner reasoner) {
+			this.version = version;
+			this.reasoner = reasoner;
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.shacl.ast.planNodes.BufferedSplitter;
+import org.eclipse.rdf4j.sail.shacl.ast.planNodes.PlanNode;
+import org.eclipse.rdf4j.sail.shacl.ast.planNodes.ValidationTuple;
+import org.eclipse.rdf4j.sail.shacl.mock.MockConsumePlanNode;
+import org.eclipse.rdf4j.sail.shacl.mock.MockInputPlanNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BufferedSplitterTest {
+
+	@Test
+	public void testInterleavedConsumers() {
+		CountingPlanNode parent = new CountingPlanNode(1000);
+		BufferedSplitter bufferedSplitter = new BufferedSplitter(parent);
+
+		List<ValidationTuple> expected = new MockConsumePlanNode(parent).asList();
+		parent.iterators.set(0);
+
+		PlanNode first = bufferedSplitter.getPlanNode();
+		PlanNode second = bufferedSplitter.getPlanNode();
+		new MockConsumePlanNode(first);
+		new MockConsumePlanNode(second);
+
+		List<ValidationTuple> firstTuples = new ArrayList<>();
+		List<ValidationTuple> secondTuples = new ArrayList<>();
+		try (CloseableIteration<? extends ValidationTuple, SailException> firstIterator = first.iterator();
+				CloseableIteration<? extends ValidationTuple, SailException> secondIterator = second.iterator()) {
+			while (firstIterator.hasNext()) {
+				firstTuples.add(firstIterator.next());
+				if (secondIterator.hasNext()) {
+					secondTuples.add(secondIterator.next());
+				}
+			}
+			while (secondIterator.hasNext()) {
+				secondTuples.add(secondIterator.next());
+			}
+		}
+
+		Assertions.assertEquals(expected, firstTuples);
+		Assertions.assertEquals(expected, secondTuples);
+		Assertions.assertEquals(1, parent.iterators.get());
+	}
+
+	@Test
+	public void testEarlyClose() {
+		CountingPlanNode parent = new CountingPlanNode(100);
+		BufferedSplitter bufferedSplitter = new BufferedSplitter(parent);
+
+		PlanNode first = bufferedSplitter.getPlanNode();
+		new MockConsumePlanNode(first);
+		try (CloseableIteration<? extends ValidationTuple, SailException> iterator = first.iterator()) {
+			iterator.next();
+		}
+
+		Assertions.assertEquals(100, new MockConsumePlanNode(bufferedSplitter.getPlanNode()).asList().size());
+		Assertions.assertEquals(1, parent.iterators.get());
+	}
+
+	@Test
+	public void testConcurrentConsumers() throws Exception {
+		CountingPlanNode parent = new CountingPlanNode(10000);
+		BufferedSplitter bufferedSplitter = new BufferedSplitter(parent);
+		List<ValidationTuple> expected = new MockConsumePlanNode(parent).asList();
+		parent.iterators.set(0);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<ValidationTuple>>> futures = IntStream.range(0, 32)
+					.mapToObj(i -> executorService
+							.submit(() -> new MockConsumePlanNode(bufferedSplitter.getPlanNode()).asList()))
+					.collect(Collectors.toList());
+
+			for (Future<List<ValidationTuple>> future : futures) {
+				Assertions.assertEquals(expected, future.get());
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		Assertions.assertEquals(1, parent.iterators.get());
+	}
+
+	private static class CountingPlanNode extends MockInputPlanNode {
+
+		private final AtomicInteger iterators = new AtomicInteger();
+
+		CountingPlanNode(int size) {
+			super(IntStream.range(0, size)
+					.mapToObj(i -> List.of("a" + i, "b" + i))
+					.collect(Collectors.toList())
+					.toArray(new List[0]));
+		}
+
+		@Override
+		public CloseableIteration<ValidationTuple, SailException> iterator() {
+			iterators.incrementAndGet();
+			return super.iterator();
+		}
+	}
+
+}
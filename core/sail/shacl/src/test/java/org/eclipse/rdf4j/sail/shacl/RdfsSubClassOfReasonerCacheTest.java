@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDF4J;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.shacl.wrapper.data.RdfsSubClassOfReasoner;
+import org.eclipse.rdf4j.sail.shacl.wrapper.data.RdfsSubClassOfReasonerCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RdfsSubClassOfReasonerCacheTest {
+
+	private static final String EX = "http://example.com/ns#";
+
+	private static final IRI SUP = Values.iri(EX, "Sup");
+	private static final IRI SUB = Values.iri(EX, "Sub");
+	private static final IRI SUB_SUB = Values.iri(EX, "SubSub");
+	private static final IRI NAME = Values.iri(EX, "name");
+
+	private static final String SHAPES = "" +
+			"@prefix ex: <" + EX + "> .\n" +
+			"@prefix sh: <http://www.w3.org/ns/shacl#> .\n" +
+			"ex:SupShape a sh:NodeShape ;\n" +
+			"  sh:targetClass ex:Sup ;\n" +
+			"  sh:property [ sh:path ex:name ; sh:minCount 1 ] .\n";
+
+	private ShaclSail shaclSail;
+	private SailRepository repository;
+
+	@BeforeEach
+	public void before() throws IOException {
+		shaclSail = new ShaclSail(new MemoryStore());
+		repository = new SailRepository(shaclSail);
+		repository.init();
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			connection.add(new StringReader(SHAPES), RDFFormat.TURTLE, RDF4J.SHACL_SHAPE_GRAPH);
+			connection.add(SUB, RDFS.SUBCLASSOF, SUP);
+			connection.add(Values.iri(EX, "named"), RDF.TYPE, SUP);
+			connection.add(Values.iri(EX, "named"), NAME, Values.literal("named"));
+			connection.commit();
+		}
+	}
+
+	@AfterEach
+	public void after() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testReuseWhenClassHierarchyIsUnchanged() {
+		RdfsSubClassOfReasonerCache cache = shaclSail.rdfsSubClassOfReasonerCache;
+
+		addValid(Values.iri(EX, "a"), SUB);
+		RdfsSubClassOfReasoner reasoner = cache.get(cache.getVersion());
+		assertNotNull(reasoner);
+
+		addValid(Values.iri(EX, "b"), SUB);
+		assertSame(reasoner, cache.get(cache.getVersion()));
+
+		assertThrows(RepositoryException.class, () -> addInvalid(Values.iri(EX, "c"), SUB));
+		assertSame(reasoner, cache.get(cache.getVersion()));
+	}
+
+	@Test
+	public void testAddedSubClassOf() {
+		RdfsSubClassOfReasonerCache cache = shaclSail.rdfsSubClassOfReasonerCache;
+		addValid(Values.iri(EX, "a"), SUB);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			connection.add(SUB_SUB, RDFS.SUBCLASSOF, SUB);
+			connection.commit();
+		}
+
+		RdfsSubClassOfReasoner reasoner = cache.get(cache.getVersion());
+		assertNotNull(reasoner);
+		assertEquals(Set.of(SUP, SUB, SUB_SUB), reasoner.backwardsChain(SUP));
+
+		assertThrows(RepositoryException.class, () -> addInvalid(Values.iri(EX, "b"), SUB_SUB));
+		addValid(Values.iri(EX, "b"), SUB_SUB);
+	}
+
+	@Test
+	public void testRemovedSubClassOf() {
+		RdfsSubClassOfReasonerCache cache = shaclSail.rdfsSubClassOfReasonerCache;
+		addValid(Values.iri(EX, "a"), SUB);
+		long version = cache.getVersion();
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			connection.remove(SUB, RDFS.SUBCLASSOF, SUP);
+			connection.commit();
+		}
+
+		assertTrue(cache.getVersion() > version);
+		assertEquals(Set.of(SUP), cache.get(cache.getVersion()).backwardsChain(SUP));
+
+		// the instances of ex:Sub are no longer targeted by the shape
+		addInvalid(Values.iri(EX, "b"), SUB);
+	}
+
+	@Test
+	public void testWithAddedSubClassOfStatements() {
+		IRI a = Values.iri(EX, "A");
+		IRI b = Values.iri(EX, "B");
+
+		RdfsSubClassOfReasoner reasoner = new RdfsSubClassOfReasoner()
+				.withAddedSubClassOfStatements(
+						Set.of(Values.getValueFactory().createStatement(SUB, RDFS.SUBCLASSOF, SUP)));
+		RdfsSubClassOfReasoner extended = reasoner.withAddedSubClassOfStatements(Set.of(
+				Values.getValueFactory().createStatement(SUB_SUB, RDFS.SUBCLASSOF, SUB),
+				Values.getValueFactory().createStatement(b, RDFS.SUBCLASSOF, a),
+				Values.getValueFactory().createStatement(SUP, RDFS.SUBCLASSOF, b)));
+
+		assertEquals(Set.of(SUP, SUB), reasoner.backwardsChain(SUP));
+		assertEquals(Set.of(a, b, SUP, SUB, SUB_SUB), extended.backwardsChain(a));
+		assertEquals(Set.of(SUB, SUB_SUB), extended.backwardsChain(SUB));
+		assertEquals(Set.of(SUB_SUB), extended.backwardsChain(SUB_SUB));
+	}
+
+	private void addValid(IRI subject, IRI type) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			connection.add(subject, RDF.TYPE, type);
+			connection.add(subject, NAME, Values.literal(subject.getLocalName()));
+			connection.commit();
+		}
+	}
+
+	private void addInvalid(IRI subject, IRI type) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			connection.add(subject, RDF.TYPE, type);
+			connection.commit();
+		}
+	}
+
+}
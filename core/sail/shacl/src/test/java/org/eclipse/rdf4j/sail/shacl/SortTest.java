@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
+import org.eclipse.rdf4j.sail.shacl.ast.planNodes.Sort;
+import org.eclipse.rdf4j.sail.shacl.ast.planNodes.ValidationTuple;
+import org.eclipse.rdf4j.sail.shacl.mock.MockConsumePlanNode;
+import org.eclipse.rdf4j.sail.shacl.mock.MockInputPlanNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SortTest {
+
+	@Test
+	public void testSpillToDisk() {
+		Random random = new Random(42);
+		Resource[] graph = { Values.iri("http://example.com/graph") };
+
+		List<ValidationTuple> tuples = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Value target;
+			switch (i % 3) {
+			case 0:
+				target = Values.iri("http://example.com/" + random.nextInt(1000));
+				break;
+			case 1:
+				target = Values.bnode("b" + random.nextInt(1000));
+				break;
+			default:
+				target = Values.literal(random.nextInt(1000));
+			}
+			tuples.add(new ValidationTuple(Arrays.asList(target, Values.literal("value" + i)),
+					ConstraintComponent.Scope.propertyShape, true, i % 2 == 0 ? MockInputPlanNode.CONTEXTS : graph));
+		}
+		Collections.shuffle(tuples, random);
+
+		List<ValidationTuple> inMemory = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples))).asList();
+		List<ValidationTuple> spilled = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples), 100))
+				.asList();
+
+		Assertions.assertEquals(tuples.size(), spilled.size());
+		for (int i = 1; i < spilled.size(); i++) {
+			Assertions.assertTrue(spilled.get(i - 1).compareActiveTarget(spilled.get(i)) <= 0);
+		}
+		Assertions.assertEquals(inMemory, spilled);
+		for (int i = 0; i < spilled.size(); i++) {
+			Assertions.assertArrayEquals(inMemory.get(i).getContexts(), spilled.get(i).getContexts());
+		}
+	}
+
+	@Test
+	public void testSpillSortedInput() {
+		List<ValidationTuple> tuples = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			tuples.add(new ValidationTuple(Values.literal(i), ConstraintComponent.Scope.nodeShape, false,
+					MockInputPlanNode.CONTEXTS));
+		}
+
+		List<ValidationTuple> spilled = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples), 10))
+				.asList();
+
+		Assertions.assertEquals(tuples, spilled);
+	}
+
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.shacl.ShaclSail;
+import org.eclipse.rdf4j.sail.shacl.ShaclSailConnection;
+import org.eclipse.rdf4j.sail.shacl.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Runs the transactions of {@link ComplexBenchmark} with parallel validation and a given number of validation threads,
+ * to show how validation scales with the number of cores.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@BenchmarkMode({ Mode.AverageTime })
+@Fork(value = 1, jvmArgs = { "-Xms8G", "-Xmx8G" })
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelValidationBenchmark {
+
+	private static final String transaction1;
+	private static final String transaction2;
+
+	static {
+		try {
+			transaction1 = IOUtils.toString(
+					ComplexBenchmark.class.getClassLoader().getResourceAsStream("complexBenchmark/transaction1.qr"),
+					StandardCharsets.UTF_8);
+			transaction2 = IOUtils.toString(
+					ComplexBenchmark.class.getClassLoader().getResourceAsStream("complexBenchmark/transaction2.qr"),
+					StandardCharsets.UTF_8);
+
+		} catch (IOException e) {
+			throw new RuntimeException();
+		}
+	}
+
+	@Param({ "1", "2", "4", "8", "16", "32" })
+	public int threads;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		((Logger) LoggerFactory.getLogger(ShaclSailConnection.class.getName()))
+				.setLevel(ch.qos.logback.classic.Level.ERROR);
+		((Logger) LoggerFactory.getLogger(ShaclSail.class.getName())).setLevel(ch.qos.logback.classic.Level.ERROR);
+	}
+
+	@Benchmark
+	public void shaclParallelCache() throws Exception {
+		runBenchmark(true);
+	}
+
+	@Benchmark
+	public void shaclParallel() throws Exception {
+		runBenchmark(false);
+	}
+
+	private void runBenchmark(boolean cacheSelectNodes) throws Exception {
+		ShaclSail shaclSail = new FixedThreadsShaclSail(threads);
+		Utils.loadShapeData(shaclSail, "complexBenchmark/shacl.trig");
+		shaclSail.setParallelValidation(true);
+		shaclSail.setCacheSelectNodes(cacheSelectNodes);
+
+		SailRepository repository = new SailRepository(shaclSail);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+
+			connection.begin(IsolationLevels.SNAPSHOT);
+			connection.prepareUpdate(transaction1).execute();
+			connection.commit();
+
+			connection.begin(IsolationLevels.SNAPSHOT);
+			connection.prepareUpdate(transaction2).execute();
+			connection.commit();
+
+		}
+
+		repository.shutDown();
+	}
+
+	private static class FixedThreadsShaclSail extends ShaclSail {
+
+		// getExecutorService() is called from the constructor of the ShaclSail, before any field of this class is set
+		private static final ThreadLocal<Integer> threads = new ThreadLocal<>();
+
+		FixedThreadsShaclSail(int threads) {
+			super(init(threads));
+			FixedThreadsShaclSail.threads.remove();
+		}
+
+		private static MemoryStore init(int threads) {
+			FixedThreadsShaclSail.threads.set(threads);
+			return new MemoryStore();
+		}
+
+		@Override
+		protected RevivableExecutorService getExecutorService() {
+			int threads = FixedThreadsShaclSail.threads.get();
+			return new RevivableExecutorService(() -> Executors.newFixedThreadPool(threads, r -> {
+				Thread t = Executors.defaultThreadFactory().newThread(r);
+				t.setDaemon(true);
+				return t;
+			}));
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.OrderElem;
+import org.eclipse.rdf4j.query.algebra.SingletonSet;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.OrderIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.TopKIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the bounded heap of {@link TopKIteration} with the sort of {@link OrderIterator} for ORDER BY queries with a
+ * LIMIT, see also {@link QueryOrderBenchmark}.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 4)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueryTopKBenchmark {
+
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Param({ "100000", "1000000" })
+	public int count = 100000;
+
+	@Param({ "10", "100", "10000" })
+	public int limit = 10;
+
+	private List<BindingSet> solutions;
+
+	private OrderComparator comparator;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(43252333);
+		solutions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("s", vf.createIRI("urn:test:" + i));
+			bs.addBinding("o", vf.createLiteral(Double.toHexString(random.nextDouble())));
+			solutions.add(bs);
+		}
+
+		Order order = new Order(new SingletonSet(), new OrderElem(new Var("o"), true));
+		comparator = new OrderComparator(new StrictEvaluationStrategy(null, null), order, new ValueComparator(),
+				new QueryEvaluationContext.Minimal(null, vf));
+	}
+
+	@Benchmark
+	public void orderIterator(Blackhole blackhole) {
+		consume(new OrderIterator(iterate(), comparator, limit, false), blackhole);
+	}
+
+	@Benchmark
+	public void topK(Blackhole blackhole) {
+		consume(new TopKIteration(iterate(), comparator, limit, false), blackhole);
+	}
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> iterate() {
+		return new CloseableIteratorIteration<>(solutions.iterator());
+	}
+
+	private void consume(CloseableIteration<BindingSet, QueryEvaluationException> iter, Blackhole blackhole) {
+		try (iter) {
+			while (iter.hasNext()) {
+				blackhole.consume(iter.next());
+			}
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String regexp = ".*" + QueryTopKBenchmark.class.getSimpleName() + ".*";
+		new Runner(new OptionsBuilder().include(regexp).build()).run();
+	}
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.benchmark.federation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.federated.FedXFactory;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.endpoint.EndpointFactory;
+import org.eclipse.rdf4j.federated.evaluation.concurrent.ControlledWorkerScheduler;
+import org.eclipse.rdf4j.federated.evaluation.concurrent.VirtualThreadScheduler;
+import org.eclipse.rdf4j.federated.repository.FedXRepository;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+import org.eclipse.rdf4j.repository.base.RepositoryWrapper;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of FedX joins and unions with the {@link ControlledWorkerScheduler} and the
+ * {@link VirtualThreadScheduler}. The federation members are local memory stores that stand in for remote endpoints:
+ * every request to them is delayed by a fixed latency and they are queried like SPARQL endpoints.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 4)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FedXSchedulerBenchmark {
+
+	private static final String NS = "http://example.org/";
+
+	private static final String UNION_QUERY = "SELECT * WHERE { ?s <" + NS + "p> ?o }";
+
+	private static final String JOIN_QUERY = "SELECT * WHERE { ?s <" + NS + "p> ?o . ?o <" + NS + "q> ?l }";
+
+	@Param({ "controlled", "virtual" })
+	public String scheduler;
+
+	@Param({ "10", "50" })
+	public int endpoints;
+
+	@Param({ "5" })
+	public int latencyMs;
+
+	private FedXRepository federation;
+
+	private final List<Repository> members = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		List<Endpoint> endpointList = new ArrayList<>();
+		for (int i = 0; i < endpoints; i++) {
+			SailRepository repository = new SailRepository(new MemoryStore());
+			repository.init();
+			try (RepositoryConnection conn = repository.getConnection()) {
+				for (int j = 0; j < 20; j++) {
+					IRI o = Values.iri(NS, "o" + i + "_" + j);
+					conn.add(Values.iri(NS, "s" + i + "_" + j), Values.iri(NS, "p"), o);
+					conn.add(o, Values.iri(NS, "q"), Values.literal(j));
+				}
+			}
+			members.add(repository);
+			endpointList.add(EndpointFactory.loadEndpoint("endpoint" + i,
+					new LatencyRepository(repository, latencyMs)));
+		}
+
+		FedXConfig config = new FedXConfig().withEnableVirtualThreadScheduler("virtual".equals(scheduler));
+		federation = FedXFactory.newFederation().withMembers(endpointList).withConfig(config).create();
+		federation.init();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		federation.shutDown();
+		members.forEach(Repository::shutDown);
+		members.clear();
+	}
+
+	@Benchmark
+	public long union() {
+		return count(UNION_QUERY);
+	}
+
+	@Benchmark
+	public long join() {
+		return count(JOIN_QUERY);
+	}
+
+	private long count(String query) {
+		long count = 0;
+		try (RepositoryConnection conn = federation.getConnection();
+				TupleQueryResult result = conn.prepareTupleQuery(query).evaluate()) {
+			while (result.hasNext()) {
+				result.next();
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		String regexp = ".*" + FedXSchedulerBenchmark.class.getSimpleName() + ".*";
+		new Runner(new OptionsBuilder().include(regexp).build()).run();
+	}
+
+	/**
+	 * Delays every read request by a fixed latency.
+	 */
+	private static class LatencyRepository extends RepositoryWrapper {
+
+		private final long latencyMs;
+
+		LatencyRepository(Repository delegate, long latencyMs) {
+			super(delegate);
+			this.latencyMs = latencyMs;
+		}
+
+		@Override
+		public RepositoryConnection getConnection() throws RepositoryException {
+			return new RepositoryConnectionWrapper(this, super.getConnection()) {
+
+				@Override
+				public TupleQuery prepareTupleQuery(QueryLanguage ql, String query, String baseURI)
+						throws MalformedQueryException, RepositoryException {
+					delay();
+					return super.prepareTupleQuery(ql, query, baseURI);
+				}
+
+				@Override
+				public BooleanQuery prepareBooleanQuery(QueryLanguage ql, String query, String baseURI)
+						throws MalformedQueryException, RepositoryException {
+					delay();
+					return super.prepareBooleanQuery(ql, query, baseURI);
+				}
+
+				@Override
+				public boolean hasStatement(Resource subj, IRI pred, Value obj, boolean includeInferred,
+						Resource... contexts) throws RepositoryException {
+					delay();
+					return super.hasStatement(subj, pred, obj, includeInferred, contexts);
+				}
+
+				@Override
+				public RepositoryResult<Statement> getStatements(Resource subj, IRI pred, Value obj,
+						boolean includeInferred, Resource... contexts) throws RepositoryException {
+					delay();
+					return super.getStatements(subj, pred, obj, includeInferred, contexts);
+				}
+			};
+		}
+
+		private void delay() {
+			try {
+				Thread.sleep(latencyMs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RepositoryException(e);
+			}
+		}
+	}
+}
@@ -12,13 +12,20 @@ package org.eclipse.rdf4j.federated;
 
 import java.util.Optional;
 
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.federated.cache.SourceSelectionCache;
 import org.eclipse.rdf4j.federated.cache.SourceSelectionMemoryCache;
+import org.eclipse.rdf4j.federated.cache.SubQueryResultCache;
+import org.eclipse.rdf4j.federated.cache.SummarySourceSelectionCache;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.ControlledWorkerScheduler;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.TaskWrapper;
+import org.eclipse.rdf4j.federated.evaluation.concurrent.VirtualThreadScheduler;
 import org.eclipse.rdf4j.federated.evaluation.iterator.ConsumingIteration;
+import org.eclipse.rdf4j.federated.evaluation.join.BoundJoinBlockSizeController;
+import org.eclipse.rdf4j.federated.monitoring.MetricsRegistry;
 import org.eclipse.rdf4j.federated.monitoring.QueryLog;
 import org.eclipse.rdf4j.federated.monitoring.QueryPlanLog;
+import org.eclipse.rdf4j.federated.optimizer.StatisticsFedXCostModel;
 import org.eclipse.rdf4j.query.Operation;
 import org.eclipse.rdf4j.query.Query;
 
@@ -39,8 +46,22 @@ public class FedXConfig {
 
 	private int leftJoinWorkerThreads = 10;
 
+	private boolean enableVirtualThreadScheduler = false;
+
+	private int maxConcurrentRequestsPerEndpoint = 20;
+
 	private int boundJoinBlockSize = 15;
 
+	private boolean enableAdaptiveBoundJoinBlockSize = false;
+
+	private int maxBoundJoinBlockSize = 500;
+
+	private boolean enableAdaptiveJoinOrder = false;
+
+	private int adaptiveJoinSampleSize = 100;
+
+	private boolean enableSubQueryPushdown = false;
+
 	private int enforceMaxQueryTime = 30;
 
 	private boolean enableServiceAsBoundJoin = true;
@@ -57,8 +78,20 @@ public class FedXConfig {
 
 	private String sourceSelectionCacheSpec = null;
 
+	private String sourceSelectionSummaryLocation = null;
+
+	private boolean enableStatisticsCostModel = false;
+
+	private long subQueryResultCacheSize = 0;
+
+	private int subQueryResultCacheExpiry = 300;
+
 	private TaskWrapper taskWrapper = null;
 
+	private MetricsRegistry metricsRegistry = null;
+
+	private String metricsJmxName = null;
+
 	private String prefixDeclarations = null;
 
 	private int consumingIterationMax = 1000;
@@ -136,6 +169,38 @@ public class FedXConfig {
 		return this;
 	}
 
+	/**
+	 * Set the registry that receives the request metrics. See {@link #getMetricsRegistry()}.
+	 *
+	 * <p>
+	 * Can only be set before federation initialization.
+	 * </p>
+	 *
+	 * @param metricsRegistry the {@link MetricsRegistry}
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+		return this;
+	}
+
+	/**
+	 * Set the name under which the request metrics are registered with JMX. See {@link #getMetricsJmxName()}.
+	 *
+	 * <p>
+	 * Can only be set before federation initialization.
+	 * </p>
+	 *
+	 * @param name the name of the federation in the JMX object names
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withMetricsJmxName(String name) {
+		this.metricsJmxName = name;
+		return this;
+	}
+
 	/**
 	 * Set the bound join block size. See {@link #getBoundJoinBlockSize()}.
 	 *
@@ -151,6 +216,83 @@ public class FedXConfig {
 		return this;
 	}
 
+	/**
+	 * Set whether the bound join block size is chosen per endpoint at runtime. See
+	 * {@link #isEnableAdaptiveBoundJoinBlockSize()}.
+	 *
+	 * <p>
+	 * Can only be set before federation initialization.
+	 * </p>
+	 *
+	 * @param flag
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withEnableAdaptiveBoundJoinBlockSize(boolean flag) {
+		this.enableAdaptiveBoundJoinBlockSize = flag;
+		return this;
+	}
+
+	/**
+	 * Set the maximal bound join block size. See {@link #getMaxBoundJoinBlockSize()}.
+	 *
+	 * <p>
+	 * Can only be set before federation initialization.
+	 * </p>
+	 *
+	 * @param maxBoundJoinBlockSize
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withMaxBoundJoinBlockSize(int maxBoundJoinBlockSize) {
+		this.maxBoundJoinBlockSize = maxBoundJoinBlockSize;
+		return this;
+	}
+
+	/**
+	 * Enable/disable the adaptive join order, see {@link #isEnableAdaptiveJoinOrder()}.
+	 * <p>
+	 * Can be set after federation construction and initialize.
+	 *
+	 * @param flag
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withEnableAdaptiveJoinOrder(boolean flag) {
+		this.enableAdaptiveJoinOrder = flag;
+		return this;
+	}
+
+	/**
+	 * The number of intermediate results that are sampled before each join step of an adaptive join, see
+	 * {@link #getAdaptiveJoinSampleSize()}.
+	 * <p>
+	 * Can be set after federation construction and initialize.
+	 *
+	 * @param sampleSize the sample size
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withAdaptiveJoinSampleSize(int sampleSize) {
+		this.adaptiveJoinSampleSize = sampleSize;
+		return this;
+	}
+
+	/**
+	 * Enable/disable the push down of aggregates, ORDER BY, DISTINCT and LIMIT to the endpoints, see
+	 * {@link #isEnableSubQueryPushdown()}.
+	 * <p>
+	 * Can be set after federation construction and initialize.
+	 *
+	 * @param flag
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withEnableSubQueryPushdown(boolean flag) {
+		this.enableSubQueryPushdown = flag;
+		return this;
+	}
+
 	/**
 	 * Set the number of join worker threads. See {@link #getJoinWorkerThreads()}.
 	 *
@@ -196,6 +338,39 @@ public class FedXConfig {
 		return this;
 	}
 
+	/**
+	 * Set whether join, left join and union tasks run on virtual threads. See
+	 * {@link #isEnableVirtualThreadScheduler()}.
+	 *
+	 * <p>
+	 * Can only be set before federation initialization.
+	 * </p>
+	 *
+	 * @param flag
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withEnableVirtualThreadScheduler(boolean flag) {
+		this.enableVirtualThreadScheduler = flag;
+		return this;
+	}
+
+	/**
+	 * Set the maximal number of concurrent requests per endpoint. See {@link #getMaxConcurrentRequestsPerEndpoint()}.
+	 *
+	 * <p>
+	 * Can only be set before federation initialization.
+	 * </p>
+	 *
+	 * @param maxConcurrentRequestsPerEndpoint
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withMaxConcurrentRequestsPerEndpoint(int maxConcurrentRequestsPerEndpoint) {
+		this.maxConcurrentRequestsPerEndpoint = maxConcurrentRequestsPerEndpoint;
+		return this;
+	}
+
 	/**
 	 * Set the optional prefix declarations file. See {@link #getPrefixDeclarations()}.
 	 *
@@ -251,6 +426,68 @@ public class FedXConfig {
 		return this;
 	}
 
+	/**
+	 * The file in which summaries of the data of the endpoints are persisted. If set, the source selection consults
+	 * these summaries before sending ASK requests to the endpoints. Summaries are built with
+	 * {@link SummarySourceSelectionCache#updateSummary(org.eclipse.rdf4j.federated.endpoint.Endpoint)}.
+	 * <p>
+	 * Can only be set before federation initialization.
+	 *
+	 * @param location the location of the summary file, <code>null</code> to disable summaries
+	 * @return the current config
+	 * @see SummarySourceSelectionCache
+	 */
+	@Experimental
+	public FedXConfig withSourceSelectionSummaryLocation(String location) {
+		this.sourceSelectionSummaryLocation = location;
+		return this;
+	}
+
+	/**
+	 * Enable/disable the {@link StatisticsFedXCostModel}, which orders joins by per endpoint cardinality estimates and
+	 * evaluates joins as hash joins if this transfers fewer results than a bound join.
+	 * <p>
+	 * Can only be set before federation initialization.
+	 *
+	 * @param flag
+	 * @return the current config
+	 * @see #isEnableStatisticsCostModel()
+	 */
+	@Experimental
+	public FedXConfig withEnableStatisticsCostModel(boolean flag) {
+		this.enableStatisticsCostModel = flag;
+		return this;
+	}
+
+	/**
+	 * The size in bytes of the {@link SubQueryResultCache}, see {@link #getSubQueryResultCacheSize()}.
+	 * <p>
+	 * Can only be set before federation initialization.
+	 *
+	 * @param size the maximal size of the cached results in bytes, 0 to disable the cache
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withSubQueryResultCacheSize(long size) {
+		this.subQueryResultCacheSize = size;
+		return this;
+	}
+
+	/**
+	 * The time after which results of the {@link SubQueryResultCache} expire, see
+	 * {@link #getSubQueryResultCacheExpiry()}.
+	 * <p>
+	 * Can only be set before federation initialization.
+	 *
+	 * @param expiry the expiry time in seconds
+	 * @return the current config
+	 */
+	@Experimental
+	public FedXConfig withSubQueryResultCacheExpiry(int expiry) {
+		this.subQueryResultCacheExpiry = expiry;
+		return this;
+	}
+
 	/**
 	 * Sets a {@link TaskWrapper} which may be used for wrapping any background {@link Runnable}s. If no such wrapper is
 	 * explicitly configured, the unmodified task is returned. See {@link TaskWrapper} for more information.
@@ -294,6 +531,29 @@ public class FedXConfig {
 		return leftJoinWorkerThreads;
 	}
 
+	/**
+	 * Flag to enable/disable the {@link VirtualThreadScheduler}. If enabled, join, left join and union tasks each run
+	 * on their own (virtual) thread and the number of concurrent requests is limited per endpoint by
+	 * {@link #getMaxConcurrentRequestsPerEndpoint()} instead of by the number of worker threads. Default=false.
+	 *
+	 * @return whether the {@link VirtualThreadScheduler} is used
+	 */
+	@Experimental
+	public boolean isEnableVirtualThreadScheduler() {
+		return enableVirtualThreadScheduler;
+	}
+
+	/**
+	 * The maximal number of concurrent requests per endpoint and scheduler if {@link #isEnableVirtualThreadScheduler()}
+	 * is set. Default is 20.
+	 *
+	 * @return the maximal number of concurrent requests per endpoint
+	 */
+	@Experimental
+	public int getMaxConcurrentRequestsPerEndpoint() {
+		return maxConcurrentRequestsPerEndpoint;
+	}
+
 	/**
 	 * The block size for a bound join, i.e. the number of bindings that are integrated in a single subquery. Default is
 	 * 15.
@@ -304,6 +564,67 @@ public class FedXConfig {
 		return boundJoinBlockSize;
 	}
 
+	/**
+	 * Flag to enable/disable the adaptive bound join block size. If enabled, the block size of each endpoint starts at
+	 * {@link #getBoundJoinBlockSize()} and is adjusted from the observed round trip times and errors of the bound join
+	 * requests, see {@link BoundJoinBlockSizeController}. Default=false.
+	 *
+	 * @return whether the bound join block size is chosen per endpoint at runtime
+	 */
+	@Experimental
+	public boolean isEnableAdaptiveBoundJoinBlockSize() {
+		return enableAdaptiveBoundJoinBlockSize;
+	}
+
+	/**
+	 * The maximal block size an adaptive bound join grows to, see {@link #isEnableAdaptiveBoundJoinBlockSize()}.
+	 * Default is 500.
+	 *
+	 * @return the maximal bound join block size
+	 */
+	@Experimental
+	public int getMaxBoundJoinBlockSize() {
+		return maxBoundJoinBlockSize;
+	}
+
+	/**
+	 * Flag to enable/disable the adaptive join order. If enabled, the first intermediate results of each join step are
+	 * sampled, and the remaining join arguments are reordered by their observed results for the sample. Statements and
+	 * exclusive groups with few results are joined with a hash join instead of a bound join if the intermediate result
+	 * is larger than the sample. Default=false.
+	 *
+	 * @return whether joins are reordered at runtime
+	 * @see #getAdaptiveJoinSampleSize()
+	 */
+	@Experimental
+	public boolean isEnableAdaptiveJoinOrder() {
+		return enableAdaptiveJoinOrder;
+	}
+
+	/**
+	 * The number of intermediate results that are sampled before each join step if {@link #isEnableAdaptiveJoinOrder()}
+	 * is set. Default is 100.
+	 *
+	 * @return the sample size
+	 */
+	@Experimental
+	public int getAdaptiveJoinSampleSize() {
+		return adaptiveJoinSampleSize;
+	}
+
+	/**
+	 * Flag to enable/disable the push down of sub queries. If enabled, GROUP BY, ORDER BY, DISTINCT and LIMIT above an
+	 * expression that is exclusive to a single endpoint are evaluated by that endpoint. COUNT, SUM, MIN, MAX and SAMPLE
+	 * over a statement with several sources are computed per source and merged in the federation. The endpoints must
+	 * support SPARQL 1.1 aggregates. Default=false.
+	 *
+	 * @return whether sub queries are pushed to the endpoints
+	 */
+	@Experimental
+	public boolean isEnableSubQueryPushdown() {
+		return enableSubQueryPushdown;
+	}
+
 	/**
 	 * Returns a flag indicating whether vectored evaluation using the VALUES clause shall be applied for SERVICE
 	 * expressions.
@@ -374,6 +695,33 @@ public class FedXConfig {
 		return isLogQueries;
 	}
 
+	/**
+	 * The registry that receives the latencies, result counts and scheduler waiting times of the requests to the
+	 * federation members. If not set, the metrics are kept in an
+	 * {@link org.eclipse.rdf4j.federated.monitoring.EndpointMetricsRegistry}.
+	 *
+	 * Requires {@link #isEnableMonitoring()} to be active.
+	 *
+	 * @return the {@link MetricsRegistry}, <code>null</code> if none is explicitly configured
+	 */
+	@Experimental
+	public MetricsRegistry getMetricsRegistry() {
+		return metricsRegistry;
+	}
+
+	/**
+	 * The name of the federation under which the default metrics registry registers the metrics of each endpoint with
+	 * the platform MBean server. Default is <code>null</code>, i.e. the metrics are not exposed through JMX.
+	 *
+	 * Requires {@link #isEnableMonitoring()} to be active.
+	 *
+	 * @return the JMX name of the federation
+	 */
+	@Experimental
+	public String getMetricsJmxName() {
+		return metricsJmxName;
+	}
+
 	/**
 	 * Returns the path to a property file containing prefix declarations as "namespace=prefix" pairs (one per line).
 	 * <p>
@@ -404,6 +752,51 @@ public class FedXConfig {
 		return this.sourceSelectionCacheSpec;
 	}
 
+	/**
+	 * Returns the file in which summaries of the data of the endpoints are persisted.
+	 *
+	 * @return the location of the summary file, or <code>null</code> if summaries are not used
+	 * @see SummarySourceSelectionCache
+	 */
+	@Experimental
+	public String getSourceSelectionSummaryLocation() {
+		return this.sourceSelectionSummaryLocation;
+	}
+
+	/**
+	 * Flag to enable/disable the {@link StatisticsFedXCostModel}. If enabled, the statistics of the summaries (see
+	 * {@link #getSourceSelectionSummaryLocation()}) or of cached COUNT queries to the endpoints are used to order join
+	 * arguments and to choose between bound joins and hash joins. Default=false.
+	 *
+	 * @return whether the statistics cost model is used
+	 */
+	@Experimental
+	public boolean isEnableStatisticsCostModel() {
+		return this.enableStatisticsCostModel;
+	}
+
+	/**
+	 * The maximal size in bytes of the results in the {@link SubQueryResultCache}. If positive, the results of
+	 * subqueries sent to the federation members are cached and repeated subqueries are answered from the cache. Default
+	 * is 0, i.e. the cache is disabled.
+	 *
+	 * @return the size of the subquery result cache in bytes
+	 */
+	@Experimental
+	public long getSubQueryResultCacheSize() {
+		return this.subQueryResultCacheSize;
+	}
+
+	/**
+	 * The time in seconds after which results of the {@link SubQueryResultCache} expire. Default is 300.
+	 *
+	 * @return the expiry time in seconds
+	 */
+	@Experimental
+	public int getSubQueryResultCacheExpiry() {
+		return this.subQueryResultCacheExpiry;
+	}
+
 	/**
 	 * The debug mode for query plan. If enabled, the query execution plan is printed to stdout
 	 *
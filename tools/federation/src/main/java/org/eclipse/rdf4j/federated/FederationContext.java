@@ -10,11 +10,21 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.federated;
 
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.rdf4j.federated.cache.SourceSelectionCache;
 import org.eclipse.rdf4j.federated.cache.SourceSelectionMemoryCache;
+import org.eclipse.rdf4j.federated.cache.SubQueryResultCache;
+import org.eclipse.rdf4j.federated.cache.SummarySourceSelectionCache;
 import org.eclipse.rdf4j.federated.evaluation.DelegateFederatedServiceResolver;
 import org.eclipse.rdf4j.federated.evaluation.FederationEvalStrategy;
+import org.eclipse.rdf4j.federated.evaluation.join.BoundJoinBlockSizeController;
 import org.eclipse.rdf4j.federated.monitoring.Monitoring;
+import org.eclipse.rdf4j.federated.optimizer.CardinalityEstimator;
+import org.eclipse.rdf4j.federated.optimizer.DefaultFedXCostModel;
+import org.eclipse.rdf4j.federated.optimizer.FedXCostModel;
+import org.eclipse.rdf4j.federated.optimizer.StatisticsFedXCostModel;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
@@ -41,6 +51,12 @@ public class FederationContext {
 
 	private final SourceSelectionCache sourceSelectionCache;
 
+	private final BoundJoinBlockSizeController boundJoinBlockSizeController;
+
+	private final FedXCostModel costModel;
+
+	private final SubQueryResultCache subQueryResultCache;
+
 	public FederationContext(FederationManager manager, EndpointManager endpointManager, QueryManager queryManager,
 			DelegateFederatedServiceResolver federatedServiceResolver,
 			Monitoring monitoring, FedXConfig fedXConfig) {
@@ -52,6 +68,16 @@ public class FederationContext {
 		this.monitoring = monitoring;
 		this.fedXConfig = fedXConfig;
 		this.sourceSelectionCache = createSourceSelectionCache();
+		this.boundJoinBlockSizeController = fedXConfig.isEnableAdaptiveBoundJoinBlockSize()
+				? new BoundJoinBlockSizeController(fedXConfig, endpointManager, monitoring)
+				: null;
+		this.costModel = fedXConfig.isEnableStatisticsCostModel()
+				? new StatisticsFedXCostModel(new CardinalityEstimator(endpointManager, sourceSelectionCache, null))
+				: DefaultFedXCostModel.INSTANCE;
+		this.subQueryResultCache = fedXConfig.getSubQueryResultCacheSize() > 0
+				? new SubQueryResultCache(fedXConfig.getSubQueryResultCacheSize(),
+						fedXConfig.getSubQueryResultCacheExpiry(), TimeUnit.SECONDS)
+				: null;
 	}
 
 	public FedX getFederation() {
@@ -86,6 +112,31 @@ public class FederationContext {
 		return this.sourceSelectionCache;
 	}
 
+	/**
+	 * @return the {@link BoundJoinBlockSizeController}, or <code>null</code> if the bound join block size is not chosen
+	 *         at runtime
+	 * @see FedXConfig#isEnableAdaptiveBoundJoinBlockSize()
+	 */
+	public BoundJoinBlockSizeController getBoundJoinBlockSizeController() {
+		return this.boundJoinBlockSizeController;
+	}
+
+	/**
+	 * @return the {@link FedXCostModel} which is used to order joins
+	 * @see FedXConfig#isEnableStatisticsCostModel()
+	 */
+	public FedXCostModel getCostModel() {
+		return this.costModel;
+	}
+
+	/**
+	 * @return the {@link SubQueryResultCache}, or <code>null</code> if results of subqueries are not cached
+	 * @see FedXConfig#getSubQueryResultCacheSize()
+	 */
+	public SubQueryResultCache getSubQueryResultCache() {
+		return this.subQueryResultCache;
+	}
+
 	/**
 	 * Create a fresh {@link FederationEvalStrategy} using information from this federation context.
 	 */
@@ -101,9 +152,15 @@ public class FederationContext {
 	 *
 	 * @return the {@link SourceSelectionCache}
 	 * @see FedXConfig#getSourceSelectionCacheSpec()
+	 * @see FedXConfig#getSourceSelectionSummaryLocation()
 	 */
 	private SourceSelectionCache createSourceSelectionCache() {
 		String cacheSpec = getConfig().getSourceSelectionCacheSpec();
-		return new SourceSelectionMemoryCache(cacheSpec);
+		SourceSelectionCache cache = new SourceSelectionMemoryCache(cacheSpec);
+		String summaryLocation = getConfig().getSourceSelectionSummaryLocation();
+		if (summaryLocation != null) {
+			cache = new SummarySourceSelectionCache(cache, new File(summaryLocation));
+		}
+		return cache;
 	}
 }
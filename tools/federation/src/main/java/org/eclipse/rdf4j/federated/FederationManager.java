@@ -27,6 +27,7 @@ import org.eclipse.rdf4j.federated.evaluation.concurrent.ControlledWorkerSchedul
 import org.eclipse.rdf4j.federated.evaluation.concurrent.NamingThreadFactory;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.Scheduler;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.TaskWrapper;
+import org.eclipse.rdf4j.federated.evaluation.concurrent.VirtualThreadScheduler;
 import org.eclipse.rdf4j.federated.evaluation.union.ControlledWorkerUnion;
 import org.eclipse.rdf4j.federated.evaluation.union.SynchronousWorkerUnion;
 import org.eclipse.rdf4j.federated.evaluation.union.WorkerUnionBase;
@@ -122,26 +123,32 @@ public class FederationManager {
 		if (joinScheduler != null) {
 			joinScheduler.abort();
 		}
-		joinScheduler = new ControlledWorkerScheduler<>(federationContext.getConfig().getJoinWorkerThreads(),
-				"Join Scheduler");
+		joinScheduler = createScheduler(federationContext.getConfig().getJoinWorkerThreads(), "Join Scheduler");
 		taskWrapper.ifPresent(joinScheduler::setTaskWrapper);
 
 		if (unionScheduler != null) {
 			unionScheduler.abort();
 		}
-		unionScheduler = new ControlledWorkerScheduler<>(federationContext.getConfig().getUnionWorkerThreads(),
-				"Union Scheduler");
+		unionScheduler = createScheduler(federationContext.getConfig().getUnionWorkerThreads(), "Union Scheduler");
 		taskWrapper.ifPresent(unionScheduler::setTaskWrapper);
 
 		if (leftJoinScheduler != null) {
 			leftJoinScheduler.abort();
 		}
-		leftJoinScheduler = new ControlledWorkerScheduler<>(federationContext.getConfig().getLeftJoinWorkerThreads(),
+		leftJoinScheduler = createScheduler(federationContext.getConfig().getLeftJoinWorkerThreads(),
 				"Left Join Scheduler");
 		taskWrapper.ifPresent(leftJoinScheduler::setTaskWrapper);
 
 	}
 
+	private ControlledWorkerScheduler<BindingSet> createScheduler(int nWorkers, String name) {
+		FedXConfig config = federationContext.getConfig();
+		if (config.isEnableVirtualThreadScheduler()) {
+			return new VirtualThreadScheduler<>(config.getMaxConcurrentRequestsPerEndpoint(), name);
+		}
+		return new ControlledWorkerScheduler<>(nWorkers, name);
+	}
+
 	/**
 	 * Returns the managed {@link Executor} which takes for properly handling any configured
 	 * {@link FedXConfig#getTaskWrapper()}
@@ -321,7 +328,11 @@ public class FederationManager {
 							leftJoinScheduler.abort();
 						}
 					} finally {
-						federationContext.getFederatedServiceResolver().shutDown();
+						try {
+							federationContext.getFederatedServiceResolver().shutDown();
+						} finally {
+							federationContext.getMonitoringService().shutDown();
+						}
 					}
 
 				}
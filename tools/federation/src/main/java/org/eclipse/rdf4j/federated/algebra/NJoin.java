@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.federated.algebra;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,6 +30,11 @@ public class NJoin extends NTuple {
 
 	private static final long serialVersionUID = -8646701006458860154L;
 
+	/**
+	 * The join indexes of the arguments that are joined with a hash join
+	 */
+	private BitSet hashJoins = new BitSet();
+
 	/**
 	 * Construct an nary-tuple. Note that the parentNode of all arguments is set to this instance.
 	 *
@@ -46,7 +52,37 @@ public class NJoin extends NTuple {
 
 	@Override
 	public NJoin clone() {
-		return (NJoin) super.clone();
+		NJoin clone = (NJoin) super.clone();
+		clone.hashJoins = (BitSet) hashJoins.clone();
+		return clone;
+	}
+
+	@Override
+	public String getSignature() {
+		if (hashJoins.isEmpty()) {
+			return super.getSignature();
+		}
+		return super.getSignature() + " (hash joins: " + hashJoins + ")";
+	}
+
+	/**
+	 * Sets whether the argument with the given join index is joined with a hash join, i.e. evaluated once without the
+	 * bindings of the previous arguments and joined in memory, instead of a bound join.
+	 *
+	 * @param joinIndex the join index, starting with 1
+	 * @param hashJoin  whether to use a hash join
+	 */
+	public void setHashJoin(int joinIndex, boolean hashJoin) {
+		hashJoins.set(joinIndex, hashJoin);
+	}
+
+	/**
+	 * @param joinIndex the join index, starting with 1
+	 * @return whether the argument with the given join index is joined with a hash join
+	 * @see #setHashJoin(int, boolean)
+	 */
+	public boolean isHashJoin(int joinIndex) {
+		return hashJoins.get(joinIndex);
 	}
 
 	/**
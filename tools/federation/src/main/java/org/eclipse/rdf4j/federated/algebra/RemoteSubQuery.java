@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.algebra;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.evaluation.union.ParallelPreparedUnionTask;
+import org.eclipse.rdf4j.federated.evaluation.union.WorkerUnionBase;
+import org.eclipse.rdf4j.federated.optimizer.SubQueryPushdownOptimizer;
+import org.eclipse.rdf4j.federated.structures.QueryInfo;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.algebra.AbstractQueryModelNode;
+import org.eclipse.rdf4j.query.algebra.AggregateOperator;
+import org.eclipse.rdf4j.query.algebra.Count;
+import org.eclipse.rdf4j.query.algebra.GroupElem;
+import org.eclipse.rdf4j.query.algebra.MathExpr.MathOp;
+import org.eclipse.rdf4j.query.algebra.Max;
+import org.eclipse.rdf4j.query.algebra.Min;
+import org.eclipse.rdf4j.query.algebra.QueryModelVisitor;
+import org.eclipse.rdf4j.query.algebra.Sum;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sparql.federation.CollectionIteration;
+
+/**
+ * A part of the query that is evaluated as a SELECT query at one or more endpoints, including its aggregates, ORDER BY,
+ * DISTINCT or LIMIT.
+ * <p>
+ * If the query is sent to more than one endpoint, each endpoint computes partial aggregates per group, which are merged
+ * locally: the partial results of COUNT and SUM are added up, MIN and MAX are compared. The sub query does not depend
+ * on the bindings of the surrounding query. It is evaluated once and joined with the bindings locally.
+ *
+ * @see SubQueryPushdownOptimizer
+ */
+public class RemoteSubQuery extends AbstractQueryModelNode implements TupleExpr, QueryRef {
+
+	private static final long serialVersionUID = -3190618532958166436L;
+
+	private final TupleExpr expr;
+	private final transient List<Request> requests;
+	private final List<String> groupBindingNames;
+	private final List<GroupElem> partialAggregates;
+	private final transient QueryInfo queryInfo;
+
+	private transient volatile List<BindingSet> result;
+
+	/**
+	 * @param expr              the part of the query that is evaluated remotely
+	 * @param requests          the SELECT queries for the endpoints
+	 * @param groupBindingNames the group binding names to merge partial aggregates by, <code>null</code> if the results
+	 *                          of the requests are final
+	 * @param partialAggregates the partial aggregates to merge, <code>null</code> if the results of the requests are
+	 *                          final
+	 * @param queryInfo
+	 */
+	public RemoteSubQuery(TupleExpr expr, List<Request> requests, List<String> groupBindingNames,
+			List<GroupElem> partialAggregates, QueryInfo queryInfo) {
+		super();
+		this.expr = expr;
+		this.requests = requests;
+		this.groupBindingNames = groupBindingNames;
+		this.partialAggregates = partialAggregates;
+		this.queryInfo = queryInfo;
+	}
+
+	public TupleExpr getExpr() {
+		return expr;
+	}
+
+	public List<Request> getRequests() {
+		return requests;
+	}
+
+	public boolean isMergePartialAggregates() {
+		return partialAggregates != null;
+	}
+
+	@Override
+	public QueryInfo getQueryInfo() {
+		return queryInfo;
+	}
+
+	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings)
+			throws QueryEvaluationException {
+
+		if (bindings.size() == 0) {
+			return result != null ? new CollectionIteration<>(result) : evaluateRequests();
+		}
+
+		// the same result is joined with every binding set, e.g. in a nested loop join
+		List<BindingSet> joined = new ArrayList<>();
+		for (BindingSet bs : getResult()) {
+			if (QueryResults.bindingSetsCompatible(bindings, bs)) {
+				QueryBindingSet res = new QueryBindingSet(bindings);
+				for (Binding b : bs) {
+					if (!res.hasBinding(b.getName())) {
+						res.addBinding(b);
+					}
+				}
+				joined.add(res);
+			}
+		}
+		return new CollectionIteration<>(joined);
+	}
+
+	private List<BindingSet> getResult() throws QueryEvaluationException {
+		List<BindingSet> res = result;
+		if (res == null) {
+			synchronized (this) {
+				res = result;
+				if (res == null) {
+					res = QueryResults.asList(evaluateRequests());
+					result = res;
+				}
+			}
+		}
+		return res;
+	}
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> evaluateRequests()
+			throws QueryEvaluationException {
+
+		CloseableIteration<BindingSet, QueryEvaluationException> res;
+		WorkerUnionBase<BindingSet> union = null;
+		try {
+			if (requests.size() == 1) {
+				Request request = requests.get(0);
+				res = request.getEndpoint()
+						.getTripleSource()
+						.getStatements(request.getQueryString(), EmptyBindingSet.getInstance(), (FilterValueExpr) null,
+								queryInfo);
+			} else {
+				union = queryInfo.getFederationContext().getManager().createWorkerUnion(queryInfo);
+				for (Request request : requests) {
+					union.addTask(new ParallelPreparedUnionTask(union, request.getQueryString(), request.getEndpoint(),
+							EmptyBindingSet.getInstance(), null, queryInfo));
+				}
+				union.run(); // execute the union in this thread
+				res = union;
+			}
+		} catch (RepositoryException | MalformedQueryException e) {
+			if (union != null) {
+				union.close();
+			}
+			throw new QueryEvaluationException(e);
+		}
+
+		if (partialAggregates != null) {
+			return new CollectionIteration<>(mergePartialAggregates(res));
+		}
+		return res;
+	}
+
+	private List<BindingSet> mergePartialAggregates(CloseableIteration<BindingSet, QueryEvaluationException> partials)
+			throws QueryEvaluationException {
+
+		Map<List<Value>, PartialGroup> groups = new LinkedHashMap<>();
+		try {
+			while (partials.hasNext()) {
+				BindingSet bs = partials.next();
+				List<Value> key = new ArrayList<>(groupBindingNames.size());
+				for (String name : groupBindingNames) {
+					key.add(bs.getValue(name));
+				}
+				PartialGroup group = groups.computeIfAbsent(key, k -> new PartialGroup(partialAggregates.size()));
+				for (int i = 0; i < partialAggregates.size(); i++) {
+					GroupElem elem = partialAggregates.get(i);
+					group.merge(i, elem.getOperator(), bs.getValue(elem.getName()));
+				}
+			}
+		} finally {
+			partials.close();
+		}
+
+		List<BindingSet> res = new ArrayList<>(groups.size());
+		for (Map.Entry<List<Value>, PartialGroup> e : groups.entrySet()) {
+			QueryBindingSet bs = new QueryBindingSet();
+			for (int i = 0; i < groupBindingNames.size(); i++) {
+				if (e.getKey().get(i) != null) {
+					bs.addBinding(groupBindingNames.get(i), e.getKey().get(i));
+				}
+			}
+			for (int i = 0; i < partialAggregates.size(); i++) {
+				Value value = e.getValue().getValue(i);
+				if (value != null) {
+					bs.addBinding(partialAggregates.get(i).getName(), value);
+				}
+			}
+			res.add(bs);
+		}
+		return res;
+	}
+
+	@Override
+	public <X extends Exception> void visit(QueryModelVisitor<X> visitor) throws X {
+		visitor.meetOther(this);
+	}
+
+	@Override
+	public <X extends Exception> void visitChildren(QueryModelVisitor<X> visitor) throws X {
+		expr.visit(visitor);
+	}
+
+	@Override
+	public String getSignature() {
+		return super.getSignature() + " @"
+				+ requests.stream().map(r -> r.getEndpoint().getId()).distinct().collect(Collectors.joining(","))
+				+ (isMergePartialAggregates() ? " (partial aggregates)" : "");
+	}
+
+	@Override
+	public Set<String> getBindingNames() {
+		return expr.getBindingNames();
+	}
+
+	@Override
+	public Set<String> getAssuredBindingNames() {
+		return expr.getAssuredBindingNames();
+	}
+
+	@Override
+	public RemoteSubQuery clone() {
+		RemoteSubQuery clone = (RemoteSubQuery) super.clone();
+		clone.result = null;
+		return clone;
+	}
+
+	/**
+	 * A SELECT query for a single endpoint.
+	 */
+	public static class Request {
+
+		private final Endpoint endpoint;
+		private final String queryString;
+
+		public Request(Endpoint endpoint, String queryString) {
+			this.endpoint = endpoint;
+			this.queryString = queryString;
+		}
+
+		public Endpoint getEndpoint() {
+			return endpoint;
+		}
+
+		public String getQueryString() {
+			return queryString;
+		}
+	}
+
+	/**
+	 * The merged partial aggregates of a single group.
+	 */
+	private static class PartialGroup {
+
+		private static final ValueComparator comparator = new ValueComparator();
+
+		static {
+			comparator.setStrict(false);
+		}
+
+		private final Value[] values;
+
+		/**
+		 * whether a partial COUNT or SUM was unbound, e.g. due to a type error at the endpoint
+		 */
+		private final boolean[] failed;
+
+		PartialGroup(int size) {
+			this.values = new Value[size];
+			this.failed = new boolean[size];
+		}
+
+		void merge(int i, AggregateOperator operator, Value value) {
+			if (failed[i]) {
+				return;
+			}
+			if (operator instanceof Count || operator instanceof Sum) {
+				if (!(value instanceof Literal)) {
+					failed[i] = true;
+					values[i] = null;
+				} else if (values[i] == null) {
+					values[i] = value;
+				} else {
+					try {
+						values[i] = MathUtil.compute((Literal) values[i], (Literal) value, MathOp.PLUS);
+					} catch (ValueExprEvaluationException e) {
+						failed[i] = true;
+						values[i] = null;
+					}
+				}
+			} else if (value == null) {
+				// MIN, MAX and SAMPLE ignore endpoints without a value
+				return;
+			} else if (values[i] == null) {
+				values[i] = value;
+			} else if (operator instanceof Min && comparator.compare(value, values[i]) < 0) {
+				values[i] = value;
+			} else if (operator instanceof Max && comparator.compare(value, values[i]) > 0) {
+				values[i] = value;
+			}
+		}
+
+		Value getValue(int i) {
+			return values[i];
+		}
+	}
+}
@@ -0,0 +1,430 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.federated.cache.SourceSelectionCache.StatementSourceAssurance;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.structures.SubQuery;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+
+/**
+ * A summary of the data of a single endpoint which is used to decide during source selection whether the endpoint can
+ * provide results for a statement pattern, in the style of HiBISCuS and VoID.
+ * <p>
+ * For every predicate the summary keeps the authorities (see {@link #getAuthority(IRI)}) of the subject and object IRIs
+ * and whether there are literal objects. In addition the classes used as object of <code>rdf:type</code> are kept. If a
+ * predicate has more than {@link #MAX_AUTHORITIES} different authorities in one position, the authorities of that
+ * position are not kept.
+ * <p>
+ * The summary also keeps VoID statistics, i.e. the number of triples and of distinct subjects and objects per predicate
+ * and the number of entities per class, which are used to estimate the cardinality of statement patterns, see
+ * {@link #getStatistics(Resource, IRI, Value)}.
+ * <p>
+ * A summary describes the data at the time it was built: statements added to the endpoint later may be missed by the
+ * source selection until the summary is rebuilt.
+ *
+ * @see SummarySourceSelectionCache
+ */
+@Experimental
+public class EndpointSummary {
+
+	/**
+	 * The maximal number of authorities that are kept per predicate and position.
+	 */
+	public static final int MAX_AUTHORITIES = 1000;
+
+	/**
+	 * The maximal number of distinct subjects and objects that are counted per predicate, above this number all
+	 * subjects and objects are assumed to be distinct.
+	 */
+	public static final int MAX_DISTINCT_VALUES = 100_000;
+
+	private final Map<IRI, Capability> capabilities;
+
+	/**
+	 * The classes with their number of entities, -1 if unknown.
+	 */
+	private final Map<IRI, Long> classes;
+
+	EndpointSummary(Map<IRI, Capability> capabilities, Map<IRI, Long> classes) {
+		this.capabilities = capabilities;
+		this.classes = classes;
+	}
+
+	/**
+	 * Builds the summary of the given endpoint from all of its statements.
+	 *
+	 * @param endpoint the endpoint
+	 * @return the summary of the data of the endpoint
+	 */
+	public static EndpointSummary build(Endpoint endpoint) {
+		Builder builder = new Builder();
+		try (RepositoryConnection conn = endpoint.getConnection();
+				RepositoryResult<Statement> statements = conn.getStatements(null, null, null, true)) {
+			for (Statement st : statements) {
+				builder.add(st);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Decides from the summary whether the endpoint can provide results for the given sub query.
+	 *
+	 * @param subQuery the sub query
+	 * @return {@link StatementSourceAssurance#NONE} if the endpoint has no results,
+	 *         {@link StatementSourceAssurance#HAS_REMOTE_STATEMENTS} if it has results and
+	 *         {@link StatementSourceAssurance#POSSIBLY_HAS_STATEMENTS} if the summary cannot decide
+	 */
+	public StatementSourceAssurance getAssurance(SubQuery subQuery) {
+		Resource subj = subQuery.subject();
+		IRI pred = subQuery.predicate();
+		Value obj = subQuery.object();
+
+		boolean hasResults;
+		if (pred == null) {
+			if (capabilities.values().stream().noneMatch(c -> c.matches(subj, obj))) {
+				return StatementSourceAssurance.NONE;
+			}
+			hasResults = subj == null && obj == null;
+		} else {
+			Capability capability = capabilities.get(pred);
+			if (capability == null || !capability.matches(subj, obj)) {
+				return StatementSourceAssurance.NONE;
+			}
+			if (RDF.TYPE.equals(pred) && obj instanceof IRI) {
+				if (!classes.containsKey(obj)) {
+					return StatementSourceAssurance.NONE;
+				}
+				hasResults = subj == null;
+			} else {
+				hasResults = subj == null && obj == null;
+			}
+		}
+
+		// the summary does not distinguish named graphs, it can only exclude endpoints for them
+		boolean hasContexts = subQuery.contexts() != null && subQuery.contexts().length > 0;
+		return hasResults && !hasContexts ? StatementSourceAssurance.HAS_REMOTE_STATEMENTS
+				: StatementSourceAssurance.POSSIBLY_HAS_STATEMENTS;
+	}
+
+	/**
+	 * Returns the statistics of a statement pattern, with the given values for the constants of the pattern.
+	 *
+	 * @param subj the subject, or <code>null</code> if it is a variable
+	 * @param pred the predicate, or <code>null</code> if it is a variable
+	 * @param obj  the object, or <code>null</code> if it is a variable
+	 * @return the statistics, or <code>null</code> if the summary has no statistics for the pattern
+	 */
+	public PatternStatistics getStatistics(Resource subj, IRI pred, Value obj) {
+		if (pred == null) {
+			if (subj != null || obj != null) {
+				return null;
+			}
+			long triples = 0;
+			for (Capability capability : capabilities.values()) {
+				if (capability.triples < 0) {
+					return null;
+				}
+				triples += capability.triples;
+			}
+			return new PatternStatistics(triples, -1, -1);
+		}
+
+		Capability capability = capabilities.get(pred);
+		if (capability == null || !capability.matches(subj, obj)) {
+			return new PatternStatistics(0, 0, 0);
+		}
+
+		if (RDF.TYPE.equals(pred) && obj instanceof IRI) {
+			Long entities = classes.get(obj);
+			if (entities == null) {
+				return new PatternStatistics(0, 0, 0);
+			}
+			if (entities < 0) {
+				return null;
+			}
+			return subj == null ? new PatternStatistics(entities, entities, 1) : new PatternStatistics(1, 1, 1);
+		}
+
+		if (capability.triples < 0) {
+			return null;
+		}
+		PatternStatistics statistics = new PatternStatistics(capability.triples, capability.distinctSubjects,
+				capability.distinctObjects);
+		if (subj != null) {
+			statistics = statistics.bindSubject();
+		}
+		if (obj != null) {
+			statistics = statistics.bindObject();
+		}
+		return statistics;
+	}
+
+	/**
+	 * @return the predicates of the endpoint
+	 */
+	public Set<IRI> getPredicates() {
+		return Collections.unmodifiableSet(capabilities.keySet());
+	}
+
+	/**
+	 * @return the classes used as object of <code>rdf:type</code>
+	 */
+	public Set<IRI> getClasses() {
+		return Collections.unmodifiableSet(classes.keySet());
+	}
+
+	Map<IRI, Capability> getCapabilities() {
+		return capabilities;
+	}
+
+	Map<IRI, Long> getClassEntities() {
+		return classes;
+	}
+
+	/**
+	 * Returns the authority of an IRI, i.e. the scheme and the authority component for hierarchical IRIs (e.g.
+	 * <code>http://dbpedia.org</code>) and the scheme for all other IRIs (e.g. <code>urn:</code>).
+	 *
+	 * @param iri the IRI
+	 * @return the authority
+	 */
+	public static String getAuthority(IRI iri) {
+		String s = iri.stringValue();
+		int schemeEnd = s.indexOf(':');
+		if (schemeEnd < 0) {
+			return s;
+		}
+		if (!s.startsWith("//", schemeEnd + 1)) {
+			return s.substring(0, schemeEnd + 1);
+		}
+		for (int i = schemeEnd + 3; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '/' || c == '?' || c == '#') {
+				return s.substring(0, i);
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Builds an {@link EndpointSummary} incrementally from statements.
+	 */
+	public static class Builder {
+
+		private final Map<IRI, Capability> capabilities = new HashMap<>();
+
+		private final Map<IRI, DistinctCounter> subjectCounters = new HashMap<>();
+
+		private final Map<IRI, DistinctCounter> objectCounters = new HashMap<>();
+
+		private final Map<IRI, Long> classes = new HashMap<>();
+
+		public Builder add(Statement st) {
+			IRI pred = st.getPredicate();
+			Capability capability = capabilities.computeIfAbsent(pred, p -> new Capability());
+			capability.triples++;
+			subjectCounters.computeIfAbsent(pred, p -> new DistinctCounter()).add(st.getSubject());
+			objectCounters.computeIfAbsent(pred, p -> new DistinctCounter()).add(st.getObject());
+
+			if (st.getSubject() instanceof IRI) {
+				capability.subjectAuthorities = addAuthority(capability.subjectAuthorities, (IRI) st.getSubject());
+			}
+			if (st.getObject() instanceof IRI) {
+				capability.objectAuthorities = addAuthority(capability.objectAuthorities, (IRI) st.getObject());
+				if (RDF.TYPE.equals(pred)) {
+					classes.merge((IRI) st.getObject(), 1L, Long::sum);
+				}
+			} else if (st.getObject() instanceof Literal) {
+				capability.literalObjects = true;
+			}
+			return this;
+		}
+
+		private static Set<String> addAuthority(Set<String> authorities, IRI iri) {
+			if (authorities == null) {
+				// too many authorities
+				return null;
+			}
+			authorities.add(getAuthority(iri));
+			return authorities.size() > MAX_AUTHORITIES ? null : authorities;
+		}
+
+		public EndpointSummary build() {
+			Map<IRI, Capability> result = new HashMap<>();
+			capabilities.forEach((pred, c) -> result.put(pred, new Capability(c.subjectAuthorities,
+					c.objectAuthorities, c.literalObjects, c.triples, subjectCounters.get(pred).count(c.triples),
+					objectCounters.get(pred).count(c.triples))));
+			return new EndpointSummary(result, new HashMap<>(classes));
+		}
+	}
+
+	/**
+	 * Counts the distinct values by their hash codes, up to {@link EndpointSummary#MAX_DISTINCT_VALUES}.
+	 */
+	private static class DistinctCounter {
+
+		private Set<Integer> hashes = new HashSet<>();
+
+		void add(Value value) {
+			if (hashes != null) {
+				hashes.add(value.hashCode());
+				if (hashes.size() > MAX_DISTINCT_VALUES) {
+					hashes = null;
+				}
+			}
+		}
+
+		long count(long triples) {
+			return hashes == null ? triples : hashes.size();
+		}
+	}
+
+	/**
+	 * The statistics of a statement pattern: the number of matching triples and the number of distinct subjects and
+	 * objects of these triples. Counts that are not known are -1.
+	 */
+	public static class PatternStatistics {
+
+		private final long triples;
+
+		private final long distinctSubjects;
+
+		private final long distinctObjects;
+
+		public PatternStatistics(long triples, long distinctSubjects, long distinctObjects) {
+			this.triples = triples;
+			this.distinctSubjects = distinctSubjects;
+			this.distinctObjects = distinctObjects;
+		}
+
+		public long getTriples() {
+			return triples;
+		}
+
+		public long getDistinctSubjects() {
+			return distinctSubjects;
+		}
+
+		public long getDistinctObjects() {
+			return distinctObjects;
+		}
+
+		/**
+		 * Estimates the number of results of the pattern, assuming uniformly distributed values.
+		 *
+		 * @param subjectBound whether the subject variable is bound, e.g. by a join
+		 * @param objectBound  whether the object variable is bound, e.g. by a join
+		 * @return the estimated number of results
+		 */
+		public double estimate(boolean subjectBound, boolean objectBound) {
+			PatternStatistics statistics = this;
+			if (subjectBound) {
+				statistics = statistics.bindSubject();
+			}
+			if (objectBound) {
+				statistics = statistics.bindObject();
+			}
+			return statistics.triples;
+		}
+
+		PatternStatistics bindSubject() {
+			long triplesPerSubject = perValue(distinctSubjects);
+			return new PatternStatistics(triplesPerSubject, Math.min(1, triplesPerSubject),
+					distinctObjects < 0 ? -1 : Math.min(distinctObjects, triplesPerSubject));
+		}
+
+		PatternStatistics bindObject() {
+			long triplesPerObject = perValue(distinctObjects);
+			return new PatternStatistics(triplesPerObject,
+					distinctSubjects < 0 ? -1 : Math.min(distinctSubjects, triplesPerObject),
+					Math.min(1, triplesPerObject));
+		}
+
+		private long perValue(long distinctValues) {
+			if (triples == 0) {
+				return 0;
+			}
+			// without a count of the distinct values, every value is assumed to be distinct
+			return Math.max(1, distinctValues <= 0 ? 1 : Math.round((double) triples / distinctValues));
+		}
+	}
+
+	/**
+	 * The capability of an endpoint for a single predicate. An authority set that is <code>null</code> or empty is
+	 * unknown and matches any IRI.
+	 */
+	static class Capability {
+
+		Set<String> subjectAuthorities;
+
+		Set<String> objectAuthorities;
+
+		boolean literalObjects;
+
+		long triples;
+
+		long distinctSubjects;
+
+		long distinctObjects;
+
+		/**
+		 * Creates an empty capability to be filled by the {@link Builder}.
+		 */
+		Capability() {
+			this.subjectAuthorities = new HashSet<>();
+			this.objectAuthorities = new HashSet<>();
+		}
+
+		Capability(Set<String> subjectAuthorities, Set<String> objectAuthorities, boolean literalObjects,
+				long triples, long distinctSubjects, long distinctObjects) {
+			this.subjectAuthorities = copy(subjectAuthorities);
+			this.objectAuthorities = copy(objectAuthorities);
+			this.literalObjects = literalObjects;
+			this.triples = triples;
+			this.distinctSubjects = distinctSubjects;
+			this.distinctObjects = distinctObjects;
+		}
+
+		private static Set<String> copy(Set<String> authorities) {
+			return authorities == null || authorities.isEmpty() ? null : new HashSet<>(authorities);
+		}
+
+		boolean matches(Resource subj, Value obj) {
+			if (subj instanceof IRI && !matches(subjectAuthorities, (IRI) subj)) {
+				return false;
+			}
+			if (obj instanceof IRI) {
+				return matches(objectAuthorities, (IRI) obj);
+			}
+			return !(obj instanceof Literal) || literalObjects;
+		}
+
+		private static boolean matches(Set<String> authorities, IRI iri) {
+			return authorities == null || authorities.contains(getAuthority(iri));
+		}
+	}
+}
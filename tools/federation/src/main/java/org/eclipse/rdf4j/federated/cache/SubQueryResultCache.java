@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.IterationWrapper;
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.impl.TupleQueryResultBuilder;
+import org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A cache for the results of the subqueries that FedX sends to the federation members.
+ * <p>
+ * Entries are keyed by the endpoint, the subquery string with normalized whitespace, the bindings that are sent along
+ * with the subquery, the dataset and the inference setting. Results are only cached if they are consumed completely,
+ * and are stored in the binary query result format, so that a cache hit neither contacts the endpoint nor parses a
+ * SPARQL result document.
+ * <p>
+ * The cache is bounded by the size of the stored results in bytes, and entries expire a fixed time after they are
+ * written. Writes through the {@link org.eclipse.rdf4j.federated.write.RepositoryWriteStrategy} invalidate the entries
+ * of the written endpoint, other changes of the data of an endpoint are only reflected after expiration or
+ * {@link #invalidate(String)}.
+ *
+ * @see FedXConfig#getSubQueryResultCacheSize()
+ */
+@Experimental
+public class SubQueryResultCache {
+
+	private static final Logger log = LoggerFactory.getLogger(SubQueryResultCache.class);
+
+	private static final char SEPARATOR = '\u0000';
+
+	private final Cache<String, byte[]> cache;
+
+	private final long maxEntrySize;
+
+	/**
+	 * @param maximumSize          the maximal size of all cached results in bytes
+	 * @param expireAfterWrite     the time after which an entry expires
+	 * @param expireAfterWriteUnit the unit of expireAfterWrite
+	 */
+	public SubQueryResultCache(long maximumSize, long expireAfterWrite, TimeUnit expireAfterWriteUnit) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+		}
+		this.cache = CacheBuilder.newBuilder()
+				.concurrencyLevel(4)
+				.maximumWeight(maximumSize)
+				.<String, byte[]>weigher((key, result) -> 2 * key.length() + result.length)
+				.expireAfterWrite(expireAfterWrite, expireAfterWriteUnit)
+				.build();
+		// larger entries would be evicted from their segment of the cache immediately
+		this.maxEntrySize = maximumSize / 4;
+	}
+
+	/**
+	 * Returns the cached result of a subquery.
+	 *
+	 * @param endpointId      the endpoint the subquery is sent to
+	 * @param query           the subquery
+	 * @param bindings        the bindings that are sent along with the subquery
+	 * @param includeInferred whether inferred statements are included
+	 * @param dataset         the dataset of the subquery, may be <code>null</code>
+	 * @return the cached result, or <code>null</code> if the result is not cached
+	 */
+	public TupleQueryResult get(String endpointId, String query, BindingSet bindings, boolean includeInferred,
+			Dataset dataset) {
+		byte[] result = cache.getIfPresent(key(endpointId, query, bindings, includeInferred, dataset));
+		if (result == null) {
+			return null;
+		}
+		TupleQueryResultBuilder builder = new TupleQueryResultBuilder();
+		try {
+			BinaryQueryResultParser parser = new BinaryQueryResultParser(SimpleValueFactory.getInstance());
+			parser.setQueryResultHandler(builder);
+			parser.parseQueryResult(new ByteArrayInputStream(result));
+		} catch (Exception e) {
+			throw new QueryEvaluationException("Failed to read cached subquery result", e);
+		}
+		return builder.getQueryResult();
+	}
+
+	/**
+	 * Wraps the result of a subquery, such that the result is cached once it has been consumed completely.
+	 *
+	 * @param endpointId      the endpoint the subquery is sent to
+	 * @param query           the subquery
+	 * @param bindings        the bindings that are sent along with the subquery
+	 * @param includeInferred whether inferred statements are included
+	 * @param dataset         the dataset of the subquery, may be <code>null</code>
+	 * @param result          the result of the subquery
+	 * @return the wrapped result
+	 */
+	public TupleQueryResult cache(String endpointId, String query, BindingSet bindings, boolean includeInferred,
+			Dataset dataset, TupleQueryResult result) {
+		return new CachingTupleQueryResult(key(endpointId, query, bindings, includeInferred, dataset), result);
+	}
+
+	/**
+	 * Removes the cached results of all subqueries that were sent to the given endpoint.
+	 *
+	 * @param endpointId the endpoint
+	 */
+	public void invalidate(String endpointId) {
+		String prefix = endpointId + SEPARATOR;
+		cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+	}
+
+	/**
+	 * Removes all cached results.
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached results
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	private static String key(String endpointId, String query, BindingSet bindings, boolean includeInferred,
+			Dataset dataset) {
+		StringBuilder key = new StringBuilder(query.length() + 64);
+		key.append(endpointId).append(SEPARATOR);
+		normalize(query, key);
+		key.append(SEPARATOR).append(includeInferred);
+		if (bindings != null && bindings.size() > 0) {
+			List<Binding> sorted = new ArrayList<>(bindings.size());
+			bindings.forEach(sorted::add);
+			sorted.sort(Comparator.comparing(Binding::getName));
+			for (Binding b : sorted) {
+				key.append(SEPARATOR).append(b.getName()).append('=').append(b.getValue());
+			}
+		}
+		if (dataset != null) {
+			key.append(SEPARATOR).append(dataset);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Appends the query with each sequence of whitespace outside of string literals replaced by a single space.
+	 */
+	static void normalize(String query, StringBuilder out) {
+		char quote = 0;
+		boolean whitespace = false;
+		for (int i = 0, n = query.length(); i < n; i++) {
+			char c = query.charAt(i);
+			if (quote == 0 && Character.isWhitespace(c)) {
+				whitespace = true;
+				continue;
+			}
+			if (whitespace) {
+				if (out.length() > 0 && out.charAt(out.length() - 1) != SEPARATOR) {
+					out.append(' ');
+				}
+				whitespace = false;
+			}
+			out.append(c);
+			if (quote != 0 && c == '\\' && i + 1 < n) {
+				out.append(query.charAt(++i));
+			} else if (quote == 0 && (c == '"' || c == '\'')) {
+				quote = c;
+			} else if (c == quote) {
+				quote = 0;
+			}
+		}
+	}
+
+	/**
+	 * A result which records the binding sets it returns, and caches them once the result is exhausted.
+	 */
+	private class CachingTupleQueryResult extends IterationWrapper<BindingSet, QueryEvaluationException>
+			implements TupleQueryResult {
+
+		private final String key;
+
+		private final List<String> bindingNames;
+
+		private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		private BinaryQueryResultWriter writer;
+
+		private CachingTupleQueryResult(String key, TupleQueryResult result) {
+			super(result);
+			this.key = key;
+			this.bindingNames = result.getBindingNames();
+			try {
+				writer = new BinaryQueryResultWriter(out);
+				writer.startDocument();
+				writer.startHeader();
+				writer.startQueryResult(bindingNames);
+			} catch (Exception e) {
+				stopRecording(e);
+			}
+		}
+
+		@Override
+		public List<String> getBindingNames() throws QueryEvaluationException {
+			return bindingNames;
+		}
+
+		@Override
+		public boolean hasNext() throws QueryEvaluationException {
+			if (writer != null && !isClosed() && !wrappedIter.hasNext()) {
+				try {
+					writer.endQueryResult();
+					cache.put(key, out.toByteArray());
+				} catch (Exception e) {
+					log.debug("Failed to cache subquery result: {}", e.getMessage());
+				}
+				stopRecording(null);
+			}
+			return super.hasNext();
+		}
+
+		@Override
+		public BindingSet next() throws QueryEvaluationException {
+			BindingSet next = super.next();
+			if (writer != null) {
+				try {
+					writer.handleSolution(next);
+					if (out.size() > maxEntrySize) {
+						stopRecording(null);
+					}
+				} catch (Exception e) {
+					stopRecording(e);
+				}
+			}
+			return next;
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			stopRecording(null);
+			super.handleClose();
+		}
+
+		private void stopRecording(Exception e) {
+			if (e != null) {
+				log.debug("Failed to record subquery result for caching: {}", e.getMessage());
+				log.trace("Details:", e);
+			}
+			writer = null;
+			out = null;
+		}
+	}
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.federated.cache.EndpointSummary.Capability;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.exception.FedXRuntimeException;
+import org.eclipse.rdf4j.federated.structures.SubQuery;
+import org.eclipse.rdf4j.federated.util.Vocabulary.FEDX;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.VOID;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link SourceSelectionCache} which consults an {@link EndpointSummary} of each endpoint before the information of a
+ * delegate cache, so that the source selection only sends ASK requests for statement patterns that the summary cannot
+ * decide.
+ * <p>
+ * The summaries are persisted as VoID descriptions in a Turtle file and loaded from that file when the cache is
+ * created. Summaries are built with {@link #updateSummary(Endpoint)}, endpoints without a summary are handled by the
+ * delegate only.
+ *
+ * @see org.eclipse.rdf4j.federated.FedXConfig#getSourceSelectionSummaryLocation()
+ */
+@Experimental
+public class SummarySourceSelectionCache implements SourceSelectionCache {
+
+	private static final Logger log = LoggerFactory.getLogger(SummarySourceSelectionCache.class);
+
+	private final SourceSelectionCache delegate;
+
+	private final File location;
+
+	private final Map<String, EndpointSummary> summaries = new ConcurrentHashMap<>();
+
+	/**
+	 * @param delegate the cache that is consulted if a summary cannot decide
+	 * @param location the file the summaries are persisted in, it is read if it exists
+	 */
+	public SummarySourceSelectionCache(SourceSelectionCache delegate, File location) {
+		this.delegate = delegate;
+		this.location = location;
+		if (location.isFile()) {
+			load();
+		}
+	}
+
+	@Override
+	public StatementSourceAssurance getAssurance(SubQuery subQuery, Endpoint endpoint) {
+		EndpointSummary summary = summaries.get(endpoint.getId());
+		if (summary != null) {
+			StatementSourceAssurance assurance = summary.getAssurance(subQuery);
+			if (assurance != StatementSourceAssurance.POSSIBLY_HAS_STATEMENTS) {
+				return assurance;
+			}
+		}
+		return delegate.getAssurance(subQuery, endpoint);
+	}
+
+	@Override
+	public void updateInformation(SubQuery subQuery, Endpoint endpoint, boolean hasStatements) {
+		delegate.updateInformation(subQuery, endpoint, hasStatements);
+	}
+
+	/**
+	 * Builds the summary of the given endpoint from its current data and persists it.
+	 *
+	 * @param endpoint the endpoint
+	 * @return the new summary
+	 */
+	public EndpointSummary updateSummary(Endpoint endpoint) {
+		log.debug("Building the source selection summary of endpoint {}", endpoint.getId());
+		EndpointSummary summary = EndpointSummary.build(endpoint);
+		setSummary(endpoint.getId(), summary);
+		return summary;
+	}
+
+	/**
+	 * Sets the summary of the given endpoint and persists it.
+	 *
+	 * @param endpointId the id of the endpoint
+	 * @param summary    the summary, <code>null</code> to remove the summary of the endpoint
+	 */
+	public void setSummary(String endpointId, EndpointSummary summary) {
+		if (summary == null) {
+			summaries.remove(endpointId);
+		} else {
+			summaries.put(endpointId, summary);
+		}
+		save();
+	}
+
+	/**
+	 * @param endpointId the id of the endpoint
+	 * @return the summary of the endpoint, or <code>null</code> if there is none
+	 */
+	public EndpointSummary getSummary(String endpointId) {
+		return summaries.get(endpointId);
+	}
+
+	private synchronized void save() {
+		Model model = new LinkedHashModel();
+		model.setNamespace(VOID.NS);
+		model.setNamespace(DCTERMS.NS);
+		model.setNamespace("fedx", FEDX.NAMESPACE);
+
+		for (Map.Entry<String, EndpointSummary> e : summaries.entrySet()) {
+			BNode dataset = Values.bnode();
+			model.add(dataset, RDF.TYPE, VOID.DATASET);
+			model.add(dataset, DCTERMS.IDENTIFIER, Values.literal(e.getKey()));
+			for (Map.Entry<IRI, Capability> c : e.getValue().getCapabilities().entrySet()) {
+				BNode partition = Values.bnode();
+				model.add(dataset, VOID.PROPERTY_PARTITION, partition);
+				model.add(partition, VOID.PROPERTY, c.getKey());
+				addAuthorities(model, partition, FEDX.SUBJECT_AUTHORITY, c.getValue().subjectAuthorities);
+				addAuthorities(model, partition, FEDX.OBJECT_AUTHORITY, c.getValue().objectAuthorities);
+				if (c.getValue().literalObjects) {
+					model.add(partition, FEDX.LITERAL_OBJECTS, Values.literal(true));
+				}
+				addCount(model, partition, VOID.TRIPLES, c.getValue().triples);
+				addCount(model, partition, VOID.DISTINCT_SUBJECTS, c.getValue().distinctSubjects);
+				addCount(model, partition, VOID.DISTINCT_OBJECTS, c.getValue().distinctObjects);
+			}
+			for (Map.Entry<IRI, Long> c : e.getValue().getClassEntities().entrySet()) {
+				BNode partition = Values.bnode();
+				model.add(dataset, VOID.CLASS_PARTITION, partition);
+				model.add(partition, VOID.CLASS, c.getKey());
+				addCount(model, partition, VOID.ENTITIES, c.getValue());
+			}
+		}
+
+		try {
+			File parent = location.getAbsoluteFile().getParentFile();
+			Files.createDirectories(parent.toPath());
+			File tmp = File.createTempFile(location.getName(), ".tmp", parent);
+			try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+				Rio.write(model, out, RDFFormat.TURTLE);
+			}
+			Files.move(tmp.toPath(), location.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new FedXRuntimeException("Failed to persist source selection summaries to " + location, e);
+		}
+	}
+
+	private static void addAuthorities(Model model, Resource partition, IRI predicate, Set<String> authorities) {
+		if (authorities != null) {
+			for (String authority : authorities) {
+				model.add(partition, predicate, Values.literal(authority));
+			}
+		}
+	}
+
+	private static void addCount(Model model, Resource partition, IRI predicate, long count) {
+		if (count >= 0) {
+			model.add(partition, predicate, Values.literal(count));
+		}
+	}
+
+	private void load() {
+		Model model;
+		try (InputStream in = Files.newInputStream(location.toPath())) {
+			model = Rio.parse(in, RDFFormat.TURTLE);
+		} catch (IOException e) {
+			throw new FedXRuntimeException("Failed to read source selection summaries from " + location, e);
+		}
+
+		for (Resource dataset : model.filter(null, RDF.TYPE, VOID.DATASET).subjects()) {
+			String endpointId = Models.objectString(model.filter(dataset, DCTERMS.IDENTIFIER, null))
+					.orElseThrow(() -> new FedXRuntimeException(
+							"Source selection summary without " + DCTERMS.IDENTIFIER + " in " + location));
+
+			Map<IRI, Capability> capabilities = new HashMap<>();
+			for (Value partition : model.filter(dataset, VOID.PROPERTY_PARTITION, null).objects()) {
+				Resource p = (Resource) partition;
+				Models.objectIRI(model.filter(p, VOID.PROPERTY, null))
+						.ifPresent(pred -> capabilities.put(pred,
+								new Capability(authorities(model, p, FEDX.SUBJECT_AUTHORITY),
+										authorities(model, p, FEDX.OBJECT_AUTHORITY),
+										Models.objectLiteral(model.filter(p, FEDX.LITERAL_OBJECTS, null))
+												.map(Literal::booleanValue)
+												.orElse(false),
+										count(model, p, VOID.TRIPLES), count(model, p, VOID.DISTINCT_SUBJECTS),
+										count(model, p, VOID.DISTINCT_OBJECTS))));
+			}
+
+			Map<IRI, Long> classes = new HashMap<>();
+			for (Value partition : model.filter(dataset, VOID.CLASS_PARTITION, null).objects()) {
+				Resource p = (Resource) partition;
+				Models.objectIRI(model.filter(p, VOID.CLASS, null))
+						.ifPresent(clazz -> classes.put(clazz, count(model, p, VOID.ENTITIES)));
+			}
+
+			summaries.put(endpointId, new EndpointSummary(capabilities, classes));
+		}
+		log.debug("Loaded source selection summaries of {} endpoints from {}", summaries.size(), location);
+	}
+
+	private static long count(Model model, Resource partition, IRI predicate) {
+		return Models.objectLiteral(model.filter(partition, predicate, null)).map(Literal::longValue).orElse(-1L);
+	}
+
+	private static Set<String> authorities(Model model, Resource partition, IRI predicate) {
+		Set<String> authorities = new HashSet<>();
+		for (Value authority : model.filter(partition, predicate, null).objects()) {
+			authorities.add(authority.stringValue());
+		}
+		return authorities;
+	}
+}
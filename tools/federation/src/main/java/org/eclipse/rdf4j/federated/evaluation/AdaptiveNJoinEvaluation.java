@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.common.iteration.UnionIteration;
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.federated.algebra.ExclusiveGroup;
+import org.eclipse.rdf4j.federated.algebra.FedXStatementPattern;
+import org.eclipse.rdf4j.federated.algebra.NJoin;
+import org.eclipse.rdf4j.federated.evaluation.concurrent.ControlledWorkerScheduler;
+import org.eclipse.rdf4j.federated.util.QueryAlgebraUtil;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.HashJoinIteration;
+import org.eclipse.rdf4j.repository.sparql.federation.CollectionIteration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates an {@link NJoin} while adapting the join order and the join algorithm to the observed intermediate results.
+ * <p>
+ * Before each join step the first results of the intermediate result are sampled:
+ * <ul>
+ * <li>If more than one of the remaining join arguments shares variables with the intermediate result, each of them is
+ * probed with a bound join of the first sampled results. The argument with the fewest results per binding is joined
+ * next, reusing the results of its probe.</li>
+ * <li>If the intermediate result is larger than the sample, a statement or exclusive group is fetched once without
+ * bindings. If it has at most {@link #HASH_JOIN_FACTOR} times the sample size results, it is joined with a hash join
+ * instead of sending all intermediate results as bindings to its sources.</li>
+ * </ul>
+ * Join arguments that the optimizer marked as hash join (see {@link NJoin#isHashJoin(int)}) are always joined with a
+ * hash join once they are chosen.
+ *
+ * @see FedXConfig#isEnableAdaptiveJoinOrder()
+ */
+class AdaptiveNJoinEvaluation {
+
+	private static final Logger log = LoggerFactory.getLogger(AdaptiveNJoinEvaluation.class);
+
+	/**
+	 * The maximal number of results of a join argument for a hash join, relative to the sample size.
+	 */
+	static final int HASH_JOIN_FACTOR = 10;
+
+	/**
+	 * The number of sampled results the join arguments are probed with. A bound join sends its first ten bindings in
+	 * small blocks, see {@link org.eclipse.rdf4j.federated.evaluation.join.ControlledWorkerBoundJoin}.
+	 */
+	static final int PROBE_SIZE = 10;
+
+	private final FederationEvalStrategy strategy;
+
+	private final ControlledWorkerScheduler<BindingSet> joinScheduler;
+
+	private final NJoin join;
+
+	private final QueryEvaluationStep[] args;
+
+	private final int sampleSize;
+
+	private final int probeSize;
+
+	/**
+	 * @param strategy      the strategy that evaluates the bound joins
+	 * @param joinScheduler the scheduler for the bound joins
+	 * @param join          the join
+	 * @param args          the prepared join arguments, used for hash joins
+	 * @param sampleSize    the number of intermediate results that are sampled before each join step
+	 */
+	AdaptiveNJoinEvaluation(FederationEvalStrategy strategy, ControlledWorkerScheduler<BindingSet> joinScheduler,
+			NJoin join, QueryEvaluationStep[] args, int sampleSize) {
+		this.strategy = strategy;
+		this.joinScheduler = joinScheduler;
+		this.join = join;
+		this.args = args;
+		this.sampleSize = sampleSize;
+		this.probeSize = Math.max(1, Math.min(PROBE_SIZE, sampleSize));
+	}
+
+	/**
+	 * Joins the remaining join arguments to the results of the first argument.
+	 *
+	 * @param first    the results of the first join argument
+	 * @param bindings the bindings of the join
+	 * @return the results of the join
+	 */
+	CloseableIteration<BindingSet, QueryEvaluationException> evaluate(
+			CloseableIteration<BindingSet, QueryEvaluationException> first, BindingSet bindings)
+			throws QueryEvaluationException {
+
+		List<Integer> remaining = new ArrayList<>();
+		for (int i = 1; i < join.getNumberOfArguments(); i++) {
+			remaining.add(i);
+		}
+		Set<String> boundVars = new HashSet<>(bindings.getBindingNames());
+		Set<String> resultBindingNames = new HashSet<>(freeVars(0));
+		boundVars.addAll(resultBindingNames);
+		// hash joins require that the join variables are bound in every intermediate result
+		boolean resultFullyBound = isHashJoinCandidate(join.getArg(0));
+
+		CloseableIteration<BindingSet, QueryEvaluationException> result = first;
+		try {
+			while (!remaining.isEmpty()) {
+				List<BindingSet> sample = take(result, sampleSize);
+				boolean sampleComplete = !result.hasNext();
+				if (sample.isEmpty()) {
+					result.close();
+					return new EmptyIteration<>();
+				}
+
+				// choose the next join argument
+				List<Integer> candidates = new ArrayList<>();
+				for (int i : remaining) {
+					if (!Collections.disjoint(freeVars(i), boundVars)) {
+						candidates.add(i);
+					}
+				}
+				if (candidates.isEmpty()) {
+					candidates.add(remaining.get(0));
+				}
+
+				int next = candidates.get(0);
+				List<BindingSet> probeResults = null;
+				List<BindingSet> probeBindings = sample.subList(0, Math.min(probeSize, sample.size()));
+				if (candidates.size() > 1) {
+					for (int i : candidates) {
+						List<BindingSet> probe = Iterations.asList(strategy.executeJoin(joinScheduler,
+								new CollectionIteration<>(probeBindings), join.getArg(i), joinVars(i, boundVars),
+								bindings, join.getQueryInfo()));
+						if (probeResults == null || probe.size() < probeResults.size()) {
+							next = i;
+							probeResults = probe;
+						}
+					}
+					log.debug("Adaptive join order: continuing with join argument {} ({} results for {} bindings)",
+							next, probeResults.size(), probeBindings.size());
+				}
+
+				// choose the join algorithm
+				TupleExpr arg = join.getArg(next);
+				List<BindingSet> rightResults = null;
+				if (resultFullyBound && isHashJoinCandidate(arg) && !Collections.disjoint(freeVars(next), boundVars)) {
+					if (join.isHashJoin(next)) {
+						rightResults = Iterations.asList(args[next].evaluate(bindings));
+					} else if (!sampleComplete) {
+						rightResults = takeAll(args[next].evaluate(bindings), sampleSize * HASH_JOIN_FACTOR);
+					}
+				}
+
+				if (rightResults != null) {
+					log.debug("Adaptive join order: using a hash join for join argument {} ({} results)", next,
+							rightResults.size());
+					result = new HashJoinIteration(concat(sample, result), new HashSet<>(resultBindingNames),
+							new CollectionIteration<>(rightResults), new HashSet<>(freeVars(next)), false);
+				} else if (probeResults != null) {
+					CloseableIteration<BindingSet, QueryEvaluationException> joined = strategy.executeJoin(
+							joinScheduler, concat(sample.subList(probeBindings.size(), sample.size()), result), arg,
+							joinVars(next, boundVars), bindings, join.getQueryInfo());
+					result = new UnionIteration<>(new CollectionIteration<>(probeResults), joined);
+				} else {
+					result = strategy.executeJoin(joinScheduler, concat(sample, result), arg,
+							joinVars(next, boundVars), bindings, join.getQueryInfo());
+				}
+
+				remaining.remove(Integer.valueOf(next));
+				boundVars.addAll(freeVars(next));
+				resultBindingNames.addAll(freeVars(next));
+				resultFullyBound &= isHashJoinCandidate(arg);
+			}
+			return result;
+		} catch (Throwable t) {
+			result.close();
+			throw t;
+		}
+	}
+
+	private Collection<String> freeVars(int joinIndex) {
+		return QueryAlgebraUtil.getFreeVars(join.getArg(joinIndex));
+	}
+
+	private Set<String> joinVars(int joinIndex, Set<String> boundVars) {
+		Set<String> joinVars = new HashSet<>(freeVars(joinIndex));
+		joinVars.retainAll(boundVars);
+		return joinVars;
+	}
+
+	private static boolean isHashJoinCandidate(TupleExpr tupleExpr) {
+		return tupleExpr instanceof FedXStatementPattern || tupleExpr instanceof ExclusiveGroup;
+	}
+
+	private static List<BindingSet> take(CloseableIteration<BindingSet, QueryEvaluationException> iter, int n) {
+		List<BindingSet> result = new ArrayList<>(n);
+		while (result.size() < n && iter.hasNext()) {
+			result.add(iter.next());
+		}
+		return result;
+	}
+
+	/**
+	 * @return all results of the iteration, or <code>null</code> if it has more than the given number of results
+	 */
+	private static List<BindingSet> takeAll(CloseableIteration<BindingSet, QueryEvaluationException> iter, int max) {
+		try (iter) {
+			List<BindingSet> result = take(iter, max);
+			return iter.hasNext() ? null : result;
+		}
+	}
+
+	private static CloseableIteration<BindingSet, QueryEvaluationException> concat(List<BindingSet> head,
+			CloseableIteration<BindingSet, QueryEvaluationException> tail) {
+		if (head.isEmpty()) {
+			return tail;
+		}
+		return new UnionIteration<>(new CollectionIteration<>(head), tail);
+	}
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.federated.evaluation;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -36,6 +37,7 @@ import org.eclipse.rdf4j.federated.algebra.FilterExpr;
 import org.eclipse.rdf4j.federated.algebra.FilterValueExpr;
 import org.eclipse.rdf4j.federated.algebra.NJoin;
 import org.eclipse.rdf4j.federated.algebra.NUnion;
+import org.eclipse.rdf4j.federated.algebra.RemoteSubQuery;
 import org.eclipse.rdf4j.federated.algebra.SingleSourceQuery;
 import org.eclipse.rdf4j.federated.algebra.StatementSource;
 import org.eclipse.rdf4j.federated.algebra.StatementTupleExpr;
@@ -60,7 +62,6 @@ import org.eclipse.rdf4j.federated.evaluation.union.SynchronousWorkerUnion;
 import org.eclipse.rdf4j.federated.evaluation.union.WorkerUnionBase;
 import org.eclipse.rdf4j.federated.exception.FedXRuntimeException;
 import org.eclipse.rdf4j.federated.exception.IllegalQueryException;
-import org.eclipse.rdf4j.federated.optimizer.DefaultFedXCostModel;
 import org.eclipse.rdf4j.federated.optimizer.ExclusiveTupleExprOptimizer;
 import org.eclipse.rdf4j.federated.optimizer.FilterOptimizer;
 import org.eclipse.rdf4j.federated.optimizer.GenericInfoOptimizer;
@@ -68,11 +69,13 @@ import org.eclipse.rdf4j.federated.optimizer.LimitOptimizer;
 import org.eclipse.rdf4j.federated.optimizer.ServiceOptimizer;
 import org.eclipse.rdf4j.federated.optimizer.SourceSelection;
 import org.eclipse.rdf4j.federated.optimizer.StatementGroupAndJoinOptimizer;
+import org.eclipse.rdf4j.federated.optimizer.SubQueryPushdownOptimizer;
 import org.eclipse.rdf4j.federated.optimizer.UnionOptimizer;
 import org.eclipse.rdf4j.federated.structures.FedXDataset;
 import org.eclipse.rdf4j.federated.structures.QueryInfo;
 import org.eclipse.rdf4j.federated.structures.QueryType;
 import org.eclipse.rdf4j.federated.util.FedXUtil;
+import org.eclipse.rdf4j.federated.util.QueryAlgebraUtil;
 import org.eclipse.rdf4j.federated.util.QueryStringUtil;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
@@ -250,6 +253,12 @@ public abstract class FederationEvalStrategy extends StrictEvaluationStrategy {
 			new FilterOptimizer().optimize(query);
 		}
 
+		// push aggregates, ORDER BY, DISTINCT and LIMIT to the endpoints
+		// Note: this is done last, as the pushed expressions must be final
+		if (federationContext.getConfig().isEnableSubQueryPushdown()) {
+			new SubQueryPushdownOptimizer(queryInfo).optimize(query);
+		}
+
 		if (log.isTraceEnabled()) {
 			log.trace("Query after Optimization: " + query);
 		}
@@ -280,7 +289,7 @@ public abstract class FederationEvalStrategy extends StrictEvaluationStrategy {
 
 	protected void optimizeJoinOrder(TupleExpr query, QueryInfo queryInfo, GenericInfoOptimizer info) {
 		// optimize statement groups and join order
-		new StatementGroupAndJoinOptimizer(queryInfo, DefaultFedXCostModel.INSTANCE).optimize(query);
+		new StatementGroupAndJoinOptimizer(queryInfo, federationContext.getCostModel()).optimize(query);
 	}
 
 	/**
@@ -347,6 +356,10 @@ public abstract class FederationEvalStrategy extends StrictEvaluationStrategy {
 			return evaluateSingleSourceQuery((SingleSourceQuery) expr, bindings);
 		}
 
+		if (expr instanceof RemoteSubQuery) {
+			return ((RemoteSubQuery) expr).evaluate(bindings);
+		}
+
 		if (expr instanceof FedXService) {
 			return evaluateService((FedXService) expr, bindings);
 		}
@@ -393,6 +406,10 @@ public abstract class FederationEvalStrategy extends StrictEvaluationStrategy {
 			return QueryEvaluationStep.minimal(this, expr);
 		}
 
+		if (expr instanceof RemoteSubQuery) {
+			return QueryEvaluationStep.minimal(this, expr);
+		}
+
 		if (expr instanceof FedXService) {
 			return QueryEvaluationStep.minimal(this, expr);
 		}
@@ -505,6 +522,21 @@ public abstract class FederationEvalStrategy extends StrictEvaluationStrategy {
 
 		QueryEvaluationStep resultProvider = precompile(join.getArg(0), context);
 
+		if (federationContext.getConfig().isEnableAdaptiveJoinOrder()) {
+			return prepareAdaptiveNJoin(join, resultProvider, context);
+		}
+
+		// hash join arguments are evaluated independently of the previous arguments, see NJoin#isHashJoin(int)
+		int n = join.getNumberOfArguments();
+		QueryEvaluationStep[] hashJoinArgs = new QueryEvaluationStep[n];
+		List<Set<String>> bindingNames = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			if (i > 0 && join.isHashJoin(i)) {
+				hashJoinArgs[i] = precompile(join.getArg(i), context);
+			}
+			bindingNames.add(new HashSet<>(QueryAlgebraUtil.getFreeVars(join.getArg(i))));
+		}
+
 		ControlledWorkerScheduler<BindingSet> joinScheduler = federationContext.getManager().getJoinScheduler();
 
 		return bindings -> {
@@ -513,9 +545,16 @@ public abstract class FederationEvalStrategy extends StrictEvaluationStrategy {
 			try {
 				result = resultProvider.evaluate(bindings);
 
-				for (int i = 1, n = join.getNumberOfArguments(); i < n; i++) {
-					result = executeJoin(joinScheduler, result, join.getArg(i), join.getJoinVariables(i), bindings,
-							join.getQueryInfo());
+				Set<String> resultBindingNames = new HashSet<>(bindingNames.get(0));
+				for (int i = 1; i < n; i++) {
+					if (hashJoinArgs[i] != null) {
+						result = new HashJoinIteration(result, new HashSet<>(resultBindingNames),
+								hashJoinArgs[i].evaluate(bindings), bindingNames.get(i), false);
+					} else {
+						result = executeJoin(joinScheduler, result, join.getArg(i), join.getJoinVariables(i),
+								bindings, join.getQueryInfo());
+					}
+					resultBindingNames.addAll(bindingNames.get(i));
 				}
 				completed = true;
 			} finally {
@@ -528,6 +567,26 @@ public abstract class FederationEvalStrategy extends StrictEvaluationStrategy {
 
 	}
 
+	/**
+	 * Prepares an {@link NJoin} whose join order and join algorithms are chosen at runtime.
+	 *
+	 * @see FedXConfig#isEnableAdaptiveJoinOrder()
+	 */
+	private QueryEvaluationStep prepareAdaptiveNJoin(NJoin join, QueryEvaluationStep resultProvider,
+			QueryEvaluationContext context) throws QueryEvaluationException {
+
+		QueryEvaluationStep[] args = new QueryEvaluationStep[join.getNumberOfArguments()];
+		for (int i = 1; i < args.length; i++) {
+			args[i] = precompile(join.getArg(i), context);
+		}
+
+		FedXConfig config = federationContext.getConfig();
+		AdaptiveNJoinEvaluation evaluation = new AdaptiveNJoinEvaluation(this,
+				federationContext.getManager().getJoinScheduler(), join, args, config.getAdaptiveJoinSampleSize());
+
+		return bindings -> evaluation.evaluate(resultProvider.evaluate(bindings), bindings);
+	}
+
 	/**
 	 * Evaluate a {@link FedXLeftJoin} (i.e. an OPTIONAL clause)
 	 *
@@ -20,6 +20,7 @@ import org.eclipse.rdf4j.federated.endpoint.SparqlEndpointConfiguration;
 import org.eclipse.rdf4j.federated.evaluation.iterator.ConsumingIteration;
 import org.eclipse.rdf4j.federated.exception.ExceptionUtil;
 import org.eclipse.rdf4j.federated.structures.QueryInfo;
+import org.eclipse.rdf4j.federated.structures.QueryType;
 import org.eclipse.rdf4j.federated.util.FedXUtil;
 import org.eclipse.rdf4j.federated.util.QueryStringUtil;
 import org.eclipse.rdf4j.model.IRI;
@@ -108,7 +109,15 @@ public class SparqlTripleSource extends TripleSourceBase {
 				applyMaxExecutionTimeUpperBound(query);
 
 				monitorRemoteRequest();
-				return query.evaluate();
+				long start = System.nanoTime();
+				boolean failed = true;
+				try {
+					boolean res = query.evaluate();
+					failed = false;
+					return res;
+				} finally {
+					monitorRequest(QueryType.ASK, start, failed);
+				}
 			} catch (Throwable ex) {
 				// convert into QueryEvaluationException with additional info
 				throw ExceptionUtil.traceExceptionSourceAndRepair(endpoint, ex, "Subquery: " + queryString);
@@ -123,11 +132,17 @@ public class SparqlTripleSource extends TripleSourceBase {
 				applyMaxExecutionTimeUpperBound(query);
 
 				monitorRemoteRequest();
+				long start = System.nanoTime();
+				boolean failed = true;
 				try (TupleQueryResult qRes = query.evaluate()) {
-					return qRes.hasNext();
+					boolean res = qRes.hasNext();
+					failed = false;
+					return res;
 				} catch (Throwable ex) {
 					// convert into QueryEvaluationException with additional info
 					throw ExceptionUtil.traceExceptionSourceAndRepair(endpoint, ex, "Subquery: " + queryString);
+				} finally {
+					monitorRequest(QueryType.SELECT, start, failed);
 				}
 			}
 		}
@@ -151,12 +166,17 @@ public class SparqlTripleSource extends TripleSourceBase {
 				applyMaxExecutionTimeUpperBound(query);
 
 				monitorRemoteRequest();
+				long start = System.nanoTime();
+				boolean failed = true;
 				try (TupleQueryResult qRes = query.evaluate()) {
-
-					return qRes.hasNext();
+					boolean res = qRes.hasNext();
+					failed = false;
+					return res;
 				} catch (Throwable ex) {
 					// convert into QueryEvaluationException with additional info
 					throw ExceptionUtil.traceExceptionSourceAndRepair(endpoint, ex, "Subquery: " + queryString);
+				} finally {
+					monitorRequest(QueryType.SELECT, start, failed);
 				}
 			}
 		}
@@ -185,7 +205,7 @@ public class SparqlTripleSource extends TripleSourceBase {
 			Resource... contexts) throws RepositoryException,
 			MalformedQueryException, QueryEvaluationException {
 
-		return withConnection((conn, resultHolder) -> {
+		return withConnection(QueryType.GET_STATEMENTS, (conn, resultHolder) -> {
 			monitorRemoteRequest();
 			RepositoryResult<Statement> repoResult = null;
 			try {
@@ -17,6 +17,7 @@ import org.eclipse.rdf4j.common.iteration.EmptyIteration;
 import org.eclipse.rdf4j.federated.FederationContext;
 import org.eclipse.rdf4j.federated.algebra.ExclusiveTupleExpr;
 import org.eclipse.rdf4j.federated.algebra.FilterValueExpr;
+import org.eclipse.rdf4j.federated.cache.SubQueryResultCache;
 import org.eclipse.rdf4j.federated.endpoint.Endpoint;
 import org.eclipse.rdf4j.federated.evaluation.iterator.CloseDependentConnectionIteration;
 import org.eclipse.rdf4j.federated.evaluation.iterator.ConsumingIteration;
@@ -24,6 +25,7 @@ import org.eclipse.rdf4j.federated.evaluation.iterator.FilteringInsertBindingsIt
 import org.eclipse.rdf4j.federated.evaluation.iterator.FilteringIteration;
 import org.eclipse.rdf4j.federated.evaluation.iterator.GraphToBindingSetConversionIteration;
 import org.eclipse.rdf4j.federated.evaluation.iterator.InsertBindingsIteration;
+import org.eclipse.rdf4j.federated.evaluation.iterator.RequestMonitoringIteration;
 import org.eclipse.rdf4j.federated.evaluation.iterator.SingleBindingSetIteration;
 import org.eclipse.rdf4j.federated.exception.ExceptionUtil;
 import org.eclipse.rdf4j.federated.monitoring.Monitoring;
@@ -37,6 +39,7 @@ import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.GraphQuery;
 import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.MalformedQueryException;
@@ -72,7 +75,14 @@ public abstract class TripleSourceBase implements TripleSource {
 			throws RepositoryException, MalformedQueryException,
 			QueryEvaluationException {
 
-		return withConnection((conn, resultHolder) -> {
+		if (queryType == QueryType.SELECT && !queryInfo.getResultHandler().isPresent()) {
+			TupleQueryResult cached = getCachedResult(preparedQuery, queryBindings, queryInfo.getDataset(), queryInfo);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		return withConnection(queryType, (conn, resultHolder) -> {
 			QueryResult<?> evaluate = null;
 
 			final String baseURI = queryInfo.getBaseURI();
@@ -91,7 +101,8 @@ public abstract class TripleSourceBase implements TripleSource {
 						tQuery.evaluate(queryInfo.getResultHandler().get());
 						resultHolder.set(new EmptyIteration<>());
 					} else {
-						evaluate = tQuery.evaluate();
+						evaluate = cacheResult(tQuery.evaluate(), preparedQuery, queryBindings, queryInfo.getDataset(),
+								queryInfo);
 						resultHolder.set(((TupleQueryResult) evaluate));
 					}
 					return;
@@ -132,6 +143,49 @@ public abstract class TripleSourceBase implements TripleSource {
 		});
 	}
 
+	private CloseableIteration<BindingSet, QueryEvaluationException> filterAndInsertBindings(
+			CloseableIteration<BindingSet, QueryEvaluationException> res, BindingSet bindings,
+			FilterValueExpr filterExpr, QueryInfo queryInfo) {
+		if (filterExpr != null) {
+			if (bindings.size() > 0) {
+				return new FilteringInsertBindingsIteration(filterExpr, bindings, res, queryInfo.getStrategy());
+			}
+			return new FilteringIteration(filterExpr, res, queryInfo.getStrategy());
+		} else if (bindings.size() > 0) {
+			return new InsertBindingsIteration(res, bindings);
+		}
+		return res;
+	}
+
+	/**
+	 * Returns the result of the given subquery from the {@link SubQueryResultCache}, if the cache is enabled.
+	 *
+	 * @return the cached result, or <code>null</code>
+	 * @see FederationContext#getSubQueryResultCache()
+	 */
+	private TupleQueryResult getCachedResult(String preparedQuery, BindingSet queryBindings, Dataset dataset,
+			QueryInfo queryInfo) {
+		SubQueryResultCache cache = federationContext.getSubQueryResultCache();
+		if (cache == null) {
+			return null;
+		}
+		return cache.get(endpoint.getId(), preparedQuery, queryBindings, queryInfo.getIncludeInferred(), dataset);
+	}
+
+	/**
+	 * Wraps the result of the given subquery such that it is added to the {@link SubQueryResultCache}, if the cache is
+	 * enabled.
+	 */
+	private TupleQueryResult cacheResult(TupleQueryResult result, String preparedQuery, BindingSet queryBindings,
+			Dataset dataset, QueryInfo queryInfo) {
+		SubQueryResultCache cache = federationContext.getSubQueryResultCache();
+		if (cache == null) {
+			return result;
+		}
+		return cache.cache(endpoint.getId(), preparedQuery, queryBindings, queryInfo.getIncludeInferred(), dataset,
+				result);
+	}
+
 	private void applyBindings(Operation operation, BindingSet queryBindings) {
 		if (queryBindings == null) {
 			return;
@@ -147,7 +201,12 @@ public abstract class TripleSourceBase implements TripleSource {
 			throws RepositoryException, MalformedQueryException,
 			QueryEvaluationException {
 
-		return withConnection((conn, resultHolder) -> {
+		TupleQueryResult cached = getCachedResult(preparedQuery, EmptyBindingSet.getInstance(), null, queryInfo);
+		if (cached != null) {
+			return filterAndInsertBindings(cached, bindings, filterExpr, queryInfo);
+		}
+
+		return withConnection(QueryType.SELECT, (conn, resultHolder) -> {
 
 			TupleQuery query = conn.prepareTupleQuery(QueryLanguage.SPARQL, preparedQuery, null);
 			applyMaxExecutionTimeUpperBound(query);
@@ -157,26 +216,17 @@ public abstract class TripleSourceBase implements TripleSource {
 			monitorRemoteRequest();
 			CloseableIteration<BindingSet, QueryEvaluationException> res = null;
 			try {
-				res = query.evaluate();
+				res = cacheResult(query.evaluate(), preparedQuery, EmptyBindingSet.getInstance(), null, queryInfo);
 
 				resultHolder.set(res);
 
 				// apply filter and/or insert original bindings
-				if (filterExpr != null) {
-					if (bindings.size() > 0) {
-						res = new FilteringInsertBindingsIteration(filterExpr, bindings, res,
-								queryInfo.getStrategy());
-					} else {
-						res = new FilteringIteration(filterExpr, res, queryInfo.getStrategy());
-					}
-					if (!res.hasNext()) {
-						res.close();
-						conn.close();
-						resultHolder.set(new EmptyIteration<>());
-						return;
-					}
-				} else if (bindings.size() > 0) {
-					res = new InsertBindingsIteration(res, bindings);
+				res = filterAndInsertBindings(res, bindings, filterExpr, queryInfo);
+				if (filterExpr != null && !res.hasNext()) {
+					res.close();
+					conn.close();
+					resultHolder.set(new EmptyIteration<>());
+					return;
 				}
 
 				resultHolder.set(new ConsumingIteration(res, federationContext.getConfig().getConsumingIterationMax()));
@@ -204,13 +254,19 @@ public abstract class TripleSourceBase implements TripleSource {
 			QueryEvaluationException {
 
 		monitorRemoteRequest();
+		long start = System.nanoTime();
+		boolean failed = true;
 		String preparedAskQuery = QueryStringUtil.askQueryString(group, bindings, group.getQueryInfo().getDataset());
 		try (RepositoryConnection conn = endpoint.getConnection()) {
 			BooleanQuery query = conn.prepareBooleanQuery(QueryLanguage.SPARQL, preparedAskQuery);
 			query.setDataset(group.getQueryInfo().getDataset());
 			configureInference(query, group.getQueryInfo());
 			applyMaxExecutionTimeUpperBound(query);
-			return query.evaluate();
+			boolean res = query.evaluate();
+			failed = false;
+			return res;
+		} finally {
+			monitorRequest(QueryType.ASK, start, failed);
 		}
 	}
 
@@ -218,6 +274,17 @@ public abstract class TripleSourceBase implements TripleSource {
 		monitoringService.monitorRemoteRequest(endpoint);
 	}
 
+	/**
+	 * Reports a request that has been evaluated completely to the {@link Monitoring}, e.g. an ASK query.
+	 *
+	 * @param queryType  the type of the request
+	 * @param startNanos the {@link System#nanoTime()} at which the request was sent
+	 * @param failed     whether the request failed
+	 */
+	protected void monitorRequest(QueryType queryType, long startNanos, boolean failed) {
+		monitoringService.monitorRequest(endpoint, queryType, System.nanoTime() - startNanos, failed ? 0 : 1, failed);
+	}
+
 	private CloseableIteration<BindingSet, QueryEvaluationException> booleanToBindingSetIteration(boolean hasResult) {
 		if (hasResult) {
 			return new SingleBindingSetIteration(EmptyBindingSet.getInstance());
@@ -299,6 +366,31 @@ public abstract class TripleSourceBase implements TripleSource {
 		}
 	}
 
+	/**
+	 * Convenience method to perform a request to the endpoint, see {@link #withConnection(ConnectionOperation)}. If
+	 * monitoring is enabled, the latency and the number of results of the request are reported to the
+	 * {@link Monitoring} once the result is consumed or closed.
+	 *
+	 * @param queryType the type of the request
+	 * @param operation the operation that sends the request
+	 * @return the resulting iteration
+	 */
+	protected <T> CloseableIteration<T, QueryEvaluationException> withConnection(QueryType queryType,
+			ConnectionOperation<T> operation) {
+		if (!federationContext.getConfig().isEnableMonitoring()) {
+			return withConnection(operation);
+		}
+		long start = System.nanoTime();
+		CloseableIteration<T, QueryEvaluationException> res;
+		try {
+			res = withConnection(operation);
+		} catch (Throwable t) {
+			monitoringService.monitorRequest(endpoint, queryType, System.nanoTime() - start, 0, true);
+			throw t;
+		}
+		return new RequestMonitoringIteration<>(res, monitoringService, endpoint, queryType, start);
+	}
+
 	/**
 	 * Interface defining the operation to be perform on the connection
 	 *
@@ -18,6 +18,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.federated.FederationContext;
 import org.eclipse.rdf4j.federated.evaluation.join.ControlledWorkerBoundJoin;
 import org.eclipse.rdf4j.federated.evaluation.join.ControlledWorkerJoin;
 import org.eclipse.rdf4j.federated.evaluation.union.ControlledWorkerUnion;
@@ -71,6 +72,19 @@ public class ControlledWorkerScheduler<T> implements Scheduler<T>, TaskWrapperAw
 		this.executor = createExecutorService();
 	}
 
+	/**
+	 * Construct a new instance that runs its tasks on the given executor.
+	 *
+	 * @param nWorkers the number of workers, see {@link #getTotalNumberOfWorkers()}
+	 * @param name
+	 * @param executor the executor that runs the tasks, it is shut down together with this scheduler
+	 */
+	protected ControlledWorkerScheduler(int nWorkers, String name, ExecutorService executor) {
+		this.nWorkers = nWorkers;
+		this.name = name;
+		this.executor = executor;
+	}
+
 	/**
 	 * Schedule the specified parallel task.
 	 *
@@ -135,6 +149,32 @@ public class ControlledWorkerScheduler<T> implements Scheduler<T>, TaskWrapperAw
 		return executor;
 	}
 
+	/**
+	 * Performs the given task in a worker thread. The time the task waited since it was scheduled is reported to the
+	 * {@link org.eclipse.rdf4j.federated.monitoring.Monitoring} of the federation.
+	 *
+	 * @param task           the task
+	 * @param scheduledNanos the {@link System#nanoTime()} at which the task was scheduled
+	 * @return the result of {@link ParallelTask#performTask()}
+	 */
+	protected CloseableIteration<T, QueryEvaluationException> performTask(ParallelTask<T> task, long scheduledNanos)
+			throws Exception {
+		monitorQueueWait(task, scheduledNanos);
+		return task.performTask();
+	}
+
+	private void monitorQueueWait(ParallelTask<T> task, long scheduledNanos) {
+		String endpointId = task.getEndpointId();
+		if (endpointId == null) {
+			return;
+		}
+		FederationContext federationContext = task.getQueryInfo().getFederationContext();
+		if (federationContext != null) {
+			federationContext.getMonitoringService()
+					.monitorQueueWait(endpointId, name, System.nanoTime() - scheduledNanos);
+		}
+	}
+
 	@Override
 	public void abort() {
 		if (!executor.isTerminated()) {
@@ -202,6 +242,7 @@ public class ControlledWorkerScheduler<T> implements Scheduler<T>, TaskWrapperAw
 
 		private final ParallelTask<T> task;
 		private final ParallelExecutor<T> taskControl;
+		private final long scheduledNanos = System.nanoTime();
 
 		private volatile boolean aborted = false;
 
@@ -226,7 +267,7 @@ public class ControlledWorkerScheduler<T> implements Scheduler<T>, TaskWrapperAw
 					log.trace("Performing task " + task + " in " + Thread.currentThread().getName());
 				}
 
-				res = task.performTask();
+				res = performTask(task, scheduledNanos);
 				taskControl.addResult(res);
 				if (aborted) {
 					res.close();
@@ -40,6 +40,16 @@ public interface ParallelTask<T> {
 		return getControl().getQueryInfo();
 	}
 
+	/**
+	 * Returns the id of the endpoint that this task sends its request to. Schedulers may use it to limit the number of
+	 * concurrent requests per endpoint, see {@link VirtualThreadScheduler}.
+	 *
+	 * @return the endpoint id, or <code>null</code> if the task does not send its request to exactly one endpoint
+	 */
+	default String getEndpointId() {
+		return null;
+	}
+
 	/**
 	 * Optional implementation to cancel this task on a best effort basis
 	 */
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.evaluation.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ControlledWorkerScheduler} that runs every task on its own thread instead of a fixed pool of worker threads.
+ * The number of tasks that send requests to the same endpoint at the same time is limited by a semaphore per endpoint,
+ * see {@link ParallelTask#getEndpointId()}. Tasks without a single endpoint are not limited.
+ * <p>
+ * On Java 21 and later the tasks run on virtual threads, so that tasks blocked on remote I/O do not occupy platform
+ * threads. On older Java versions an unbounded pool of platform threads is used instead.
+ *
+ * @see FedXConfig#isEnableVirtualThreadScheduler()
+ */
+@Experimental
+public class VirtualThreadScheduler<T> extends ControlledWorkerScheduler<T> {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadScheduler.class);
+
+	private final Map<String, Semaphore> endpointPermits = new ConcurrentHashMap<>();
+
+	private final int maxConcurrentRequestsPerEndpoint;
+
+	private final AtomicInteger waitingTasks = new AtomicInteger();
+
+	/**
+	 * @param maxConcurrentRequestsPerEndpoint the maximal number of tasks that send requests to the same endpoint at
+	 *                                         the same time
+	 * @param name                             the name of the scheduler
+	 */
+	public VirtualThreadScheduler(int maxConcurrentRequestsPerEndpoint, String name) {
+		super(Integer.MAX_VALUE, name, createExecutorService(name));
+		if (maxConcurrentRequestsPerEndpoint < 1) {
+			throw new IllegalArgumentException(
+					"maxConcurrentRequestsPerEndpoint must be positive: " + maxConcurrentRequestsPerEndpoint);
+		}
+		this.maxConcurrentRequestsPerEndpoint = maxConcurrentRequestsPerEndpoint;
+	}
+
+	@Override
+	protected CloseableIteration<T, QueryEvaluationException> performTask(ParallelTask<T> task, long scheduledNanos)
+			throws Exception {
+		String endpointId = task.getEndpointId();
+		if (endpointId == null) {
+			return super.performTask(task, scheduledNanos);
+		}
+
+		Semaphore semaphore = endpointPermits.computeIfAbsent(endpointId,
+				id -> new Semaphore(maxConcurrentRequestsPerEndpoint, true));
+		waitingTasks.incrementAndGet();
+		try {
+			semaphore.acquire();
+		} finally {
+			waitingTasks.decrementAndGet();
+		}
+		try {
+			return super.performTask(task, scheduledNanos);
+		} finally {
+			semaphore.release();
+		}
+	}
+
+	/**
+	 * @return the number of tasks that wait for a permit of their endpoint
+	 */
+	@Override
+	public int getNumberOfTasks() {
+		return waitingTasks.get();
+	}
+
+	/**
+	 * @return the maximal number of concurrent requests per endpoint
+	 */
+	public int getMaxConcurrentRequestsPerEndpoint() {
+		return maxConcurrentRequestsPerEndpoint;
+	}
+
+	private static ExecutorService createExecutorService(String name) {
+		try {
+			// Executors.newVirtualThreadPerTaskExecutor() is only available since Java 21
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | UnsupportedOperationException e) {
+			log.debug("Virtual threads are not available, {} uses platform threads instead: {}", name,
+					e.getMessage());
+			return Executors.newCachedThreadPool(new NamingThreadFactory(name));
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.evaluation.iterator;
+
+import org.eclipse.rdf4j.common.iteration.AbstractCloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.monitoring.Monitoring;
+import org.eclipse.rdf4j.federated.structures.QueryType;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * A wrapping iteration that counts the results of a request to an endpoint and reports the request to the
+ * {@link Monitoring} once the result is exhausted, fails or is closed.
+ *
+ * @see Monitoring#monitorRequest(Endpoint, QueryType, long, long, boolean)
+ */
+public class RequestMonitoringIteration<T> extends AbstractCloseableIteration<T, QueryEvaluationException> {
+
+	private final CloseableIteration<T, QueryEvaluationException> inner;
+	private final Monitoring monitoring;
+	private final Endpoint endpoint;
+	private final QueryType queryType;
+	private final long startNanos;
+
+	private long results = 0;
+	private boolean failed = false;
+	private boolean reported = false;
+
+	/**
+	 * @param inner      the result of the request
+	 * @param monitoring the monitoring the request is reported to
+	 * @param endpoint   the endpoint the request was sent to
+	 * @param queryType  the type of the request
+	 * @param startNanos the {@link System#nanoTime()} at which the request was sent
+	 */
+	public RequestMonitoringIteration(CloseableIteration<T, QueryEvaluationException> inner, Monitoring monitoring,
+			Endpoint endpoint, QueryType queryType, long startNanos) {
+		this.inner = inner;
+		this.monitoring = monitoring;
+		this.endpoint = endpoint;
+		this.queryType = queryType;
+		this.startNanos = startNanos;
+	}
+
+	@Override
+	public boolean hasNext() throws QueryEvaluationException {
+		try {
+			boolean res = inner.hasNext();
+			if (!res) {
+				report();
+			}
+			return res;
+		} catch (Throwable t) {
+			failed = true;
+			report();
+			throw t;
+		}
+	}
+
+	@Override
+	public T next() throws QueryEvaluationException {
+		try {
+			T next = inner.next();
+			results++;
+			return next;
+		} catch (Throwable t) {
+			failed = true;
+			report();
+			throw t;
+		}
+	}
+
+	@Override
+	public void remove() throws QueryEvaluationException {
+		inner.remove();
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			inner.close();
+		} finally {
+			report();
+		}
+	}
+
+	private void report() {
+		if (!reported) {
+			reported = true;
+			monitoring.monitorRequest(endpoint, queryType, System.nanoTime() - startNanos, results, failed);
+		}
+	}
+}
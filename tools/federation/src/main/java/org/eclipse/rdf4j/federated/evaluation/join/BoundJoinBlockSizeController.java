@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.evaluation.join;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.IterationWrapper;
+import org.eclipse.rdf4j.federated.EndpointManager;
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.federated.algebra.StatementSource;
+import org.eclipse.rdf4j.federated.algebra.StatementTupleExpr;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.monitoring.Monitoring;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the block size of bound joins per endpoint from the observed round trip times, result sizes and errors.
+ * <p>
+ * Each endpoint starts with {@link FedXConfig#getBoundJoinBlockSize()}. After {@link #SAMPLES_PER_STEP} complete blocks
+ * the throughput (bindings per millisecond of round trip time) is compared to the throughput of the previous block
+ * size: the block size grows as long as the throughput improves and falls back to the previous block size otherwise. A
+ * failed request or a round trip time far above the average halves the block size.
+ * <p>
+ * The block size of a statement with several sources is the smallest block size of its endpoints. Every change of a
+ * block size is reported to {@link Monitoring#monitorBoundJoinBlockSize(Endpoint, int)}.
+ *
+ * @see FedXConfig#isEnableAdaptiveBoundJoinBlockSize()
+ */
+@Experimental
+public class BoundJoinBlockSizeController {
+
+	private static final Logger log = LoggerFactory.getLogger(BoundJoinBlockSizeController.class);
+
+	/**
+	 * The number of complete blocks that are measured before the block size is changed.
+	 */
+	static final int SAMPLES_PER_STEP = 3;
+
+	/**
+	 * A round trip that takes this many times longer than the average round trip is treated as a latency spike.
+	 */
+	static final double LATENCY_SPIKE_FACTOR = 4.0;
+
+	/**
+	 * The minimal relative improvement of the throughput for which the block size keeps growing.
+	 */
+	static final double MIN_IMPROVEMENT = 0.1;
+
+	private final Map<String, BlockSize> blockSizes = new ConcurrentHashMap<>();
+
+	private final int initialBlockSize;
+
+	private final int maxBlockSize;
+
+	private final EndpointManager endpointManager;
+
+	private final Monitoring monitoring;
+
+	public BoundJoinBlockSizeController(FedXConfig config, EndpointManager endpointManager, Monitoring monitoring) {
+		this.maxBlockSize = Math.max(1, config.getMaxBoundJoinBlockSize());
+		this.initialBlockSize = Math.max(1, Math.min(config.getBoundJoinBlockSize(), maxBlockSize));
+		this.endpointManager = endpointManager;
+		this.monitoring = monitoring;
+	}
+
+	/**
+	 * Returns the number of bindings to send in a single bound join request for the given statement.
+	 *
+	 * @param stmt the right argument of the bound join
+	 * @return the smallest block size of the sources of the statement
+	 */
+	public int getBlockSize(StatementTupleExpr stmt) {
+		List<StatementSource> sources = stmt.getStatementSources();
+		if (sources.isEmpty()) {
+			return initialBlockSize;
+		}
+		int blockSize = Integer.MAX_VALUE;
+		for (StatementSource source : sources) {
+			blockSize = Math.min(blockSize, getBlockSize(source.getEndpointID()));
+		}
+		return blockSize;
+	}
+
+	/**
+	 * Returns the current block size of the given endpoint.
+	 *
+	 * @param endpointId the {@link Endpoint#getId() id} of the endpoint
+	 * @return the block size
+	 */
+	public int getBlockSize(String endpointId) {
+		BlockSize blockSize = blockSizes.get(endpointId);
+		return blockSize == null ? initialBlockSize : blockSize.get();
+	}
+
+	/**
+	 * Evaluates a block of a bound join and records its round trip time, its result size and whether it failed. The
+	 * round trip time is the time until the evaluation returns its result iteration, the measurement is recorded when
+	 * that iteration is closed.
+	 *
+	 * @param stmt       the right argument of the bound join
+	 * @param nBindings  the number of bindings in the block
+	 * @param evaluation evaluates the block
+	 * @return the results of the evaluation
+	 */
+	public CloseableIteration<BindingSet, QueryEvaluationException> measure(StatementTupleExpr stmt, int nBindings,
+			Callable<CloseableIteration<BindingSet, QueryEvaluationException>> evaluation) throws Exception {
+		long start = System.nanoTime();
+		CloseableIteration<BindingSet, QueryEvaluationException> result;
+		try {
+			result = evaluation.call();
+		} catch (Exception e) {
+			if (!Thread.currentThread().isInterrupted()) {
+				recordFailure(stmt);
+			}
+			throw e;
+		}
+		return new MeasuringIteration(result, stmt, nBindings, System.nanoTime() - start);
+	}
+
+	void recordSuccess(StatementTupleExpr stmt, int nBindings, long roundTripNanos, long results) {
+		for (StatementSource source : stmt.getStatementSources()) {
+			BlockSize blockSize = getOrCreate(source.getEndpointID());
+			int changed = blockSize.onSuccess(nBindings, roundTripNanos);
+			if (changed > 0) {
+				log.debug("Changed bound join block size of endpoint {} to {} (round trip: {}ms, results: {})",
+						source.getEndpointID(), changed, roundTripNanos / 1_000_000, results);
+				monitorBlockSize(source.getEndpointID(), changed);
+			}
+		}
+	}
+
+	void recordFailure(StatementTupleExpr stmt) {
+		for (StatementSource source : stmt.getStatementSources()) {
+			int changed = getOrCreate(source.getEndpointID()).onFailure();
+			if (changed > 0) {
+				log.debug("Reduced bound join block size of endpoint {} to {} after a failed request",
+						source.getEndpointID(), changed);
+				monitorBlockSize(source.getEndpointID(), changed);
+			}
+		}
+	}
+
+	private BlockSize getOrCreate(String endpointId) {
+		return blockSizes.computeIfAbsent(endpointId, id -> new BlockSize(initialBlockSize, maxBlockSize));
+	}
+
+	private void monitorBlockSize(String endpointId, int blockSize) {
+		Endpoint endpoint = endpointManager.getEndpoint(endpointId);
+		if (endpoint != null) {
+			monitoring.monitorBoundJoinBlockSize(endpoint, blockSize);
+		}
+	}
+
+	/**
+	 * The block size of a single endpoint.
+	 */
+	static class BlockSize {
+
+		private final int maxBlockSize;
+
+		private int blockSize;
+
+		/**
+		 * The block size that was used before the current one, it is restored if the throughput did not improve.
+		 */
+		private int previousBlockSize;
+
+		/**
+		 * The average throughput of the previous block size, in bindings per millisecond.
+		 */
+		private double previousThroughput;
+
+		private double throughputSum;
+
+		private int samples;
+
+		/**
+		 * The moving average of the round trip time of complete blocks, in milliseconds.
+		 */
+		private double averageRoundTrip = -1;
+
+		BlockSize(int initialBlockSize, int maxBlockSize) {
+			this.blockSize = initialBlockSize;
+			this.previousBlockSize = initialBlockSize;
+			this.maxBlockSize = maxBlockSize;
+		}
+
+		synchronized int get() {
+			return blockSize;
+		}
+
+		/**
+		 * @return the new block size, or -1 if it did not change
+		 */
+		synchronized int onSuccess(int nBindings, long roundTripNanos) {
+			if (nBindings != blockSize) {
+				// the first and the last blocks of a join, and blocks sent before the last change, say nothing about
+				// the current block size
+				return -1;
+			}
+			double roundTrip = Math.max(roundTripNanos / 1_000_000.0, 0.001);
+
+			if (averageRoundTrip > 0 && roundTrip > averageRoundTrip * LATENCY_SPIKE_FACTOR) {
+				averageRoundTrip = roundTrip;
+				return shrink();
+			}
+			averageRoundTrip = averageRoundTrip < 0 ? roundTrip : 0.8 * averageRoundTrip + 0.2 * roundTrip;
+
+			throughputSum += nBindings / roundTrip;
+			if (++samples < SAMPLES_PER_STEP) {
+				return -1;
+			}
+			double throughput = throughputSum / samples;
+			throughputSum = 0;
+			samples = 0;
+
+			if (throughput >= previousThroughput * (1 + MIN_IMPROVEMENT)) {
+				previousThroughput = throughput;
+				previousBlockSize = blockSize;
+				return changeTo(Math.min(maxBlockSize, (int) Math.ceil(blockSize * 1.5)));
+			}
+			// larger blocks did not pay off
+			previousThroughput = throughput;
+			return changeTo(previousBlockSize);
+		}
+
+		/**
+		 * @return the new block size, or -1 if it did not change
+		 */
+		synchronized int onFailure() {
+			return shrink();
+		}
+
+		private int shrink() {
+			throughputSum = 0;
+			samples = 0;
+			previousThroughput = 0;
+			previousBlockSize = Math.max(1, blockSize / 2);
+			return changeTo(previousBlockSize);
+		}
+
+		private int changeTo(int newBlockSize) {
+			if (newBlockSize == blockSize) {
+				return -1;
+			}
+			blockSize = newBlockSize;
+			return blockSize;
+		}
+	}
+
+	/**
+	 * Counts the results of a block and records the measurement once the results are closed.
+	 */
+	private class MeasuringIteration extends IterationWrapper<BindingSet, QueryEvaluationException> {
+
+		private final StatementTupleExpr stmt;
+
+		private final int nBindings;
+
+		private final long roundTripNanos;
+
+		private long results;
+
+		private boolean failed;
+
+		MeasuringIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter, StatementTupleExpr stmt,
+				int nBindings, long roundTripNanos) {
+			super(iter);
+			this.stmt = stmt;
+			this.nBindings = nBindings;
+			this.roundTripNanos = roundTripNanos;
+		}
+
+		@Override
+		public boolean hasNext() throws QueryEvaluationException {
+			try {
+				return super.hasNext();
+			} catch (QueryEvaluationException e) {
+				failed = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public BindingSet next() throws QueryEvaluationException {
+			BindingSet next = super.next();
+			results++;
+			return next;
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				super.handleClose();
+			} finally {
+				if (failed) {
+					recordFailure(stmt);
+				} else {
+					recordSuccess(stmt, nBindings, roundTripNanos, results);
+				}
+			}
+		}
+	}
+}
@@ -67,6 +67,8 @@ public class ControlledWorkerBoundJoin extends ControlledWorkerJoin {
 		}
 
 		int nBindingsCfg = this.queryInfo.getFederationContext().getConfig().getBoundJoinBlockSize();
+		BoundJoinBlockSizeController blockSizeController = this.queryInfo.getFederationContext()
+				.getBoundJoinBlockSizeController();
 		int totalBindings = 0; // the total number of bindings
 		TupleExpr expr = rightArg;
 
@@ -80,12 +82,15 @@ public class ControlledWorkerBoundJoin extends ControlledWorkerJoin {
 			if (expr instanceof StatementTupleExpr) {
 				StatementTupleExpr stmt = (StatementTupleExpr) expr;
 				if (stmt.hasFreeVarsFor(b)) {
-					taskCreator = new BoundJoinTaskCreator(strategy, stmt);
+					taskCreator = new BoundJoinTaskCreator(strategy, stmt, blockSizeController);
 				} else {
 					expr = new CheckStatementPattern(stmt, queryInfo);
-					taskCreator = new CheckJoinTaskCreator(strategy, (CheckStatementPattern) expr);
+					taskCreator = new CheckJoinTaskCreator(strategy, (CheckStatementPattern) expr,
+							blockSizeController);
 				}
 			} else if (expr instanceof FedXService) {
+				// SERVICE requests are not measured, they use the configured block size
+				blockSizeController = null;
 				taskCreator = new FedXServiceJoinTaskCreator(strategy, (FedXService) expr);
 			} else {
 				throw new RuntimeException("Expr is of unexpected type: " + expr.getClass().getCanonicalName()
@@ -107,17 +112,14 @@ public class ControlledWorkerBoundJoin extends ControlledWorkerJoin {
 			}
 
 			/*
-			 * XXX idea:
-			 *
-			 * make nBindings dependent on the number of intermediate results of the left argument.
-			 *
-			 * If many intermediate results, increase the number of bindings. This will result in less remote SPARQL
-			 * requests.
-			 *
+			 * the block size is either fixed or chosen per endpoint from the observed round trips, see
+			 * FedXConfig#isEnableAdaptiveBoundJoinBlockSize()
 			 */
 
 			if (totalBindings > 10) {
-				nBindings = nBindingsCfg;
+				nBindings = blockSizeController != null
+						? blockSizeController.getBlockSize((StatementTupleExpr) expr)
+						: nBindingsCfg;
 			} else {
 				nBindings = 3;
 			}
@@ -183,34 +185,50 @@ public class ControlledWorkerBoundJoin extends ControlledWorkerJoin {
 	protected class BoundJoinTaskCreator implements TaskCreator {
 		protected final FederationEvalStrategy _strategy;
 		protected final StatementTupleExpr _expr;
+		protected final BoundJoinBlockSizeController _blockSizeController;
 
 		public BoundJoinTaskCreator(
 				FederationEvalStrategy strategy, StatementTupleExpr expr) {
+			this(strategy, expr, null);
+		}
+
+		public BoundJoinTaskCreator(
+				FederationEvalStrategy strategy, StatementTupleExpr expr,
+				BoundJoinBlockSizeController blockSizeController) {
 			super();
 			_strategy = strategy;
 			_expr = expr;
+			_blockSizeController = blockSizeController;
 		}
 
 		@Override
 		public ParallelTask<BindingSet> getTask(ParallelExecutor<BindingSet> control, List<BindingSet> bindings) {
-			return new ParallelBoundJoinTask(control, _strategy, _expr, bindings);
+			return new ParallelBoundJoinTask(control, _strategy, _expr, bindings, _blockSizeController);
 		}
 	}
 
 	protected class CheckJoinTaskCreator implements TaskCreator {
 		protected final FederationEvalStrategy _strategy;
 		protected final CheckStatementPattern _expr;
+		protected final BoundJoinBlockSizeController _blockSizeController;
 
 		public CheckJoinTaskCreator(
 				FederationEvalStrategy strategy, CheckStatementPattern expr) {
+			this(strategy, expr, null);
+		}
+
+		public CheckJoinTaskCreator(
+				FederationEvalStrategy strategy, CheckStatementPattern expr,
+				BoundJoinBlockSizeController blockSizeController) {
 			super();
 			_strategy = strategy;
 			_expr = expr;
+			_blockSizeController = blockSizeController;
 		}
 
 		@Override
 		public ParallelTask<BindingSet> getTask(ParallelExecutor<BindingSet> control, List<BindingSet> bindings) {
-			return new ParallelCheckJoinTask(control, _strategy, _expr, bindings);
+			return new ParallelCheckJoinTask(control, _strategy, _expr, bindings, _blockSizeController);
 		}
 	}
 
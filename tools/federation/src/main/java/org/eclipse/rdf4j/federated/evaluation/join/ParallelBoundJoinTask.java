@@ -13,6 +13,7 @@ package org.eclipse.rdf4j.federated.evaluation.join;
 import java.util.List;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.federated.algebra.StatementSource;
 import org.eclipse.rdf4j.federated.algebra.StatementTupleExpr;
 import org.eclipse.rdf4j.federated.evaluation.FederationEvalStrategy;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.ParallelExecutor;
@@ -33,17 +34,31 @@ public class ParallelBoundJoinTask extends ParallelTaskBase<BindingSet> {
 	protected final StatementTupleExpr expr;
 	protected final List<BindingSet> bindings;
 	protected final ParallelExecutor<BindingSet> joinControl;
+	protected final BoundJoinBlockSizeController blockSizeController;
 
 	public ParallelBoundJoinTask(ParallelExecutor<BindingSet> joinControl, FederationEvalStrategy strategy,
 			StatementTupleExpr expr, List<BindingSet> bindings) {
+		this(joinControl, strategy, expr, bindings, null);
+	}
+
+	/**
+	 * @param blockSizeController records the round trip of this task, may be <code>null</code>
+	 */
+	public ParallelBoundJoinTask(ParallelExecutor<BindingSet> joinControl, FederationEvalStrategy strategy,
+			StatementTupleExpr expr, List<BindingSet> bindings, BoundJoinBlockSizeController blockSizeController) {
 		this.strategy = strategy;
 		this.expr = expr;
 		this.bindings = bindings;
 		this.joinControl = joinControl;
+		this.blockSizeController = blockSizeController;
 	}
 
 	@Override
 	protected CloseableIteration<BindingSet, QueryEvaluationException> performTaskInternal() throws Exception {
+		if (blockSizeController != null) {
+			return blockSizeController.measure(expr, bindings.size(),
+					() -> strategy.evaluateBoundJoinStatementPattern(expr, bindings));
+		}
 		return strategy.evaluateBoundJoinStatementPattern(expr, bindings);
 	}
 
@@ -52,4 +67,10 @@ public class ParallelBoundJoinTask extends ParallelTaskBase<BindingSet> {
 		return joinControl;
 	}
 
+	@Override
+	public String getEndpointId() {
+		List<StatementSource> sources = expr.getStatementSources();
+		return sources.size() == 1 ? sources.get(0).getEndpointID() : null;
+	}
+
 }
@@ -14,6 +14,7 @@ import java.util.List;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.federated.algebra.CheckStatementPattern;
+import org.eclipse.rdf4j.federated.algebra.StatementSource;
 import org.eclipse.rdf4j.federated.evaluation.FederationEvalStrategy;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.ParallelExecutor;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.ParallelTaskBase;
@@ -32,17 +33,31 @@ public class ParallelCheckJoinTask extends ParallelTaskBase<BindingSet> {
 	protected final CheckStatementPattern expr;
 	protected final List<BindingSet> bindings;
 	protected final ParallelExecutor<BindingSet> joinControl;
+	protected final BoundJoinBlockSizeController blockSizeController;
 
 	public ParallelCheckJoinTask(ParallelExecutor<BindingSet> joinControl, FederationEvalStrategy strategy,
 			CheckStatementPattern expr, List<BindingSet> bindings) {
+		this(joinControl, strategy, expr, bindings, null);
+	}
+
+	/**
+	 * @param blockSizeController records the round trip of this task, may be <code>null</code>
+	 */
+	public ParallelCheckJoinTask(ParallelExecutor<BindingSet> joinControl, FederationEvalStrategy strategy,
+			CheckStatementPattern expr, List<BindingSet> bindings, BoundJoinBlockSizeController blockSizeController) {
 		this.strategy = strategy;
 		this.expr = expr;
 		this.bindings = bindings;
 		this.joinControl = joinControl;
+		this.blockSizeController = blockSizeController;
 	}
 
 	@Override
 	protected CloseableIteration<BindingSet, QueryEvaluationException> performTaskInternal() throws Exception {
+		if (blockSizeController != null) {
+			return blockSizeController.measure(expr, bindings.size(),
+					() -> strategy.evaluateGroupedCheck(expr, bindings));
+		}
 		return strategy.evaluateGroupedCheck(expr, bindings);
 	}
 
@@ -50,4 +65,10 @@ public class ParallelCheckJoinTask extends ParallelTaskBase<BindingSet> {
 	public ParallelExecutor<BindingSet> getControl() {
 		return joinControl;
 	}
+
+	@Override
+	public String getEndpointId() {
+		List<StatementSource> sources = expr.getStatementSources();
+		return sources.size() == 1 ? sources.get(0).getEndpointID() : null;
+	}
 }
@@ -11,6 +11,7 @@
 package org.eclipse.rdf4j.federated.evaluation.join;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.federated.algebra.ExclusiveTupleExpr;
 import org.eclipse.rdf4j.federated.evaluation.FederationEvalStrategy;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.ParallelExecutor;
 import org.eclipse.rdf4j.federated.evaluation.concurrent.ParallelTaskBase;
@@ -47,4 +48,12 @@ public class ParallelJoinTask extends ParallelTaskBase<BindingSet> {
 	public ParallelExecutor<BindingSet> getControl() {
 		return joinControl;
 	}
+
+	@Override
+	public String getEndpointId() {
+		if (expr instanceof ExclusiveTupleExpr) {
+			return ((ExclusiveTupleExpr) expr).getOwner().getEndpointID();
+		}
+		return null;
+	}
 }
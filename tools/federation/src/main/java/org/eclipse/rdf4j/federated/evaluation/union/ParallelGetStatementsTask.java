@@ -58,6 +58,11 @@ public class ParallelGetStatementsTask extends ParallelTaskBase<Statement> {
 		return unionControl;
 	}
 
+	@Override
+	public String getEndpointId() {
+		return endpoint.getId();
+	}
+
 	@Override
 	protected CloseableIteration<Statement, QueryEvaluationException> performTaskInternal() throws Exception {
 		TripleSource tripleSource = endpoint.getTripleSource();
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.monitoring;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.federated.structures.QueryType;
+
+/**
+ * The request latencies, result counts and scheduler waiting times of a single endpoint, see
+ * {@link EndpointMetricsRegistry}.
+ */
+@Experimental
+public class EndpointMetrics implements EndpointMetricsMXBean {
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final String endpointId;
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	private final Map<QueryType, LatencyHistogram> latencyByType = new ConcurrentHashMap<>();
+
+	private final Map<String, LatencyHistogram> queueWaitByScheduler = new ConcurrentHashMap<>();
+
+	private final LongAdder failedRequests = new LongAdder();
+
+	private final LongAdder results = new LongAdder();
+
+	public EndpointMetrics(String endpointId) {
+		this.endpointId = endpointId;
+	}
+
+	void recordRequest(QueryType queryType, long durationNanos, long results, boolean failed) {
+		latency.record(durationNanos);
+		latencyByType.computeIfAbsent(queryType, t -> new LatencyHistogram()).record(durationNanos);
+		this.results.add(results);
+		if (failed) {
+			failedRequests.increment();
+		}
+	}
+
+	void recordQueueWait(String scheduler, long waitNanos) {
+		queueWaitByScheduler.computeIfAbsent(scheduler, s -> new LatencyHistogram()).record(waitNanos);
+	}
+
+	/**
+	 * @return the latencies of all requests in nanoseconds
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @param queryType the type of the requests
+	 * @return the latencies of the requests of the given type in nanoseconds, <code>null</code> if there was none
+	 */
+	public LatencyHistogram getLatency(QueryType queryType) {
+		return latencyByType.get(queryType);
+	}
+
+	/**
+	 * @param scheduler the name of the scheduler
+	 * @return the waiting times of the tasks in the given scheduler in nanoseconds, <code>null</code> if there was none
+	 */
+	public LatencyHistogram getQueueWait(String scheduler) {
+		return queueWaitByScheduler.get(scheduler);
+	}
+
+	@Override
+	public String getEndpointId() {
+		return endpointId;
+	}
+
+	@Override
+	public long getRequestCount() {
+		return latency.getCount();
+	}
+
+	@Override
+	public long getFailedRequestCount() {
+		return failedRequests.sum();
+	}
+
+	@Override
+	public long getResultCount() {
+		return results.sum();
+	}
+
+	@Override
+	public double getMeanLatencyMillis() {
+		return latency.getMean() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getLatencyMillisP50() {
+		return toMillis(latency.getPercentile(0.5));
+	}
+
+	@Override
+	public double getLatencyMillisP99() {
+		return toMillis(latency.getPercentile(0.99));
+	}
+
+	@Override
+	public double getMaxLatencyMillis() {
+		return toMillis(latency.getMax());
+	}
+
+	@Override
+	public Map<String, Long> getRequestCountByType() {
+		Map<String, Long> result = new TreeMap<>();
+		latencyByType.forEach((type, histogram) -> result.put(type.name(), histogram.getCount()));
+		return result;
+	}
+
+	@Override
+	public Map<String, Double> getLatencyMillisP99ByType() {
+		Map<String, Double> result = new TreeMap<>();
+		latencyByType.forEach((type, histogram) -> result.put(type.name(), toMillis(histogram.getPercentile(0.99))));
+		return result;
+	}
+
+	@Override
+	public Map<String, Double> getQueueWaitMillisP50ByScheduler() {
+		return queueWaitMillis(h -> h.getPercentile(0.5));
+	}
+
+	@Override
+	public Map<String, Double> getQueueWaitMillisP99ByScheduler() {
+		return queueWaitMillis(h -> h.getPercentile(0.99));
+	}
+
+	@Override
+	public void reset() {
+		latency.reset();
+		latencyByType.clear();
+		queueWaitByScheduler.clear();
+		failedRequests.reset();
+		results.reset();
+	}
+
+	@Override
+	public String toString() {
+		return endpointId + " => requests: " + getRequestCount() + ", failed: " + getFailedRequestCount()
+				+ ", results: " + getResultCount() + ", p50: " + getLatencyMillisP50() + " ms, p99: "
+				+ getLatencyMillisP99() + " ms";
+	}
+
+	private Map<String, Double> queueWaitMillis(ToLongFunction<LatencyHistogram> value) {
+		Map<String, Double> result = new TreeMap<>();
+		queueWaitByScheduler.forEach((scheduler, histogram) -> result.put(scheduler,
+				toMillis(value.applyAsLong(histogram))));
+		return result;
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / NANOS_PER_MILLI;
+	}
+}
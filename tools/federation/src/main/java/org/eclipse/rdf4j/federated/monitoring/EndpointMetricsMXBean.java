@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.monitoring;
+
+import java.util.Map;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+
+/**
+ * JMX view of the {@link EndpointMetrics} of a single endpoint. Durations are reported in milliseconds, maps are keyed
+ * by the request type or the scheduler name.
+ */
+@Experimental
+public interface EndpointMetricsMXBean {
+
+	String getEndpointId();
+
+	long getRequestCount();
+
+	long getFailedRequestCount();
+
+	long getResultCount();
+
+	double getMeanLatencyMillis();
+
+	double getLatencyMillisP50();
+
+	double getLatencyMillisP99();
+
+	double getMaxLatencyMillis();
+
+	Map<String, Long> getRequestCountByType();
+
+	Map<String, Double> getLatencyMillisP99ByType();
+
+	Map<String, Double> getQueueWaitMillisP50ByScheduler();
+
+	Map<String, Double> getQueueWaitMillisP99ByScheduler();
+
+	void reset();
+}
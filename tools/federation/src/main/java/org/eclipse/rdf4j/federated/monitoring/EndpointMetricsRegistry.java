@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.federated.structures.QueryType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The default {@link MetricsRegistry}, which keeps {@link EndpointMetrics} per endpoint in memory.
+ * <p>
+ * If a JMX name is given, the metrics of each endpoint are registered with the platform MBean server as
+ * <code>org.eclipse.rdf4j.federated:type=EndpointMetrics,federation=&lt;name&gt;,endpoint=&lt;endpoint id&gt;</code>
+ * and unregistered when the federation is shut down.
+ *
+ * @see FedXConfig#withMetricsJmxName(String)
+ */
+@Experimental
+public class EndpointMetricsRegistry implements MetricsRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(EndpointMetricsRegistry.class);
+
+	static final String JMX_DOMAIN = "org.eclipse.rdf4j.federated";
+
+	private final Map<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+	private final String jmxName;
+
+	private final List<ObjectName> registeredNames = new ArrayList<>();
+
+	/**
+	 * @param jmxName the name of the federation in the JMX object names, <code>null</code> to disable JMX
+	 */
+	public EndpointMetricsRegistry(String jmxName) {
+		this.jmxName = jmxName;
+	}
+
+	@Override
+	public void recordRequest(String endpointId, QueryType queryType, long durationNanos, long results,
+			boolean failed) {
+		getOrCreate(endpointId).recordRequest(queryType, durationNanos, results, failed);
+	}
+
+	@Override
+	public void recordQueueWait(String endpointId, String scheduler, long waitNanos) {
+		getOrCreate(endpointId).recordQueueWait(scheduler, waitNanos);
+	}
+
+	/**
+	 * @param endpointId the id of the endpoint
+	 * @return the metrics of the endpoint, <code>null</code> if nothing was recorded for it
+	 */
+	public EndpointMetrics getEndpointMetrics(String endpointId) {
+		return metrics.get(endpointId);
+	}
+
+	/**
+	 * @return the metrics of all endpoints for which something was recorded
+	 */
+	public List<EndpointMetrics> getAllEndpointMetrics() {
+		return new ArrayList<>(metrics.values());
+	}
+
+	@Override
+	public void reset() {
+		// keep the instances, they may be registered with JMX
+		metrics.values().forEach(EndpointMetrics::reset);
+	}
+
+	@Override
+	public synchronized void shutDown() {
+		if (registeredNames.isEmpty()) {
+			return;
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName name : registeredNames) {
+			try {
+				server.unregisterMBean(name);
+			} catch (JMException e) {
+				log.debug("Failed to unregister {}: {}", name, e.getMessage());
+			}
+		}
+		registeredNames.clear();
+	}
+
+	private EndpointMetrics getOrCreate(String endpointId) {
+		EndpointMetrics m = metrics.get(endpointId);
+		if (m == null) {
+			m = metrics.computeIfAbsent(endpointId, id -> {
+				EndpointMetrics created = new EndpointMetrics(id);
+				if (jmxName != null) {
+					register(created);
+				}
+				return created;
+			});
+		}
+		return m;
+	}
+
+	private synchronized void register(EndpointMetrics endpointMetrics) {
+		try {
+			ObjectName name = objectName(jmxName, endpointMetrics.getEndpointId());
+			ManagementFactory.getPlatformMBeanServer().registerMBean(endpointMetrics, name);
+			registeredNames.add(name);
+		} catch (JMException e) {
+			log.warn("Failed to register the metrics of endpoint {} with JMX: {}", endpointMetrics.getEndpointId(),
+					e.getMessage());
+			log.debug("Details:", e);
+		}
+	}
+
+	static ObjectName objectName(String jmxName, String endpointId) throws JMException {
+		return new ObjectName(JMX_DOMAIN + ":type=EndpointMetrics,federation=" + ObjectName.quote(jmxName)
+				+ ",endpoint=" + ObjectName.quote(endpointId));
+	}
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.monitoring;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.federated.structures.QueryType;
+
+/**
+ * Receives the metrics of the requests that FedX sends to the federation members, e.g. to forward them to a metrics
+ * library. Implementations are called from many threads concurrently and must not block.
+ * <p>
+ * By default the metrics are kept in an {@link EndpointMetricsRegistry}, a custom registry can be configured with
+ * {@link FedXConfig#withMetricsRegistry(MetricsRegistry)}. Metrics are only recorded if monitoring is enabled.
+ *
+ * @see FedXConfig#isEnableMonitoring()
+ */
+@Experimental
+public interface MetricsRegistry {
+
+	/**
+	 * Records a request to an endpoint once its result has been consumed or closed.
+	 *
+	 * @param endpointId    the id of the endpoint
+	 * @param queryType     the type of the request
+	 * @param durationNanos the time from sending the request until its result was closed, in nanoseconds
+	 * @param results       the number of results that were read
+	 * @param failed        whether the request or reading its result failed
+	 */
+	void recordRequest(String endpointId, QueryType queryType, long durationNanos, long results, boolean failed);
+
+	/**
+	 * Records the time a task waited in a scheduler before it started to send its request to an endpoint.
+	 *
+	 * @param endpointId the id of the endpoint
+	 * @param scheduler  the name of the scheduler, e.g. "Join Scheduler"
+	 * @param waitNanos  the waiting time in nanoseconds
+	 */
+	void recordQueueWait(String endpointId, String scheduler, long waitNanos);
+
+	/**
+	 * Clears the recorded metrics.
+	 */
+	default void reset() {
+	}
+
+	/**
+	 * Releases the resources of this registry when the federation is shut down.
+	 */
+	default void shutDown() {
+	}
+}
@@ -12,15 +12,53 @@ package org.eclipse.rdf4j.federated.monitoring;
 
 import org.eclipse.rdf4j.federated.endpoint.Endpoint;
 import org.eclipse.rdf4j.federated.structures.QueryInfo;
+import org.eclipse.rdf4j.federated.structures.QueryType;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
 
 public interface Monitoring {
 
 	void monitorRemoteRequest(Endpoint e);
 
+	/**
+	 * Records the block size that bound joins currently use for the given endpoint.
+	 *
+	 * @param e         the endpoint
+	 * @param blockSize the number of bindings per bound join request
+	 */
+	void monitorBoundJoinBlockSize(Endpoint e, int blockSize);
+
+	/**
+	 * Records a request to the given endpoint once its result has been consumed or closed, see
+	 * {@link MetricsRegistry#recordRequest(String, QueryType, long, long, boolean)}.
+	 *
+	 * @param e             the endpoint
+	 * @param queryType     the type of the request
+	 * @param durationNanos the time from sending the request until its result was closed, in nanoseconds
+	 * @param results       the number of results that were read
+	 * @param failed        whether the request or reading its result failed
+	 */
+	default void monitorRequest(Endpoint e, QueryType queryType, long durationNanos, long results, boolean failed) {
+	}
+
+	/**
+	 * Records the time a task waited in a scheduler before it started to send its request to the given endpoint.
+	 *
+	 * @param endpointId the id of the endpoint
+	 * @param scheduler  the name of the scheduler
+	 * @param waitNanos  the waiting time in nanoseconds
+	 */
+	default void monitorQueueWait(String endpointId, String scheduler, long waitNanos) {
+	}
+
 	void resetMonitoringInformation();
 
 	void monitorQuery(QueryInfo query);
 
 	void logQueryPlan(TupleExpr tupleExpr);
+
+	/**
+	 * Releases the resources of the monitoring when the federation is shut down.
+	 */
+	default void shutDown() {
+	}
 }
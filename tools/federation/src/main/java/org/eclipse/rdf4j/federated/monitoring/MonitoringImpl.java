@@ -15,17 +15,20 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.rdf4j.federated.FedXConfig;
 import org.eclipse.rdf4j.federated.endpoint.Endpoint;
 import org.eclipse.rdf4j.federated.exception.FedXRuntimeException;
 import org.eclipse.rdf4j.federated.structures.QueryInfo;
+import org.eclipse.rdf4j.federated.structures.QueryType;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
 
 /**
  * Implementation supporting the following monitoring features:
  *
- * - monitor remote requests per endpoint - maintain a query backlog using {@link QueryLog}
+ * - monitor remote requests per endpoint - monitor the adaptive bound join block size per endpoint - maintain a query
+ * backlog using {@link QueryLog} - record request latencies and scheduler waiting times in a {@link MetricsRegistry}
  *
  *
  * @author andreas_s
@@ -39,10 +42,13 @@ public class MonitoringImpl implements MonitoringService {
 	private final Map<Endpoint, MonitoringInformation> requestMap = new ConcurrentHashMap<>();
 	private final QueryLog queryLog;
 	private final FedXConfig config;
+	private final MetricsRegistry metricsRegistry;
 
 	MonitoringImpl(FedXConfig config) {
 
 		this.config = config;
+		this.metricsRegistry = config.getMetricsRegistry() != null ? config.getMetricsRegistry()
+				: new EndpointMetricsRegistry(config.getMetricsJmxName());
 		if (config.isLogQueries()) {
 			try {
 				queryLog = new QueryLog();
@@ -56,12 +62,27 @@ public class MonitoringImpl implements MonitoringService {
 
 	@Override
 	public void monitorRemoteRequest(Endpoint e) {
-		MonitoringInformation m = requestMap.get(e);
-		if (m == null) {
-			m = new MonitoringInformation(e);
-			requestMap.put(e, m);
-		}
-		m.increaseRequests();
+		requestMap.computeIfAbsent(e, MonitoringInformation::new).increaseRequests();
+	}
+
+	@Override
+	public void monitorBoundJoinBlockSize(Endpoint e, int blockSize) {
+		requestMap.computeIfAbsent(e, MonitoringInformation::new).setBoundJoinBlockSize(blockSize);
+	}
+
+	@Override
+	public void monitorRequest(Endpoint e, QueryType queryType, long durationNanos, long results, boolean failed) {
+		metricsRegistry.recordRequest(e.getId(), queryType, durationNanos, results, failed);
+	}
+
+	@Override
+	public void monitorQueueWait(String endpointId, String scheduler, long waitNanos) {
+		metricsRegistry.recordQueueWait(endpointId, scheduler, waitNanos);
+	}
+
+	@Override
+	public MetricsRegistry getMetricsRegistry() {
+		return metricsRegistry;
 	}
 
 	@Override
@@ -77,24 +98,25 @@ public class MonitoringImpl implements MonitoringService {
 	@Override
 	public void resetMonitoringInformation() {
 		requestMap.clear();
+		metricsRegistry.reset();
 	}
 
 	public static class MonitoringInformation {
 		private final Endpoint e;
-		private int numberOfRequests = 0;
+		private final AtomicInteger numberOfRequests = new AtomicInteger();
+		private volatile int boundJoinBlockSize = -1;
 
 		public MonitoringInformation(Endpoint e) {
 			this.e = e;
 		}
 
 		private void increaseRequests() {
-			// TODO make thread safe
-			numberOfRequests++;
+			numberOfRequests.incrementAndGet();
 		}
 
 		@Override
 		public String toString() {
-			return e.getName() + " => " + numberOfRequests;
+			return e.getName() + " => " + numberOfRequests.get();
 		}
 
 		public Endpoint getE() {
@@ -102,7 +124,19 @@ public class MonitoringImpl implements MonitoringService {
 		}
 
 		public int getNumberOfRequests() {
-			return numberOfRequests;
+			return numberOfRequests.get();
+		}
+
+		private void setBoundJoinBlockSize(int boundJoinBlockSize) {
+			this.boundJoinBlockSize = boundJoinBlockSize;
+		}
+
+		/**
+		 * @return the block size that bound joins chose for the endpoint, -1 if it was never adjusted
+		 * @see FedXConfig#isEnableAdaptiveBoundJoinBlockSize()
+		 */
+		public int getBoundJoinBlockSize() {
+			return boundJoinBlockSize;
 		}
 	}
 
@@ -119,4 +153,9 @@ public class MonitoringImpl implements MonitoringService {
 			QueryPlanLog.setQueryPlan(tupleExpr);
 		}
 	}
+
+	@Override
+	public void shutDown() {
+		metricsRegistry.shutDown();
+	}
 }
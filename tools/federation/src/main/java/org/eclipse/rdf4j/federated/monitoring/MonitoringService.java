@@ -21,4 +21,9 @@ public interface MonitoringService extends Monitoring {
 
 	List<MonitoringInformation> getAllMonitoringInformation();
 
+	/**
+	 * @return the registry that receives the request metrics
+	 */
+	MetricsRegistry getMetricsRegistry();
+
 }
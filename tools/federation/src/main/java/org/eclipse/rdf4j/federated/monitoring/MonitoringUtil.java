@@ -24,6 +24,13 @@ public class MonitoringUtil {
 		for (MonitoringInformation m : ms.getAllMonitoringInformation()) {
 			System.out.println("\t" + m.toString());
 		}
+
+		if (ms.getMetricsRegistry() instanceof EndpointMetricsRegistry) {
+			System.out.println("### Request metrics: ");
+			for (EndpointMetrics m : ((EndpointMetricsRegistry) ms.getMetricsRegistry()).getAllEndpointMetrics()) {
+				System.out.println("\t" + m.toString());
+			}
+		}
 	}
 
 	private static MonitoringService getMonitoringService(FederationContext federationContext)
@@ -23,6 +23,10 @@ public class NoopMonitoringImpl implements Monitoring {
 	public void monitorRemoteRequest(Endpoint e) {
 	}
 
+	@Override
+	public void monitorBoundJoinBlockSize(Endpoint e, int blockSize) {
+	}
+
 	@Override
 	public void resetMonitoringInformation() {
 	}
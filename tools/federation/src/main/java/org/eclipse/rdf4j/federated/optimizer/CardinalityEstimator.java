@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.optimizer;
+
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.federated.EndpointManager;
+import org.eclipse.rdf4j.federated.algebra.FedXStatementPattern;
+import org.eclipse.rdf4j.federated.algebra.StatementSource;
+import org.eclipse.rdf4j.federated.cache.EndpointSummary;
+import org.eclipse.rdf4j.federated.cache.EndpointSummary.PatternStatistics;
+import org.eclipse.rdf4j.federated.cache.SourceSelectionCache;
+import org.eclipse.rdf4j.federated.cache.SummarySourceSelectionCache;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.structures.QueryInfo;
+import org.eclipse.rdf4j.federated.structures.QueryType;
+import org.eclipse.rdf4j.federated.util.QueryStringUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+
+/**
+ * Estimates the number of results of statement patterns at their sources.
+ * <p>
+ * The statistics of a pattern are taken from the {@link EndpointSummary} of the endpoint if a
+ * {@link SummarySourceSelectionCache} is used. Otherwise a COUNT query is sent to the endpoint, which counts the
+ * matching triples and their distinct subjects and objects. The results of these probes, including failed probes, are
+ * cached.
+ *
+ * @see StatisticsFedXCostModel
+ */
+@Experimental
+public class CardinalityEstimator {
+
+	private static final Logger log = LoggerFactory.getLogger(CardinalityEstimator.class);
+
+	public static final String DEFAULT_CACHE_SPEC = "maximumSize=10000,expireAfterWrite=6h";
+
+	private static final PatternStatistics UNKNOWN = new PatternStatistics(-1, -1, -1);
+
+	private final EndpointManager endpointManager;
+
+	private final SourceSelectionCache sourceSelectionCache;
+
+	private final Cache<String, PatternStatistics> probes;
+
+	/**
+	 * @param endpointManager      the endpoints of the federation
+	 * @param sourceSelectionCache the cache of the source selection, which provides the endpoint summaries if it is a
+	 *                             {@link SummarySourceSelectionCache}
+	 * @param cacheSpec            a Guava compatible {@link CacheBuilderSpec} for the probe results, if
+	 *                             <code>null</code> the {@link #DEFAULT_CACHE_SPEC} is used
+	 */
+	public CardinalityEstimator(EndpointManager endpointManager, SourceSelectionCache sourceSelectionCache,
+			String cacheSpec) {
+		this.endpointManager = endpointManager;
+		this.sourceSelectionCache = sourceSelectionCache;
+		this.probes = CacheBuilder.from(CacheBuilderSpec.parse(cacheSpec == null ? DEFAULT_CACHE_SPEC : cacheSpec))
+				.build();
+	}
+
+	/**
+	 * Estimates the number of results of the statement at all of its sources.
+	 *
+	 * @param stmt      the statement
+	 * @param boundVars the variables that are bound when the statement is evaluated
+	 * @return the estimated number of results, per binding of the bound variables, or -1 if unknown
+	 */
+	public double estimateCardinality(FedXStatementPattern stmt, Set<String> boundVars) {
+		boolean subjectBound = isBound(stmt.getSubjectVar(), boundVars);
+		boolean objectBound = isBound(stmt.getObjectVar(), boundVars);
+
+		double cardinality = 0;
+		for (StatementSource source : stmt.getStatementSources()) {
+			Endpoint endpoint = endpointManager.getEndpoint(source.getEndpointID());
+			PatternStatistics statistics = endpoint == null ? UNKNOWN
+					: getStatistics(endpoint, stmt, stmt.getQueryInfo());
+			if (statistics.getTriples() < 0) {
+				return -1;
+			}
+			cardinality += statistics.estimate(subjectBound, objectBound);
+		}
+		return cardinality;
+	}
+
+	private static boolean isBound(Var var, Set<String> boundVars) {
+		return !var.hasValue() && boundVars.contains(var.getName());
+	}
+
+	/**
+	 * Returns the statistics of the given statement at the endpoint.
+	 *
+	 * @param endpoint  the endpoint
+	 * @param stmt      the statement
+	 * @param queryInfo the query that requires the statistics
+	 * @return the statistics, with negative counts if they are unknown
+	 */
+	protected PatternStatistics getStatistics(Endpoint endpoint, FedXStatementPattern stmt, QueryInfo queryInfo) {
+		Resource subj = (Resource) stmt.getSubjectVar().getValue();
+		IRI pred = (IRI) stmt.getPredicateVar().getValue();
+		Value obj = stmt.getObjectVar().getValue();
+
+		if (sourceSelectionCache instanceof SummarySourceSelectionCache) {
+			EndpointSummary summary = ((SummarySourceSelectionCache) sourceSelectionCache)
+					.getSummary(endpoint.getId());
+			if (summary != null) {
+				PatternStatistics statistics = summary.getStatistics(subj, pred, obj);
+				if (statistics != null) {
+					return statistics;
+				}
+			}
+		}
+
+		String key = endpoint.getId() + " " + QueryStringUtil.toString(subj, pred, obj);
+		PatternStatistics statistics = probes.getIfPresent(key);
+		if (statistics == null) {
+			statistics = probe(endpoint, stmt, queryInfo);
+			probes.put(key, statistics);
+		}
+		return statistics;
+	}
+
+	private PatternStatistics probe(Endpoint endpoint, FedXStatementPattern stmt, QueryInfo queryInfo) {
+		Var subj = stmt.getSubjectVar();
+		Var obj = stmt.getObjectVar();
+		StringBuilder query = new StringBuilder("SELECT (COUNT(*) AS ?__count)");
+		if (!subj.hasValue()) {
+			query.append(" (COUNT(DISTINCT ?").append(subj.getName()).append(") AS ?__subjects)");
+		}
+		if (!obj.hasValue()) {
+			query.append(" (COUNT(DISTINCT ?").append(obj.getName()).append(") AS ?__objects)");
+		}
+		query.append(" WHERE { ")
+				.append(QueryStringUtil.toString(subj))
+				.append(" ")
+				.append(QueryStringUtil.toString(stmt.getPredicateVar()))
+				.append(" ")
+				.append(QueryStringUtil.toString(obj))
+				.append(" }");
+
+		try (CloseableIteration<BindingSet, QueryEvaluationException> result = endpoint.getTripleSource()
+				.getStatements(query.toString(), EmptyBindingSet.getInstance(), QueryType.SELECT, queryInfo)) {
+			if (!result.hasNext()) {
+				return UNKNOWN;
+			}
+			BindingSet counts = result.next();
+			long triples = count(counts, "__count");
+			return new PatternStatistics(triples, subj.hasValue() ? Math.min(1, triples) : count(counts, "__subjects"),
+					obj.hasValue() ? Math.min(1, triples) : count(counts, "__objects"));
+		} catch (Exception e) {
+			log.debug("Failed to count the results of {} at endpoint {}: {}", QueryStringUtil.toString(stmt),
+					endpoint.getId(), e.getMessage());
+			log.trace("Details:", e);
+			return UNKNOWN;
+		}
+	}
+
+	private static long count(BindingSet counts, String name) {
+		Value value = counts.getValue(name);
+		return value instanceof Literal ? ((Literal) value).longValue() : -1;
+	}
+}
@@ -30,4 +30,19 @@ public interface FedXCostModel {
 	 * @return the cost associated to the tupleExpr
 	 */
 	double estimateCost(TupleExpr tupleExpr, Set<String> joinVars);
+
+	/**
+	 * Return the estimated number of results of the given {@link TupleExpr}. If variables are bound, e.g. by a bound
+	 * join, the estimate is the number of results per binding.
+	 * <p>
+	 * The estimates are used to choose between bound joins and hash joins, see {@link StatementGroupAndJoinOptimizer}.
+	 * The default implementation has no estimates.
+	 *
+	 * @param tupleExpr the expression
+	 * @param boundVars the variables that are bound when the expression is evaluated
+	 * @return the estimated number of results, or a negative number if unknown
+	 */
+	default double estimateCardinality(TupleExpr tupleExpr, Set<String> boundVars) {
+		return -1;
+	}
 }
@@ -11,6 +11,7 @@
 package org.eclipse.rdf4j.federated.optimizer;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -22,6 +23,7 @@ import org.eclipse.rdf4j.federated.algebra.EmptyResult;
 import org.eclipse.rdf4j.federated.algebra.ExclusiveGroup;
 import org.eclipse.rdf4j.federated.algebra.ExclusiveStatement;
 import org.eclipse.rdf4j.federated.algebra.ExclusiveTupleExpr;
+import org.eclipse.rdf4j.federated.algebra.FedXStatementPattern;
 import org.eclipse.rdf4j.federated.algebra.NJoin;
 import org.eclipse.rdf4j.federated.exception.OptimizationException;
 import org.eclipse.rdf4j.federated.structures.QueryInfo;
@@ -36,8 +38,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Optimizer with the following tasks:
  *
- * 1. Group {@link ExclusiveStatement} into {@link ExclusiveGroup} 2. Adjust the join order using
- * {@link DefaultFedXCostModel}
+ * 1. Group {@link ExclusiveStatement} into {@link ExclusiveGroup} 2. Adjust the join order using the
+ * {@link FedXCostModel}, e.g. the {@link DefaultFedXCostModel} 3. Choose hash joins for join arguments where the cost
+ * model estimates fewer transferred results than for a bound join
  *
  *
  * @author as
@@ -102,9 +105,53 @@ public class StatementGroupAndJoinOptimizer extends AbstractSimpleQueryModelVisi
 
 		// exchange the node
 		NJoin newNode = new NJoin(args, queryInfo);
+		chooseJoinAlgorithms(newNode);
 		node.replaceWith(newNode);
 	}
 
+	/**
+	 * Choose a hash join for each join argument, for which evaluating the argument once without bindings is expected to
+	 * transfer fewer results than a bound join, i.e. fewer results than the bindings sent to the sources plus the
+	 * results of the bound join. Requires cardinality estimates of the {@link FedXCostModel}, and is only applied to
+	 * joins of statements and exclusive groups, for which all variables are bound in every result.
+	 *
+	 * @param join the join with optimized join order
+	 * @see FedXCostModel#estimateCardinality(TupleExpr, Set)
+	 */
+	protected void chooseJoinAlgorithms(NJoin join) {
+
+		TupleExpr first = join.getArg(0);
+		if (!isHashJoinCandidate(first)) {
+			return;
+		}
+		double leftRows = costModel.estimateCardinality(first, Collections.emptySet());
+		Set<String> boundVars = new HashSet<>(QueryAlgebraUtil.getFreeVars(first));
+
+		for (int i = 1; i < join.getNumberOfArguments(); i++) {
+			TupleExpr arg = join.getArg(i);
+			if (!isHashJoinCandidate(arg)) {
+				return;
+			}
+			Collection<String> freeVars = QueryAlgebraUtil.getFreeVars(arg);
+			double rightRows = costModel.estimateCardinality(arg, Collections.emptySet());
+			double perBinding = costModel.estimateCardinality(arg, boundVars);
+			double resultRows = leftRows < 0 || perBinding < 0 ? -1 : leftRows * perBinding;
+
+			if (leftRows >= 0 && rightRows >= 0 && !Collections.disjoint(freeVars, boundVars)
+					&& rightRows < leftRows + resultRows) {
+				log.debug("Using a hash join for join argument {} (estimated results: {}, bindings: {})", i,
+						rightRows, leftRows);
+				join.setHashJoin(i, true);
+			}
+			leftRows = resultRows;
+			boundVars.addAll(freeVars);
+		}
+	}
+
+	private static boolean isHashJoinCandidate(TupleExpr tupleExpr) {
+		return tupleExpr instanceof FedXStatementPattern || tupleExpr instanceof ExclusiveGroup;
+	}
+
 	/**
 	 * Group {@link ExclusiveStatement}s having the same source into an {@link ExclusiveGroup}.
 	 *
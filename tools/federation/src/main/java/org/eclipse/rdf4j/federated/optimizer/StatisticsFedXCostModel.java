@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.optimizer;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.Experimental;
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.federated.algebra.ExclusiveGroup;
+import org.eclipse.rdf4j.federated.algebra.ExclusiveTupleExpr;
+import org.eclipse.rdf4j.federated.algebra.FedXStatementPattern;
+import org.eclipse.rdf4j.federated.algebra.NJoin;
+import org.eclipse.rdf4j.federated.algebra.NUnion;
+import org.eclipse.rdf4j.federated.util.QueryAlgebraUtil;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.Extension;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+
+/**
+ * A {@link FedXCostModel} that orders join arguments by the estimated number of results, using the per endpoint
+ * statistics of a {@link CardinalityEstimator}. Expressions without estimates are ordered after those with estimates,
+ * using the heuristics of the {@link DefaultFedXCostModel}.
+ *
+ * @see FedXConfig#isEnableStatisticsCostModel()
+ */
+@Experimental
+public class StatisticsFedXCostModel implements FedXCostModel {
+
+	/**
+	 * The cost of an expression without estimate, which is added to the cost of the {@link DefaultFedXCostModel}.
+	 */
+	static final double UNKNOWN_COST = 1_000_000_000d;
+
+	/**
+	 * The factor by which the cost of an expression grows if it does not share a variable with the previous join
+	 * arguments.
+	 */
+	static final double CARTESIAN_PRODUCT_FACTOR = 1000;
+
+	private final CardinalityEstimator estimator;
+
+	public StatisticsFedXCostModel(CardinalityEstimator estimator) {
+		this.estimator = estimator;
+	}
+
+	@Override
+	public double estimateCost(TupleExpr tupleExpr, Set<String> joinVars) {
+		if (tupleExpr instanceof BindingSetAssignment || tupleExpr instanceof Extension) {
+			return 0;
+		}
+
+		double cardinality = estimateCardinality(tupleExpr, joinVars);
+		if (cardinality < 0) {
+			return UNKNOWN_COST + DefaultFedXCostModel.INSTANCE.estimateCost(tupleExpr, joinVars);
+		}
+		if (!joinVars.isEmpty() && Collections.disjoint(QueryAlgebraUtil.getFreeVars(tupleExpr), joinVars)) {
+			return (cardinality + 1) * CARTESIAN_PRODUCT_FACTOR;
+		}
+		return cardinality;
+	}
+
+	@Override
+	public double estimateCardinality(TupleExpr tupleExpr, Set<String> boundVars) {
+		if (tupleExpr instanceof FedXStatementPattern) {
+			return estimator.estimateCardinality((FedXStatementPattern) tupleExpr, boundVars);
+		}
+		if (tupleExpr instanceof ExclusiveGroup) {
+			return estimateCardinality((ExclusiveGroup) tupleExpr, boundVars);
+		}
+		if (tupleExpr instanceof NUnion) {
+			return estimateCardinality((NUnion) tupleExpr, boundVars);
+		}
+		if (tupleExpr instanceof NJoin) {
+			return estimateCardinality(((NJoin) tupleExpr).getArg(0), boundVars);
+		}
+		if (tupleExpr instanceof BindingSetAssignment) {
+			int size = 0;
+			for (@SuppressWarnings("unused")
+			BindingSet bs : ((BindingSetAssignment) tupleExpr).getBindingSets()) {
+				size++;
+			}
+			return size;
+		}
+		return -1;
+	}
+
+	/**
+	 * The results of a group are bounded by the results of its most selective statement.
+	 */
+	private double estimateCardinality(ExclusiveGroup group, Set<String> boundVars) {
+		double min = -1;
+		for (ExclusiveTupleExpr expr : group.getExclusiveExpressions()) {
+			double cardinality = estimateCardinality(expr, boundVars);
+			if (cardinality >= 0 && (min < 0 || cardinality < min)) {
+				min = cardinality;
+			}
+		}
+		return min;
+	}
+
+	private double estimateCardinality(NUnion union, Set<String> boundVars) {
+		double sum = 0;
+		for (TupleExpr arg : union.getArgs()) {
+			double cardinality = estimateCardinality(arg, boundVars);
+			if (cardinality < 0) {
+				return -1;
+			}
+			sum += cardinality;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,412 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.optimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.federated.algebra.ExclusiveGroup;
+import org.eclipse.rdf4j.federated.algebra.ExclusiveStatement;
+import org.eclipse.rdf4j.federated.algebra.ExclusiveTupleExpr;
+import org.eclipse.rdf4j.federated.algebra.FedXService;
+import org.eclipse.rdf4j.federated.algebra.NUnion;
+import org.eclipse.rdf4j.federated.algebra.RemoteSubQuery;
+import org.eclipse.rdf4j.federated.algebra.RemoteSubQuery.Request;
+import org.eclipse.rdf4j.federated.algebra.StatementSource;
+import org.eclipse.rdf4j.federated.algebra.StatementSourcePattern;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.exception.IllegalQueryException;
+import org.eclipse.rdf4j.federated.exception.OptimizationException;
+import org.eclipse.rdf4j.federated.structures.QueryInfo;
+import org.eclipse.rdf4j.federated.util.QueryStringUtil;
+import org.eclipse.rdf4j.query.algebra.AbstractAggregateOperator;
+import org.eclipse.rdf4j.query.algebra.AggregateOperator;
+import org.eclipse.rdf4j.query.algebra.Avg;
+import org.eclipse.rdf4j.query.algebra.Count;
+import org.eclipse.rdf4j.query.algebra.Distinct;
+import org.eclipse.rdf4j.query.algebra.Extension;
+import org.eclipse.rdf4j.query.algebra.ExtensionElem;
+import org.eclipse.rdf4j.query.algebra.Group;
+import org.eclipse.rdf4j.query.algebra.GroupElem;
+import org.eclipse.rdf4j.query.algebra.Max;
+import org.eclipse.rdf4j.query.algebra.Min;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.OrderElem;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.ProjectionElem;
+import org.eclipse.rdf4j.query.algebra.QueryModelNode;
+import org.eclipse.rdf4j.query.algebra.Reduced;
+import org.eclipse.rdf4j.query.algebra.Sample;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.Sum;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.ValueExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optimizer that pushes GROUP BY, ORDER BY, DISTINCT and LIMIT down to the endpoints, see {@link RemoteSubQuery}.
+ * <p>
+ * For an {@link ExclusiveGroup} or {@link ExclusiveStatement} the longest chain of the parent Group, Extension (with
+ * aggregates only), Order, Projection, Distinct (or Reduced) and Slice is sent to its endpoint as a single sub query,
+ * provided it contains a Group, Distinct, Reduced or Slice. A Group over a {@link StatementSourcePattern} with several
+ * sources or over a {@link NUnion} of such expressions is sent to each source if it only uses COUNT, SUM, MIN, MAX and
+ * SAMPLE, and the partial aggregates are merged locally.
+ * <p>
+ * Only variables are supported as arguments of aggregates and as ORDER BY expressions. Expressions with bound filters
+ * or filters that cannot be rendered are evaluated as before.
+ */
+public class SubQueryPushdownOptimizer extends AbstractSimpleQueryModelVisitor<OptimizationException>
+		implements FedXOptimizer {
+
+	private static final Logger log = LoggerFactory.getLogger(SubQueryPushdownOptimizer.class);
+
+	private static final Pattern VAR_NAME = Pattern.compile("[\\p{L}\\p{N}_]+");
+
+	private final QueryInfo queryInfo;
+
+	private final List<ExclusiveTupleExpr> exclusiveExprs = new ArrayList<>();
+
+	private final List<Group> groups = new ArrayList<>();
+
+	public SubQueryPushdownOptimizer(QueryInfo queryInfo) {
+		super(true);
+		this.queryInfo = queryInfo;
+	}
+
+	@Override
+	public void optimize(TupleExpr tupleExpr) {
+
+		try {
+			tupleExpr.visit(this);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			throw new RuntimeException(e);
+		}
+
+		for (ExclusiveTupleExpr expr : exclusiveExprs) {
+			pushSingleSource(expr);
+		}
+		for (Group group : groups) {
+			pushPartialAggregates(group);
+		}
+	}
+
+	@Override
+	public void meetOther(QueryModelNode node) throws OptimizationException {
+		if (node instanceof ExclusiveGroup || node instanceof ExclusiveStatement) {
+			exclusiveExprs.add((ExclusiveTupleExpr) node);
+		} else if (node instanceof FedXService) {
+			// the service expression is evaluated as a whole
+		} else {
+			super.meetOther(node);
+		}
+	}
+
+	@Override
+	public void meet(Group node) throws OptimizationException {
+		groups.add(node);
+		super.meet(node);
+	}
+
+	protected void pushSingleSource(ExclusiveTupleExpr expr) {
+
+		Endpoint endpoint = getEndpoint(expr.getOwner());
+		if (endpoint == null) {
+			return;
+		}
+
+		Group group = null;
+		Order order = null;
+		Projection projection = null;
+		TupleExpr distinct = null;
+		Slice slice = null;
+
+		QueryModelNode parent = expr.getParentNode();
+		if (parent instanceof Group && isRenderable((Group) parent, false)) {
+			group = (Group) parent;
+			parent = parent.getParentNode();
+			if (parent instanceof Extension && hasOnlyAggregates((Extension) parent, group)) {
+				parent = parent.getParentNode();
+			}
+		}
+		if (parent instanceof Order && isRenderable((Order) parent)) {
+			order = (Order) parent;
+			parent = parent.getParentNode();
+		}
+		if (parent instanceof Projection && isRenderable((Projection) parent, group)) {
+			projection = (Projection) parent;
+			parent = parent.getParentNode();
+			if (parent instanceof Distinct || parent instanceof Reduced) {
+				distinct = (TupleExpr) parent;
+				parent = parent.getParentNode();
+			}
+			if (parent instanceof Slice) {
+				slice = (Slice) parent;
+			}
+		}
+
+		TupleExpr top;
+		String projectionString;
+		if (projection != null && (group != null || distinct != null || slice != null)) {
+			top = slice != null ? slice : distinct != null ? distinct : projection;
+			projectionString = (distinct instanceof Distinct ? "DISTINCT " : distinct != null ? "REDUCED " : "")
+					+ renderProjection(projection, group);
+		} else if (group != null) {
+			top = group;
+			order = null;
+			projectionString = renderGroupProjection(group);
+		} else {
+			return;
+		}
+
+		StringBuilder modifiers = new StringBuilder();
+		if (group != null && !group.getGroupBindingNames().isEmpty()) {
+			modifiers.append("GROUP BY");
+			group.getGroupBindingNames().forEach(name -> modifiers.append(" ?").append(name));
+		}
+		if (order != null) {
+			modifiers.append(modifiers.length() > 0 ? " " : "").append("ORDER BY");
+			for (OrderElem elem : order.getElements()) {
+				modifiers.append(elem.isAscending() ? " ASC(?" : " DESC(?")
+						.append(((Var) elem.getExpr()).getName())
+						.append(")");
+			}
+		}
+		if (slice != null) {
+			if (slice.hasLimit()) {
+				modifiers.append(modifiers.length() > 0 ? " " : "").append("LIMIT ").append(slice.getLimit());
+			}
+			if (slice.hasOffset()) {
+				modifiers.append(modifiers.length() > 0 ? " " : "").append("OFFSET ").append(slice.getOffset());
+			}
+		}
+
+		try {
+			String query = QueryStringUtil.selectSubQueryString(expr, projectionString, modifiers.toString(),
+					queryInfo.getDataset());
+			replace(top, Collections.singletonList(new Request(endpoint, query)), null, null);
+		} catch (IllegalQueryException e) {
+			log.debug("Sub query cannot be evaluated remotely: " + e.getMessage());
+		}
+	}
+
+	protected void pushPartialAggregates(Group group) {
+
+		if (!isRenderable(group, true) || group.getGroupElements().isEmpty()) {
+			return;
+		}
+
+		List<TupleExpr> args;
+		if (group.getArg() instanceof StatementSourcePattern
+				&& ((StatementSourcePattern) group.getArg()).getStatementSources().size() > 1) {
+			args = Collections.singletonList(group.getArg());
+		} else if (group.getArg() instanceof NUnion) {
+			args = ((NUnion) group.getArg()).getArgs();
+		} else {
+			return;
+		}
+
+		String projection = renderGroupProjection(group);
+		String modifiers = group.getGroupBindingNames().isEmpty() ? ""
+				: group.getGroupBindingNames()
+						.stream()
+						.map(name -> "?" + name)
+						.collect(
+								Collectors.joining(" ", "GROUP BY ", ""));
+
+		List<Request> requests = new ArrayList<>();
+		try {
+			for (TupleExpr arg : args) {
+				List<StatementSource> sources;
+				if (arg instanceof ExclusiveTupleExpr) {
+					sources = Collections.singletonList(((ExclusiveTupleExpr) arg).getOwner());
+				} else if (arg instanceof StatementSourcePattern) {
+					sources = ((StatementSourcePattern) arg).getStatementSources();
+				} else {
+					return;
+				}
+				String query = QueryStringUtil.selectSubQueryString(arg, projection, modifiers,
+						queryInfo.getDataset());
+				for (StatementSource source : sources) {
+					Endpoint endpoint = getEndpoint(source);
+					if (endpoint == null) {
+						return;
+					}
+					requests.add(new Request(endpoint, query));
+				}
+			}
+		} catch (IllegalQueryException e) {
+			log.debug("Partial aggregates cannot be evaluated remotely: " + e.getMessage());
+			return;
+		}
+
+		replace(group, requests, new ArrayList<>(group.getGroupBindingNames()), group.getGroupElements());
+	}
+
+	private void replace(TupleExpr top, List<Request> requests, List<String> groupBindingNames,
+			List<GroupElem> partialAggregates) {
+		RemoteSubQuery subQuery = new RemoteSubQuery(top, requests, groupBindingNames, partialAggregates, queryInfo);
+		top.replaceWith(subQuery);
+		top.setParentNode(subQuery);
+	}
+
+	private Endpoint getEndpoint(StatementSource source) {
+		return queryInfo.getFederationContext().getEndpointManager().getEndpoint(source.getEndpointID());
+	}
+
+	/**
+	 * @param group   the group
+	 * @param partial whether the aggregates are computed per source and merged
+	 * @return whether the group binding names and the aggregates can be rendered
+	 */
+	private boolean isRenderable(Group group, boolean partial) {
+		for (String name : group.getGroupBindingNames()) {
+			if (!isVarName(name)) {
+				return false;
+			}
+		}
+		for (GroupElem elem : group.getGroupElements()) {
+			AggregateOperator operator = elem.getOperator();
+			if (!isVarName(elem.getName()) || renderAggregate(operator) == null) {
+				return false;
+			}
+			if (partial && !(operator instanceof Min || operator instanceof Max || operator instanceof Sample
+					|| ((operator instanceof Count || operator instanceof Sum) && !operator.isDistinct()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean hasOnlyAggregates(Extension extension, Group group) {
+		for (ExtensionElem elem : extension.getElements()) {
+			if (!(elem.getExpr() instanceof AggregateOperator)
+					|| !group.getAggregateBindingNames().contains(elem.getName())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isRenderable(Order order) {
+		for (OrderElem elem : order.getElements()) {
+			if (!isUnboundVar(elem.getExpr())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param projection the projection
+	 * @param group      the group below the projection, or <code>null</code>
+	 * @return whether the projection can be rendered and contains all aggregates of the group
+	 */
+	private boolean isRenderable(Projection projection, Group group) {
+		List<String> names = new ArrayList<>();
+		for (ProjectionElem elem : projection.getProjectionElemList().getElements()) {
+			if (elem.getProjectionAlias().isPresent() || !isVarName(elem.getName())) {
+				return false;
+			}
+			names.add(elem.getName());
+		}
+		return group == null || names.containsAll(group.getAggregateBindingNames());
+	}
+
+	private String renderProjection(Projection projection, Group group) {
+		Map<String, GroupElem> aggregates = group == null ? Collections.emptyMap()
+				: group.getGroupElements().stream().collect(Collectors.toMap(GroupElem::getName, e -> e));
+		StringBuilder sb = new StringBuilder();
+		for (ProjectionElem elem : projection.getProjectionElemList().getElements()) {
+			GroupElem aggregate = aggregates.get(elem.getName());
+			if (sb.length() > 0) {
+				sb.append(" ");
+			}
+			if (aggregate != null) {
+				sb.append("(")
+						.append(renderAggregate(aggregate.getOperator()))
+						.append(" AS ?")
+						.append(elem.getName())
+						.append(")");
+			} else {
+				sb.append("?").append(elem.getName());
+			}
+		}
+		return sb.toString();
+	}
+
+	private String renderGroupProjection(Group group) {
+		StringBuilder sb = new StringBuilder();
+		for (String name : group.getGroupBindingNames()) {
+			sb.append("?").append(name).append(" ");
+		}
+		for (GroupElem elem : group.getGroupElements()) {
+			sb.append("(")
+					.append(renderAggregate(elem.getOperator()))
+					.append(" AS ?")
+					.append(elem.getName())
+					.append(") ");
+		}
+		return sb.toString().trim();
+	}
+
+	/**
+	 * @return the aggregate in SPARQL syntax, <code>null</code> if it cannot be rendered
+	 */
+	private String renderAggregate(AggregateOperator operator) {
+		String function;
+		if (operator instanceof Count) {
+			function = "COUNT";
+		} else if (operator instanceof Sum) {
+			function = "SUM";
+		} else if (operator instanceof Min) {
+			function = "MIN";
+		} else if (operator instanceof Max) {
+			function = "MAX";
+		} else if (operator instanceof Avg) {
+			function = "AVG";
+		} else if (operator instanceof Sample) {
+			function = "SAMPLE";
+		} else {
+			return null;
+		}
+
+		ValueExpr arg = ((AbstractAggregateOperator) operator).getArg();
+		String argString;
+		if (arg == null && operator instanceof Count) {
+			argString = "*";
+		} else if (isUnboundVar(arg)) {
+			argString = "?" + ((Var) arg).getName();
+		} else {
+			return null;
+		}
+		return function + "(" + (operator.isDistinct() ? "DISTINCT " : "") + argString + ")";
+	}
+
+	private boolean isUnboundVar(ValueExpr expr) {
+		return expr instanceof Var && !((Var) expr).hasValue() && isVarName(((Var) expr).getName());
+	}
+
+	private boolean isVarName(String name) {
+		return VAR_NAME.matcher(name).matches();
+	}
+}
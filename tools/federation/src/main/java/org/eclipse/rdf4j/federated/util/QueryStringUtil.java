@@ -26,6 +26,7 @@ import org.eclipse.rdf4j.federated.algebra.ExclusiveStatement;
 import org.eclipse.rdf4j.federated.algebra.ExclusiveTupleExpr;
 import org.eclipse.rdf4j.federated.algebra.ExclusiveTupleExprRenderer;
 import org.eclipse.rdf4j.federated.algebra.FedXStatementPattern;
+import org.eclipse.rdf4j.federated.algebra.FilterTuple;
 import org.eclipse.rdf4j.federated.algebra.FilterValueExpr;
 import org.eclipse.rdf4j.federated.evaluation.SparqlFederationEvalStrategy;
 import org.eclipse.rdf4j.federated.evaluation.iterator.BoundJoinVALUESConversionIteration;
@@ -41,6 +42,7 @@ import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
 import org.eclipse.rdf4j.query.algebra.Join;
 import org.eclipse.rdf4j.query.algebra.StatementPattern;
 import org.eclipse.rdf4j.query.algebra.StatementPattern.Scope;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.slf4j.Logger;
@@ -326,6 +328,62 @@ public class QueryStringUtil {
 		return res.toString();
 	}
 
+	/**
+	 * Construct a SELECT query for the provided expression with the given projection and solution modifiers, e.g. to
+	 * evaluate aggregates, DISTINCT or LIMIT at the endpoint. No bindings are inserted, and the filter of the
+	 * expression becomes part of the query.
+	 *
+	 * @param expr       the {@link ExclusiveTupleExpr} or {@link StatementPattern} of the WHERE clause
+	 * @param projection the projection including a DISTINCT or REDUCED modifier, e.g. "?p (COUNT(?o) AS ?c)"
+	 * @param modifiers  the solution modifiers, e.g. "GROUP BY ?p", or an empty string
+	 * @param dataset
+	 *
+	 * @return the SELECT query string
+	 * @throws IllegalQueryException if the expression or its filter cannot be rendered
+	 */
+	public static String selectSubQueryString(TupleExpr expr, String projection, String modifiers, Dataset dataset)
+			throws IllegalQueryException {
+
+		Set<String> varNames = new HashSet<>();
+		StringBuilder sb = new StringBuilder();
+
+		if (expr instanceof ExclusiveTupleExpr) {
+			try {
+				sb.append(constructJoinArg((ExclusiveTupleExpr) expr, varNames, EmptyBindingSet.getInstance()));
+			} catch (IllegalStateException e) {
+				throw new IllegalQueryException(e.getMessage());
+			}
+		} else if (expr instanceof StatementPattern) {
+			sb.append(constructStatement((StatementPattern) expr, varNames, EmptyBindingSet.getInstance()));
+		} else {
+			throw new IllegalQueryException("Cannot render tuple expr of type " + expr.getClass());
+		}
+
+		if (expr instanceof FilterTuple) {
+			FilterTuple filterTuple = (FilterTuple) expr;
+			if (filterTuple.getBoundFilters() != null) {
+				throw new IllegalQueryException("Bound filters cannot be rendered in a sub query");
+			}
+			if (filterTuple.hasFilter()) {
+				try {
+					sb.append("FILTER ").append(FilterUtils.toSparqlString(filterTuple.getFilterExpr()));
+				} catch (Exception e) {
+					throw new IllegalQueryException("Filter could not be rendered: " + e.getMessage(), e);
+				}
+			}
+		}
+
+		StringBuilder res = new StringBuilder();
+		res.append("SELECT ").append(projection).append(" ");
+		appendDatasetClause(res, dataset);
+		res.append("WHERE { ").append(sb).append(" }");
+		if (!modifiers.isEmpty()) {
+			res.append(" ").append(modifiers);
+		}
+
+		return res.toString();
+	}
+
 	/**
 	 * Transform the {@link ExclusiveTupleExpr} into a ASK query string
 	 *
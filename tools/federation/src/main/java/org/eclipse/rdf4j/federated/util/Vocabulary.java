@@ -49,6 +49,16 @@ public class Vocabulary {
 		public static final IRI REPOSITORY_NAME = vf.createIRI(NAMESPACE, "repositoryName");
 
 		public static final IRI WRITABLE = vf.createIRI(NAMESPACE, "writable");
+
+		/*
+		 * Source selection summaries
+		 */
+
+		public static final IRI SUBJECT_AUTHORITY = vf.createIRI(NAMESPACE, "subjectAuthority");
+
+		public static final IRI OBJECT_AUTHORITY = vf.createIRI(NAMESPACE, "objectAuthority");
+
+		public static final IRI LITERAL_OBJECTS = vf.createIRI(NAMESPACE, "literalObjects");
 	}
 
 	/**
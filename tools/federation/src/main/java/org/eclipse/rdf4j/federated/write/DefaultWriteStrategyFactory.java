@@ -32,7 +32,8 @@ public class DefaultWriteStrategyFactory implements WriteStrategyFactory {
 	public WriteStrategy create(List<Endpoint> members, FederationContext federationContext) {
 		for (Endpoint e : members) {
 			if (e.isWritable()) {
-				return new RepositoryWriteStrategy(e.getRepository());
+				return new RepositoryWriteStrategy(e.getRepository(), e.getId(),
+						federationContext.getSubQueryResultCache());
 			}
 		}
 		return ReadOnlyWriteStrategy.INSTANCE;
@@ -11,6 +11,7 @@
 package org.eclipse.rdf4j.federated.write;
 
 import org.eclipse.rdf4j.common.transaction.TransactionSetting;
+import org.eclipse.rdf4j.federated.cache.SubQueryResultCache;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
@@ -34,13 +35,30 @@ public class RepositoryWriteStrategy implements WriteStrategy {
 
 	private final Repository writeRepository;
 
+	private final String endpointId;
+
+	private final SubQueryResultCache subQueryResultCache;
+
 	private RepositoryConnection connection = null;
 
 	private TransactionSetting[] transactionSettings;
 
 	public RepositoryWriteStrategy(Repository writeRepository) {
+		this(writeRepository, null, null);
+	}
+
+	/**
+	 * @param writeRepository     the repository to write to
+	 * @param endpointId          the id of the endpoint of the repository
+	 * @param subQueryResultCache the cache whose results of the endpoint are invalidated on writes, may be
+	 *                            <code>null</code>
+	 */
+	public RepositoryWriteStrategy(Repository writeRepository, String endpointId,
+			SubQueryResultCache subQueryResultCache) {
 		super();
 		this.writeRepository = writeRepository;
+		this.endpointId = endpointId;
+		this.subQueryResultCache = subQueryResultCache;
 	}
 
 	@Override
@@ -64,6 +82,7 @@ public class RepositoryWriteStrategy implements WriteStrategy {
 	public void commit() throws RepositoryException {
 		createConnection();
 		connection.commit();
+		invalidateCachedResults();
 	}
 
 	@Override
@@ -77,6 +96,7 @@ public class RepositoryWriteStrategy implements WriteStrategy {
 			Resource... contexts) throws RepositoryException {
 		createConnection();
 		connection.add(subj, pred, obj, contexts);
+		invalidateCachedResults();
 	}
 
 	@Override
@@ -84,12 +104,24 @@ public class RepositoryWriteStrategy implements WriteStrategy {
 			Resource... contexts) throws RepositoryException {
 		createConnection();
 		connection.remove(subj, pred, obj, contexts);
+		invalidateCachedResults();
 	}
 
 	@Override
 	public void clear(Resource... contexts) throws RepositoryException {
 		createConnection();
 		connection.clear(contexts);
+		invalidateCachedResults();
+	}
+
+	/**
+	 * Removes the cached subquery results of the written endpoint. This is done for every write, as well as on commit
+	 * in case results were cached while the transaction was active.
+	 */
+	private void invalidateCachedResults() {
+		if (subQueryResultCache != null) {
+			subQueryResultCache.invalidate(endpointId);
+		}
 	}
 
 	private void createConnection() throws RepositoryException {
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringImpl.MonitoringInformation;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringService;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveBoundJoinTests extends SPARQLBaseTest {
+
+	private static final int PERSONS = 400;
+
+	private static final IRI NICK = Values.iri("http://example.org/adaptive/nick");
+
+	private static final IRI AGE = Values.iri("http://example.org/adaptive/age");
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(c -> c.withEnableMonitoring(true)
+				.withEnableAdaptiveBoundJoinBlockSize(true)
+				.withBoundJoinBlockSize(5)
+				.withMaxBoundJoinBlockSize(100));
+	}
+
+	@Test
+	public void testBlockSizeGrowsWithConstantLatency() throws Exception {
+
+		// bound joins are only used for SPARQL endpoints
+		assumeSparqlEndpoint();
+
+		List<Endpoint> endpoints = prepareTest(
+				Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl"));
+		addPersons();
+
+		// every request costs the same time, so larger blocks always have a better throughput
+		repoSettings(2).setLatencySimulator(() -> {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		try {
+			Assertions.assertEquals(PERSONS, evaluateJoin().size());
+		} finally {
+			repoSettings(2).setLatencySimulator(null);
+		}
+
+		MonitoringInformation info = monitoring().getMonitoringInformation(endpoints.get(1));
+		Assertions.assertNotNull(info);
+		Assertions.assertTrue(info.getBoundJoinBlockSize() > 5,
+				"Block size did not grow: " + info.getBoundJoinBlockSize());
+		Assertions.assertEquals(info.getBoundJoinBlockSize(),
+				federationContext().getBoundJoinBlockSizeController().getBlockSize(endpoints.get(1).getId()));
+	}
+
+	@Test
+	public void testResultsMatchFixedBlockSize() throws Exception {
+
+		prepareTest(Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl"));
+		addPersons();
+
+		List<BindingSet> results = evaluateJoin();
+		Assertions.assertEquals(PERSONS, results.size());
+		Assertions.assertEquals(PERSONS, results.stream().map(bs -> bs.getValue("age")).distinct().count());
+	}
+
+	private void addPersons() {
+		try (RepositoryConnection conn1 = getRepository(1).getConnection();
+				RepositoryConnection conn2 = getRepository(2).getConnection()) {
+			for (int i = 0; i < PERSONS; i++) {
+				IRI person = Values.iri("http://example.org/adaptive/person" + i);
+				conn1.add(person, NICK, Values.literal("nick" + i));
+				conn2.add(person, AGE, Values.literal(i));
+			}
+		}
+	}
+
+	private List<BindingSet> evaluateJoin() {
+		try (RepositoryConnection conn = fedxRule.getRepository().getConnection()) {
+			return QueryResults.asList(conn
+					.prepareTupleQuery("SELECT * WHERE { ?person <" + NICK + "> ?nick ; <" + AGE + "> ?age }")
+					.evaluate());
+		}
+	}
+
+	private MonitoringService monitoring() {
+		return (MonitoringService) federationContext().getMonitoringService();
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringImpl.MonitoringInformation;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringService;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveJoinOrderTests extends SPARQLBaseTest {
+
+	private static final int PERSONS = 400;
+
+	private static final IRI NICK = Values.iri("http://example.org/adaptiveOrder/nick");
+
+	private static final IRI AGE = Values.iri("http://example.org/adaptiveOrder/age");
+
+	private static final IRI VIP = Values.iri("http://example.org/adaptiveOrder/vip");
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(c -> c.withEnableMonitoring(true).withEnableAdaptiveJoinOrder(true));
+	}
+
+	@Test
+	public void testSelectiveArgumentIsJoinedFirst() throws Exception {
+
+		// bound joins are only used for SPARQL endpoints
+		assumeSparqlEndpoint();
+
+		List<Endpoint> endpoints = prepareTest(
+				Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl", "/tests/data/data3.ttl"));
+		addPersons();
+
+		// the static join order sends all persons as bindings to the second endpoint
+		federationContext().getConfig().withEnableAdaptiveJoinOrder(false);
+		Assertions.assertEquals(2, evaluateJoin().size());
+		int staticRequests = requestsForEndpoint(endpoints.get(1));
+		Assertions.assertTrue(staticRequests > 20, "Unexpected number of requests: " + staticRequests);
+
+		federationContext().getConfig().withEnableAdaptiveJoinOrder(true);
+		monitoring().resetMonitoringInformation();
+		Assertions.assertEquals(2, evaluateJoin().size());
+		int adaptiveRequests = requestsForEndpoint(endpoints.get(1));
+		Assertions.assertTrue(adaptiveRequests < 10, "Unexpected number of requests: " + adaptiveRequests);
+	}
+
+	@Test
+	public void testResultsMatchStaticJoinOrder() throws Exception {
+
+		prepareTest(Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl", "/tests/data/data3.ttl"));
+		addPersons();
+
+		List<BindingSet> results = evaluateJoin();
+		Assertions.assertEquals(2, results.size());
+		for (BindingSet bs : results) {
+			Assertions.assertEquals(4, bs.size());
+		}
+	}
+
+	@Test
+	public void testMediumQueries() throws Exception {
+
+		prepareTest(Arrays.asList("/tests/medium/data1.ttl", "/tests/medium/data2.ttl", "/tests/medium/data3.ttl",
+				"/tests/medium/data4.ttl"));
+		execute("/tests/medium/query01.rq", "/tests/medium/query01.srx", false, true);
+		execute("/tests/medium/query02.rq", "/tests/medium/query02.srx", false, true);
+	}
+
+	private void addPersons() {
+		try (RepositoryConnection conn1 = getRepository(1).getConnection();
+				RepositoryConnection conn2 = getRepository(2).getConnection();
+				RepositoryConnection conn3 = getRepository(3).getConnection()) {
+			for (int i = 0; i < PERSONS; i++) {
+				IRI person = Values.iri("http://example.org/adaptiveOrder/person" + i);
+				conn1.add(person, NICK, Values.literal("nick" + i));
+				conn2.add(person, AGE, Values.literal(i));
+				if (i % 200 == 0) {
+					conn3.add(person, VIP, Values.literal(true));
+				}
+			}
+		}
+	}
+
+	private List<BindingSet> evaluateJoin() {
+		try (RepositoryConnection conn = fedxRule.getRepository().getConnection()) {
+			return QueryResults.asList(conn
+					.prepareTupleQuery("SELECT * WHERE { ?person <" + NICK + "> ?nick ; <" + AGE + "> ?age ; <" + VIP
+							+ "> ?vip }")
+					.evaluate());
+		}
+	}
+
+	private int requestsForEndpoint(Endpoint endpoint) {
+		MonitoringInformation m = monitoring().getMonitoringInformation(endpoint);
+		return m == null ? 0 : m.getNumberOfRequests();
+	}
+
+	private MonitoringService monitoring() {
+		return (MonitoringService) federationContext().getMonitoringService();
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StatisticsCostModelTests extends SPARQLBaseTest {
+
+	private static final int PERSONS = 100;
+
+	private static final IRI NICK = Values.iri("http://example.org/statistics/nick");
+
+	private static final IRI AGE = Values.iri("http://example.org/statistics/age");
+
+	private static final String QUERY = "SELECT * WHERE { ?person <" + NICK + "> ?nick ; <" + AGE + "> ?age }";
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(c -> c.withEnableStatisticsCostModel(true));
+	}
+
+	@Test
+	public void testSelectivePatternFirst() throws Exception {
+
+		prepareTest(Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl"));
+		addPersons(PERSONS, 3);
+
+		String plan = federationContext().getQueryManager().getQueryPlan(QUERY);
+		Assertions.assertTrue(plan.indexOf(AGE.stringValue()) < plan.indexOf(NICK.stringValue()), plan);
+		Assertions.assertFalse(plan.contains("hash joins"), plan);
+
+		Assertions.assertEquals(3, evaluate().size());
+	}
+
+	@Test
+	public void testHashJoinForUnselectiveJoin() throws Exception {
+
+		prepareTest(Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl"));
+		addPersons(PERSONS, PERSONS);
+
+		String plan = federationContext().getQueryManager().getQueryPlan(QUERY);
+		Assertions.assertTrue(plan.contains("hash joins: {1}"), plan);
+
+		List<BindingSet> results = evaluate();
+		Assertions.assertEquals(PERSONS, results.size());
+		Assertions.assertEquals(PERSONS, results.stream().map(bs -> bs.getValue("age")).distinct().count());
+	}
+
+	@Test
+	public void testResultsMatchDefaultCostModel() throws Exception {
+
+		prepareTest(Arrays.asList("/tests/medium/data1.ttl", "/tests/medium/data2.ttl", "/tests/medium/data3.ttl",
+				"/tests/medium/data4.ttl"));
+		execute("/tests/medium/query01.rq", "/tests/medium/query01.srx", false, true);
+		execute("/tests/medium/query02.rq", "/tests/medium/query02.srx", false, true);
+	}
+
+	private void addPersons(int nicks, int ages) {
+		try (RepositoryConnection conn1 = getRepository(1).getConnection();
+				RepositoryConnection conn2 = getRepository(2).getConnection()) {
+			for (int i = 0; i < nicks; i++) {
+				conn1.add(person(i), NICK, Values.literal("nick" + i));
+			}
+			for (int i = 0; i < ages; i++) {
+				conn2.add(person(i), AGE, Values.literal(i));
+			}
+		}
+	}
+
+	private static IRI person(int i) {
+		return Values.iri("http://example.org/statistics/person" + i);
+	}
+
+	private List<BindingSet> evaluate() {
+		try (RepositoryConnection conn = fedxRule.getRepository().getConnection()) {
+			return QueryResults.asList(conn.prepareTupleQuery(QUERY).evaluate());
+		}
+	}
+}
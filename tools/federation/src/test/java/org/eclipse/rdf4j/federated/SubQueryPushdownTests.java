@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SubQueryPushdownTests extends SPARQLBaseTest {
+
+	private static final int ITEMS = 10;
+
+	private static final String NS = "http://example.org/pushdown/";
+
+	private static final IRI VALUE = Values.iri(NS + "value");
+
+	private static final IRI RANK = Values.iri(NS + "rank");
+
+	private static final IRI LABEL = Values.iri(NS + "label");
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(c -> c.withEnableSubQueryPushdown(true));
+	}
+
+	private void prepareData() throws Exception {
+		prepareTest(Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl", "/tests/data/data3.ttl"));
+
+		// each item has a value in every endpoint, the ranks and labels are exclusive to a single endpoint
+		for (int j = 1; j <= 3; j++) {
+			try (RepositoryConnection conn = getRepository(j).getConnection()) {
+				for (int i = 0; i < ITEMS; i++) {
+					IRI item = Values.iri(NS + "item" + i);
+					conn.add(item, VALUE, Values.literal(10 * i + j));
+					if (j == 1) {
+						conn.add(item, RANK, Values.literal(i));
+					} else if (j == 2) {
+						conn.add(item, LABEL, Values.literal("item " + i));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPartialAggregates() throws Exception {
+
+		prepareData();
+		String query = "SELECT ?x (COUNT(?v) AS ?count) (SUM(?v) AS ?sum) (MIN(?v) AS ?min) (MAX(?v) AS ?max) "
+				+ "WHERE { ?x <" + VALUE + "> ?v } GROUP BY ?x";
+
+		assertPushedDown(query, true);
+
+		List<BindingSet> results = evaluate(query);
+		Assertions.assertEquals(ITEMS, results.size());
+		for (BindingSet bs : results) {
+			int i = Integer.parseInt(bs.getValue("x").stringValue().substring((NS + "item").length()));
+			Assertions.assertEquals(3, ((Literal) bs.getValue("count")).intValue());
+			Assertions.assertEquals(30 * i + 6, ((Literal) bs.getValue("sum")).intValue());
+			Assertions.assertEquals(10 * i + 1, ((Literal) bs.getValue("min")).intValue());
+			Assertions.assertEquals(10 * i + 3, ((Literal) bs.getValue("max")).intValue());
+		}
+
+		assertSameResults(query);
+	}
+
+	@Test
+	public void testPartialCountWithoutGroupBy() throws Exception {
+
+		prepareData();
+		String query = "SELECT (COUNT(*) AS ?count) WHERE { ?x <" + VALUE + "> ?v }";
+
+		assertPushedDown(query, true);
+
+		List<BindingSet> results = evaluate(query);
+		Assertions.assertEquals(1, results.size());
+		Assertions.assertEquals(3 * ITEMS, ((Literal) results.get(0).getValue("count")).intValue());
+	}
+
+	@Test
+	public void testSubSelectWithOrderAndLimit() throws Exception {
+
+		prepareData();
+		String query = "SELECT ?x ?label WHERE { { SELECT ?x WHERE { ?x <" + RANK
+				+ "> ?r } ORDER BY DESC(?r) LIMIT 3 } "
+				+ "?x <" + LABEL + "> ?label }";
+
+		assertPushedDown(query, false);
+
+		Set<String> labels = new HashSet<>();
+		for (BindingSet bs : evaluate(query)) {
+			labels.add(bs.getValue("label").stringValue());
+		}
+		Assertions.assertEquals(new HashSet<>(Arrays.asList("item 9", "item 8", "item 7")), labels);
+	}
+
+	@Test
+	public void testSubSelectWithGroupAndDistinct() throws Exception {
+
+		prepareData();
+		String query = "SELECT ?x ?count ?label WHERE { { SELECT DISTINCT ?x (COUNT(?r) AS ?count) WHERE { ?x <" + RANK
+				+ "> ?r } GROUP BY ?x } ?x <" + LABEL + "> ?label }";
+
+		assertPushedDown(query, false);
+
+		Assertions.assertEquals(ITEMS, evaluate(query).size());
+
+		assertSameResults(query);
+	}
+
+	@Test
+	public void testMediumQueries() throws Exception {
+
+		prepareTest(Arrays.asList("/tests/medium/data1.ttl", "/tests/medium/data2.ttl", "/tests/medium/data3.ttl",
+				"/tests/medium/data4.ttl"));
+		execute("/tests/medium/query01.rq", "/tests/medium/query01.srx", false, true);
+		execute("/tests/medium/query02.rq", "/tests/medium/query02.srx", false, true);
+	}
+
+	private void assertPushedDown(String query, boolean partialAggregates) {
+		String queryPlan = federationContext().getQueryManager().getQueryPlan(query);
+		Assertions.assertTrue(queryPlan.contains("RemoteSubQuery"), queryPlan);
+		Assertions.assertEquals(partialAggregates, queryPlan.contains("(partial aggregates)"), queryPlan);
+	}
+
+	private void assertSameResults(String query) {
+		Set<BindingSet> pushedDown = new HashSet<>(evaluate(query));
+		federationContext().getConfig().withEnableSubQueryPushdown(false);
+		try {
+			Assertions.assertEquals(new HashSet<>(evaluate(query)), pushedDown);
+		} finally {
+			federationContext().getConfig().withEnableSubQueryPushdown(true);
+		}
+	}
+
+	private List<BindingSet> evaluate(String query) {
+		try (RepositoryConnection conn = fedxRule.getRepository().getConnection()) {
+			return QueryResults.asList(conn.prepareTupleQuery(query).evaluate());
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.cache;
+
+import static org.eclipse.rdf4j.model.util.Values.iri;
+import static org.eclipse.rdf4j.model.util.Values.literal;
+
+import org.eclipse.rdf4j.federated.cache.EndpointSummary.PatternStatistics;
+import org.eclipse.rdf4j.federated.cache.SourceSelectionCache.StatementSourceAssurance;
+import org.eclipse.rdf4j.federated.structures.SubQuery;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EndpointSummaryTest {
+
+	private static final IRI ALICE = iri("http://example.org/alice");
+
+	private static final IRI BOB = iri("http://example.org/bob");
+
+	private EndpointSummary summary;
+
+	@BeforeEach
+	public void setUp() {
+		summary = new EndpointSummary.Builder()
+				.add(Statements.statement(ALICE, RDF.TYPE, FOAF.PERSON, null))
+				.add(Statements.statement(ALICE, FOAF.NAME, literal("Alice"), null))
+				.add(Statements.statement(ALICE, FOAF.KNOWS, BOB, null))
+				.build();
+	}
+
+	@Test
+	public void testGetAuthority() {
+		Assertions.assertEquals("http://example.org", EndpointSummary.getAuthority(ALICE));
+		Assertions.assertEquals("http://example.org", EndpointSummary.getAuthority(iri("http://example.org#a")));
+		Assertions.assertEquals("http://example.org", EndpointSummary.getAuthority(iri("http://example.org")));
+		Assertions.assertEquals("urn:", EndpointSummary.getAuthority(iri("urn:isbn:123")));
+	}
+
+	@Test
+	public void testPredicates() {
+		Assertions.assertEquals(StatementSourceAssurance.HAS_REMOTE_STATEMENTS,
+				summary.getAssurance(new SubQuery(null, FOAF.NAME, null)));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(null, FOAF.MBOX, null)));
+		Assertions.assertEquals(StatementSourceAssurance.HAS_REMOTE_STATEMENTS,
+				summary.getAssurance(new SubQuery(null, null, null)));
+	}
+
+	@Test
+	public void testClasses() {
+		Assertions.assertEquals(StatementSourceAssurance.HAS_REMOTE_STATEMENTS,
+				summary.getAssurance(new SubQuery(null, RDF.TYPE, FOAF.PERSON)));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(null, RDF.TYPE, FOAF.AGENT)));
+		Assertions.assertEquals(StatementSourceAssurance.POSSIBLY_HAS_STATEMENTS,
+				summary.getAssurance(new SubQuery(BOB, RDF.TYPE, FOAF.PERSON)));
+	}
+
+	@Test
+	public void testAuthorities() {
+		Assertions.assertEquals(StatementSourceAssurance.POSSIBLY_HAS_STATEMENTS,
+				summary.getAssurance(new SubQuery(BOB, FOAF.KNOWS, null)));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(iri("http://dbpedia.org/Bob"), FOAF.KNOWS, null)));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(null, FOAF.KNOWS, iri("http://dbpedia.org/Bob"))));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(iri("http://dbpedia.org/Bob"), null, null)));
+	}
+
+	@Test
+	public void testLiterals() {
+		Assertions.assertEquals(StatementSourceAssurance.POSSIBLY_HAS_STATEMENTS,
+				summary.getAssurance(new SubQuery(null, FOAF.NAME, literal("Bob"))));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(null, FOAF.KNOWS, literal("Bob"))));
+	}
+
+	@Test
+	public void testTooManyAuthorities() {
+		EndpointSummary.Builder builder = new EndpointSummary.Builder();
+		for (int i = 0; i <= EndpointSummary.MAX_AUTHORITIES; i++) {
+			builder.add(Statements.statement(iri("http://host" + i + ".org/s"), FOAF.KNOWS, BOB, null));
+		}
+		EndpointSummary summary = builder.build();
+
+		Assertions.assertEquals(StatementSourceAssurance.POSSIBLY_HAS_STATEMENTS,
+				summary.getAssurance(new SubQuery(iri("http://dbpedia.org/Bob"), FOAF.KNOWS, null)));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(null, FOAF.KNOWS, iri("http://dbpedia.org/Bob"))));
+	}
+
+	@Test
+	public void testNamedGraphs() {
+		IRI graph = Values.iri("http://example.org/graph");
+		Assertions.assertEquals(StatementSourceAssurance.POSSIBLY_HAS_STATEMENTS,
+				summary.getAssurance(new SubQuery(null, FOAF.NAME, null, graph)));
+		Assertions.assertEquals(StatementSourceAssurance.NONE,
+				summary.getAssurance(new SubQuery(null, FOAF.MBOX, null, graph)));
+	}
+
+	@Test
+	public void testStatistics() {
+		EndpointSummary summary = new EndpointSummary.Builder()
+				.add(Statements.statement(ALICE, RDF.TYPE, FOAF.PERSON, null))
+				.add(Statements.statement(BOB, RDF.TYPE, FOAF.PERSON, null))
+				.add(Statements.statement(ALICE, FOAF.KNOWS, BOB, null))
+				.add(Statements.statement(ALICE, FOAF.KNOWS, iri("http://example.org/carol"), null))
+				.add(Statements.statement(ALICE, FOAF.KNOWS, iri("http://example.org/dave"), null))
+				.add(Statements.statement(BOB, FOAF.KNOWS, ALICE, null))
+				.build();
+
+		PatternStatistics knows = summary.getStatistics(null, FOAF.KNOWS, null);
+		Assertions.assertEquals(4, knows.getTriples());
+		Assertions.assertEquals(2, knows.getDistinctSubjects());
+		Assertions.assertEquals(4, knows.getDistinctObjects());
+		Assertions.assertEquals(2, knows.estimate(true, false));
+		Assertions.assertEquals(1, knows.estimate(false, true));
+
+		Assertions.assertEquals(2, summary.getStatistics(ALICE, FOAF.KNOWS, null).getTriples());
+		Assertions.assertEquals(2, summary.getStatistics(null, RDF.TYPE, FOAF.PERSON).getTriples());
+		Assertions.assertEquals(1, summary.getStatistics(ALICE, RDF.TYPE, FOAF.PERSON).getTriples());
+		Assertions.assertEquals(0, summary.getStatistics(null, RDF.TYPE, FOAF.AGENT).getTriples());
+		Assertions.assertEquals(0, summary.getStatistics(null, FOAF.NAME, null).getTriples());
+		Assertions.assertEquals(6, summary.getStatistics(null, null, null).getTriples());
+		Assertions.assertNull(summary.getStatistics(ALICE, null, null));
+	}
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.cache;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.federated.SPARQLBaseTest;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringImpl.MonitoringInformation;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringService;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SubQueryResultCacheTest extends SPARQLBaseTest {
+
+	private static final String QUERY = "SELECT * WHERE { ?person <" + FOAF.NAME + "> ?name }";
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(c -> c.withEnableMonitoring(true).withSubQueryResultCacheSize(1024 * 1024));
+	}
+
+	@Test
+	public void testRepeatedQueryIsAnsweredFromCache() throws Exception {
+
+		// results are cached for SPARQL endpoints only
+		assumeSparqlEndpoint();
+
+		List<Endpoint> endpoints = prepareTest(
+				Arrays.asList("/tests/medium/data1.ttl", "/tests/medium/data2.ttl", "/tests/medium/data3.ttl",
+						"/tests/medium/data4.ttl"));
+
+		List<BindingSet> expected = evaluate();
+		Assertions.assertFalse(expected.isEmpty());
+
+		monitoring().resetMonitoringInformation();
+		// the order of the union of the endpoint results is not deterministic
+		Assertions.assertEquals(new HashSet<>(expected), new HashSet<>(evaluate()));
+		for (Endpoint endpoint : endpoints) {
+			MonitoringInformation m = monitoring().getMonitoringInformation(endpoint);
+			Assertions.assertTrue(m == null || m.getNumberOfRequests() == 0,
+					"Requests were sent to " + endpoint.getId());
+		}
+
+		// new data is only visible after invalidation
+		try (RepositoryConnection conn = getRepository(1).getConnection()) {
+			conn.add(Values.iri("http://example.org/newPerson"), FOAF.NAME, Values.literal("New"));
+		}
+		Assertions.assertEquals(expected.size(), evaluate().size());
+		federationContext().getSubQueryResultCache().invalidate(endpoints.get(0).getId());
+		Assertions.assertEquals(expected.size() + 1, evaluate().size());
+	}
+
+	@Test
+	public void testIncompleteResultIsNotCached() {
+		SubQueryResultCache cache = new SubQueryResultCache(1024 * 1024, 1, TimeUnit.MINUTES);
+		try (TupleQueryResult result = cache.cache("endpoint1", "SELECT * WHERE { ?s ?p ?o }", null, true, null,
+				result(3))) {
+			result.next();
+		}
+		Assertions.assertNull(cache.get("endpoint1", "SELECT * WHERE { ?s ?p ?o }", null, true, null));
+
+		QueryResults.asList(cache.cache("endpoint1", "SELECT * WHERE { ?s ?p ?o }", null, true, null, result(3)));
+		try (TupleQueryResult cached = cache.get("endpoint1", "SELECT * WHERE { ?s ?p ?o }", null, true, null)) {
+			Assertions.assertEquals(List.of("s"), cached.getBindingNames());
+			Assertions.assertEquals(QueryResults.asList(result(3)), QueryResults.asList(cached));
+		}
+	}
+
+	@Test
+	public void testCacheKey() {
+		SubQueryResultCache cache = new SubQueryResultCache(1024 * 1024, 1, TimeUnit.MINUTES);
+		MapBindingSet bindings = new MapBindingSet();
+		bindings.addBinding("a", FOAF.PERSON);
+		bindings.addBinding("b", FOAF.AGENT);
+		QueryResults.asList(cache.cache("endpoint1", "SELECT * WHERE {\n  ?s ?p \"a  b\" }", bindings, true, null,
+				result(1)));
+
+		MapBindingSet reordered = new MapBindingSet();
+		reordered.addBinding("b", FOAF.AGENT);
+		reordered.addBinding("a", FOAF.PERSON);
+		Assertions.assertNotNull(
+				cache.get("endpoint1", "SELECT * WHERE { ?s ?p \"a  b\" } ", reordered, true, null));
+		Assertions.assertNull(cache.get("endpoint1", "SELECT * WHERE { ?s ?p \"a b\" }", reordered, true, null));
+		Assertions.assertNull(cache.get("endpoint1", "SELECT * WHERE { ?s ?p \"a  b\" }", reordered, false, null));
+		Assertions.assertNull(cache.get("endpoint2", "SELECT * WHERE { ?s ?p \"a  b\" }", reordered, true, null));
+		Assertions.assertNull(cache.get("endpoint1", "SELECT * WHERE { ?s ?p \"a  b\" }", null, true, null));
+
+		cache.invalidate("endpoint1");
+		Assertions.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testLargeResultIsNotCached() {
+		SubQueryResultCache cache = new SubQueryResultCache(1024, 1, TimeUnit.MINUTES);
+		QueryResults.asList(cache.cache("endpoint1", "SELECT * WHERE { ?s ?p ?o }", null, true, null, result(1000)));
+		Assertions.assertEquals(0, cache.size());
+	}
+
+	private static TupleQueryResult result(int size) {
+		BindingSet[] bindingSets = new BindingSet[size];
+		for (int i = 0; i < size; i++) {
+			bindingSets[i] = new ListBindingSet(List.of("s"), Values.iri("http://example.org/s" + i));
+		}
+		return new IteratingTupleQueryResult(List.of("s"), Arrays.asList(bindingSets));
+	}
+
+	private List<BindingSet> evaluate() {
+		try (RepositoryConnection conn = fedxRule.getRepository().getConnection()) {
+			return QueryResults.asList(conn.prepareTupleQuery(QUERY).evaluate());
+		}
+	}
+
+	private MonitoringService monitoring() {
+		return (MonitoringService) federationContext().getMonitoringService();
+	}
+}
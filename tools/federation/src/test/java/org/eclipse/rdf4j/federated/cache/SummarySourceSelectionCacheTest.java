@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.cache;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.federated.SPARQLBaseTest;
+import org.eclipse.rdf4j.federated.cache.SourceSelectionCache.StatementSourceAssurance;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringImpl.MonitoringInformation;
+import org.eclipse.rdf4j.federated.monitoring.MonitoringService;
+import org.eclipse.rdf4j.federated.structures.SubQuery;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SummarySourceSelectionCacheTest extends SPARQLBaseTest {
+
+	@TempDir
+	static Path summaryDir;
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(c -> c.withEnableMonitoring(true)
+				.withSourceSelectionSummaryLocation(summaryFile().getPath()));
+	}
+
+	@Test
+	public void testSummaryReplacesAsk() throws Exception {
+
+		// just execute for one kind of test environment
+		assumeSparqlEndpoint();
+
+		List<Endpoint> endpoints = prepareTest(
+				Arrays.asList("/tests/basic/data01endpoint1.ttl", "/tests/basic/data01endpoint2.ttl"));
+		endpoints.forEach(cache()::updateSummary);
+		monitoring().resetMonitoringInformation();
+
+		String query = "SELECT * WHERE { ?person <" + FOAF.NAME + "> ?name }";
+		try (TupleQueryResult tqr = federationContext().getQueryManager().prepareTupleQuery(query).evaluate()) {
+			Assertions.assertEquals(2, Iterations.asList(tqr).size());
+		}
+
+		// no request for source selection, 1 for fetching data
+		Assertions.assertEquals(1, requestsForEndpoint(endpoints.get(0)));
+		Assertions.assertEquals(0, requestsForEndpoint(endpoints.get(1)));
+	}
+
+	@Test
+	public void testUndecidedPatternUsesAsk() throws Exception {
+
+		// just execute for one kind of test environment
+		assumeSparqlEndpoint();
+
+		List<Endpoint> endpoints = prepareTest(
+				Arrays.asList("/tests/basic/data01endpoint1.ttl", "/tests/basic/data01endpoint2.ttl"));
+		endpoints.forEach(cache()::updateSummary);
+		monitoring().resetMonitoringInformation();
+
+		String query = "SELECT * WHERE { <http://example.org/a> <" + FOAF.NAME + "> ?name }";
+		try (TupleQueryResult tqr = federationContext().getQueryManager().prepareTupleQuery(query).evaluate()) {
+			Assertions.assertEquals(1, Iterations.asList(tqr).size());
+		}
+
+		// the summary cannot decide for the subject: 1 request for source selection, 1 for fetching data
+		Assertions.assertEquals(2, requestsForEndpoint(endpoints.get(0)));
+		// the summary excludes the endpoint
+		Assertions.assertEquals(0, requestsForEndpoint(endpoints.get(1)));
+	}
+
+	@Test
+	public void testSummariesArePersisted() throws Exception {
+
+		// just execute for one kind of test environment
+		assumeSparqlEndpoint();
+
+		List<Endpoint> endpoints = prepareTest(
+				Arrays.asList("/tests/basic/data01endpoint1.ttl", "/tests/basic/data01endpoint2.ttl"));
+		endpoints.forEach(cache()::updateSummary);
+
+		SummarySourceSelectionCache loaded = new SummarySourceSelectionCache(new SourceSelectionMemoryCache(),
+				summaryFile());
+		for (Endpoint endpoint : endpoints) {
+			EndpointSummary expected = cache().getSummary(endpoint.getId());
+			EndpointSummary actual = loaded.getSummary(endpoint.getId());
+			Assertions.assertEquals(expected.getPredicates(), actual.getPredicates());
+			Assertions.assertEquals(expected.getClasses(), actual.getClasses());
+		}
+
+		SubQuery subQuery = new SubQuery(null, FOAF.NAME, null);
+		Assertions.assertEquals(StatementSourceAssurance.HAS_REMOTE_STATEMENTS,
+				loaded.getAssurance(subQuery, endpoints.get(0)));
+		Assertions.assertEquals(StatementSourceAssurance.NONE, loaded.getAssurance(subQuery, endpoints.get(1)));
+	}
+
+	private static File summaryFile() {
+		return summaryDir.resolve("summaries.ttl").toFile();
+	}
+
+	private SummarySourceSelectionCache cache() {
+		return (SummarySourceSelectionCache) federationContext().getSourceSelectionCache();
+	}
+
+	private int requestsForEndpoint(Endpoint endpoint) {
+		MonitoringInformation m = monitoring().getMonitoringInformation(endpoint);
+		return m == null ? 0 : m.getNumberOfRequests();
+	}
+
+	private MonitoringService monitoring() {
+		return (MonitoringService) federationContext().getMonitoringService();
+	}
+}
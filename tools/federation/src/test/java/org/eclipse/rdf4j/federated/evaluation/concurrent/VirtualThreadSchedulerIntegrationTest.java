@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.evaluation.concurrent;
+
+import java.util.Arrays;
+
+import org.eclipse.rdf4j.federated.SPARQLBaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadSchedulerIntegrationTest extends SPARQLBaseTest {
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(
+				c -> c.withEnableVirtualThreadScheduler(true).withMaxConcurrentRequestsPerEndpoint(2));
+	}
+
+	@Test
+	public void testSchedulers() {
+		Assertions.assertTrue(federationContext().getManager().getJoinScheduler() instanceof VirtualThreadScheduler);
+		Assertions.assertTrue(federationContext().getManager().getUnionScheduler() instanceof VirtualThreadScheduler);
+		Assertions
+				.assertTrue(federationContext().getManager().getLeftJoinScheduler() instanceof VirtualThreadScheduler);
+	}
+
+	@Test
+	public void testJoin() throws Exception {
+		prepareTest(Arrays.asList("/tests/basic/data01endpoint1.ttl", "/tests/basic/data01endpoint2.ttl"));
+		execute("/tests/basic/query01.rq", "/tests/basic/query01.srx", false, true);
+	}
+
+	@Test
+	public void testBoundJoin() throws Exception {
+		prepareTest(Arrays.asList("/tests/data/data1.ttl", "/tests/data/data2.ttl"));
+		execute("/tests/boundjoin/query01.rq", "/tests/boundjoin/query01.srx", false, true);
+	}
+
+	@Test
+	public void testUnion() throws Exception {
+		prepareTest(Arrays.asList("/tests/medium/data1.ttl", "/tests/medium/data2.ttl", "/tests/medium/data3.ttl",
+				"/tests/medium/data4.ttl"));
+		execute("/tests/medium/query04.rq", "/tests/medium/query04.srx", false, true);
+	}
+
+	@Test
+	public void testOptional() throws Exception {
+		prepareTest(Arrays.asList("/tests/medium/data1.ttl", "/tests/medium/data2.ttl", "/tests/medium/data3.ttl",
+				"/tests/medium/data4.ttl"));
+		execute("/tests/medium/query08.rq", "/tests/medium/query08.srx", false, true);
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.evaluation.concurrent;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.federated.structures.QueryInfo;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadSchedulerTest {
+
+	private ParallelExecutor<BindingSet> control;
+
+	private VirtualThreadScheduler<BindingSet> scheduler;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		control = mock(ParallelExecutor.class);
+		when(control.getQueryInfo()).thenReturn(mock(QueryInfo.class));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (scheduler != null) {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testLimitsConcurrentRequestsPerEndpoint() throws Exception {
+		scheduler = new VirtualThreadScheduler<>(3, "Test Scheduler");
+
+		Concurrency concurrency = run(20, i -> "endpoint1");
+
+		Assertions.assertTrue(concurrency.max.get() <= 3, "Too many concurrent tasks: " + concurrency.max.get());
+		Assertions.assertTrue(concurrency.max.get() > 1, "Tasks did not run concurrently");
+	}
+
+	@Test
+	public void testEndpointsAreLimitedIndependently() throws Exception {
+		scheduler = new VirtualThreadScheduler<>(1, "Test Scheduler");
+
+		Concurrency concurrency = run(10, i -> i % 2 == 0 ? "endpoint1" : "endpoint2");
+
+		Assertions.assertEquals(2, concurrency.max.get());
+	}
+
+	@Test
+	public void testTasksWithoutEndpointAreNotLimited() throws Exception {
+		scheduler = new VirtualThreadScheduler<>(1, "Test Scheduler");
+
+		Concurrency concurrency = run(10, i -> null);
+
+		Assertions.assertTrue(concurrency.max.get() > 1, "Tasks did not run concurrently");
+	}
+
+	@Test
+	public void testInvalidLimit() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new VirtualThreadScheduler<>(0, "Test"));
+	}
+
+	private Concurrency run(int nTasks, IntFunction<String> endpointIds) throws Exception {
+		Concurrency concurrency = new Concurrency(nTasks);
+		for (int i = 0; i < nTasks; i++) {
+			scheduler.schedule(new TestTask(endpointIds.apply(i), concurrency));
+		}
+		Assertions.assertTrue(concurrency.finished.await(10, TimeUnit.SECONDS));
+		return concurrency;
+	}
+
+	private static class Concurrency {
+
+		private final AtomicInteger current = new AtomicInteger();
+
+		private final AtomicInteger max = new AtomicInteger();
+
+		private final CountDownLatch finished;
+
+		Concurrency(int nTasks) {
+			this.finished = new CountDownLatch(nTasks);
+		}
+	}
+
+	private class TestTask extends ParallelTaskBase<BindingSet> {
+
+		private final String endpointId;
+
+		private final Concurrency concurrency;
+
+		TestTask(String endpointId, Concurrency concurrency) {
+			this.endpointId = endpointId;
+			this.concurrency = concurrency;
+		}
+
+		@Override
+		protected CloseableIteration<BindingSet, QueryEvaluationException> performTaskInternal() throws Exception {
+			int current = concurrency.current.incrementAndGet();
+			concurrency.max.accumulateAndGet(current, Math::max);
+			try {
+				Thread.sleep(50);
+			} finally {
+				concurrency.current.decrementAndGet();
+				concurrency.finished.countDown();
+			}
+			return new EmptyIteration<>();
+		}
+
+		@Override
+		public ParallelExecutor<BindingSet> getControl() {
+			return control;
+		}
+
+		@Override
+		public String getEndpointId() {
+			return endpointId;
+		}
+	}
+}
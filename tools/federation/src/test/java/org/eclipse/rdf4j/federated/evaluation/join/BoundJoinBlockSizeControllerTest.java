@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.evaluation.join;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.federated.evaluation.join.BoundJoinBlockSizeController.BlockSize;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BoundJoinBlockSizeControllerTest {
+
+	@Test
+	public void testGrowsWhileThroughputImproves() {
+		BlockSize blockSize = new BlockSize(10, 100);
+
+		// constant round trip time: larger blocks have a better throughput
+		int size = blockSize.get();
+		for (int i = 0; i < 5 * BoundJoinBlockSizeController.SAMPLES_PER_STEP; i++) {
+			blockSize.onSuccess(blockSize.get(), millis(50));
+		}
+		Assertions.assertTrue(blockSize.get() > size);
+
+		for (int i = 0; i < 100; i++) {
+			blockSize.onSuccess(blockSize.get(), millis(50));
+		}
+		Assertions.assertEquals(100, blockSize.get());
+	}
+
+	@Test
+	public void testFallsBackIfThroughputDoesNotImprove() {
+		BlockSize blockSize = new BlockSize(10, 100);
+
+		sample(blockSize, 10, 10);
+		Assertions.assertEquals(15, blockSize.get());
+
+		// the round trip time grows with the block size: no improvement
+		sample(blockSize, 15, 15);
+		Assertions.assertEquals(10, blockSize.get());
+	}
+
+	@Test
+	public void testShrinksOnFailure() {
+		BlockSize blockSize = new BlockSize(10, 100);
+
+		Assertions.assertEquals(5, blockSize.onFailure());
+		Assertions.assertEquals(2, blockSize.onFailure());
+		Assertions.assertEquals(1, blockSize.onFailure());
+		Assertions.assertEquals(-1, blockSize.onFailure());
+		Assertions.assertEquals(1, blockSize.get());
+	}
+
+	@Test
+	public void testShrinksOnLatencySpike() {
+		BlockSize blockSize = new BlockSize(10, 100);
+
+		blockSize.onSuccess(10, millis(10));
+		blockSize.onSuccess(10, millis(10));
+		Assertions.assertEquals(5, blockSize.onSuccess(10, millis(100)));
+	}
+
+	@Test
+	public void testIgnoresPartialBlocks() {
+		BlockSize blockSize = new BlockSize(10, 100);
+
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertEquals(-1, blockSize.onSuccess(3, millis(1000)));
+		}
+		Assertions.assertEquals(10, blockSize.get());
+	}
+
+	private static void sample(BlockSize blockSize, int nBindings, long roundTripMillis) {
+		for (int i = 0; i < BoundJoinBlockSizeController.SAMPLES_PER_STEP; i++) {
+			blockSize.onSuccess(nBindings, millis(roundTripMillis));
+		}
+	}
+
+	private static long millis(long millis) {
+		return TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.rdf4j.federated.FedXConfig;
+import org.eclipse.rdf4j.federated.SPARQLBaseTest;
+import org.eclipse.rdf4j.federated.endpoint.Endpoint;
+import org.eclipse.rdf4j.federated.structures.QueryType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class EndpointMetricsTest extends SPARQLBaseTest {
+
+	private static final String JMX_NAME = "EndpointMetricsTest";
+
+	@Override
+	protected void initFedXConfig() {
+		fedxRule.withConfiguration(c -> c.withEnableMonitoring(true).withMetricsJmxName(JMX_NAME));
+	}
+
+	@Test
+	public void testRequestMetrics() throws Exception {
+
+		// requests to local repositories are not monitored
+		assumeSparqlEndpoint();
+
+		List<Endpoint> endpoints = prepareTest(
+				Arrays.asList("/tests/medium/data1.ttl", "/tests/medium/data2.ttl", "/tests/medium/data3.ttl",
+						"/tests/medium/data4.ttl"));
+		monitoring().resetMonitoringInformation();
+
+		execute("/tests/medium/query01.rq", "/tests/medium/query01.srx", false, true);
+
+		long results = 0;
+		for (Endpoint endpoint : endpoints) {
+			EndpointMetrics metrics = registry().getEndpointMetrics(endpoint.getId());
+			Assertions.assertNotNull(metrics, "No metrics for " + endpoint.getId());
+			Assertions.assertTrue(metrics.getRequestCount() > 0);
+			Assertions.assertTrue(
+					metrics.getRequestCount() <= monitoring().getMonitoringInformation(endpoint).getNumberOfRequests());
+			Assertions.assertEquals(0, metrics.getFailedRequestCount());
+			Assertions.assertTrue(metrics.getLatencyMillisP99() > 0);
+			Assertions.assertTrue(metrics.getLatencyMillisP50() <= metrics.getLatencyMillisP99());
+			Assertions.assertEquals(metrics.getRequestCount(),
+					metrics.getRequestCountByType().values().stream().mapToLong(Long::longValue).sum());
+			results += metrics.getResultCount();
+		}
+		Assertions.assertTrue(results > 0);
+		Assertions.assertTrue(endpoints.stream()
+				.map(e -> registry().getEndpointMetrics(e.getId()).getLatency(QueryType.SELECT))
+				.anyMatch(h -> h != null && h.getCount() > 0));
+		Assertions.assertTrue(endpoints.stream()
+				.anyMatch(e -> !registry().getEndpointMetrics(e.getId()).getQueueWaitMillisP99ByScheduler().isEmpty()));
+
+		// the metrics are exposed through JMX
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		EndpointMetrics metrics = registry().getEndpointMetrics(endpoints.get(0).getId());
+		ObjectName name = EndpointMetricsRegistry.objectName(JMX_NAME, endpoints.get(0).getId());
+		Assertions.assertEquals(metrics.getRequestCount(), server.getAttribute(name, "RequestCount"));
+
+		monitoring().resetMonitoringInformation();
+		Assertions.assertEquals(0L, server.getAttribute(name, "RequestCount"));
+
+		registry().shutDown();
+		Assertions.assertFalse(server.isRegistered(name));
+	}
+
+	@Test
+	public void testCustomRegistry() {
+		CountingRegistry registry = new CountingRegistry();
+		MonitoringImpl monitoring = new MonitoringImpl(
+				new FedXConfig().withEnableMonitoring(true).withMetricsRegistry(registry));
+		Assertions.assertSame(registry, monitoring.getMetricsRegistry());
+
+		Endpoint endpoint = Mockito.mock(Endpoint.class);
+		Mockito.when(endpoint.getId()).thenReturn("endpoint1");
+		monitoring.monitorRequest(endpoint, QueryType.SELECT, 10, 3, false);
+		monitoring.monitorQueueWait("endpoint1", "Join Scheduler", 5);
+		Assertions.assertEquals(1, registry.requests);
+		Assertions.assertEquals(1, registry.queueWaits);
+	}
+
+	private EndpointMetricsRegistry registry() {
+		return (EndpointMetricsRegistry) monitoring().getMetricsRegistry();
+	}
+
+	private MonitoringService monitoring() {
+		return (MonitoringService) federationContext().getMonitoringService();
+	}
+
+	private static class CountingRegistry implements MetricsRegistry {
+
+		private int requests = 0;
+
+		private int queueWaits = 0;
+
+		@Override
+		public void recordRequest(String endpointId, QueryType queryType, long durationNanos, long results,
+				boolean failed) {
+			requests++;
+		}
+
+		@Override
+		public void recordQueueWait(String endpointId, String scheduler, long waitNanos) {
+			queueWaits++;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.federated.monitoring;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBuckets() {
+		long previousUpperBound = -1;
+		for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 100, 1000, 123_456_789, Long.MAX_VALUE / 3,
+				Long.MAX_VALUE }) {
+			int index = LatencyHistogram.bucketIndex(value);
+			long upperBound = LatencyHistogram.bucketUpperBound(index);
+			Assertions.assertTrue(upperBound >= value, value + " > " + upperBound);
+			Assertions.assertTrue(upperBound - value <= value / LatencyHistogram.SUB_BUCKETS,
+					"Bucket of " + value + " is too wide: " + upperBound);
+			Assertions.assertTrue(upperBound >= previousUpperBound);
+			previousUpperBound = upperBound;
+		}
+		// the bucket below each bucket ends right before it
+		for (int index = 1; index <= LatencyHistogram.bucketIndex(Long.MAX_VALUE); index++) {
+			Assertions.assertEquals(index,
+					LatencyHistogram.bucketIndex(LatencyHistogram.bucketUpperBound(index - 1) + 1));
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assertions.assertEquals(0, histogram.getPercentile(0.99));
+
+		IntStream.rangeClosed(1, 1000).parallel().forEach(histogram::record);
+		Assertions.assertEquals(1000, histogram.getCount());
+		Assertions.assertEquals(500_500, histogram.getSum());
+		Assertions.assertEquals(500.5, histogram.getMean(), 0.001);
+		Assertions.assertEquals(1000, histogram.getMax());
+		assertApproximately(500, histogram.getPercentile(0.5));
+		assertApproximately(990, histogram.getPercentile(0.99));
+		Assertions.assertEquals(1000, histogram.getPercentile(1));
+		Assertions.assertEquals(1, histogram.getPercentile(0));
+
+		histogram.reset();
+		Assertions.assertEquals(0, histogram.getCount());
+		Assertions.assertEquals(0, histogram.getMax());
+		Assertions.assertEquals(0, histogram.getPercentile(0.5));
+	}
+
+	@Test
+	public void testNegativeValue() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		Assertions.assertEquals(1, histogram.getCount());
+		Assertions.assertEquals(0, histogram.getPercentile(1));
+	}
+
+	private static void assertApproximately(long expected, long actual) {
+		Assertions.assertTrue(actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKETS,
+				"Expected about " + expected + " but was " + actual);
+	}
+}
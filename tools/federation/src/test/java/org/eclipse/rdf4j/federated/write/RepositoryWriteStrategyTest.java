@@ -14,9 +14,18 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.rdf4j.common.transaction.TransactionSetting;
+import org.eclipse.rdf4j.federated.cache.SubQueryResultCache;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -60,4 +69,16 @@ public class RepositoryWriteStrategyTest {
 
 	}
 
+	@Test
+	public void testWriteInvalidatesCachedResults() throws Exception {
+		SubQueryResultCache cache = new SubQueryResultCache(1024 * 1024, 1, TimeUnit.MINUTES);
+		QueryResults.asList(cache.cache("endpoint1", "SELECT * WHERE { ?s ?p ?o }", null, true, null,
+				new IteratingTupleQueryResult(List.of("s"), List.of(new ListBindingSet(List.of("s"), RDF.TYPE)))));
+		Assertions.assertEquals(1, cache.size());
+
+		RepositoryWriteStrategy writeStrategy = new RepositoryWriteStrategy(writeRepository, "endpoint1", cache);
+		writeStrategy.addStatement(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
+		verify(connection).add(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
+		Assertions.assertEquals(0, cache.size());
+	}
 }